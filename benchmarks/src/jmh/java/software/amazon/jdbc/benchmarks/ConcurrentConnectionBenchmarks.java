@@ -0,0 +1,149 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.benchmarks;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.jdbc.ConnectionPluginManager;
+import software.amazon.jdbc.ConnectionProvider;
+import software.amazon.jdbc.HostListProviderService;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.PluginManagerService;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.PropertyDefinition;
+import software.amazon.jdbc.benchmarks.testplugin.TestConnectionWrapper;
+import software.amazon.jdbc.dialect.Dialect;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.util.telemetry.DefaultTelemetryFactory;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+import software.amazon.jdbc.wrapper.ConnectionWrapper;
+
+/**
+ * Measures the throughput of statements executed by multiple threads sharing a single
+ * {@link ConnectionWrapper}, with and without {@link PropertyDefinition#CONCURRENT_CALLS}.
+ */
+@State(Scope.Benchmark)
+@Fork(3)
+@Threads(8)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentConnectionBenchmarks {
+
+  private static final String CONNECTION_STRING = "jdbc:postgresql://my.domain.com";
+  private static final String TEST_HOST = "instance-0";
+  private static final int TEST_PORT = 5432;
+
+  @Param({"false", "true"})
+  public String concurrentCalls;
+
+  private ConnectionWrapper connectionWrapper;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(ConcurrentConnectionBenchmarks.class.getSimpleName())
+        .detectJvmArgs()
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUpTrial() throws Exception {
+    // Stub-only mocks don't record invocations, so they can be shared by benchmark threads.
+    final Connection mockConnection = mock(Connection.class, withSettings().stubOnly());
+    final Statement mockStatement = mock(Statement.class, withSettings().stubOnly());
+    final ResultSet mockResultSet = mock(ResultSet.class, withSettings().stubOnly());
+    final Dialect mockDialect = mock(Dialect.class, withSettings().stubOnly());
+    final PluginService mockPluginService = mock(PluginService.class, withSettings().stubOnly());
+    final HostListProviderService mockHostListProviderService =
+        mock(HostListProviderService.class, withSettings().stubOnly());
+    final PluginManagerService mockPluginManagerService =
+        mock(PluginManagerService.class, withSettings().stubOnly());
+    final ConnectionProvider mockConnectionProvider = mock(ConnectionProvider.class, withSettings().stubOnly());
+    final ConnectionWrapper mockConnectionWrapper = mock(ConnectionWrapper.class, withSettings().stubOnly());
+
+    final Properties props = new Properties();
+    props.setProperty(PropertyDefinition.PLUGINS.name, "");
+    props.setProperty(PropertyDefinition.CONCURRENT_CALLS.name, this.concurrentCalls);
+    final TelemetryFactory telemetryFactory = new DefaultTelemetryFactory(props);
+    final HostSpec hostSpec = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+        .host(TEST_HOST).port(TEST_PORT).build();
+
+    when(mockConnection.createStatement()).thenReturn(mockStatement);
+    when(mockStatement.executeQuery(anyString())).thenReturn(mockResultSet);
+    when(mockStatement.getConnection()).thenReturn(mockConnection);
+    when(mockResultSet.getStatement()).thenReturn(mockStatement);
+    when(mockPluginService.getCurrentConnection()).thenReturn(mockConnection);
+    when(mockPluginService.getCurrentHostSpec()).thenReturn(hostSpec);
+    when(mockPluginService.getDialect()).thenReturn(mockDialect);
+    when(mockPluginService.getTelemetryFactory()).thenReturn(telemetryFactory);
+
+    final ConnectionPluginManager pluginManager = new ConnectionPluginManager(
+        mockConnectionProvider, null, mockConnectionWrapper, telemetryFactory);
+
+    this.connectionWrapper = new TestConnectionWrapper(
+        props,
+        CONNECTION_STRING,
+        pluginManager,
+        telemetryFactory,
+        mockPluginService,
+        mockHostListProviderService,
+        mockPluginManagerService);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownTrial() {
+    this.connectionWrapper.releaseResources();
+  }
+
+  @Benchmark
+  public ResultSet executeStatement() throws SQLException {
+    try (Statement statement = this.connectionWrapper.createStatement()) {
+      return statement.executeQuery("SELECT 1");
+    }
+  }
+}
@@ -87,6 +87,7 @@ public class ConnectionPluginManagerBenchmarks {
   private static final String WRITER_SESSION_ID = "MASTER_SESSION_ID";
   private static final String FIELD_SERVER_ID = "SERVER_ID";
   private static final String FIELD_SESSION_ID = "SESSION_ID";
+  private static final int PLUGIN_COUNT = 10;
   private Properties propertiesWithoutPlugins;
   private Properties propertiesWithPlugins;
   private ConnectionPluginManager pluginManager;
@@ -109,7 +110,7 @@ public class ConnectionPluginManagerBenchmarks {
 
   public static void main(String[] args) throws RunnerException {
     Options opt = new OptionsBuilder()
-        .include(software.amazon.jdbc.benchmarks.PluginBenchmarks.class.getSimpleName())
+        .include(ConnectionPluginManagerBenchmarks.class.getSimpleName())
         .addProfiler(GCProfiler.class)
         .detectJvmArgs()
         .build();
@@ -146,7 +147,7 @@ public class ConnectionPluginManagerBenchmarks {
 
     // Create a plugin chain with 10 custom test plugins.
     final List<Class<? extends ConnectionPluginFactory>> pluginFactories = new ArrayList<>(
-        Collections.nCopies(10, BenchmarkPluginFactory.class));
+        Collections.nCopies(PLUGIN_COUNT, BenchmarkPluginFactory.class));
 
     configurationProfile = ConfigurationProfileBuilder.get()
         .withName("benchmark")
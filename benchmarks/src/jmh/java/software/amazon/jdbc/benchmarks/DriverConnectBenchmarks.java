@@ -0,0 +1,168 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.benchmarks;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.jdbc.ConnectionPluginChainBuilder;
+import software.amazon.jdbc.Driver;
+import software.amazon.jdbc.PropertyDefinition;
+import software.amazon.jdbc.dialect.DialectCodes;
+import software.amazon.jdbc.dialect.DialectManager;
+import software.amazon.jdbc.util.PropertyUtils;
+
+/**
+ * Measures how many connections per second can be opened through {@link Driver#connect}, when target
+ * drivers, target driver dialects and plugin factories resolved by previous connects are reused,
+ * and when they are resolved again on every connect.
+ */
+@State(Scope.Benchmark)
+@Fork(3)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DriverConnectBenchmarks {
+
+  private static final String TARGET_PROTOCOL = "jdbc:benchmark:";
+  private static final String WRAPPER_URL = "jdbc:aws-wrapper:benchmark://my.domain.com:5432/db";
+
+  @Param({"true", "false"})
+  public boolean reuseResolvedSetup;
+
+  @Param({"", "dataCache,logQuery,executionTime"})
+  public String plugins;
+
+  private final BenchmarkTargetDriver targetDriver = new BenchmarkTargetDriver();
+  private java.sql.Driver wrapperDriver;
+  private Properties props;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(DriverConnectBenchmarks.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .detectJvmArgs()
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUpTrial() throws SQLException {
+    if (!Driver.isRegistered()) {
+      Driver.register();
+    }
+    DriverManager.registerDriver(this.targetDriver);
+    this.wrapperDriver = DriverManager.getDriver(WRAPPER_URL);
+
+    this.props = new Properties();
+    this.props.setProperty(PropertyDefinition.PLUGINS.name, this.plugins);
+    this.props.setProperty(DialectManager.DIALECT.name, DialectCodes.PG);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownTrial() throws SQLException {
+    DriverManager.deregisterDriver(this.targetDriver);
+    Driver.clearCaches();
+    ConnectionPluginChainBuilder.clearCache();
+  }
+
+  @Benchmark
+  public Connection connect() throws SQLException {
+    if (!this.reuseResolvedSetup) {
+      Driver.clearCaches();
+      ConnectionPluginChainBuilder.clearCache();
+    }
+    try (Connection connection = this.wrapperDriver.connect(WRAPPER_URL, PropertyUtils.copyProperties(this.props))) {
+      return connection;
+    }
+  }
+
+  /**
+   * A target driver returning stub connections, so that the benchmark measures the wrapper setup
+   * done on each connect rather than the cost of opening a database connection.
+   */
+  public static class BenchmarkTargetDriver implements java.sql.Driver {
+
+    private final Connection connection =
+        mock(Connection.class, withSettings().stubOnly().defaultAnswer(RETURNS_DEEP_STUBS));
+
+    @Override
+    public Connection connect(final String url, final Properties info) {
+      return acceptsURL(url) ? this.connection : null;
+    }
+
+    @Override
+    public boolean acceptsURL(final String url) {
+      return url != null && url.startsWith(TARGET_PROTOCOL);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+      return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+      return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+      return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+      return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      throw new SQLFeatureNotSupportedException();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.benchmarks;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.jdbc.util.TimingWheel;
+
+/**
+ * Measures one status check of a host monitor with many active monitoring contexts, where each
+ * check finds the contexts that reached their deadline and replaces them with new ones.
+ *
+ * <p>{@link #timingWheel()} keeps the contexts in a {@link TimingWheel}, as the monitors of the
+ * host monitoring plugins do. {@link #rescanQueue()} is the previous approach, kept as a baseline:
+ * every check polls all the contexts from a queue and adds them back.
+ */
+@State(Scope.Benchmark)
+@Fork(3)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MonitorContextTrackingBenchmarks {
+
+  private static final long TICK_NANO = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long CHECK_INTERVAL_NANO = TimeUnit.SECONDS.toNanos(1);
+  // Contexts live for 100 checks on average, so about 1% of them reach their deadline per check.
+  private static final long MAX_LIFETIME_NANO = 200 * CHECK_INTERVAL_NANO;
+
+  @Param({"10000"})
+  public int activeContexts;
+
+  private final Random random = new Random(42);
+  private TimingWheel<TrackedContext> wheel;
+  private Queue<TrackedContext> queue;
+  private long wheelTimeNano;
+  private long queueTimeNano;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(MonitorContextTrackingBenchmarks.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .detectJvmArgs()
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    this.wheel = new TimingWheel<>(TICK_NANO, 0);
+    this.queue = new ConcurrentLinkedQueue<>();
+    for (int i = 0; i < this.activeContexts; i++) {
+      final long deadlineNano = this.nextDeadlineNano(0);
+      this.wheel.add(deadlineNano, new TrackedContext(deadlineNano));
+      this.queue.add(new TrackedContext(deadlineNano));
+    }
+  }
+
+  @Benchmark
+  public int timingWheel() {
+    this.wheelTimeNano += CHECK_INTERVAL_NANO;
+    return this.wheel.advance(this.wheelTimeNano, this::replaceInWheel);
+  }
+
+  @Benchmark
+  public int rescanQueue() {
+    this.queueTimeNano += CHECK_INTERVAL_NANO;
+    int expiredCount = 0;
+    final Queue<TrackedContext> activeContexts = new ConcurrentLinkedQueue<>();
+    TrackedContext context;
+    while ((context = this.queue.poll()) != null) {
+      if (context.deadlineNano <= this.queueTimeNano) {
+        expiredCount++;
+        context = new TrackedContext(this.nextDeadlineNano(this.queueTimeNano));
+      }
+      activeContexts.add(context);
+    }
+    this.queue.addAll(activeContexts);
+    return expiredCount;
+  }
+
+  private void replaceInWheel(final TrackedContext context) {
+    final long deadlineNano = this.nextDeadlineNano(this.wheelTimeNano);
+    this.wheel.add(deadlineNano, new TrackedContext(deadlineNano));
+  }
+
+  private long nextDeadlineNano(final long currentTimeNano) {
+    return currentTimeNano + (long) (this.random.nextDouble() * MAX_LIFETIME_NANO);
+  }
+
+  private static class TrackedContext {
+
+    private final long deadlineNano;
+
+    private TrackedContext(final long deadlineNano) {
+      this.deadlineNano = deadlineNano;
+    }
+  }
+}
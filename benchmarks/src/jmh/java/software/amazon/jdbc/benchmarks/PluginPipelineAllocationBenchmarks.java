@@ -0,0 +1,214 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.jdbc.ConnectionPluginFactory;
+import software.amazon.jdbc.ConnectionPluginManager;
+import software.amazon.jdbc.ConnectionProvider;
+import software.amazon.jdbc.PluginManagerService;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.PropertyDefinition;
+import software.amazon.jdbc.benchmarks.testplugin.BenchmarkPluginFactory;
+import software.amazon.jdbc.profile.ConfigurationProfile;
+import software.amazon.jdbc.profile.ConfigurationProfileBuilder;
+import software.amazon.jdbc.util.telemetry.DefaultTelemetryFactory;
+import software.amazon.jdbc.util.telemetry.GaugeCallable;
+import software.amazon.jdbc.util.telemetry.TelemetryContext;
+import software.amazon.jdbc.util.telemetry.TelemetryCounter;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+import software.amazon.jdbc.util.telemetry.TelemetryGauge;
+import software.amazon.jdbc.wrapper.ConnectionWrapper;
+
+/**
+ * Measures the steady-state allocation of a single JDBC call through the plugin pipeline. The plugin
+ * managers are created and warmed up once per trial, so plugin chain construction is not part of the
+ * measured calls.
+ */
+@State(Scope.Benchmark)
+@Fork(3)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PluginPipelineAllocationBenchmarks {
+
+  private static final int PLUGIN_COUNT = 10;
+  // The maximum number of bytes a single plugin in the pipeline may add to an execute call.
+  private static final long MAX_ALLOCATED_BYTES_PER_PLUGIN = 128;
+  private ConnectionPluginManager pluginManager;
+  private ConnectionPluginManager pluginManagerWithNoPlugins;
+
+  @Mock ConnectionProvider mockConnectionProvider;
+  @Mock ConnectionWrapper mockConnectionWrapper;
+  @Mock PluginService mockPluginService;
+  @Mock PluginManagerService mockPluginManagerService;
+  @Mock TelemetryFactory mockTelemetryFactory;
+  @Mock Statement mockStatement;
+  @Mock TelemetryContext mockTelemetryContext;
+  @Mock TelemetryCounter mockTelemetryCounter;
+  @Mock TelemetryGauge mockTelemetryGauge;
+  private AutoCloseable closeable;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(PluginPipelineAllocationBenchmarks.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .detectJvmArgs()
+        .build();
+
+    final Collection<RunResult> results = new Runner(opt).run();
+    assertAllocationRate(results, "executeWithPlugins", "executeWithNoPlugins");
+  }
+
+  /**
+   * Verifies that the plugin pipeline does not allocate more than
+   * {@link #MAX_ALLOCATED_BYTES_PER_PLUGIN} bytes per plugin for a single JDBC call, compared to a
+   * plugin manager with no plugins.
+   */
+  private static void assertAllocationRate(
+      final Collection<RunResult> results, final String benchmark, final String baselineBenchmark) {
+    final double allocatedBytes = getNormalizedAllocationRate(results, benchmark);
+    final double baselineAllocatedBytes = getNormalizedAllocationRate(results, baselineBenchmark);
+    final double maxAllocatedBytes = baselineAllocatedBytes + PLUGIN_COUNT * MAX_ALLOCATED_BYTES_PER_PLUGIN;
+
+    if (allocatedBytes > maxAllocatedBytes) {
+      throw new IllegalStateException(String.format(
+          "Benchmark '%s' allocated %.1f bytes per operation, exceeding the limit of %.1f bytes per operation.",
+          benchmark, allocatedBytes, maxAllocatedBytes));
+    }
+  }
+
+  private static double getNormalizedAllocationRate(final Collection<RunResult> results, final String benchmark) {
+    for (final RunResult runResult : results) {
+      if (!runResult.getParams().getBenchmark().endsWith("." + benchmark)) {
+        continue;
+      }
+      for (final Map.Entry<String, Result> entry : runResult.getSecondaryResults().entrySet()) {
+        if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+          return entry.getValue().getScore();
+        }
+      }
+    }
+    throw new IllegalStateException(
+        String.format("No allocation rate has been recorded for benchmark '%s'.", benchmark));
+  }
+
+  @Setup(Level.Trial)
+  public void setUpTrial() throws Exception {
+    closeable = openMocks(this);
+
+    when(mockTelemetryFactory.openTelemetryContext(anyString(), any())).thenReturn(mockTelemetryContext);
+    when(mockTelemetryFactory.openTelemetryContext(eq(null), any())).thenReturn(mockTelemetryContext);
+    when(mockTelemetryFactory.createCounter(anyString())).thenReturn(mockTelemetryCounter);
+    when(mockTelemetryFactory.createGauge(anyString(), any(GaugeCallable.class))).thenReturn(mockTelemetryGauge);
+    when(mockPluginService.getTelemetryFactory()).thenReturn(mockTelemetryFactory);
+
+    final List<Class<? extends ConnectionPluginFactory>> pluginFactories = new ArrayList<>(
+        Collections.nCopies(PLUGIN_COUNT, BenchmarkPluginFactory.class));
+    final ConfigurationProfile configurationProfile = ConfigurationProfileBuilder.get()
+        .withName("allocationBenchmark")
+        .withPluginFactories(pluginFactories)
+        .build();
+
+    final Properties propertiesWithoutPlugins = new Properties();
+    propertiesWithoutPlugins.setProperty(PropertyDefinition.PLUGINS.name, "");
+
+    final Properties propertiesWithPlugins = new Properties();
+    propertiesWithPlugins.setProperty(PropertyDefinition.PROFILE_NAME.name, "allocationBenchmark");
+    propertiesWithPlugins.setProperty(PropertyDefinition.ENABLE_TELEMETRY.name, "false");
+
+    final TelemetryFactory telemetryFactory = new DefaultTelemetryFactory(propertiesWithPlugins);
+
+    pluginManager = new ConnectionPluginManager(mockConnectionProvider,
+        null,
+        mockConnectionWrapper,
+        telemetryFactory);
+    pluginManager.init(mockPluginService, propertiesWithPlugins, mockPluginManagerService, configurationProfile);
+
+    pluginManagerWithNoPlugins = new ConnectionPluginManager(mockConnectionProvider, null,
+        mockConnectionWrapper, telemetryFactory);
+    pluginManagerWithNoPlugins.init(mockPluginService, propertiesWithoutPlugins, mockPluginManagerService, null);
+
+    // Build the execute pipelines before measuring, so that only steady-state calls are measured.
+    executeWithPlugins();
+    executeWithNoPlugins();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownTrial() throws Exception {
+    closeable.close();
+  }
+
+  @Benchmark
+  public Integer executeWithPlugins() {
+    return pluginManager.execute(
+        int.class,
+        RuntimeException.class,
+        mockStatement,
+        "Statement.execute",
+        () -> 1,
+        new Object[] {1}
+    );
+  }
+
+  @Benchmark
+  public Integer executeWithNoPlugins() {
+    return pluginManagerWithNoPlugins.execute(
+        int.class,
+        RuntimeException.class,
+        mockStatement,
+        "Statement.execute",
+        () -> 1,
+        new Object[] {1}
+    );
+  }
+}
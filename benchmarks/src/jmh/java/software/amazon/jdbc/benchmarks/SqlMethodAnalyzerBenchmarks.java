@@ -0,0 +1,195 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.jdbc.util.SqlMethodAnalyzer;
+import software.amazon.jdbc.util.StringUtils;
+
+/**
+ * Compares {@link SqlMethodAnalyzer} against the previous regular expression based
+ * implementation, for SQL strings of different sizes.
+ */
+@State(Scope.Benchmark)
+@Fork(3)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SqlMethodAnalyzerBenchmarks {
+
+  private static final String METHOD_NAME = "Statement.executeQuery";
+
+  @Param({"100", "10000", "1000000"})
+  public int sqlLength;
+
+  private final SqlMethodAnalyzer sqlMethodAnalyzer = new SqlMethodAnalyzer();
+  private final RegexSqlMethodAnalyzer regexSqlMethodAnalyzer = new RegexSqlMethodAnalyzer();
+  private Connection connection;
+  private Object[] args;
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(SqlMethodAnalyzerBenchmarks.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .detectJvmArgs()
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUpTrial() throws SQLException {
+    this.connection = mock(Connection.class, withSettings().stubOnly());
+    when(this.connection.getAutoCommit()).thenReturn(false);
+
+    final StringBuilder sql = new StringBuilder("/* report query */ SELECT id, name FROM test_table WHERE id IN (");
+    int id = 0;
+    while (sql.length() < this.sqlLength) {
+      sql.append(id++).append(",   ");
+    }
+    sql.append(id).append(");");
+    this.args = new Object[] {sql.toString()};
+  }
+
+  @Benchmark
+  public boolean doesOpenTransaction() {
+    return this.sqlMethodAnalyzer.doesOpenTransaction(this.connection, METHOD_NAME, this.args);
+  }
+
+  @Benchmark
+  public boolean doesOpenTransactionWithRegex() {
+    return this.regexSqlMethodAnalyzer.doesOpenTransaction(this.connection, METHOD_NAME, this.args);
+  }
+
+  @Benchmark
+  public boolean isStatementSettingAutoCommit() {
+    return this.sqlMethodAnalyzer.isStatementSettingAutoCommit(METHOD_NAME, this.args);
+  }
+
+  @Benchmark
+  public boolean isStatementSettingAutoCommitWithRegex() {
+    return this.regexSqlMethodAnalyzer.isStatementSettingAutoCommit(METHOD_NAME, this.args);
+  }
+
+  /**
+   * The statement analysis previously used by {@link SqlMethodAnalyzer}, kept as a baseline.
+   */
+  private static class RegexSqlMethodAnalyzer {
+
+    public boolean doesOpenTransaction(final Connection conn, final String methodName, final Object[] args) {
+      if (!(methodName.contains("execute") && args != null && args.length >= 1)) {
+        return false;
+      }
+
+      final String statement = getFirstSqlStatement(String.valueOf(args[0]));
+      if (isStatementStartingTransaction(statement)) {
+        return true;
+      }
+
+      final boolean autocommit;
+      try {
+        autocommit = conn.getAutoCommit();
+      } catch (final SQLException e) {
+        return false;
+      }
+
+      return !autocommit && isStatementDml(statement);
+    }
+
+    public boolean isStatementSettingAutoCommit(final String methodName, final Object[] args) {
+      if (!(methodName.contains("execute") && args != null && args.length >= 1)) {
+        return false;
+      }
+
+      final String statement = getFirstSqlStatement(String.valueOf(args[0]));
+      return statement.startsWith("SET AUTOCOMMIT");
+    }
+
+    private boolean isStatementDml(final String statement) {
+      return !isStatementStartingTransaction(statement)
+          && !isStatementClosingTransaction(statement)
+          && !statement.startsWith("SET ")
+          && !statement.startsWith("USE ")
+          && !statement.startsWith("SHOW ");
+    }
+
+    private boolean isStatementStartingTransaction(final String statement) {
+      return statement.startsWith("BEGIN") || statement.startsWith("START TRANSACTION");
+    }
+
+    private boolean isStatementClosingTransaction(final String statement) {
+      return statement.startsWith("COMMIT")
+          || statement.startsWith("ROLLBACK")
+          || statement.startsWith("END")
+          || statement.startsWith("ABORT");
+    }
+
+    private String getFirstSqlStatement(final String sql) {
+      List<String> statementList = parseMultiStatementQueries(sql);
+      if (statementList.isEmpty()) {
+        return sql;
+      }
+      String statement = statementList.get(0);
+      statement = statement.toUpperCase();
+      statement = statement.replaceAll("\\s*/\\*(.*?)\\*/\\s*", " ").trim();
+      return statement;
+    }
+
+    private List<String> parseMultiStatementQueries(String query) {
+      if (StringUtils.isNullOrEmpty(query)) {
+        return Collections.singletonList("");
+      }
+
+      query = query.replaceAll("\\s+", " ");
+
+      // Check to see if string only has blank spaces.
+      if (query.trim().isEmpty()) {
+        return Collections.singletonList("");
+      }
+
+      return Arrays.stream(query.split(";")).collect(Collectors.toList());
+    }
+  }
+}
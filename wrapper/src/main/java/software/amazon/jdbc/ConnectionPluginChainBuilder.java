@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -111,6 +112,17 @@ public class ConnectionPluginChainBuilder {
 
   protected static final String DEFAULT_PLUGINS = "auroraConnectionTracker,failover,efm";
 
+  /*
+   Plugin factories resolved from plugin codes, keyed by the plugin codes string. Built-in plugin
+   factories are stateless, so a resolved (and sorted, if requested) factory chain is shared by all
+   connections using the same plugin codes. Only plugin instances are created on each connect.
+  */
+  private static final int MAX_CACHED_FACTORY_CHAINS = 64;
+  protected static final Map<String, ConnectionPluginFactory[]> sortedFactoriesByPluginCodes =
+      new ConcurrentHashMap<>();
+  protected static final Map<String, ConnectionPluginFactory[]> unsortedFactoriesByPluginCodes =
+      new ConcurrentHashMap<>();
+
   /*
    Internal class used for plugin factory sorting. It holds a reference to a plugin
    factory and an assigned weight.
@@ -134,11 +146,11 @@ public class ConnectionPluginChainBuilder {
       @Nullable ConfigurationProfile configurationProfile)
       throws SQLException {
 
-    List<ConnectionPlugin> plugins;
-    List<Class<? extends ConnectionPluginFactory>> pluginFactories;
+    final ConnectionPluginFactory[] factories;
 
     if (configurationProfile != null && configurationProfile.getPluginFactories() != null) {
-      pluginFactories = configurationProfile.getPluginFactories();
+      // Profiles may provide custom plugin factories, so they aren't shared between connections.
+      factories = this.loadPluginFactories(configurationProfile.getPluginFactories(), props);
     } else {
 
       String pluginCodes = PropertyDefinition.PLUGINS.getString(props);
@@ -147,54 +159,41 @@ public class ConnectionPluginChainBuilder {
         pluginCodes = DEFAULT_PLUGINS;
       }
 
-      final List<String> pluginCodeList = StringUtils.split(pluginCodes, ",", true);
-      pluginFactories = new ArrayList<>(pluginCodeList.size());
+      final Map<String, ConnectionPluginFactory[]> cachedFactories =
+          PropertyDefinition.AUTO_SORT_PLUGIN_ORDER.getBoolean(props)
+              ? sortedFactoriesByPluginCodes
+              : unsortedFactoriesByPluginCodes;
+
+      ConnectionPluginFactory[] resolvedFactories = cachedFactories.get(pluginCodes);
+      if (resolvedFactories == null) {
+        final List<String> pluginCodeList = StringUtils.split(pluginCodes, ",", true);
+        final List<Class<? extends ConnectionPluginFactory>> pluginFactories =
+            new ArrayList<>(pluginCodeList.size());
+
+        for (final String pluginCode : pluginCodeList) {
+          if (!pluginFactoriesByCode.containsKey(pluginCode)) {
+            throw new SQLException(
+                Messages.get(
+                    "ConnectionPluginManager.unknownPluginCode",
+                    new Object[] {pluginCode}));
+          }
+          pluginFactories.add(pluginFactoriesByCode.get(pluginCode));
+        }
 
-      for (final String pluginCode : pluginCodeList) {
-        if (!pluginFactoriesByCode.containsKey(pluginCode)) {
-          throw new SQLException(
-              Messages.get(
-                  "ConnectionPluginManager.unknownPluginCode",
-                  new Object[] {pluginCode}));
+        resolvedFactories = this.loadPluginFactories(pluginFactories, props);
+        if (cachedFactories.size() >= MAX_CACHED_FACTORY_CHAINS) {
+          cachedFactories.clear();
         }
-        pluginFactories.add(pluginFactoriesByCode.get(pluginCode));
+        cachedFactories.put(pluginCodes, resolvedFactories);
       }
+      factories = resolvedFactories;
     }
 
-    if (!pluginFactories.isEmpty()) {
-
-      if (PropertyDefinition.AUTO_SORT_PLUGIN_ORDER.getBoolean(props)) {
-        pluginFactories = this.sortPluginFactories(pluginFactories);
-
-        final List<Class<? extends ConnectionPluginFactory>> tempPluginFactories = pluginFactories;
-        LOGGER.finest(() ->
-            "Plugins order has been rearranged. The following order is in effect: "
-                + tempPluginFactories.stream()
-                  .map(Class::getSimpleName)
-                  .collect(Collectors.joining(", ")));
-      }
-
-      try {
-        final ConnectionPluginFactory[] factories =
-            WrapperUtils.loadClasses(
-                    pluginFactories,
-                    ConnectionPluginFactory.class,
-                    "ConnectionPluginManager.unableToLoadPlugin")
-                .toArray(new ConnectionPluginFactory[0]);
-
-        // make a chain of connection plugins
+    // make a chain of connection plugins
+    final List<ConnectionPlugin> plugins = new ArrayList<>(factories.length + 1);
 
-        plugins = new ArrayList<>(factories.length + 1);
-
-        for (final ConnectionPluginFactory factory : factories) {
-          plugins.add(factory.getInstance(pluginService, props));
-        }
-
-      } catch (final InstantiationException instEx) {
-        throw new SQLException(instEx.getMessage(), SqlState.UNKNOWN_STATE.getState(), instEx);
-      }
-    } else {
-      plugins = new ArrayList<>(1); // one spot for default connection plugin
+    for (final ConnectionPluginFactory factory : factories) {
+      plugins.add(factory.getInstance(pluginService, props));
     }
 
     // add default connection plugin to the tail
@@ -209,6 +208,44 @@ public class ConnectionPluginChainBuilder {
     return plugins;
   }
 
+  private ConnectionPluginFactory[] loadPluginFactories(
+      List<Class<? extends ConnectionPluginFactory>> pluginFactories,
+      final Properties props) throws SQLException {
+
+    if (pluginFactories.isEmpty()) {
+      return new ConnectionPluginFactory[0];
+    }
+
+    if (PropertyDefinition.AUTO_SORT_PLUGIN_ORDER.getBoolean(props)) {
+      pluginFactories = this.sortPluginFactories(pluginFactories);
+
+      final List<Class<? extends ConnectionPluginFactory>> tempPluginFactories = pluginFactories;
+      LOGGER.finest(() ->
+          "Plugins order has been rearranged. The following order is in effect: "
+              + tempPluginFactories.stream()
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ")));
+    }
+
+    try {
+      return WrapperUtils.loadClasses(
+              pluginFactories,
+              ConnectionPluginFactory.class,
+              "ConnectionPluginManager.unableToLoadPlugin")
+          .toArray(new ConnectionPluginFactory[0]);
+    } catch (final InstantiationException instEx) {
+      throw new SQLException(instEx.getMessage(), SqlState.UNKNOWN_STATE.getState(), instEx);
+    }
+  }
+
+  /**
+   * Clears plugin factory chains resolved by previous connects.
+   */
+  public static void clearCache() {
+    sortedFactoriesByPluginCodes.clear();
+    unsortedFactoriesByPluginCodes.clear();
+  }
+
   protected List<Class<? extends ConnectionPluginFactory>> sortPluginFactories(
       final List<Class<? extends ConnectionPluginFactory>> unsortedPluginFactories) {
 
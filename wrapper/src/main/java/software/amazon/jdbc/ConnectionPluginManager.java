@@ -26,6 +26,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -58,7 +60,8 @@ import software.amazon.jdbc.wrapper.ConnectionWrapper;
  * This class creates and handles a chain of {@link ConnectionPlugin} for each connection.
  *
  * <p>THIS CLASS IS NOT MULTI-THREADING SAFE IT'S EXPECTED TO HAVE ONE INSTANCE OF THIS MANAGER PER
- * JDBC CONNECTION
+ * JDBC CONNECTION. JDBC calls are serialized with {@link #lock()} unless
+ * {@link PropertyDefinition#CONCURRENT_CALLS} is enabled.
  */
 @SuppressWarnings("deprecation")
 public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
@@ -93,9 +96,18 @@ public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
   private static final String INIT_HOST_PROVIDER_METHOD = "initHostProvider";
   private static final String NOTIFY_CONNECTION_CHANGED_METHOD = "notifyConnectionChanged";
   private static final String NOTIFY_NODE_LIST_CHANGED_METHOD = "notifyNodeListChanged";
+  private static final String RESULT_SET_METHOD_PREFIX = "ResultSet.";
   private static final SqlMethodAnalyzer sqlMethodAnalyzer = new SqlMethodAnalyzer();
   private final ReentrantLock lock = new ReentrantLock();
 
+  // Used if concurrent calls are enabled. A connection switch holds the switch lock and waits until
+  // the number of active calls from other threads drops to zero.
+  private final ReentrantLock switchLock = new ReentrantLock();
+  private final Object callsDrainedMonitor = new Object();
+  private final AtomicInteger activeCalls = new AtomicInteger();
+  private final ThreadLocal<CallState> callState = ThreadLocal.withInitial(CallState::new);
+  private volatile boolean isSwitchInProgress;
+
   protected Properties props = new Properties();
   protected List<ConnectionPlugin> plugins;
   protected final @NonNull ConnectionProvider defaultConnProvider;
@@ -104,8 +116,11 @@ public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
   protected PluginService pluginService;
   protected TelemetryFactory telemetryFactory;
 
-  @SuppressWarnings("rawtypes")
-  protected final Map<String, PluginChainJdbcCallable> pluginChainFuncMap = new HashMap<>();
+  protected final Map<String, PluginChain> pluginChainMap = new ConcurrentHashMap<>();
+  protected boolean isConcurrentCallsEnabled;
+
+  private boolean isResultSetPassthrough;
+  private volatile @Nullable List<ConnectionPlugin> resultSetPassthroughPlugins;
 
   public ConnectionPluginManager(
       final @NonNull ConnectionProvider defaultConnProvider,
@@ -151,12 +166,132 @@ public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
     this.telemetryFactory = telemetryFactory;
   }
 
+  /**
+   * Acquires the lock guarding a JDBC call. By default, all JDBC calls against the same connection
+   * are serialized. If {@link PropertyDefinition#CONCURRENT_CALLS} is enabled, JDBC calls do not
+   * exclude each other. They are counted as active calls instead, so that a connection switch can
+   * wait for them to complete, and they wait for an in-progress connection switch to complete.
+   */
   public void lock() {
-    lock.lock();
+    if (!this.isConcurrentCallsEnabled) {
+      lock.lock();
+      return;
+    }
+
+    final CallState state = this.callState.get();
+    if (state.depth++ > 0) {
+      // Nested call on the same thread. The outermost call is already accounted for.
+      return;
+    }
+    if (!switchLock.isHeldByCurrentThread()) {
+      this.enterCall(state);
+    }
   }
 
   public void unlock() {
-    lock.unlock();
+    if (!this.isConcurrentCallsEnabled) {
+      lock.unlock();
+      return;
+    }
+
+    final CallState state = this.callState.get();
+    if (--state.depth > 0) {
+      return;
+    }
+    // Don't keep the call state on pooled application threads once the outermost call completes.
+    this.callState.remove();
+    if (state.isCounted) {
+      this.exitCall();
+    }
+  }
+
+  /**
+   * Acquires the exclusive lock guarding a connection switch. This lock is only taken if
+   * {@link PropertyDefinition#CONCURRENT_CALLS} is enabled, since otherwise the connection switch
+   * is already serialized with every other JDBC call. The lock waits until JDBC calls in progress on
+   * other threads complete. A JDBC call in progress on the current thread, for example the call that
+   * triggered failover, doesn't prevent the switch. Callers must not hold other locks that a JDBC call
+   * in progress on another thread may wait for, since that call is only uncounted once its thread
+   * reaches this method.
+   */
+  public void lockConnectionSwitch() {
+    if (!this.isConcurrentCallsEnabled) {
+      return;
+    }
+
+    final CallState state = this.callState.get();
+    if (state.isCounted) {
+      // Stop counting the current call while switching. Otherwise, two threads switching the
+      // connection at the same time would wait for each other.
+      state.isCounted = false;
+      this.exitCall();
+    }
+
+    switchLock.lock();
+    if (switchLock.getHoldCount() == 1) {
+      this.isSwitchInProgress = true;
+      this.awaitActiveCallsDrained();
+    }
+  }
+
+  public void unlockConnectionSwitch() {
+    if (!this.isConcurrentCallsEnabled) {
+      return;
+    }
+
+    if (switchLock.getHoldCount() == 1) {
+      this.isSwitchInProgress = false;
+    }
+    switchLock.unlock();
+
+    if (switchLock.isHeldByCurrentThread()) {
+      return;
+    }
+    final CallState state = this.callState.get();
+    if (state.depth == 0) {
+      this.callState.remove();
+    } else if (!state.isCounted) {
+      // The current thread is still inside a JDBC call, so it's counted as active again.
+      this.enterCall(state);
+    }
+  }
+
+  private void enterCall(final CallState state) {
+    while (true) {
+      activeCalls.incrementAndGet();
+      if (!this.isSwitchInProgress) {
+        state.isCounted = true;
+        return;
+      }
+      // A connection switch is in progress. Step back and wait for it to complete.
+      this.exitCall();
+      switchLock.lock();
+      switchLock.unlock();
+    }
+  }
+
+  private void exitCall() {
+    if (activeCalls.decrementAndGet() == 0 && this.isSwitchInProgress) {
+      synchronized (callsDrainedMonitor) {
+        callsDrainedMonitor.notifyAll();
+      }
+    }
+  }
+
+  private void awaitActiveCallsDrained() {
+    boolean isInterrupted = false;
+    synchronized (callsDrainedMonitor) {
+      while (activeCalls.get() > 0) {
+        try {
+          callsDrainedMonitor.wait();
+        } catch (final InterruptedException ex) {
+          isInterrupted = true;
+        }
+      }
+    }
+    if (isInterrupted) {
+      Thread.currentThread().interrupt();
+    }
   }
 
   /**
@@ -183,6 +318,7 @@ public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
     this.props = props;
     this.pluginService = pluginService;
     this.telemetryFactory = pluginService.getTelemetryFactory();
+    this.isConcurrentCallsEnabled = PropertyDefinition.CONCURRENT_CALLS.getBoolean(props);
 
     ConnectionPluginChainBuilder pluginChainBuilder = new ConnectionPluginChainBuilder();
     this.plugins = pluginChainBuilder.getPlugins(
@@ -208,62 +344,64 @@ public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
       throw new IllegalArgumentException("jdbcMethodFunc");
     }
 
-    // noinspection unchecked
-    PluginChainJdbcCallable<T, E> pluginChainFunc = this.pluginChainFuncMap.get(methodName);
-
-    if (pluginChainFunc == null) {
-      pluginChainFunc = this.makePluginChainFunc(methodName);
-      this.pluginChainFuncMap.put(methodName, pluginChainFunc);
-    }
+    PluginChain pluginChain = this.pluginChainMap.get(methodName);
 
-    if (pluginChainFunc == null) {
-      throw new RuntimeException("Error processing this JDBC call.");
+    if (pluginChain == null) {
+      pluginChain = this.makePluginChain(methodName);
+      if (pluginChain == null) {
+        throw new RuntimeException("Error processing this JDBC call.");
+      }
+      this.pluginChainMap.put(methodName, pluginChain);
     }
 
-    return pluginChainFunc.call(pluginPipeline, jdbcMethodFunc);
+    return executePluginChain(pluginChain, 0, pluginPipeline, jdbcMethodFunc);
   }
 
+  private <T, E extends Exception> T executePluginChain(
+      final @NonNull PluginChain pluginChain,
+      final int pluginIndex,
+      final @NonNull PluginPipeline<T, E> pluginPipeline,
+      final @NonNull JdbcCallable<T, E> jdbcMethodFunc) throws E {
 
-  protected <T, E extends Exception> T executeWithTelemetry(
-      final @NonNull JdbcCallable<T, E> execution,
-      final @NonNull String pluginName) throws E {
     final TelemetryContext context = telemetryFactory.openTelemetryContext(
-        pluginName, TelemetryTraceLevel.NESTED);
+        pluginChain.pluginNames[pluginIndex], TelemetryTraceLevel.NESTED);
     try {
-      return execution.call();
+      final ConnectionPlugin plugin = pluginChain.plugins[pluginIndex];
+      if (pluginIndex == pluginChain.plugins.length - 1) {
+        return pluginPipeline.call(plugin, jdbcMethodFunc);
+      }
+      return pluginPipeline.call(
+          plugin, () -> executePluginChain(pluginChain, pluginIndex + 1, pluginPipeline, jdbcMethodFunc));
     } finally {
       context.closeContext();
     }
   }
 
-  @Nullable
-  protected <T, E extends Exception> PluginChainJdbcCallable<T, E> makePluginChainFunc(
-      final @NonNull String methodName) {
+  protected @Nullable PluginChain makePluginChain(final @NonNull String methodName) {
 
-    PluginChainJdbcCallable<T, E> pluginChainFunc = null;
+    final List<ConnectionPlugin> subscribedPlugins = new ArrayList<>();
+    final List<String> subscribedPluginNames = new ArrayList<>();
 
-    for (int i = this.plugins.size() - 1; i >= 0; i--) {
-      final ConnectionPlugin plugin = this.plugins.get(i);
+    for (final ConnectionPlugin plugin : this.plugins) {
       final Set<String> pluginSubscribedMethods = plugin.getSubscribedMethods();
-      final String pluginName = pluginNameByClass.getOrDefault(plugin.getClass(), plugin.getClass().getSimpleName());
       final boolean isSubscribed =
           pluginSubscribedMethods.contains(ALL_METHODS)
               || pluginSubscribedMethods.contains(methodName);
 
       if (isSubscribed) {
-        if (pluginChainFunc == null) {
-          pluginChainFunc = (pipelineFunc, jdbcFunc) ->
-              executeWithTelemetry(() -> pipelineFunc.call(plugin, jdbcFunc), pluginName);
-        } else {
-          final PluginChainJdbcCallable<T, E> finalPluginChainFunc = pluginChainFunc;
-          pluginChainFunc = (pipelineFunc, jdbcFunc) ->
-              executeWithTelemetry(() -> pipelineFunc.call(
-                  plugin, () -> finalPluginChainFunc.call(pipelineFunc, jdbcFunc)),
-                  pluginName);
-        }
+        subscribedPlugins.add(plugin);
+        subscribedPluginNames.add(
+            pluginNameByClass.getOrDefault(plugin.getClass(), plugin.getClass().getSimpleName()));
       }
     }
-    return pluginChainFunc;
+
+    if (subscribedPlugins.isEmpty()) {
+      return null;
+    }
+
+    return new PluginChain(
+        subscribedPlugins.toArray(new ConnectionPlugin[0]),
+        subscribedPluginNames.toArray(new String[0]));
   }
 
   protected <E extends Exception> void notifySubscribedPlugins(
@@ -291,6 +429,48 @@ public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
     }
   }
 
+  /**
+   * Returns true if no plugin other than {@link DefaultConnectionPlugin} is subscribed to ResultSet
+   * methods. In that case ResultSet calls can be forwarded to the target driver directly, since
+   * {@link DefaultConnectionPlugin} performs no additional processing for them. The result is
+   * evaluated once per plugin chain and re-evaluated if the plugin chain changes.
+   *
+   * @return true if ResultSet calls can bypass the plugin pipeline
+   */
+  public boolean isResultSetPassthrough() {
+    final List<ConnectionPlugin> currentPlugins = this.plugins;
+    if (currentPlugins == null) {
+      return false;
+    }
+
+    if (currentPlugins != this.resultSetPassthroughPlugins) {
+      this.isResultSetPassthrough = !isAnyPluginSubscribedToMethodGroup(currentPlugins, RESULT_SET_METHOD_PREFIX);
+      this.resultSetPassthroughPlugins = currentPlugins;
+    }
+    return this.isResultSetPassthrough;
+  }
+
+  protected boolean isAnyPluginSubscribedToMethodGroup(
+      final @NonNull List<ConnectionPlugin> plugins,
+      final @NonNull String methodPrefix) {
+
+    for (final ConnectionPlugin plugin : plugins) {
+      if (plugin instanceof DefaultConnectionPlugin) {
+        continue;
+      }
+      for (final String subscribedMethod : plugin.getSubscribedMethods()) {
+        if (ALL_METHODS.equals(subscribedMethod) || subscribedMethod.startsWith(methodPrefix)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  public @Nullable Connection getCurrentConnection() {
+    return this.pluginService == null ? null : this.pluginService.getCurrentConnection();
+  }
+
   public ConnectionWrapper getConnectionWrapper() {
     return this.connectionWrapper;
   }
@@ -605,8 +785,26 @@ public class ConnectionPluginManager implements CanReleaseResources, Wrapper {
     T call(final @NonNull ConnectionPlugin plugin, final @Nullable JdbcCallable<T, E> jdbcMethodFunc) throws E;
   }
 
-  private interface PluginChainJdbcCallable<T, E extends Exception> {
+  /**
+   * A precompiled pipeline for a single JDBC method. It holds the plugins subscribed to the method
+   * in invocation order, so a call walks the pipeline by index rather than through a chain of
+   * nested lambdas.
+   */
+  protected static final class PluginChain {
+
+    private final ConnectionPlugin[] plugins;
+    private final String[] pluginNames;
+
+    PluginChain(final @NonNull ConnectionPlugin[] plugins, final @NonNull String[] pluginNames) {
+      this.plugins = plugins;
+      this.pluginNames = pluginNames;
+    }
+  }
 
-    T call(final @NonNull PluginPipeline<T, E> pipelineFunc, final @NonNull JdbcCallable<T, E> jdbcMethodFunc) throws E;
+  private static class CallState {
+    // Number of nested JDBC calls in progress on the thread.
+    int depth;
+    // Whether the calls in progress on the thread are included in the active call count.
+    boolean isCounted;
   }
 }
@@ -18,7 +18,9 @@ package software.amazon.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -170,6 +172,29 @@ public class ConnectionProviderManager {
     return host;
   }
 
+  /**
+   * Notifies the non-default {@link ConnectionProvider} that the cluster topology has changed if it
+   * has been set and maintains connection pools. See
+   * {@link PooledConnectionProvider#notifyNodeListChanged} for more info.
+   *
+   * @param hosts   the hosts in the current cluster topology
+   * @param changes the changes of each host, keyed by host URL
+   * @param props   the connection properties
+   */
+  public void notifyNodeListChanged(
+      List<HostSpec> hosts, Map<String, EnumSet<NodeChangeOptions>> changes, Properties props) {
+    if (connProvider != null) {
+      connProviderLock.readLock().lock();
+      try {
+        if (connProvider instanceof PooledConnectionProvider) {
+          ((PooledConnectionProvider) connProvider).notifyNodeListChanged(hosts, changes, props);
+        }
+      } finally {
+        connProviderLock.readLock().unlock();
+      }
+    }
+  }
+
   /**
    * Clears the non-default {@link ConnectionProvider} if it has been set. The default
    * ConnectionProvider will be used if the non-default ConnectionProvider has not been set or has
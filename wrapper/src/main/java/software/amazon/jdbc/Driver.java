@@ -24,7 +24,9 @@ import java.sql.SQLFeatureNotSupportedException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -58,6 +60,12 @@ public class Driver implements java.sql.Driver {
   private static ResetSessionStateOnCloseCallable resetSessionStateOnCloseCallable = null;
   private static TransferSessionStateOnSwitchCallable transferSessionStateOnSwitchCallable = null;
 
+  // Resolved target drivers and target driver dialects, keyed by driver url (without url parameters)
+  // and target driver dialect code. Resolving them requires scanning all drivers registered
+  // with DriverManager, so it's done once per url rather than on every connect.
+  private static final int MAX_TARGET_DRIVER_RECIPES = 256;
+  private static final Map<String, TargetDriverRecipe> targetDriverRecipes = new ConcurrentHashMap<>();
+
   static {
     try {
       register();
@@ -132,6 +140,8 @@ public class Driver implements java.sql.Driver {
       }
     }
 
+    EndpointMetadataSnapshot.init(props);
+
     TelemetryFactory telemetryFactory = new DefaultTelemetryFactory(props);
     TelemetryContext context = telemetryFactory.openTelemetryContext(
         "software.amazon.jdbc.Driver.connect", TelemetryTraceLevel.TOP_LEVEL);
@@ -139,8 +149,8 @@ public class Driver implements java.sql.Driver {
     try {
       final String driverUrl = url.replaceFirst(PROTOCOL_PREFIX, "jdbc:");
 
-      TargetDriverHelper helper = new TargetDriverHelper();
-      java.sql.Driver driver = helper.getTargetDriver(driverUrl, props);
+      final TargetDriverRecipe targetDriverRecipe = getTargetDriverRecipe(driverUrl, props);
+      final java.sql.Driver driver = targetDriverRecipe.driver;
 
       final String logLevelStr = PropertyDefinition.LOGGER_LEVEL.getString(props);
       if (!StringUtils.isNullOrEmpty(logLevelStr)) {
@@ -162,8 +172,7 @@ public class Driver implements java.sql.Driver {
           : configurationProfile.getTargetDriverDialect();
 
       if (targetDriverDialect == null) {
-        final TargetDriverDialectManager targetDriverDialectManager = new TargetDriverDialectManager();
-        targetDriverDialect = targetDriverDialectManager.getDialect(driver, props);
+        targetDriverDialect = targetDriverRecipe.targetDriverDialect;
       }
 
       final ConnectionProvider defaultConnectionProvider = new DriverConnectionProvider(driver);
@@ -191,6 +200,39 @@ public class Driver implements java.sql.Driver {
     }
   }
 
+  private static TargetDriverRecipe getTargetDriverRecipe(
+      final String driverUrl, final Properties props) throws SQLException {
+
+    final int paramsIndex = driverUrl.indexOf('?');
+    final String urlWithoutParams = paramsIndex < 0 ? driverUrl : driverUrl.substring(0, paramsIndex);
+    final String dialectCode = TargetDriverDialectManager.TARGET_DRIVER_DIALECT.getString(props);
+    final String key = StringUtils.isNullOrEmpty(dialectCode) ? urlWithoutParams : urlWithoutParams + "#" + dialectCode;
+    final TargetDriverDialect customDialect = TargetDriverDialectManager.getCustomDialect();
+
+    TargetDriverRecipe recipe = targetDriverRecipes.get(key);
+    if (recipe != null && recipe.customDialect == customDialect) {
+      return recipe;
+    }
+
+    final java.sql.Driver driver = new TargetDriverHelper().getTargetDriver(driverUrl, props);
+    final TargetDriverDialect targetDriverDialect = new TargetDriverDialectManager().getDialect(driver, props);
+    recipe = new TargetDriverRecipe(driver, targetDriverDialect, customDialect);
+
+    if (targetDriverRecipes.size() >= MAX_TARGET_DRIVER_RECIPES) {
+      targetDriverRecipes.clear();
+    }
+    targetDriverRecipes.put(key, recipe);
+    return recipe;
+  }
+
+  /**
+   * Clears target drivers and target driver dialects resolved by previous connects. It should be called
+   * after target drivers are registered or deregistered with {@link DriverManager}.
+   */
+  public static void clearCaches() {
+    targetDriverRecipes.clear();
+  }
+
   @Override
   public boolean acceptsURL(final String url) throws SQLException {
     if (url == null) {
@@ -262,4 +304,19 @@ public class Driver implements java.sql.Driver {
   public static TransferSessionStateOnSwitchCallable getTransferSessionStateOnSwitchFunc() {
     return transferSessionStateOnSwitchCallable;
   }
+
+  private static final class TargetDriverRecipe {
+    private final java.sql.Driver driver;
+    private final TargetDriverDialect targetDriverDialect;
+    private final @Nullable TargetDriverDialect customDialect;
+
+    private TargetDriverRecipe(
+        final java.sql.Driver driver,
+        final TargetDriverDialect targetDriverDialect,
+        final @Nullable TargetDriverDialect customDialect) {
+      this.driver = driver;
+      this.targetDriverDialect = targetDriverDialect;
+      this.customDialect = customDialect;
+    }
+  }
 }
@@ -0,0 +1,384 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import software.amazon.jdbc.dialect.DialectManager;
+import software.amazon.jdbc.hostavailability.HostAvailability;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.hostlistprovider.RdsHostListProvider;
+import software.amazon.jdbc.util.CacheMap;
+import software.amazon.jdbc.util.Messages;
+import software.amazon.jdbc.util.StringUtils;
+
+/**
+ * Saves the endpoint metadata cached by the driver, such as dialects of known endpoints and cluster
+ * topologies, to a local file and restores it when the driver starts. This lets a restarted application
+ * skip dialect detection and topology queries for endpoints it already knows about.
+ *
+ * <p>The file uses a compact versioned binary format. Each entry keeps its expiration time, so restored
+ * entries expire at the same time as they would have in the application that saved them. Expired entries
+ * are neither saved nor restored, and files of an unknown format version are ignored.
+ */
+public class EndpointMetadataSnapshot {
+
+  private static final Logger LOGGER = Logger.getLogger(EndpointMetadataSnapshot.class.getName());
+
+  private static final int MAGIC = 0x41574d53; // "AWMS"
+  private static final int FORMAT_VERSION = 1;
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+  // The smallest number of bytes taken by each kind of entry, used to validate the counts in a file.
+  private static final int MIN_STRING_ENTRY_BYTES = 12;
+  private static final int MIN_BOOLEAN_ENTRY_BYTES = 11;
+  private static final int MIN_TOPOLOGY_ENTRY_BYTES = 14;
+  private static final int MIN_HOST_BYTES = 29;
+
+  public static final AwsWrapperProperty ENDPOINT_METADATA_SNAPSHOT_FILE = new AwsWrapperProperty(
+      "endpointMetadataSnapshotFile", null,
+      "Path to a local file used to save and restore cached endpoint metadata across application restarts.");
+
+  public static final AwsWrapperProperty ENDPOINT_METADATA_SNAPSHOT_INTERVAL_MS = new AwsWrapperProperty(
+      "endpointMetadataSnapshotIntervalMs", "60000",
+      "Interval in milliseconds between saves of cached endpoint metadata to the snapshot file.");
+
+  private static final Object initLock = new Object();
+  private static volatile @Nullable Path snapshotFile;
+  private static @Nullable ScheduledExecutorService snapshotExecutor;
+  private static @Nullable Thread shutdownHook;
+
+  static {
+    PropertyDefinition.registerPluginProperties(EndpointMetadataSnapshot.class);
+  }
+
+  private EndpointMetadataSnapshot() {
+  }
+
+  /**
+   * Restores cached endpoint metadata from the snapshot file set by {@link #ENDPOINT_METADATA_SNAPSHOT_FILE},
+   * and starts saving it periodically and on shutdown. Only the first call that provides a snapshot file
+   * has an effect; further calls return immediately.
+   *
+   * @param props the connection properties
+   */
+  public static void init(final Properties props) {
+    if (snapshotFile != null) {
+      return;
+    }
+
+    final String fileName = ENDPOINT_METADATA_SNAPSHOT_FILE.getString(props);
+    if (StringUtils.isNullOrEmpty(fileName)) {
+      return;
+    }
+
+    synchronized (initLock) {
+      if (snapshotFile != null) {
+        return;
+      }
+
+      final Path file = Paths.get(fileName);
+      if (Files.exists(file)) {
+        restore(file);
+      }
+
+      final long intervalMs = ENDPOINT_METADATA_SNAPSHOT_INTERVAL_MS.getLong(props);
+      if (intervalMs > 0) {
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnableTarget -> {
+          final Thread snapshotThread = new Thread(runnableTarget, "endpoint-metadata-snapshot");
+          snapshotThread.setDaemon(true);
+          return snapshotThread;
+        });
+        snapshotExecutor.scheduleWithFixedDelay(() -> save(file), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+      }
+
+      shutdownHook = new Thread(() -> save(file), "endpoint-metadata-snapshot-shutdown");
+      Runtime.getRuntime().addShutdownHook(shutdownHook);
+      snapshotFile = file;
+    }
+  }
+
+  /**
+   * Stops saving cached endpoint metadata to the snapshot file. The next call to {@link #init(Properties)}
+   * restores the snapshot again.
+   */
+  public static void releaseResources() {
+    synchronized (initLock) {
+      if (snapshotExecutor != null) {
+        snapshotExecutor.shutdownNow();
+        snapshotExecutor = null;
+      }
+      if (shutdownHook != null) {
+        try {
+          Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (final IllegalStateException ex) {
+          // The application is already shutting down.
+        }
+        shutdownHook = null;
+      }
+      snapshotFile = null;
+    }
+  }
+
+  /**
+   * Saves cached endpoint metadata to the given file. The snapshot is written to a unique temporary file
+   * that then replaces the file atomically, so a reader never sees a partially written snapshot, and
+   * concurrent saves, such as the periodic one and the one on shutdown, don't write to the same file.
+   *
+   * @param file the snapshot file
+   * @return true if the snapshot has been saved
+   */
+  public static synchronized boolean save(final Path file) {
+    Path tempFile = null;
+    try {
+      final Path absoluteFile = file.toAbsolutePath();
+      tempFile = Files.createTempFile(
+          absoluteFile.getParent(), absoluteFile.getFileName().toString(), TEMP_FILE_SUFFIX);
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeStrings(out, DialectManager.getEndpointCache());
+        writeTopologies(out, RdsHostListProvider.topologyCache);
+        writeBooleans(out, RdsHostListProvider.primaryClusterIdCache);
+        writeStrings(out, RdsHostListProvider.suggestedPrimaryClusterIdCache);
+      }
+      try {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException ex) {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return true;
+    } catch (final IOException | RuntimeException ex) {
+      LOGGER.fine(() -> Messages.get("EndpointMetadataSnapshot.saveFailed", new Object[] {file, ex.getMessage()}));
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (final IOException deleteEx) {
+          // ignore
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Restores cached endpoint metadata from the given file. Entries already present in the caches are kept.
+   * Files with entry counts that don't match their size are ignored.
+   *
+   * @param file the snapshot file
+   * @return true if the snapshot has been restored
+   */
+  public static boolean restore(final Path file) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+      final int magic = in.readInt();
+      final int version = in.readInt();
+      if (magic != MAGIC || version != FORMAT_VERSION) {
+        LOGGER.fine(() -> Messages.get("EndpointMetadataSnapshot.unsupportedFormat", new Object[] {file, version}));
+        return false;
+      }
+
+      // Read the whole snapshot before updating the caches, so a damaged file doesn't leave them half restored.
+      final List<Entry<String>> dialects = readStrings(in);
+      final List<Entry<List<HostSpec>>> topologies = readTopologies(in);
+      final List<Entry<Boolean>> primaryClusterIds = readBooleans(in);
+      final List<Entry<String>> suggestedPrimaryClusterIds = readStrings(in);
+
+      final int restored = putAll(DialectManager.getEndpointCache(), dialects)
+          + putAll(RdsHostListProvider.topologyCache, topologies)
+          + putAll(RdsHostListProvider.primaryClusterIdCache, primaryClusterIds)
+          + putAll(RdsHostListProvider.suggestedPrimaryClusterIdCache, suggestedPrimaryClusterIds);
+
+      LOGGER.finest(() -> Messages.get("EndpointMetadataSnapshot.restored", new Object[] {restored, file}));
+      return true;
+    } catch (final IOException | RuntimeException ex) {
+      LOGGER.fine(() -> Messages.get("EndpointMetadataSnapshot.restoreFailed", new Object[] {file, ex.getMessage()}));
+      return false;
+    }
+  }
+
+  private static <V> int putAll(final CacheMap<String, V> cache, final List<Entry<V>> entries) {
+    final long nowMillis = System.currentTimeMillis();
+    int restored = 0;
+    for (final Entry<V> entry : entries) {
+      final long remainingNano = TimeUnit.MILLISECONDS.toNanos(entry.expirationTimeMillis - nowMillis);
+      if (remainingNano > 0) {
+        cache.putIfAbsent(entry.key, entry.value, remainingNano);
+        restored++;
+      }
+    }
+    return restored;
+  }
+
+  private static void writeStrings(final DataOutputStream out, final CacheMap<String, String> cache)
+      throws IOException {
+    final List<Entry<String>> entries = getEntries(cache);
+    out.writeInt(entries.size());
+    for (final Entry<String> entry : entries) {
+      out.writeUTF(entry.key);
+      out.writeLong(entry.expirationTimeMillis);
+      out.writeUTF(entry.value);
+    }
+  }
+
+  private static List<Entry<String>> readStrings(final DataInputStream in) throws IOException {
+    final int size = readCount(in, MIN_STRING_ENTRY_BYTES);
+    final List<Entry<String>> entries = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      entries.add(new Entry<>(in.readUTF(), in.readLong(), in.readUTF()));
+    }
+    return entries;
+  }
+
+  private static void writeBooleans(final DataOutputStream out, final CacheMap<String, Boolean> cache)
+      throws IOException {
+    final List<Entry<Boolean>> entries = getEntries(cache);
+    out.writeInt(entries.size());
+    for (final Entry<Boolean> entry : entries) {
+      out.writeUTF(entry.key);
+      out.writeLong(entry.expirationTimeMillis);
+      out.writeBoolean(entry.value);
+    }
+  }
+
+  private static List<Entry<Boolean>> readBooleans(final DataInputStream in) throws IOException {
+    final int size = readCount(in, MIN_BOOLEAN_ENTRY_BYTES);
+    final List<Entry<Boolean>> entries = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      entries.add(new Entry<>(in.readUTF(), in.readLong(), in.readBoolean()));
+    }
+    return entries;
+  }
+
+  private static void writeTopologies(final DataOutputStream out, final CacheMap<String, List<HostSpec>> cache)
+      throws IOException {
+    final List<Entry<List<HostSpec>>> entries = getEntries(cache);
+    out.writeInt(entries.size());
+    for (final Entry<List<HostSpec>> entry : entries) {
+      out.writeUTF(entry.key);
+      out.writeLong(entry.expirationTimeMillis);
+      out.writeInt(entry.value.size());
+      for (final HostSpec host : entry.value) {
+        out.writeUTF(host.getHost());
+        out.writeInt(host.getPort());
+        writeNullableString(out, host.getHostId());
+        out.writeByte(host.getRole().ordinal());
+        out.writeByte(host.getRawAvailability().ordinal());
+        out.writeLong(host.getWeight());
+        final Timestamp lastUpdateTime = host.getLastUpdateTime();
+        out.writeLong(lastUpdateTime == null ? -1 : lastUpdateTime.getTime());
+        out.writeInt(lastUpdateTime == null ? 0 : lastUpdateTime.getNanos());
+      }
+    }
+  }
+
+  private static List<Entry<List<HostSpec>>> readTopologies(final DataInputStream in) throws IOException {
+    final int size = readCount(in, MIN_TOPOLOGY_ENTRY_BYTES);
+    final List<Entry<List<HostSpec>>> entries = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final String key = in.readUTF();
+      final long expirationTimeMillis = in.readLong();
+      final int hostCount = readCount(in, MIN_HOST_BYTES);
+      final List<HostSpec> hosts = new ArrayList<>(hostCount);
+      for (int j = 0; j < hostCount; j++) {
+        final HostSpecBuilder builder = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+            .host(in.readUTF())
+            .port(in.readInt())
+            .hostId(readNullableString(in))
+            .role(HostRole.values()[in.readByte()])
+            .availability(HostAvailability.values()[in.readByte()])
+            .weight(in.readLong());
+        final long lastUpdateTimeMillis = in.readLong();
+        final int lastUpdateTimeNanos = in.readInt();
+        if (lastUpdateTimeMillis >= 0) {
+          final Timestamp lastUpdateTime = new Timestamp(lastUpdateTimeMillis);
+          lastUpdateTime.setNanos(lastUpdateTimeNanos);
+          builder.lastUpdateTime(lastUpdateTime);
+        }
+        hosts.add(builder.build());
+      }
+      entries.add(new Entry<>(key, expirationTimeMillis, hosts));
+    }
+    return entries;
+  }
+
+  private static int readCount(final DataInputStream in, final int minEntryBytes) throws IOException {
+    final int count = in.readInt();
+    // The input is read from memory, so the available bytes are the remaining bytes of the file.
+    final int remainingBytes = in.available();
+    if (count < 0 || count > remainingBytes / minEntryBytes) {
+      throw new IOException(
+          Messages.get("EndpointMetadataSnapshot.invalidCount", new Object[] {count, remainingBytes}));
+    }
+    return count;
+  }
+
+  private static void writeNullableString(final DataOutputStream out, final @Nullable String value)
+      throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static @Nullable String readNullableString(final DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static <V> List<Entry<V>> getEntries(final CacheMap<String, V> cache) {
+    final long nowMillis = System.currentTimeMillis();
+    final List<Entry<V>> entries = new ArrayList<>();
+    for (final Map.Entry<String, V> entry : cache.getEntries().entrySet()) {
+      final long remainingNano = cache.getRemainingTimeNano(entry.getKey());
+      if (remainingNano > 0 && entry.getValue() != null) {
+        entries.add(new Entry<>(
+            entry.getKey(), nowMillis + TimeUnit.NANOSECONDS.toMillis(remainingNano), entry.getValue()));
+      }
+    }
+    return entries;
+  }
+
+  private static class Entry<V> {
+    private final String key;
+    private final long expirationTimeMillis;
+    private final V value;
+
+    Entry(final String key, final long expirationTimeMillis, final V value) {
+      this.key = key;
+      this.expirationTimeMillis = expirationTimeMillis;
+      this.value = value;
+    }
+  }
+}
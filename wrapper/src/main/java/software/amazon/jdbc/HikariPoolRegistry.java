@@ -0,0 +1,407 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.lang.ref.WeakReference;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import software.amazon.jdbc.HikariPooledConnectionProvider.PoolKey;
+import software.amazon.jdbc.util.Messages;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+import software.amazon.jdbc.util.telemetry.TelemetryGauge;
+
+/**
+ * Keeps the internal connection pools created by {@link HikariPooledConnectionProvider}. The
+ * registry enforces a limit on the number of pools and on the total maximum size of all pools. When
+ * a new pool would exceed a limit, the least recently used pools without active connections are
+ * evicted to make room. If that is not enough, the new pool is rejected.
+ *
+ * <p>Pools that have not been used for their expiration time and have no active connections are
+ * only removed by {@link #removeExpiredPools()}, which is expected to be called periodically by a
+ * background task rather than on the connection path.
+ *
+ * <p>The gauges reporting the metrics of a pool are closed when the pool is removed from the
+ * registry, and the gauge of a host is closed when its last pool is removed.
+ */
+public class HikariPoolRegistry {
+
+  private static final Logger LOGGER = Logger.getLogger(HikariPoolRegistry.class.getName());
+
+  private final Map<PoolKey, PoolEntry> pools = new ConcurrentHashMap<>();
+  private final AtomicInteger poolCount = new AtomicInteger();
+  private final AtomicInteger reservedConnections = new AtomicInteger();
+  private final Map<String, TelemetryGauge> hostGauges = new ConcurrentHashMap<>();
+  private final List<TelemetryGauge> registryGauges = new ArrayList<>();
+  private final @NonNull Consumer<HikariDataSource> poolDisposalFunc;
+  private volatile int maxPools = Integer.MAX_VALUE;
+  private volatile int maxConnections = Integer.MAX_VALUE;
+  private volatile WeakReference<TelemetryFactory> telemetryFactoryRef = new WeakReference<>(null);
+
+  public HikariPoolRegistry() {
+    this((pool) -> { });
+  }
+
+  /**
+   * HikariPoolRegistry constructor.
+   *
+   * @param poolDisposalFunc a function called with every pool removed from the registry.
+   */
+  public HikariPoolRegistry(final @NonNull Consumer<HikariDataSource> poolDisposalFunc) {
+    this.poolDisposalFunc = poolDisposalFunc;
+  }
+
+  /**
+   * Sets the limits enforced when new pools are added to the registry. Pools that are already in
+   * the registry are not affected.
+   *
+   * @param maxPools       the maximum number of pools
+   * @param maxConnections the maximum sum of the maximum pool sizes of all pools
+   */
+  public void setLimits(final int maxPools, final int maxConnections) {
+    this.maxPools = maxPools;
+    this.maxConnections = maxConnections;
+  }
+
+  /**
+   * Sets the telemetry factory used to report pool metrics. The registry only keeps a weak
+   * reference to the factory, so that it does not outlive the connection it belongs to. Later calls
+   * are ignored while the current factory is reachable. Once it has been garbage collected, the
+   * next factory provided replaces it and all gauges are created again with that factory.
+   *
+   * @param telemetryFactory the telemetry factory
+   */
+  public void setTelemetryFactory(final @NonNull TelemetryFactory telemetryFactory) {
+    if (this.telemetryFactoryRef.get() != null) {
+      return;
+    }
+    synchronized (this) {
+      if (this.telemetryFactoryRef.get() != null) {
+        return;
+      }
+      this.telemetryFactoryRef = new WeakReference<>(telemetryFactory);
+
+      this.registryGauges.forEach(TelemetryGauge::close);
+      this.registryGauges.clear();
+      this.hostGauges.values().forEach(TelemetryGauge::close);
+      this.hostGauges.clear();
+
+      this.registryGauges.add(
+          telemetryFactory.createGauge("hikari.pools.count", () -> (long) this.poolCount.get()));
+      this.registryGauges.add(telemetryFactory.createGauge(
+          "hikari.connections.reserved", () -> (long) this.reservedConnections.get()));
+      this.pools.forEach(this::createPoolMetrics);
+    }
+  }
+
+  /**
+   * Returns the pool associated with the given key, creating it with the given function if there is
+   * none. The expiration time of the pool is extended by the given duration.
+   *
+   * @param key            the pool key
+   * @param poolFactory    the function creating a new pool for the key
+   * @param expirationNano the time after which the pool can be removed if it is not used
+   * @return the existing or created pool
+   * @throws SQLException if a new pool exceeds the limits of the registry
+   */
+  public HikariDataSource computeIfAbsent(
+      final @NonNull PoolKey key,
+      final @NonNull Function<PoolKey, HikariDataSource> poolFactory,
+      final long expirationNano) throws SQLException {
+
+    final PoolEntry existingEntry = this.pools.get(key);
+    if (existingEntry != null) {
+      return existingEntry.use(expirationNano);
+    }
+
+    this.reserve(this.poolCount, 1, this.maxPools, (entry) -> 1, key, "HikariPoolRegistry.maxPoolsReached");
+
+    final boolean[] isCreated = {false};
+    final PoolEntry entry;
+    try {
+      entry = this.pools.computeIfAbsent(key, (k) -> {
+        final PoolEntry newEntry = new PoolEntry(poolFactory.apply(k));
+        isCreated[0] = true;
+        return newEntry;
+      });
+    } finally {
+      if (!isCreated[0]) {
+        // The pool has been created by another thread or could not be created.
+        this.poolCount.decrementAndGet();
+      }
+    }
+
+    if (isCreated[0]) {
+      try {
+        this.reserve(this.reservedConnections, entry.maxPoolSize, this.maxConnections,
+            (e) -> e.maxPoolSize, key, "HikariPoolRegistry.maxConnectionsReached");
+      } catch (final SQLException ex) {
+        if (this.pools.remove(key, entry)) {
+          this.poolCount.decrementAndGet();
+          this.poolDisposalFunc.accept(entry.pool);
+        }
+        throw ex;
+      }
+      this.createPoolMetrics(key, entry);
+    }
+    return entry.use(expirationNano);
+  }
+
+  /**
+   * Returns true if there is a pool associated with the given key. The expiration time of the pool
+   * is not affected.
+   *
+   * @param key the pool key
+   * @return true if there is a pool for the key
+   */
+  public boolean containsKey(final @NonNull PoolKey key) {
+    return this.pools.containsKey(key);
+  }
+
+  /**
+   * Removes the pool associated with the given key and passes it to the pool disposal function.
+   *
+   * @param key the pool key
+   */
+  public void remove(final @NonNull PoolKey key) {
+    final PoolEntry entry = this.pools.remove(key);
+    if (entry != null) {
+      this.release(key, entry);
+    }
+  }
+
+  /**
+   * Removes every pool that has not been used for its expiration time and has no active
+   * connections.
+   */
+  public void removeExpiredPools() {
+    final long currentTimeNano = System.nanoTime();
+    this.pools.forEach((key, entry) -> {
+      if (currentTimeNano - entry.expirationTimeNano >= 0 && isIdle(entry.pool) && this.pools.remove(key, entry)) {
+        LOGGER.finest(() -> Messages.get("HikariPoolRegistry.removedExpiredPool", new Object[] {key}));
+        this.release(key, entry);
+      }
+    });
+  }
+
+  /**
+   * Removes all pools and passes them to the pool disposal function.
+   */
+  public void clear() {
+    for (final PoolKey key : this.pools.keySet()) {
+      this.remove(key);
+    }
+  }
+
+  /**
+   * Performs the given action for each pool in the registry without copying the entries.
+   *
+   * @param action the action to perform for each pool key and pool
+   */
+  public void forEach(final BiConsumer<PoolKey, HikariDataSource> action) {
+    this.pools.forEach((key, entry) -> action.accept(key, entry.pool));
+  }
+
+  /**
+   * Returns a copy of the keys of all pools in the registry.
+   *
+   * @return the keys of all pools
+   */
+  public Set<PoolKey> getKeys() {
+    return Collections.unmodifiableSet(new HashSet<>(this.pools.keySet()));
+  }
+
+  public int size() {
+    return this.pools.size();
+  }
+
+  public int getReservedConnections() {
+    return this.reservedConnections.get();
+  }
+
+  private void reserve(
+      final AtomicInteger counter,
+      final int amount,
+      final int limit,
+      final ToIntFunction<PoolEntry> amountOfEntry,
+      final PoolKey key,
+      final String limitMessage) throws SQLException {
+
+    while (true) {
+      final int current = counter.get();
+      if (current + amount <= limit) {
+        if (counter.compareAndSet(current, current + amount)) {
+          return;
+        }
+        continue;
+      }
+      if (!this.evictIdlePool(key, amountOfEntry)) {
+        throw new SQLException(Messages.get(limitMessage, new Object[] {limit, key}));
+      }
+    }
+  }
+
+  private boolean evictIdlePool(final PoolKey excludedKey, final ToIntFunction<PoolEntry> amountOfEntry) {
+    PoolKey leastRecentlyUsedKey = null;
+    PoolEntry leastRecentlyUsedEntry = null;
+    for (final Map.Entry<PoolKey, PoolEntry> candidate : this.pools.entrySet()) {
+      final PoolEntry entry = candidate.getValue();
+      if (candidate.getKey().equals(excludedKey)
+          || amountOfEntry.applyAsInt(entry) == 0
+          || !isIdle(entry.pool)) {
+        continue;
+      }
+      if (leastRecentlyUsedEntry == null || entry.lastUsedNano - leastRecentlyUsedEntry.lastUsedNano < 0) {
+        leastRecentlyUsedKey = candidate.getKey();
+        leastRecentlyUsedEntry = entry;
+      }
+    }
+
+    if (leastRecentlyUsedEntry == null) {
+      return false;
+    }
+    if (this.pools.remove(leastRecentlyUsedKey, leastRecentlyUsedEntry)) {
+      final PoolKey evictedKey = leastRecentlyUsedKey;
+      LOGGER.finest(() -> Messages.get("HikariPoolRegistry.evictedIdlePool", new Object[] {evictedKey}));
+      this.release(evictedKey, leastRecentlyUsedEntry);
+    }
+    // Another thread may have removed the pool first, which frees up room as well.
+    return true;
+  }
+
+  private void release(final PoolKey key, final PoolEntry entry) {
+    this.poolCount.decrementAndGet();
+    this.reservedConnections.addAndGet(-entry.maxPoolSize);
+    entry.closeGauges();
+    // The host gauge is kept as long as another pool of the host remains.
+    this.hostGauges.computeIfPresent(key.getUrl(), (url, gauge) -> {
+      if (this.hasPool(url)) {
+        return gauge;
+      }
+      gauge.close();
+      return null;
+    });
+    this.poolDisposalFunc.accept(entry.pool);
+  }
+
+  private synchronized void createPoolMetrics(final PoolKey key, final PoolEntry entry) {
+    final TelemetryFactory factory = this.telemetryFactoryRef.get();
+    if (factory == null) {
+      return;
+    }
+
+    final String poolName = key.getUrl() + "." + key.getExtraKey();
+    entry.setGauges(Arrays.asList(
+        factory.createGauge(String.format("hikari.pool.connections.active.%s", poolName),
+            () -> (long) this.getConnections(key, HikariPoolMXBean::getActiveConnections)),
+        factory.createGauge(String.format("hikari.pool.connections.idle.%s", poolName),
+            () -> (long) this.getConnections(key, HikariPoolMXBean::getIdleConnections))));
+
+    // No gauge is created for a host whose pools have been removed in the meantime.
+    this.hostGauges.computeIfAbsent(key.getUrl(),
+        (url) -> this.hasPool(url) ? this.createHostMetrics(factory, url) : null);
+  }
+
+  private TelemetryGauge createHostMetrics(final TelemetryFactory factory, final String url) {
+    return factory.createGauge(String.format("hikari.host.connections.active.%s", url), () -> {
+      long activeConnections = 0;
+      for (final Map.Entry<PoolKey, PoolEntry> entry : this.pools.entrySet()) {
+        if (url.equals(entry.getKey().getUrl())) {
+          activeConnections += getConnections(entry.getValue().pool, HikariPoolMXBean::getActiveConnections);
+        }
+      }
+      return activeConnections;
+    });
+  }
+
+  private boolean hasPool(final String url) {
+    for (final PoolKey key : this.pools.keySet()) {
+      if (url.equals(key.getUrl())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int getConnections(final PoolKey key, final ToIntFunction<HikariPoolMXBean> connectionCount) {
+    final PoolEntry entry = this.pools.get(key);
+    return entry == null ? 0 : getConnections(entry.pool, connectionCount);
+  }
+
+  private static int getConnections(
+      final HikariDataSource pool, final ToIntFunction<HikariPoolMXBean> connectionCount) {
+    final HikariPoolMXBean poolBean = pool.isClosed() ? null : pool.getHikariPoolMXBean();
+    return poolBean == null ? 0 : connectionCount.applyAsInt(poolBean);
+  }
+
+  private static boolean isIdle(final HikariDataSource pool) {
+    return getConnections(pool, HikariPoolMXBean::getActiveConnections) == 0;
+  }
+
+  private static class PoolEntry {
+    private final HikariDataSource pool;
+    private final int maxPoolSize;
+    private volatile long lastUsedNano;
+    private volatile long expirationTimeNano;
+    private List<TelemetryGauge> gauges = Collections.emptyList();
+    private boolean isReleased;
+
+    PoolEntry(final HikariDataSource pool) {
+      this.pool = pool;
+      this.maxPoolSize = pool.getMaximumPoolSize();
+      this.lastUsedNano = System.nanoTime();
+      this.expirationTimeNano = this.lastUsedNano;
+    }
+
+    HikariDataSource use(final long expirationNano) {
+      this.lastUsedNano = System.nanoTime();
+      this.expirationTimeNano = this.lastUsedNano + expirationNano;
+      return this.pool;
+    }
+
+    synchronized void setGauges(final List<TelemetryGauge> gauges) {
+      this.gauges.forEach(TelemetryGauge::close);
+      this.gauges = gauges;
+      if (this.isReleased) {
+        // The pool has been removed while its gauges were created.
+        this.closeGauges();
+      }
+    }
+
+    synchronized void closeGauges() {
+      this.isReleased = true;
+      this.gauges.forEach(TelemetryGauge::close);
+      this.gauges = Collections.emptyList();
+    }
+  }
+}
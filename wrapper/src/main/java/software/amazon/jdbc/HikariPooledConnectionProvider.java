@@ -18,32 +18,42 @@ package software.amazon.jdbc;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.jdbc.cleanup.CanReleaseResources;
 import software.amazon.jdbc.dialect.Dialect;
+import software.amazon.jdbc.hostlistprovider.RdsHostListProvider;
 import software.amazon.jdbc.targetdriverdialect.ConnectInfo;
 import software.amazon.jdbc.targetdriverdialect.TargetDriverDialect;
+import software.amazon.jdbc.util.CacheMap;
 import software.amazon.jdbc.util.HikariCPSQLException;
 import software.amazon.jdbc.util.Messages;
 import software.amazon.jdbc.util.PropertyUtils;
 import software.amazon.jdbc.util.RdsUrlType;
 import software.amazon.jdbc.util.RdsUtils;
-import software.amazon.jdbc.util.SlidingExpirationCache;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
 
 public class HikariPooledConnectionProvider implements PooledConnectionProvider,
     CanReleaseResources {
@@ -51,6 +61,14 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
   private static final String thisClassName = HikariPooledConnectionProvider.class.getName();
   private static final Logger LOGGER = Logger.getLogger(HikariPooledConnectionProvider.class.getName());
 
+  public static final AwsWrapperProperty WARM_UP_POOLS = new AwsWrapperProperty(
+      "hikariWarmUpPools", "false",
+      "Create internal connection pools for new database instances in the background when the cluster topology "
+          + "changes, and drain the pools of removed instances.");
+
+  private static final long DRAIN_CHECK_INTERVAL_MS = 1000;
+  private static final int WARM_UP_THREADS = 4;
+
   private static final Map<String, HostSelector> acceptedStrategies =
       Collections.unmodifiableMap(new HashMap<String, HostSelector>() {
         {
@@ -60,16 +78,56 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
       });
 
   private static final RdsUtils rdsUtils = new RdsUtils();
-  private static SlidingExpirationCache<PoolKey, HikariDataSource> databasePools =
-      new SlidingExpirationCache<>(
-          (hikariDataSource) -> hikariDataSource.getHikariPoolMXBean().getActiveConnections() == 0,
-          HikariDataSource::close
-      );
+  private static HikariPoolRegistry databasePools = new HikariPoolRegistry(HikariPooledConnectionProvider::drainPool);
   private static long poolExpirationCheckNanos = TimeUnit.MINUTES.toNanos(30);
+  private static long poolCleanupIntervalNanos = TimeUnit.MINUTES.toNanos(10);
+  // How the pools of each instance have been created, by instance URL and pool key. Instances are only
+  // warmed up with the templates of the instances of the same cluster. Templates don't keep passwords.
+  private static final Map<String, Map<String, PoolTemplate>> poolTemplates = new ConcurrentHashMap<>();
+  private static final Set<HikariDataSource> drainingPools = ConcurrentHashMap.newKeySet();
+  // Instances reported as deleted by a connection and not reported in a topology since, with the time they
+  // were first reported. A connection may see a partial topology for a while, for example during failover,
+  // so pools are only drained once the removal has been confirmed.
+  private static final Map<String, Long> pendingRemovals = new ConcurrentHashMap<>();
+  private static long removalConfirmationNanos = TimeUnit.MINUTES.toNanos(1);
+  private static final Set<PoolKey> warmingUpPools = ConcurrentHashMap.newKeySet();
+  private static final ScheduledExecutorService poolMaintenanceExecutor =
+      Executors.newSingleThreadScheduledExecutor(runnableTarget -> {
+        final Thread maintenanceThread = new Thread(runnableTarget, "hikari-pool-maintenance");
+        maintenanceThread.setDaemon(true);
+        return maintenanceThread;
+      });
+  // Warming up a pool blocks until the new instance accepts a connection, so it doesn't run on the maintenance
+  // thread.
+  private static final ThreadPoolExecutor poolWarmUpExecutor = createPoolWarmUpExecutor();
   private final HikariPoolConfigurator poolConfigurator;
   private final HikariPoolMapping poolMapping;
   private final LeastConnectionsHostSelector leastConnectionsHostSelector;
 
+  private static ThreadPoolExecutor createPoolWarmUpExecutor() {
+    final AtomicInteger threadCount = new AtomicInteger();
+    final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+        WARM_UP_THREADS,
+        WARM_UP_THREADS,
+        60,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnableTarget -> {
+          final Thread warmUpThread =
+              new Thread(runnableTarget, "hikari-pool-warm-up-" + threadCount.incrementAndGet());
+          warmUpThread.setDaemon(true);
+          return warmUpThread;
+        });
+    threadPool.allowCoreThreadTimeOut(true);
+    return threadPool;
+  }
+
+  static {
+    PropertyDefinition.registerPluginProperties(HikariPooledConnectionProvider.class);
+    poolMaintenanceExecutor.schedule(
+        HikariPooledConnectionProvider::removeExpiredPools, poolCleanupIntervalNanos, TimeUnit.NANOSECONDS);
+  }
+
   /**
    * {@link HikariPooledConnectionProvider} constructor. This class can be passed to
    * {@link ConnectionProviderManager#setConnectionProvider} to enable internal connection pools for
@@ -111,7 +169,8 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
       HikariPoolConfigurator hikariPoolConfigurator, HikariPoolMapping mapping) {
     this.poolConfigurator = hikariPoolConfigurator;
     this.poolMapping = mapping;
-    this.leastConnectionsHostSelector = new LeastConnectionsHostSelector(databasePools);
+    this.leastConnectionsHostSelector = new LeastConnectionsHostSelector(
+        () -> databasePools, LeastConnectionsHostSelector.DEFAULT_REFRESH_INTERVAL_NANO);
   }
 
   /**
@@ -147,8 +206,52 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
     this.poolConfigurator = hikariPoolConfigurator;
     this.poolMapping = mapping;
     poolExpirationCheckNanos = poolExpirationNanos;
-    databasePools.setCleanupIntervalNanos(poolCleanupNanos);
-    this.leastConnectionsHostSelector = new LeastConnectionsHostSelector(databasePools);
+    poolCleanupIntervalNanos = poolCleanupNanos;
+    this.leastConnectionsHostSelector = new LeastConnectionsHostSelector(
+        () -> databasePools, LeastConnectionsHostSelector.DEFAULT_REFRESH_INTERVAL_NANO);
+  }
+
+  /**
+   * {@link HikariPooledConnectionProvider} constructor. This class can be passed to
+   * {@link ConnectionProviderManager#setConnectionProvider} to enable internal connection pools for
+   * each database instance in a cluster. By maintaining internal connection pools, the driver can
+   * improve performance by reusing old {@link Connection} objects.
+   *
+   * @param hikariPoolConfigurator a function that returns a {@link HikariConfig} with specific
+   *                               Hikari configurations. By default, the
+   *                               {@link HikariPooledConnectionProvider} will configure the
+   *                               jdbcUrl, exceptionOverrideClassName, username, and password. Any
+   *                               additional configuration should be defined by passing in this
+   *                               parameter. If no additional configuration is desired, pass in a
+   *                               {@link HikariPoolConfigurator} that returns an empty
+   *                               HikariConfig.
+   * @param mapping                a function that returns a String key used for the internal
+   *                               connection pool keys. An internal connection pool will be
+   *                               generated for each unique key returned by this function.
+   * @param poolExpirationNanos    the amount of time that a pool should sit in the cache before
+   *                               being marked as expired for cleanup, in nanoseconds. Expired
+   *                               pools can still be used and will not be closed unless there
+   *                               are no active connections.
+   * @param poolCleanupNanos       the interval defining how often expired connection pools
+   *                               should be cleaned up, in nanoseconds. Note that expired pools
+   *                               will not be closed unless there are no active connections.
+   * @param maxPools               the maximum number of internal connection pools. When the limit
+   *                               is reached, the least recently used pool without active
+   *                               connections is closed to make room for a new pool. If there is
+   *                               no such pool, the connection request fails.
+   * @param maxConnections         the maximum sum of the maximum pool sizes of all internal
+   *                               connection pools. The limit is enforced the same way as the
+   *                               limit on the number of pools.
+   */
+  public HikariPooledConnectionProvider(
+      HikariPoolConfigurator hikariPoolConfigurator,
+      HikariPoolMapping mapping,
+      long poolExpirationNanos,
+      long poolCleanupNanos,
+      int maxPools,
+      int maxConnections) {
+    this(hikariPoolConfigurator, mapping, poolExpirationNanos, poolCleanupNanos);
+    databasePools.setLimits(maxPools, maxConnections);
   }
 
   @Override
@@ -193,6 +296,15 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
       throws SQLException {
 
     final Properties copy = PropertyUtils.copyProperties(props);
+    if (WARM_UP_POOLS.getBoolean(props)) {
+      // Remember how pools are created for this user, so that pools for new hosts can be created the same way.
+      // The password may be a short-lived token, so it's taken from the connection that reports new hosts.
+      final Properties templateProps = PropertyUtils.copyProperties(props);
+      templateProps.remove(PropertyDefinition.PASSWORD.name);
+      poolTemplates.computeIfAbsent(hostSpec.getUrl(), (url) -> new ConcurrentHashMap<>()).put(
+          getPoolKey(hostSpec, props),
+          new PoolTemplate(protocol, dialect, targetDriverDialect, templateProps));
+    }
     dialect.prepareConnectProperties(copy, protocol, hostSpec);
 
     final HikariDataSource ds = databasePools.computeIfAbsent(
@@ -206,6 +318,173 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
     return ds.getConnection();
   }
 
+  /**
+   * Creates connection pools for database instances added to the cluster topology and drains the
+   * pools of removed instances, if enabled with {@link #WARM_UP_POOLS}. New pools are created in the
+   * background the same way as the pools of the other instances of the cluster, and are filled up to
+   * their minimum idle size by Hikari. Passwords aren't kept, so only the pools of the user of the
+   * given properties are created, with the password of these properties. An instance reported as
+   * removed by a connection is only considered removed if no connection reports it again for a
+   * minute, and it isn't part of any cluster topology cached by the driver by then, since a
+   * connection may see a partial topology, for example during failover. Pools of removed instances
+   * then stop handing out connections and are closed once their connections have been returned.
+   *
+   * @param hosts   the hosts in the current cluster topology
+   * @param changes the changes of each host, keyed by host URL
+   * @param props   the connection properties
+   */
+  @Override
+  public void notifyNodeListChanged(
+      @NonNull List<HostSpec> hosts,
+      @NonNull Map<String, EnumSet<NodeChangeOptions>> changes,
+      @NonNull Properties props) {
+    if (!WARM_UP_POOLS.getBoolean(props)) {
+      return;
+    }
+
+    // The templates of the cluster that has changed.
+    final Map<String, PoolTemplate> clusterTemplates = new HashMap<>();
+    for (final HostSpec hostSpec : hosts) {
+      final Map<String, PoolTemplate> hostTemplates = poolTemplates.get(hostSpec.getUrl());
+      if (hostTemplates != null) {
+        clusterTemplates.putAll(hostTemplates);
+      }
+    }
+
+    for (final HostSpec hostSpec : hosts) {
+      final EnumSet<NodeChangeOptions> hostChanges = changes.get(hostSpec.getUrl());
+      if (hostChanges != null && hostChanges.contains(NodeChangeOptions.NODE_ADDED) && !clusterTemplates.isEmpty()) {
+        // Keep the templates of the cluster with its new instance, in case the other instances are removed.
+        poolTemplates.computeIfAbsent(hostSpec.getUrl(), (url) -> new ConcurrentHashMap<>()).putAll(clusterTemplates);
+        clusterTemplates.values().forEach(template -> this.warmUpPool(hostSpec, template, props));
+      }
+    }
+
+    for (final HostSpec hostSpec : hosts) {
+      pendingRemovals.remove(hostSpec.getUrl());
+    }
+    changes.forEach((url, hostChanges) -> {
+      if (hostChanges.contains(NodeChangeOptions.NODE_DELETED)) {
+        final Long reportedTimeNano = System.nanoTime();
+        if (pendingRemovals.putIfAbsent(url, reportedTimeNano) == null) {
+          poolMaintenanceExecutor.schedule(
+              () -> confirmRemoval(url, reportedTimeNano), removalConfirmationNanos, TimeUnit.NANOSECONDS);
+        }
+      }
+    });
+  }
+
+  private static void confirmRemoval(final String url, final Long reportedTimeNano) {
+    if (!pendingRemovals.remove(url, reportedTimeNano) || isInCachedTopology(url)) {
+      // The instance has been reported in a topology since.
+      return;
+    }
+
+    poolTemplates.remove(url);
+    databasePools.forEach((poolKey, pool) -> {
+      if (url.equals(poolKey.getUrl())) {
+        LOGGER.finest(() -> Messages.get("HikariPooledConnectionProvider.drainingPool", new Object[] {poolKey}));
+        databasePools.remove(poolKey);
+      }
+    });
+  }
+
+  private static boolean isInCachedTopology(final String url) {
+    final CacheMap<String, List<HostSpec>> topologyCache = RdsHostListProvider.topologyCache;
+    for (final Entry<String, List<HostSpec>> topology : topologyCache.getEntries().entrySet()) {
+      if (topologyCache.getRemainingTimeNano(topology.getKey()) <= 0) {
+        continue;
+      }
+      for (final HostSpec hostSpec : topology.getValue()) {
+        if (url.equals(hostSpec.getUrl())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void warmUpPool(final HostSpec hostSpec, final PoolTemplate template, final Properties props) {
+    if (!this.acceptsUrl(template.protocol, hostSpec, template.props)) {
+      return;
+    }
+
+    // Only the password of the user of the given properties is known.
+    final String user = props.getProperty(PropertyDefinition.USER.name);
+    if (user == null || !user.equals(template.props.getProperty(PropertyDefinition.USER.name))) {
+      return;
+    }
+
+    final Properties copy = PropertyUtils.copyProperties(template.props);
+    final String password = props.getProperty(PropertyDefinition.PASSWORD.name);
+    if (password != null) {
+      copy.setProperty(PropertyDefinition.PASSWORD.name, password);
+    }
+    template.dialect.prepareConnectProperties(copy, template.protocol, hostSpec);
+    final PoolKey poolKey = new PoolKey(hostSpec.getUrl(), getPoolKey(hostSpec, copy));
+    if (databasePools.containsKey(poolKey) || !warmingUpPools.add(poolKey)) {
+      return;
+    }
+
+    poolWarmUpExecutor.execute(() -> {
+      try {
+        final HikariDataSource ds = databasePools.computeIfAbsent(
+            poolKey,
+            (lambdaPoolKey) -> createHikariDataSource(
+                template.protocol, hostSpec, copy, template.targetDriverDialect),
+            poolExpirationCheckNanos);
+        ds.setPassword(copy.getProperty(PropertyDefinition.PASSWORD.name));
+
+        // Hikari keeps filling the pool up to its minimum idle size once it can connect.
+        ds.getConnection().close();
+        LOGGER.finest(() -> Messages.get("HikariPooledConnectionProvider.warmedUpPool", new Object[] {poolKey}));
+      } catch (final Exception ex) {
+        LOGGER.finest(() -> Messages.get(
+            "HikariPooledConnectionProvider.warmUpFailed",
+            new Object[] {poolKey, ex.getMessage()}));
+      } finally {
+        warmingUpPools.remove(poolKey);
+      }
+    });
+  }
+
+  private static void removeExpiredPools() {
+    try {
+      databasePools.removeExpiredPools();
+    } catch (final Exception ex) {
+      // ignore and try again at the next cleanup
+    }
+    poolMaintenanceExecutor.schedule(
+        HikariPooledConnectionProvider::removeExpiredPools, poolCleanupIntervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private static void drainPool(final HikariDataSource pool) {
+    final HikariPoolMXBean poolBean = pool.isClosed() ? null : pool.getHikariPoolMXBean();
+    if (poolBean == null || poolBean.getActiveConnections() == 0) {
+      drainingPools.remove(pool);
+      pool.close();
+      return;
+    }
+
+    if (drainingPools.add(pool)) {
+      // Idle connections are closed right away and busy ones as soon as they are returned to the pool.
+      poolBean.softEvictConnections();
+    }
+    poolMaintenanceExecutor.schedule(() -> drainPool(pool), DRAIN_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Reports the number of pools and connections, and the active and idle connections of each pool
+   * and host through the given telemetry factory. The factory is only replaced once the previous
+   * one is no longer reachable, see {@link HikariPoolRegistry#setTelemetryFactory}.
+   *
+   * @param telemetryFactory the telemetry factory of the connection that uses the provider
+   */
+  @Override
+  public void setTelemetryFactory(@NonNull TelemetryFactory telemetryFactory) {
+    databasePools.setTelemetryFactory(telemetryFactory);
+  }
+
   @Override
   @Deprecated
   public Connection connect(@NonNull String url, @NonNull Properties props) throws SQLException {
@@ -227,12 +506,16 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
 
   @Override
   public void releaseResources() {
-    databasePools.getEntries().forEach((poolKey, pool) -> {
+    databasePools.forEach((poolKey, pool) -> {
       if (!pool.isClosed()) {
         pool.close();
       }
     });
     databasePools.clear();
+    drainingPools.forEach(HikariDataSource::close);
+    drainingPools.clear();
+    poolTemplates.clear();
+    pendingRemovals.clear();
   }
 
   /**
@@ -307,10 +590,9 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
    * @return a set containing every host URL for which there are one or more connection pool(s).
    */
   public Set<String> getHosts() {
-    return Collections.unmodifiableSet(
-        databasePools.getEntries().keySet().stream()
-            .map(poolKey -> poolKey.url)
-            .collect(Collectors.toSet()));
+    final Set<String> hosts = new HashSet<>();
+    databasePools.forEach((poolKey, pool) -> hosts.add(poolKey.url));
+    return Collections.unmodifiableSet(hosts);
   }
 
   /**
@@ -319,7 +601,7 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
    * @return a set containing every key associated with an active connection pool
    */
   public Set<PoolKey> getKeys() {
-    return databasePools.getEntries().keySet();
+    return databasePools.getKeys();
   }
 
   @Override
@@ -333,7 +615,7 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
   public void logConnections() {
     LOGGER.finest(() -> {
       final StringBuilder builder = new StringBuilder();
-      databasePools.getEntries().forEach((key, dataSource) -> {
+      databasePools.forEach((key, dataSource) -> {
         builder.append("\t[ ");
         builder.append(key).append(":");
         builder.append("\n\t {");
@@ -356,6 +638,24 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
     return new HikariDataSource(config);
   }
 
+  private static class PoolTemplate {
+    private final @NonNull String protocol;
+    private final @NonNull Dialect dialect;
+    private final @NonNull TargetDriverDialect targetDriverDialect;
+    private final @NonNull Properties props;
+
+    PoolTemplate(
+        final @NonNull String protocol,
+        final @NonNull Dialect dialect,
+        final @NonNull TargetDriverDialect targetDriverDialect,
+        final @NonNull Properties props) {
+      this.protocol = protocol;
+      this.dialect = dialect;
+      this.targetDriverDialect = targetDriverDialect;
+      this.props = props;
+    }
+  }
+
   public static class PoolKey {
     private final @NonNull String url;
     private final @NonNull String extraKey;
@@ -369,6 +669,10 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
       return this.url;
     }
 
+    public String getExtraKey() {
+      return this.extraKey;
+    }
+
     @Override
     public int hashCode() {
       final int prime = 31;
@@ -400,7 +704,12 @@ public class HikariPooledConnectionProvider implements PooledConnectionProvider,
   }
 
   // For testing purposes only
-  void setDatabasePools(SlidingExpirationCache<PoolKey, HikariDataSource> connectionPools) {
+  void setDatabasePools(HikariPoolRegistry connectionPools) {
     databasePools = connectionPools;
   }
+
+  // For testing purposes only
+  static void setRemovalConfirmationNanos(final long confirmationNanos) {
+    removalConfirmationNanos = confirmationNanos;
+  }
 }
@@ -41,4 +41,17 @@ public interface HostListProvider {
   HostRole getHostRole(Connection connection) throws SQLException;
 
   HostSpec identifyConnection(Connection connection) throws SQLException;
+
+  /**
+   * Identifies the host of the given connection using an instance identifier that has already been
+   * fetched from it, for example by {@link software.amazon.jdbc.dialect.Dialect#getBootstrapQuery()}.
+   *
+   * @param connection a connection to the database instance that should be identified
+   * @param instanceId the instance identifier fetched from the given connection
+   * @return the host of the given connection, or null if it can't be found in the topology
+   * @throws SQLException if there is a problem identifying the connection
+   */
+  default HostSpec identifyConnection(Connection connection, String instanceId) throws SQLException {
+    return this.identifyConnection(connection);
+  }
 }
@@ -18,6 +18,8 @@ package software.amazon.jdbc;
 
 import java.sql.Connection;
 import software.amazon.jdbc.dialect.Dialect;
+import software.amazon.jdbc.util.telemetry.NullTelemetryFactory;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
 
 public interface HostListProviderService {
 
@@ -38,4 +40,14 @@ public interface HostListProviderService {
   Dialect getDialect();
 
   HostSpecBuilder getHostSpecBuilder();
+
+  /**
+   * Returns the telemetry factory used by the host list provider. Implementations that don't
+   * support telemetry don't need to override this method.
+   *
+   * @return the telemetry factory of the connection
+   */
+  default TelemetryFactory getTelemetryFactory() {
+    return new NullTelemetryFactory();
+  }
 }
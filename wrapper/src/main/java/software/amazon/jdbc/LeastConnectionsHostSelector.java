@@ -21,19 +21,78 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.jdbc.util.Messages;
 import software.amazon.jdbc.util.SlidingExpirationCache;
 
+/**
+ * Selects the host with the fewest active connections in the internal connection pools.
+ *
+ * <p>The number of active connections of each host is read from the pools at most once every
+ * {@link #DEFAULT_REFRESH_INTERVAL_NANO} nanos, rather than on each selection. Between refreshes,
+ * each selection adds one connection to the selected host, so a burst of selections is spread
+ * across the hosts. Hosts with the same number of connections are selected at random.
+ */
 public class LeastConnectionsHostSelector implements HostSelector {
   public static final String STRATEGY_LEAST_CONNECTIONS = "leastConnections";
-  private final SlidingExpirationCache<HikariPooledConnectionProvider.PoolKey, HikariDataSource> databasePools;
+  static final long DEFAULT_REFRESH_INTERVAL_NANO = TimeUnit.MILLISECONDS.toNanos(5);
 
+  private final Consumer<BiConsumer<HikariPooledConnectionProvider.PoolKey, HikariDataSource>> forEachPool;
+  private final long refreshIntervalNano;
+  private final AtomicBoolean refreshing = new AtomicBoolean(false);
+  private volatile ConnectionCounts connectionCounts;
+
+  public LeastConnectionsHostSelector(HikariPoolRegistry databasePools) {
+    this(() -> databasePools, DEFAULT_REFRESH_INTERVAL_NANO);
+  }
+
+  /**
+   * LeastConnectionsHostSelector constructor.
+   *
+   * @param databasePools The internal connection pools.
+   * @deprecated The internal connection pools are kept in a {@link HikariPoolRegistry}, use
+   *     {@link #LeastConnectionsHostSelector(HikariPoolRegistry)} instead.
+   */
+  @Deprecated
   public LeastConnectionsHostSelector(
       SlidingExpirationCache<HikariPooledConnectionProvider.PoolKey, HikariDataSource> databasePools) {
-    this.databasePools = databasePools;
+    this(databasePools::forEach, DEFAULT_REFRESH_INTERVAL_NANO);
+  }
+
+  /**
+   * LeastConnectionsHostSelector constructor.
+   *
+   * @param databasePoolsSupplier A supplier of the internal connection pools.
+   * @param refreshIntervalNano   The minimum time in nanos between two reads of the number of
+   *                              active connections from the pools.
+   */
+  public LeastConnectionsHostSelector(
+      final Supplier<HikariPoolRegistry> databasePoolsSupplier,
+      final long refreshIntervalNano) {
+    this((action) -> {
+      final HikariPoolRegistry databasePools = databasePoolsSupplier.get();
+      if (databasePools != null) {
+        databasePools.forEach(action);
+      }
+    }, refreshIntervalNano);
+  }
+
+  private LeastConnectionsHostSelector(
+      final Consumer<BiConsumer<HikariPooledConnectionProvider.PoolKey, HikariDataSource>> forEachPool,
+      final long refreshIntervalNano) {
+    this.forEachPool = forEachPool;
+    this.refreshIntervalNano = refreshIntervalNano;
+    // The counts are read from the pools on the first selection.
+    this.connectionCounts = new ConnectionCounts(new ConcurrentHashMap<>(), System.nanoTime() - refreshIntervalNano);
   }
 
   @Override
@@ -41,31 +100,67 @@ public class LeastConnectionsHostSelector implements HostSelector {
       @NonNull final List<HostSpec> hosts,
       @NonNull final HostRole role,
       @Nullable final Properties props) throws SQLException {
-    final List<HostSpec> eligibleHosts = hosts.stream()
-        .filter(hostSpec -> role.equals(hostSpec.getRole()))
-        .sorted((hostSpec1, hostSpec2) ->
-            getNumConnections(hostSpec1, this.databasePools) - getNumConnections(hostSpec2, this.databasePools))
-        .collect(Collectors.toList());
+    final Map<String, AtomicInteger> counts = this.getConnectionCounts();
+
+    HostSpec selectedHost = null;
+    String selectedUrl = null;
+    int minConnections = Integer.MAX_VALUE;
+    int tiedHosts = 0;
+    for (final HostSpec hostSpec : hosts) {
+      if (!role.equals(hostSpec.getRole())) {
+        continue;
+      }
+
+      final String url = hostSpec.getUrl();
+      final AtomicInteger count = counts.get(url);
+      final int numConnections = count == null ? 0 : count.get();
+      if (numConnections < minConnections) {
+        minConnections = numConnections;
+        selectedHost = hostSpec;
+        selectedUrl = url;
+        tiedHosts = 1;
+      } else if (numConnections == minConnections && ThreadLocalRandom.current().nextInt(++tiedHosts) == 0) {
+        // Each of the tied hosts is selected with the same probability.
+        selectedHost = hostSpec;
+        selectedUrl = url;
+      }
+    }
 
-    if (eligibleHosts.size() == 0) {
+    if (selectedHost == null) {
       throw new SQLException(Messages.get("HostSelector.noHostsMatchingRole", new Object[]{role}));
     }
 
-    return eligibleHosts.get(0);
+    counts.computeIfAbsent(selectedUrl, (key) -> new AtomicInteger()).incrementAndGet();
+    return selectedHost;
   }
 
-  private int getNumConnections(
-      final HostSpec hostSpec,
-      final SlidingExpirationCache<HikariPooledConnectionProvider.PoolKey, HikariDataSource> databasePools) {
-    int numConnections = 0;
-    final String url = hostSpec.getUrl();
-    for (final Map.Entry<HikariPooledConnectionProvider.PoolKey, HikariDataSource> entry :
-        databasePools.getEntries().entrySet()) {
-      if (!url.equals(entry.getKey().getUrl())) {
-        continue;
-      }
-      numConnections += entry.getValue().getHikariPoolMXBean().getActiveConnections();
+  private Map<String, AtomicInteger> getConnectionCounts() {
+    final ConnectionCounts counts = this.connectionCounts;
+    if (System.nanoTime() - counts.refreshTimeNano < this.refreshIntervalNano
+        || !this.refreshing.compareAndSet(false, true)) {
+      return counts.countsByUrl;
+    }
+
+    try {
+      final Map<String, AtomicInteger> countsByUrl = new ConcurrentHashMap<>();
+      this.forEachPool.accept((poolKey, dataSource) ->
+          countsByUrl.computeIfAbsent(poolKey.getUrl(), (key) -> new AtomicInteger())
+              .addAndGet(dataSource.getHikariPoolMXBean().getActiveConnections()));
+      this.connectionCounts = new ConnectionCounts(countsByUrl, System.nanoTime());
+      return countsByUrl;
+    } finally {
+      this.refreshing.set(false);
+    }
+  }
+
+  private static class ConnectionCounts {
+
+    private final Map<String, AtomicInteger> countsByUrl;
+    private final long refreshTimeNano;
+
+    private ConnectionCounts(final Map<String, AtomicInteger> countsByUrl, final long refreshTimeNano) {
+      this.countsByUrl = countsByUrl;
+      this.refreshTimeNano = refreshTimeNano;
     }
-    return numConnections;
   }
 }
@@ -58,6 +58,9 @@ public class PluginServiceImpl implements PluginService, CanReleaseResources,
 
   private static final Logger LOGGER = Logger.getLogger(PluginServiceImpl.class.getName());
   protected static final long DEFAULT_HOST_AVAILABILITY_CACHE_EXPIRE_NANO = TimeUnit.MINUTES.toNanos(5);
+  // A host role fetched by the bootstrap query is reused by plugins checking the role of the same
+  // connection while it's being opened.
+  protected static final long BOOTSTRAP_HOST_ROLE_EXPIRE_NANO = TimeUnit.SECONDS.toNanos(1);
 
   protected static final CacheMap<String, HostAvailability> hostAvailabilityExpiringCache = new CacheMap<>();
   protected final ConnectionPluginManager pluginManager;
@@ -76,6 +79,10 @@ public class PluginServiceImpl implements PluginService, CanReleaseResources,
   protected Dialect dialect;
   protected TargetDriverDialect targetDriverDialect;
   protected @Nullable final ConfigurationProfile configurationProfile;
+  protected boolean isBootstrapQuerySupported = true;
+  private @Nullable Connection bootstrapConnection;
+  private @Nullable HostRole bootstrapHostRole;
+  private long bootstrapHostRoleExpirationNano;
 
   protected final SessionStateService sessionStateService;
 
@@ -198,6 +205,11 @@ public class PluginServiceImpl implements PluginService, CanReleaseResources,
 
   @Override
   public HostRole getHostRole(Connection conn) throws SQLException {
+    if (conn != null
+        && conn == this.bootstrapConnection
+        && System.nanoTime() - this.bootstrapHostRoleExpirationNano < 0) {
+      return this.bootstrapHostRole;
+    }
     return this.hostListProvider.getHostRole(conn);
   }
 
@@ -234,6 +246,9 @@ public class PluginServiceImpl implements PluginService, CanReleaseResources,
       @Nullable final ConnectionPlugin skipNotificationForThisPlugin)
       throws SQLException {
 
+    // The plugin manager lock is taken first. It stops counting a JDBC call in progress on this thread
+    // before blocking, so a concurrent switch waiting for active calls to complete isn't blocked by it.
+    this.pluginManager.lockConnectionSwitch();
     connectionSwitchLock.lock();
     try {
 
@@ -305,6 +320,7 @@ public class PluginServiceImpl implements PluginService, CanReleaseResources,
       }
     } finally {
       connectionSwitchLock.unlock();
+      this.pluginManager.unlockConnectionSwitch();
     }
   }
 
@@ -617,6 +633,10 @@ public class PluginServiceImpl implements PluginService, CanReleaseResources,
 
     hostSpec.addAlias(hostSpec.asAlias());
 
+    if (this.fillAliasesWithBootstrapQuery(connection, hostSpec)) {
+      return;
+    }
+
     // Add the host name and port, this host name is usually the internal IP address.
     try (final Statement stmt = connection.createStatement()) {
       try (final ResultSet rs = stmt.executeQuery(this.getDialect().getHostAliasQuery())) {
@@ -636,6 +656,55 @@ public class PluginServiceImpl implements PluginService, CanReleaseResources,
     }
   }
 
+  /**
+   * Fetches the host alias, the instance identifier and the host role of the given connection in a
+   * single round trip, if the current dialect provides a bootstrap query.
+   *
+   * @return true if the aliases have been filled, false if the separate queries should be used instead
+   */
+  private boolean fillAliasesWithBootstrapQuery(final Connection connection, final HostSpec hostSpec)
+      throws SQLException {
+    final String bootstrapQuery = this.getDialect().getBootstrapQuery();
+    if (bootstrapQuery == null
+        || !this.isBootstrapQuerySupported
+        || this.hostListProvider instanceof StaticHostListProvider) {
+      return false;
+    }
+
+    final String hostAlias;
+    final String instanceId;
+    final boolean isReader;
+    try (final Statement stmt = connection.createStatement();
+        final ResultSet rs = stmt.executeQuery(bootstrapQuery)) {
+      if (!rs.next()) {
+        return false;
+      }
+      hostAlias = rs.getString(1);
+      instanceId = rs.getString(2);
+      isReader = rs.getBoolean(3);
+    } catch (final SQLException sqlException) {
+      // Fall back to the separate queries for this and further connections of this wrapper.
+      this.isBootstrapQuerySupported = false;
+      LOGGER.finest(() -> Messages.get(
+          "PluginServiceImpl.bootstrapQueryFailed",
+          new Object[] {sqlException.getMessage()}));
+      return false;
+    }
+
+    hostSpec.addAlias(hostAlias);
+
+    this.bootstrapConnection = connection;
+    this.bootstrapHostRole = isReader ? HostRole.READER : HostRole.WRITER;
+    this.bootstrapHostRoleExpirationNano = System.nanoTime() + BOOTSTRAP_HOST_ROLE_EXPIRE_NANO;
+
+    // Add the instance endpoint if the current connection is associated with a topology aware database cluster.
+    final HostSpec host = this.getHostListProvider().identifyConnection(connection, instanceId);
+    if (host != null) {
+      hostSpec.addAlias(host.asAliases().toArray(new String[]{}));
+    }
+    return true;
+  }
+
   @Override
   public HostSpecBuilder getHostSpecBuilder() {
     return new HostSpecBuilder(new HostAvailabilityStrategyFactory().create(this.props));
@@ -16,6 +16,39 @@
 
 package software.amazon.jdbc;
 
-// A marker interface for providers that use connection pools to return requested Connections
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+
+// An interface for providers that use connection pools to return requested Connections
 public interface PooledConnectionProvider extends ConnectionProvider {
+
+  /**
+   * Notifies the provider that the cluster topology has changed, so that it can prepare connection
+   * pools for new hosts and release the pools of removed hosts. The default implementation does
+   * nothing.
+   *
+   * @param hosts   the hosts in the current cluster topology
+   * @param changes the changes of each host, keyed by host URL
+   * @param props   the connection properties
+   */
+  default void notifyNodeListChanged(
+      final @NonNull List<HostSpec> hosts,
+      final @NonNull Map<String, EnumSet<NodeChangeOptions>> changes,
+      final @NonNull Properties props) {
+    // do nothing
+  }
+
+  /**
+   * Provides the telemetry factory the provider can use to report metrics about its connection
+   * pools. The default implementation does nothing.
+   *
+   * @param telemetryFactory the telemetry factory of the connection that uses the provider
+   */
+  default void setTelemetryFactory(final @NonNull TelemetryFactory telemetryFactory) {
+    // do nothing
+  }
 }
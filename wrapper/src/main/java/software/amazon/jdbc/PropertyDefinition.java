@@ -55,6 +55,15 @@ public class PropertyDefinition {
           "This flag is enabled by default, meaning that the plugins order will be automatically adjusted."
           + " Disable it at your own risk or if you really need plugins to be executed in a particular order.");
 
+  public static final AwsWrapperProperty CONCURRENT_CALLS =
+      new AwsWrapperProperty(
+          "wrapperConcurrentCalls",
+          "false",
+          "Allows JDBC calls against the same connection to be executed concurrently. Only connection switching"
+          + " operations, such as failover, are executed exclusively. They wait for calls in progress on other"
+          + " threads to complete. The target driver connection and all"
+          + " used connection plugins need to support concurrent access.");
+
   public static final AwsWrapperProperty PROFILE_NAME =
       new AwsWrapperProperty(
           "wrapperProfileName", null, "Driver configuration profile name");
@@ -35,6 +35,8 @@ public class AuroraMysqlDialect extends MysqlDialect {
 
   private static final String NODE_ID_QUERY = "SELECT @@aurora_server_id";
   private static final String IS_READER_QUERY = "SELECT @@innodb_read_only";
+  private static final String BOOTSTRAP_QUERY =
+      "SELECT CONCAT(@@hostname, ':', @@port), @@aurora_server_id, @@innodb_read_only";
 
   @Override
   public boolean isDialect(final Connection connection) {
@@ -68,6 +70,11 @@ public class AuroraMysqlDialect extends MysqlDialect {
     return false;
   }
 
+  @Override
+  public String getBootstrapQuery() {
+    return BOOTSTRAP_QUERY;
+  }
+
   @Override
   public List</* dialect code */ String> getDialectUpdateCandidates() {
     return Collections.singletonList(DialectCodes.RDS_MULTI_AZ_MYSQL_CLUSTER);
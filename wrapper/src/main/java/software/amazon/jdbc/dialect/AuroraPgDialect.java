@@ -47,6 +47,9 @@ public class AuroraPgDialect extends PgDialect {
 
   private static final String NODE_ID_QUERY = "SELECT aurora_db_instance_identifier()";
   private static final String IS_READER_QUERY = "SELECT pg_is_in_recovery()";
+  private static final String BOOTSTRAP_QUERY =
+      "SELECT CONCAT(inet_server_addr(), ':', inet_server_port()), aurora_db_instance_identifier(), "
+          + "pg_is_in_recovery()";
 
   @Override
   public boolean isDialect(final Connection connection) {
@@ -117,6 +120,11 @@ public class AuroraPgDialect extends PgDialect {
     return hasExtensions && hasTopology;
   }
 
+  @Override
+  public String getBootstrapQuery() {
+    return BOOTSTRAP_QUERY;
+  }
+
   @Override
   public HostListProviderSupplier getHostListProvider() {
     return (properties, initialUrl, hostListProviderService) -> new AuroraHostListProvider(
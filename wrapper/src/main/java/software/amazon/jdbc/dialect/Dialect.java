@@ -20,6 +20,7 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Properties;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.jdbc.HostSpec;
 import software.amazon.jdbc.exceptions.ExceptionHandler;
 
@@ -32,6 +33,18 @@ public interface Dialect {
 
   String getServerVersionQuery();
 
+  /**
+   * Returns a query that fetches connection details in a single round trip, or null if the dialect
+   * doesn't support it. The query returns a single row with the following columns:
+   * the same host alias as {@link #getHostAliasQuery()}, the instance identifier used by the
+   * host list provider to identify a connection, and whether the instance is a reader.
+   *
+   * @return a query that fetches host alias, instance identifier and reader flag, or null
+   */
+  default @Nullable String getBootstrapQuery() {
+    return null;
+  }
+
   boolean isDialect(Connection connection);
 
   List</* dialect code */ String> getDialectUpdateCandidates();
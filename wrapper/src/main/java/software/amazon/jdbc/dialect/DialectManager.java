@@ -96,6 +96,10 @@ public class DialectManager implements DialectProvider {
     customDialect = null;
   }
 
+  public static CacheMap<String, String> getEndpointCache() {
+    return knownEndpointDialects;
+  }
+
   public static void resetEndpointCache() {
     knownEndpointDialects.clear();
   }
@@ -41,6 +41,7 @@ public class RdsMultiAzDbClusterMysqlDialect extends MysqlDialect {
 
   private static final String NODE_ID_QUERY = "SELECT @@server_id";
   private static final String IS_READER_QUERY = "SELECT @@read_only";
+  private static final String BOOTSTRAP_QUERY = "SELECT CONCAT(@@hostname, ':', @@port), @@server_id, @@read_only";
 
   @Override
   public boolean isDialect(final Connection connection) {
@@ -81,6 +82,11 @@ public class RdsMultiAzDbClusterMysqlDialect extends MysqlDialect {
     return false;
   }
 
+  @Override
+  public String getBootstrapQuery() {
+    return BOOTSTRAP_QUERY;
+  }
+
   @Override
   public List</* dialect code */ String> getDialectUpdateCandidates() {
     return null;
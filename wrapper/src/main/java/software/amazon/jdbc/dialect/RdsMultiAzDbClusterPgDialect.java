@@ -44,6 +44,9 @@ public class RdsMultiAzDbClusterPgDialect extends PgDialect {
 
   private static final String NODE_ID_QUERY = "SELECT dbi_resource_id FROM rds_tools.dbi_resource_id()";
   private static final String IS_READER_QUERY = "SELECT pg_is_in_recovery()";
+  private static final String BOOTSTRAP_QUERY =
+      "SELECT CONCAT(inet_server_addr(), ':', inet_server_port()), "
+          + "(SELECT dbi_resource_id FROM rds_tools.dbi_resource_id()), pg_is_in_recovery()";
 
   @Override
   public ExceptionHandler getExceptionHandler() {
@@ -92,6 +95,11 @@ public class RdsMultiAzDbClusterPgDialect extends PgDialect {
     return false;
   }
 
+  @Override
+  public String getBootstrapQuery() {
+    return BOOTSTRAP_QUERY;
+  }
+
   @Override
   public List</* dialect code */ String> getDialectUpdateCandidates() {
     return null;
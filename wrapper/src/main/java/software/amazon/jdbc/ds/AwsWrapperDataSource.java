@@ -42,6 +42,7 @@ import software.amazon.jdbc.ConnectionProvider;
 import software.amazon.jdbc.DataSourceConnectionProvider;
 import software.amazon.jdbc.Driver;
 import software.amazon.jdbc.DriverConnectionProvider;
+import software.amazon.jdbc.EndpointMetadataSnapshot;
 import software.amazon.jdbc.HostSpec;
 import software.amazon.jdbc.PropertyDefinition;
 import software.amazon.jdbc.TargetDriverHelper;
@@ -119,6 +120,8 @@ public class AwsWrapperDataSource implements DataSource, Referenceable, Serializ
       }
     }
 
+    EndpointMetadataSnapshot.init(props);
+
     String finalUrl;
 
     final TelemetryFactory telemetryFactory = new DefaultTelemetryFactory(props);
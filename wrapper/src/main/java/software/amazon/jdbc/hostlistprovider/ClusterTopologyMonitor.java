@@ -0,0 +1,389 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.hostlistprovider;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import software.amazon.jdbc.ConnectionProvider;
+import software.amazon.jdbc.HostListProvider;
+import software.amazon.jdbc.HostListProviderService;
+import software.amazon.jdbc.HostRole;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.dialect.Dialect;
+import software.amazon.jdbc.hostavailability.HostAvailabilityStrategyFactory;
+import software.amazon.jdbc.targetdriverdialect.TargetDriverDialect;
+import software.amazon.jdbc.util.Messages;
+import software.amazon.jdbc.util.PropertyUtils;
+import software.amazon.jdbc.util.Utils;
+
+/**
+ * This class uses a background thread to keep the cached topology of a cluster up to date, so
+ * application threads can read the cached topology instead of querying it themselves.
+ *
+ * <p>The monitor uses its own connection, preferably to the writer instance. While the writer is
+ * changing, the topology is refreshed at a higher rate. If the topology can't be fetched, the
+ * monitor retries at the higher rate and backs off exponentially on repeated failures.
+ *
+ * <p>A monitor outlives the connection that created it and is shared by all connections to the
+ * cluster, so it doesn't keep any reference to that connection. It queries the topology with its own
+ * host list provider, created by the database dialect, and opens its connection with the connection
+ * provider directly rather than through the connection plugins.
+ */
+public class ClusterTopologyMonitor implements AutoCloseable, Runnable {
+
+  private static final Logger LOGGER = Logger.getLogger(ClusterTopologyMonitor.class.getName());
+
+  // How long the topology is refreshed at the high refresh rate after a writer change is detected.
+  static final long HIGH_REFRESH_PERIOD_NANO = TimeUnit.SECONDS.toNanos(30);
+
+  private final RdsHostListProvider hostListProvider;
+  private final String clusterId;
+  private final HostSpec initialHostSpec;
+  private final Properties properties;
+  private final Dialect dialect;
+  private final TargetDriverDialect targetDriverDialect;
+  private final ConnectionProvider connectionProvider;
+  private final String driverProtocol;
+  private final long refreshRateNano;
+  private final long highRefreshRateNano;
+  private final long topologyCacheExpirationNano;
+
+  private final AtomicBoolean stopped = new AtomicBoolean(false);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition refreshRequested = lock.newCondition();
+  private final ExecutorService threadPool = Executors.newSingleThreadExecutor(runnableTarget -> {
+    final Thread monitoringThread = new Thread(runnableTarget);
+    monitoringThread.setDaemon(true);
+    return monitoringThread;
+  });
+
+  private volatile long highRefreshRateEndTimeNano;
+  private int consecutiveFailures;
+  private @Nullable Connection monitoringConn;
+  private @Nullable HostSpec writerHostSpec;
+
+  /**
+   * Starts monitoring the topology of a cluster.
+   *
+   * @param clusterId             The id of the cluster, used as the topology cache key.
+   * @param originalUrl           The connection URL, used to build the host list provider.
+   * @param initialHostSpec       The host to connect to when the writer instance is unknown.
+   * @param properties            The properties used to open the monitoring connection.
+   * @param dialect               The database dialect, which provides the topology queries.
+   * @param targetDriverDialect   The target driver dialect.
+   * @param connectionProvider    The connection provider used to open the monitoring connection.
+   * @param driverProtocol        The protocol of the target driver.
+   * @param refreshRateMillis     The topology refresh rate.
+   * @param highRefreshRateMillis The topology refresh rate while the writer is changing.
+   */
+  public ClusterTopologyMonitor(
+      final @NonNull String clusterId,
+      final @NonNull String originalUrl,
+      final @NonNull HostSpec initialHostSpec,
+      final @NonNull Properties properties,
+      final @NonNull Dialect dialect,
+      final @NonNull TargetDriverDialect targetDriverDialect,
+      final @NonNull ConnectionProvider connectionProvider,
+      final @NonNull String driverProtocol,
+      final long refreshRateMillis,
+      final long highRefreshRateMillis) {
+
+    this.clusterId = clusterId;
+    this.initialHostSpec = initialHostSpec;
+    this.properties = PropertyUtils.copyProperties(properties);
+    this.dialect = dialect;
+    this.targetDriverDialect = targetDriverDialect;
+    this.connectionProvider = connectionProvider;
+    this.driverProtocol = driverProtocol;
+
+    final HostListProvider provider = dialect.getHostListProvider()
+        .getProvider(this.properties, originalUrl, new MonitoringHostListProviderService());
+    if (!(provider instanceof RdsHostListProvider)) {
+      throw new IllegalArgumentException(Messages.get(
+          "ClusterTopologyMonitor.unsupportedHostListProvider", new Object[] {provider.getClass().getName()}));
+    }
+    this.hostListProvider = (RdsHostListProvider) provider;
+    this.refreshRateNano = TimeUnit.MILLISECONDS.toNanos(refreshRateMillis);
+    this.highRefreshRateNano = TimeUnit.MILLISECONDS.toNanos(highRefreshRateMillis);
+    // Cached entries outlive the refresh interval, so application threads don't fall back to
+    // querying the topology themselves while the next refresh is in progress.
+    this.topologyCacheExpirationNano = 2 * Math.max(this.refreshRateNano, this.highRefreshRateNano);
+
+    this.threadPool.submit(this);
+    this.threadPool.shutdown(); // No more tasks are accepted by pool.
+  }
+
+  /**
+   * Makes the monitor refresh the topology immediately and then at the high refresh rate for a
+   * while. This is used when the caller suspects that the writer instance is changing.
+   */
+  public void requestHighRefreshRate() {
+    this.highRefreshRateEndTimeNano = System.nanoTime() + HIGH_REFRESH_PERIOD_NANO;
+    lock.lock();
+    try {
+      this.refreshRequested.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  boolean isHighRefreshRate() {
+    return this.highRefreshRateEndTimeNano - System.nanoTime() > 0;
+  }
+
+  /**
+   * Returns true if the monitoring thread has stopped, either because the monitor was closed or
+   * because of an unexpected error. A stopped monitor needs to be replaced.
+   */
+  public boolean isStopped() {
+    return this.stopped.get();
+  }
+
+  @Override
+  public void run() {
+    LOGGER.finest(() -> Messages.get("ClusterTopologyMonitor.started", new Object[] {this.clusterId}));
+
+    try {
+      while (!this.stopped.get()) {
+        final long refreshStartTimeNano = System.nanoTime();
+        if (this.refreshTopology()) {
+          this.consecutiveFailures = 0;
+          final long delayNano = (this.isHighRefreshRate() ? this.highRefreshRateNano : this.refreshRateNano)
+              - (System.nanoTime() - refreshStartTimeNano);
+          if (delayNano > 0) {
+            lock.lock();
+            try {
+              this.refreshRequested.awaitNanos(delayNano);
+            } finally {
+              lock.unlock();
+            }
+          }
+        } else {
+          this.consecutiveFailures++;
+          if (this.consecutiveFailures == 1) {
+            // The writer might be changing. Once the topology can be fetched again, it's refreshed at
+            // the high refresh rate for a while.
+            this.highRefreshRateEndTimeNano = System.nanoTime() + HIGH_REFRESH_PERIOD_NANO;
+          }
+          // Refresh requests don't cut the retry delay short, so an unavailable host isn't reconnected to
+          // every time a connection asks for the topology.
+          this.awaitUntil(refreshStartTimeNano + this.getRetryDelayNano(this.consecutiveFailures));
+        }
+      }
+    } catch (final InterruptedException intEx) {
+      Thread.currentThread().interrupt();
+    } catch (final Exception ex) {
+      // this should not be reached; log and exit thread
+      if (LOGGER.isLoggable(Level.FINEST)) {
+        LOGGER.log(
+            Level.FINEST,
+            Messages.get(
+                "ClusterTopologyMonitor.errorRefreshingTopology",
+                new Object[] {this.clusterId, ex.getMessage()}),
+            ex); // We want to print full trace stack of the exception.
+      }
+    } finally {
+      this.stopped.set(true);
+      this.closeMonitoringConnection();
+      LOGGER.finest(() -> Messages.get("ClusterTopologyMonitor.stopped", new Object[] {this.clusterId}));
+    }
+  }
+
+  /**
+   * Returns the delay before the next attempt to fetch the topology after the given number of
+   * consecutive failures. The delay starts at the high refresh rate and doubles with every failure,
+   * up to the regular refresh rate.
+   */
+  long getRetryDelayNano(final int failures) {
+    final long maxDelayNano = Math.max(this.refreshRateNano, this.highRefreshRateNano);
+    final int shift = Math.min(failures - 1, 30);
+    final long delayNano = this.highRefreshRateNano << shift;
+    return delayNano <= 0 || delayNano > maxDelayNano ? maxDelayNano : delayNano;
+  }
+
+  private void awaitUntil(final long endTimeNano) throws InterruptedException {
+    lock.lock();
+    try {
+      long remainingNano = endTimeNano - System.nanoTime();
+      while (remainingNano > 0 && !this.stopped.get()) {
+        remainingNano = this.refreshRequested.awaitNanos(remainingNano);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Fetches the topology with the monitoring connection and updates the topology cache.
+   *
+   * @return true if the topology has been fetched
+   */
+  boolean refreshTopology() {
+    try {
+      this.hostListProvider.init();
+      if (this.monitoringConn == null || this.monitoringConn.isClosed()) {
+        final HostSpec hostSpec = this.writerHostSpec != null ? this.writerHostSpec : this.initialHostSpec;
+        this.monitoringConn = this.connectionProvider.connect(
+            this.driverProtocol,
+            this.dialect,
+            this.targetDriverDialect,
+            hostSpec,
+            PropertyUtils.copyProperties(this.properties));
+      }
+
+      final List<HostSpec> hosts = this.hostListProvider.queryForTopology(this.monitoringConn);
+      if (Utils.isNullOrEmpty(hosts)) {
+        return false;
+      }
+
+      RdsHostListProvider.updateTopologyCache(this.clusterId, hosts, this.topologyCacheExpirationNano);
+      this.updateWriter(hosts);
+      return true;
+
+    } catch (final SQLException | RuntimeException ex) {
+      LOGGER.finest(() -> Messages.get(
+          "ClusterTopologyMonitor.errorRefreshingTopology",
+          new Object[] {this.clusterId, ex.getMessage()}));
+
+      // Reconnect to the initial host on the next attempt, since the writer might be unavailable.
+      this.closeMonitoringConnection();
+      this.writerHostSpec = null;
+      return false;
+    }
+  }
+
+  private void updateWriter(final List<HostSpec> hosts) {
+    HostSpec writer = null;
+    for (final HostSpec host : hosts) {
+      if (host.getRole() == HostRole.WRITER) {
+        writer = host;
+        break;
+      }
+    }
+    if (writer == null) {
+      return;
+    }
+
+    final HostSpec previousWriter = this.writerHostSpec;
+    this.writerHostSpec = writer;
+    if (previousWriter != null && !previousWriter.getHost().equals(writer.getHost())) {
+      final HostSpec newWriter = writer;
+      LOGGER.fine(() -> Messages.get(
+          "ClusterTopologyMonitor.writerChanged",
+          new Object[] {this.clusterId, previousWriter.getHost(), newWriter.getHost()}));
+
+      // The current connection is to the previous writer, so the next refresh reconnects.
+      this.closeMonitoringConnection();
+      this.requestHighRefreshRate();
+    }
+  }
+
+  private void closeMonitoringConnection() {
+    final Connection conn = this.monitoringConn;
+    this.monitoringConn = null;
+    if (conn != null) {
+      try {
+        conn.close();
+      } catch (final SQLException ex) {
+        // ignore
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    this.stopped.set(true);
+    lock.lock();
+    try {
+      this.refreshRequested.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    // Waiting for 30s gives a thread enough time to exit monitoring loop and close database connection.
+    if (!this.threadPool.awaitTermination(30, TimeUnit.SECONDS)) {
+      this.threadPool.shutdownNow();
+    }
+  }
+
+  /**
+   * The service of the host list provider used by the monitor. It only provides what is needed to
+   * query and parse the topology.
+   */
+  private class MonitoringHostListProviderService implements HostListProviderService {
+
+    private @Nullable HostSpec initialConnectionHostSpec;
+
+    @Override
+    public boolean isStaticHostListProvider() {
+      return false;
+    }
+
+    @Override
+    public HostListProvider getHostListProvider() {
+      return hostListProvider;
+    }
+
+    @Override
+    public void setHostListProvider(final HostListProvider hostListProvider) {
+      // The monitor always uses the provider it has created.
+    }
+
+    @Override
+    public void setInitialConnectionHostSpec(final HostSpec initialConnectionHostSpec) {
+      this.initialConnectionHostSpec = initialConnectionHostSpec;
+    }
+
+    @Override
+    public HostSpec getInitialConnectionHostSpec() {
+      return this.initialConnectionHostSpec;
+    }
+
+    @Override
+    public Connection getCurrentConnection() {
+      return monitoringConn;
+    }
+
+    @Override
+    public HostSpec getCurrentHostSpec() {
+      return writerHostSpec != null ? writerHostSpec : initialHostSpec;
+    }
+
+    @Override
+    public Dialect getDialect() {
+      return dialect;
+    }
+
+    @Override
+    public HostSpecBuilder getHostSpecBuilder() {
+      return new HostSpecBuilder(new HostAvailabilityStrategyFactory().create(properties));
+    }
+  }
+}
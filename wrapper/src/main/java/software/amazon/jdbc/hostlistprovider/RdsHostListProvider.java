@@ -34,8 +34,12 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -46,6 +50,7 @@ import software.amazon.jdbc.HostListProviderService;
 import software.amazon.jdbc.HostRole;
 import software.amazon.jdbc.HostSpec;
 import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.PluginService;
 import software.amazon.jdbc.PropertyDefinition;
 import software.amazon.jdbc.hostavailability.HostAvailability;
 import software.amazon.jdbc.util.CacheMap;
@@ -53,9 +58,12 @@ import software.amazon.jdbc.util.ConnectionUrlParser;
 import software.amazon.jdbc.util.Messages;
 import software.amazon.jdbc.util.RdsUrlType;
 import software.amazon.jdbc.util.RdsUtils;
+import software.amazon.jdbc.util.SlidingExpirationCache;
 import software.amazon.jdbc.util.StringUtils;
 import software.amazon.jdbc.util.SynchronousExecutor;
 import software.amazon.jdbc.util.Utils;
+import software.amazon.jdbc.util.telemetry.TelemetryCounter;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
 
 public class RdsHostListProvider implements DynamicHostListProvider {
 
@@ -82,6 +90,20 @@ public class RdsHostListProvider implements DynamicHostListProvider {
               + "This pattern is required to be specified for IP address or custom domain connections to AWS RDS "
               + "clusters. Otherwise, if unspecified, the pattern will be automatically created for AWS RDS clusters.");
 
+  public static final AwsWrapperProperty CLUSTER_TOPOLOGY_MONITOR_ENABLED =
+      new AwsWrapperProperty(
+          "clusterTopologyMonitorEnabled",
+          "false",
+          "Enables a background thread per cluster that refreshes the cached cluster topology, "
+              + "so the topology isn't queried by application threads when the cached topology expires.");
+
+  public static final AwsWrapperProperty CLUSTER_TOPOLOGY_HIGH_REFRESH_RATE_MS =
+      new AwsWrapperProperty(
+          "clusterTopologyHighRefreshRateMs",
+          "100",
+          "Cluster topology refresh rate in millis used by the background topology monitor "
+              + "while the writer instance is changing.");
+
   final Executor networkTimeoutExecutor = new SynchronousExecutor();
   final HostListProviderService hostListProviderService;
   private final String originalUrl;
@@ -103,6 +125,27 @@ public class RdsHostListProvider implements DynamicHostListProvider {
   public static final CacheMap<String, String> suggestedPrimaryClusterIdCache = new CacheMap<>();
   public static final CacheMap<String, Boolean> primaryClusterIdCache = new CacheMap<>();
 
+  // Topology monitors are disposed after not being used by any connection for this long.
+  static final long MONITOR_EXPIRATION_NANO = TimeUnit.MINUTES.toNanos(10);
+  protected static final SlidingExpirationCache<String, ClusterTopologyMonitor> monitors =
+      new SlidingExpirationCache<>(
+          (monitor) -> true,
+          (monitor) -> {
+            try {
+              monitor.close();
+            } catch (Exception ex) {
+              // ignore
+            }
+          });
+
+  // Topology queries in progress, by cluster id. Connections that need the topology of a cluster
+  // while it's being queried wait for the result instead of running the same query.
+  protected static final ConcurrentHashMap<String, CompletableFuture<List<HostSpec>>> inFlightTopologyQueries =
+      new ConcurrentHashMap<>();
+
+  // Listeners notified when the cached topology of any cluster is updated.
+  protected static final Set<TopologyListener> topologyListeners = ConcurrentHashMap.newKeySet();
+
   static final int defaultTopologyQueryTimeoutMs = 5000;
   private final ReentrantLock lock = new ReentrantLock();
   protected String clusterId;
@@ -113,7 +156,14 @@ public class RdsHostListProvider implements DynamicHostListProvider {
   // (rather than a GUID or a value provided by the user).
   protected boolean isPrimaryClusterId;
 
+  // A generated clusterId is unique to this provider, until a clusterId shared with other
+  // connections to the same cluster is adopted.
+  protected boolean isGeneratedClusterId;
+
   protected volatile boolean isInitialized = false;
+  protected boolean isMonitorEnabled;
+  protected TelemetryCounter topologyQueriesCounter;
+  protected TelemetryCounter coalescedTopologyQueriesCounter;
 
   static final Logger LOGGER = Logger.getLogger(RdsHostListProvider.class.getName());
 
@@ -164,8 +214,16 @@ public class RdsHostListProvider implements DynamicHostListProvider {
 
       this.clusterId = UUID.randomUUID().toString();
       this.isPrimaryClusterId = false;
+      this.isGeneratedClusterId = true;
       this.refreshRateNano =
           TimeUnit.MILLISECONDS.toNanos(CLUSTER_TOPOLOGY_REFRESH_RATE_MS.getInteger(properties));
+      // The monitor opens its own connection with the connection provider of the plugin service.
+      this.isMonitorEnabled = CLUSTER_TOPOLOGY_MONITOR_ENABLED.getBoolean(properties)
+          && this.hostListProviderService instanceof PluginService;
+
+      final TelemetryFactory telemetryFactory = this.hostListProviderService.getTelemetryFactory();
+      this.topologyQueriesCounter = telemetryFactory.createCounter("topology.queries");
+      this.coalescedTopologyQueriesCounter = telemetryFactory.createCounter("topology.queries.coalesced");
 
       HostSpecBuilder hostSpecBuilder = this.hostListProviderService.getHostSpecBuilder();
       this.clusterInstanceTemplate =
@@ -179,10 +237,12 @@ public class RdsHostListProvider implements DynamicHostListProvider {
       final String clusterIdSetting = CLUSTER_ID.getString(this.properties);
       if (!StringUtils.isNullOrEmpty(clusterIdSetting)) {
         this.clusterId = clusterIdSetting;
+        this.isGeneratedClusterId = false;
       } else if (rdsUrlType == RdsUrlType.RDS_PROXY) {
         // Each proxy is associated with a single cluster, so it's safe to use RDS Proxy Url as cluster
         // identification
         this.clusterId = this.initialHostSpec.getUrl();
+        this.isGeneratedClusterId = false;
       } else if (rdsUrlType.isRds()) {
         final ClusterSuggestedResult clusterSuggestedResult =
             getSuggestedClusterId(this.initialHostSpec.getUrl());
@@ -190,6 +250,8 @@ public class RdsHostListProvider implements DynamicHostListProvider {
             clusterSuggestedResult.clusterId)) {
           this.clusterId = clusterSuggestedResult.clusterId;
           this.isPrimaryClusterId = clusterSuggestedResult.isPrimaryClusterId;
+          // The suggested clusterId is shared with the connection that cached the topology.
+          this.isGeneratedClusterId = false;
         } else {
           final String clusterRdsHostUrl =
               this.rdsHelper.getRdsClusterHostUrl(this.initialHostSpec.getUrl());
@@ -198,6 +260,7 @@ public class RdsHostListProvider implements DynamicHostListProvider {
                 ? String.format("%s:%s", clusterRdsHostUrl, this.clusterInstanceTemplate.getPort())
                 : clusterRdsHostUrl;
             this.isPrimaryClusterId = true;
+            this.isGeneratedClusterId = false;
             primaryClusterIdCache.put(this.clusterId, true, this.suggestedClusterIdRefreshRateNano);
           }
         }
@@ -212,7 +275,9 @@ public class RdsHostListProvider implements DynamicHostListProvider {
   /**
    * Get cluster topology. It may require an extra call to database to fetch the latest topology. A
    * cached copy of topology is returned if it's not yet outdated (controlled by {@link
-   * #refreshRateNano}).
+   * #refreshRateNano}). If {@link #CLUSTER_TOPOLOGY_MONITOR_ENABLED} is set, the cached copy is kept
+   * up to date by a {@link ClusterTopologyMonitor}, and the database is only queried here if there's
+   * no cached copy yet or if an update is forced.
    *
    * @param conn A connection to database to fetch the latest topology, if needed.
    * @param forceUpdate If true, it forces a service to ignore cached copy of topology and to fetch
@@ -232,6 +297,12 @@ public class RdsHostListProvider implements DynamicHostListProvider {
 
       this.clusterId = suggestedPrimaryClusterId;
       this.isPrimaryClusterId = true;
+      this.isGeneratedClusterId = false;
+    }
+
+    // The monitor of a generated clusterId is only looked up once the topology is known.
+    if (!this.isGeneratedClusterId) {
+      this.useMonitor(forceUpdate);
     }
 
     final List<HostSpec> cachedHosts = topologyCache.get(this.clusterId);
@@ -252,13 +323,15 @@ public class RdsHostListProvider implements DynamicHostListProvider {
       }
 
       // fetch topology from the DB
-      final List<HostSpec> hosts = queryForTopology(conn);
+      // A forced update needs the topology as seen by the given connection, so it isn't shared.
+      final List<HostSpec> hosts = forceUpdate ? queryForTopology(conn) : queryForTopologyOnce(conn);
 
       if (!Utils.isNullOrEmpty(hosts)) {
-        topologyCache.put(this.clusterId, hosts, this.refreshRateNano);
+        updateTopologyCache(this.clusterId, hosts, this.refreshRateNano);
         if (needToSuggest) {
           this.suggestPrimaryCluster(hosts);
         }
+        this.useMonitorOfTopology(hosts, forceUpdate);
         return new FetchTopologyResult(false, hosts);
       }
     }
@@ -267,10 +340,156 @@ public class RdsHostListProvider implements DynamicHostListProvider {
       return new FetchTopologyResult(false, this.initialHostList);
     } else {
       // use cached data
+      this.useMonitorOfTopology(cachedHosts, forceUpdate);
       return new FetchTopologyResult(true, cachedHosts);
     }
   }
 
+  private void useMonitor(final boolean forceUpdate) {
+    if (!this.isMonitorEnabled) {
+      return;
+    }
+
+    final ClusterTopologyMonitor monitor;
+    try {
+      monitor = this.getMonitor();
+    } catch (final RuntimeException ex) {
+      LOGGER.warning(() -> Messages.get("RdsHostListProvider.monitorNotAvailable",
+          new Object[] {this.clusterId, ex.getMessage()}));
+      this.isMonitorEnabled = false;
+      return;
+    }
+    if (forceUpdate) {
+      monitor.requestHighRefreshRate();
+    }
+  }
+
+  /**
+   * Uses the topology monitor of the cluster with the given topology. A generated clusterId is
+   * unique to this provider, so if another connection already monitors a cluster that shares a host
+   * with the given topology, its clusterId is adopted instead of starting another monitor.
+   *
+   * @param hosts the current topology
+   * @param forceUpdate true if the topology has been refreshed on request
+   */
+  private void useMonitorOfTopology(final List<HostSpec> hosts, final boolean forceUpdate) {
+    if (!this.isMonitorEnabled || !this.isGeneratedClusterId) {
+      return;
+    }
+
+    synchronized (monitors) {
+      final String monitoredClusterId = getMonitoredClusterId(hosts);
+      if (monitoredClusterId != null) {
+        this.clusterId = monitoredClusterId;
+      }
+      // The monitor is created while holding the lock, so other connections to the cluster find it.
+      this.useMonitor(forceUpdate);
+    }
+    // From now on, the clusterId is shared with the other connections to the cluster.
+    this.isGeneratedClusterId = false;
+  }
+
+  private static @Nullable String getMonitoredClusterId(final List<HostSpec> hosts) {
+    final Set<String> urls = new HashSet<>();
+    for (final HostSpec host : hosts) {
+      urls.add(host.getUrl());
+    }
+
+    for (final String monitoredClusterId : monitors.getEntries().keySet()) {
+      final List<HostSpec> monitoredHosts = topologyCache.get(monitoredClusterId);
+      if (monitoredHosts == null) {
+        continue;
+      }
+      for (final HostSpec host : monitoredHosts) {
+        if (urls.contains(host.getUrl())) {
+          return monitoredClusterId;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get or create the {@link ClusterTopologyMonitor} of the current cluster. A monitor whose thread
+   * has stopped is replaced with a new one.
+   *
+   * @return the topology monitor of the current cluster
+   */
+  protected ClusterTopologyMonitor getMonitor() {
+    final ClusterTopologyMonitor monitor = this.getOrCreateMonitor();
+    if (!monitor.isStopped()) {
+      return monitor;
+    }
+
+    synchronized (monitors) {
+      final ClusterTopologyMonitor currentMonitor = this.getOrCreateMonitor();
+      if (!currentMonitor.isStopped()) {
+        // Another connection has already replaced the stopped monitor.
+        return currentMonitor;
+      }
+      monitors.remove(this.clusterId);
+      return this.getOrCreateMonitor();
+    }
+  }
+
+  private ClusterTopologyMonitor getOrCreateMonitor() {
+    // Only what the monitor needs is passed to it, so it doesn't keep this connection reachable.
+    final PluginService pluginService = (PluginService) this.hostListProviderService;
+    return monitors.computeIfAbsent(
+        this.clusterId,
+        (key) -> new ClusterTopologyMonitor(
+            key,
+            this.originalUrl,
+            this.initialHostSpec,
+            this.properties,
+            pluginService.getDialect(),
+            pluginService.getTargetDriverDialect(),
+            pluginService.getConnectionProvider(),
+            pluginService.getDriverProtocol(),
+            TimeUnit.NANOSECONDS.toMillis(this.refreshRateNano),
+            CLUSTER_TOPOLOGY_HIGH_REFRESH_RATE_MS.getLong(this.properties)),
+        MONITOR_EXPIRATION_NANO);
+  }
+
+  /**
+   * Adds a listener that is notified when the cached topology of any cluster is updated.
+   *
+   * @param listener the listener to add
+   */
+  public static void addTopologyListener(final TopologyListener listener) {
+    topologyListeners.add(listener);
+  }
+
+  /**
+   * Removes a listener added with {@link #addTopologyListener(TopologyListener)}.
+   *
+   * @param listener the listener to remove
+   */
+  public static void removeTopologyListener(final TopologyListener listener) {
+    topologyListeners.remove(listener);
+  }
+
+  /**
+   * Updates the cached topology of a cluster and notifies the topology listeners.
+   *
+   * @param clusterId      the id of the cluster
+   * @param hosts          the latest topology of the cluster
+   * @param expirationNano the time in nanoseconds the topology is cached for
+   */
+  public static void updateTopologyCache(
+      final String clusterId, final List<HostSpec> hosts, final long expirationNano) {
+    topologyCache.put(clusterId, hosts, expirationNano);
+    for (final TopologyListener listener : topologyListeners) {
+      try {
+        listener.onTopologyUpdate(clusterId, hosts);
+      } catch (final RuntimeException ex) {
+        LOGGER.finest(() -> Messages.get(
+            "RdsHostListProvider.topologyListenerError",
+            new Object[] {clusterId, ex.getMessage()}));
+      }
+    }
+  }
+
   private ClusterSuggestedResult getSuggestedClusterId(final String url) {
     for (final Entry<String, List<HostSpec>> entry : topologyCache.getEntries().entrySet()) {
       final String key = entry.getKey(); // clusterId
@@ -361,6 +580,53 @@ public class RdsHostListProvider implements DynamicHostListProvider {
     }
   }
 
+  /**
+   * Obtain a cluster topology from database. If another connection to the same cluster is already
+   * querying the topology, wait for its result instead of running the same query. If that query
+   * fails or doesn't complete in time, the topology is queried with the given connection.
+   *
+   * @param conn A connection to database to fetch the latest topology.
+   * @return a list of {@link HostSpec} objects representing the topology
+   * @throws SQLException if errors occurred while retrieving the topology.
+   */
+  protected List<HostSpec> queryForTopologyOnce(final Connection conn) throws SQLException {
+    final String clusterId = this.clusterId;
+    final CompletableFuture<List<HostSpec>> query = new CompletableFuture<>();
+    final CompletableFuture<List<HostSpec>> inFlightQuery = inFlightTopologyQueries.putIfAbsent(clusterId, query);
+
+    if (inFlightQuery == null) {
+      try {
+        final List<HostSpec> hosts = this.queryAndCountTopology(conn);
+        query.complete(hosts);
+        return hosts;
+      } catch (final SQLException | RuntimeException ex) {
+        query.completeExceptionally(ex);
+        throw ex;
+      } finally {
+        inFlightTopologyQueries.remove(clusterId, query);
+      }
+    }
+
+    try {
+      final List<HostSpec> hosts = inFlightQuery.get(defaultTopologyQueryTimeoutMs, TimeUnit.MILLISECONDS);
+      this.coalescedTopologyQueriesCounter.inc();
+      return hosts;
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(Messages.get("RdsHostListProvider.interruptedWaitingForTopology"), ex);
+    } catch (final ExecutionException | TimeoutException ex) {
+      LOGGER.finest(() -> Messages.get("RdsHostListProvider.inFlightTopologyQueryFailed",
+          new Object[] {clusterId, ex.getCause() != null ? ex.getCause().getMessage() : ex.toString()}));
+    }
+
+    return this.queryAndCountTopology(conn);
+  }
+
+  private List<HostSpec> queryAndCountTopology(final Connection conn) throws SQLException {
+    this.topologyQueriesCounter.inc();
+    return queryForTopology(conn);
+  }
+
   /**
    * Form a list of hosts from the results of the topology query.
    *
@@ -481,9 +747,10 @@ public class RdsHostListProvider implements DynamicHostListProvider {
   }
 
   /**
-   * Clear topology cache for all clusters.
+   * Clear topology cache for all clusters and stop all topology monitors.
    */
   public static void clearAll() {
+    monitors.clear();
     topologyCache.clear();
     primaryClusterIdCache.clear();
     suggestedPrimaryClusterIdCache.clear();
@@ -646,19 +913,7 @@ public class RdsHostListProvider implements DynamicHostListProvider {
     try (final Statement stmt = connection.createStatement();
          final ResultSet resultSet = stmt.executeQuery(this.nodeIdQuery)) {
       if (resultSet.next()) {
-        final String instanceName = resultSet.getString(1);
-
-        final List<HostSpec> topology = this.refresh();
-
-        if (topology == null) {
-          return null;
-        }
-
-        return topology
-            .stream()
-            .filter(host -> Objects.equals(instanceName, host.getHostId()))
-            .findAny()
-            .orElse(null);
+        return this.identifyConnection(connection, resultSet.getString(1));
       }
     } catch (final SQLException e) {
       throw new SQLException(Messages.get("RdsHostListProvider.errorIdentifyConnection"), e);
@@ -666,4 +921,19 @@ public class RdsHostListProvider implements DynamicHostListProvider {
 
     throw new SQLException(Messages.get("RdsHostListProvider.errorIdentifyConnection"));
   }
+
+  @Override
+  public HostSpec identifyConnection(Connection connection, String instanceId) throws SQLException {
+    final List<HostSpec> topology = this.refresh();
+
+    if (topology == null) {
+      return null;
+    }
+
+    return topology
+        .stream()
+        .filter(host -> Objects.equals(instanceId, host.getHostId()))
+        .findAny()
+        .orElse(null);
+  }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.hostlistprovider;
+
+import java.util.List;
+import software.amazon.jdbc.HostSpec;
+
+/**
+ * A listener that is notified when the cached topology of a cluster is updated.
+ *
+ * @see RdsHostListProvider#addTopologyListener(TopologyListener)
+ */
+@FunctionalInterface
+public interface TopologyListener {
+
+  /**
+   * Called after the cached topology of a cluster has been updated. It's called by the thread that
+   * has updated the topology, so implementations should return quickly.
+   *
+   * @param clusterId the id of the cluster
+   * @param hosts     the latest topology of the cluster
+   */
+  void onTopologyUpdate(String clusterId, List<HostSpec> hosts);
+}
@@ -27,15 +27,23 @@ import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
@@ -78,8 +86,25 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
   public static final AwsWrapperProperty ENDPOINT_PROPERTY = new AwsWrapperProperty(
       "secretsManagerEndpoint", null,
       "The endpoint of the secret to retrieve.");
+  public static final AwsWrapperProperty SECRET_EXPIRATION_PROPERTY = new AwsWrapperProperty(
+      "secretsManagerExpirationSec", "0",
+      "Time in seconds after which cached credentials are fetched again from AWS Secrets Manager. "
+          + "The default value 0 keeps cached credentials until a login fails.");
+  public static final AwsWrapperProperty SECRET_REFRESH_INTERVAL_PROPERTY = new AwsWrapperProperty(
+      "secretsManagerRefreshIntervalSec", "0",
+      "Interval in seconds at which cached credentials still in use are fetched again in the background. "
+          + "The default value 0 disables background refresh.");
 
   protected static final Map<Pair<String, Region>, Secret> secretsCache = new ConcurrentHashMap<>();
+  // Fetches in progress. Connections missing the cache for the same secret wait for a single fetch.
+  static final Map<Pair<String, Region>, CompletableFuture<Secret>> pendingSecrets = new ConcurrentHashMap<>();
+  static final Map<Pair<String, Region>, SecretRefreshTask> secretRefreshTasks = new ConcurrentHashMap<>();
+  private static final ScheduledExecutorService secretRefreshExecutor =
+      Executors.newSingleThreadScheduledExecutor(runnableTarget -> {
+        final Thread refreshThread = new Thread(runnableTarget, "secrets-manager-refresh");
+        refreshThread.setDaemon(true);
+        return refreshThread;
+      });
 
   private static final Pattern SECRETS_ARN_PATTERN =
       Pattern.compile("^arn:aws:secretsmanager:(?<region>[^:\\n]*):[^:\\n]*:([^:/\\n]*[:/])?(.*)$");
@@ -88,6 +113,8 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
   private final BiFunction<HostSpec, Region, SecretsManagerClient>
       secretsManagerClientFunc;
   private final Function<String, GetSecretValueRequest> getSecretValueRequestFunc;
+  private final int secretExpirationSec;
+  private final int refreshIntervalSec;
   private Secret secret;
   protected PluginService pluginService;
 
@@ -181,6 +208,8 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
 
     this.secretsManagerClientFunc = secretsManagerClientFunc;
     this.getSecretValueRequestFunc = getSecretValueRequestFunc;
+    this.secretExpirationSec = SECRET_EXPIRATION_PROPERTY.getInteger(props);
+    this.refreshIntervalSec = SECRET_REFRESH_INTERVAL_PROPERTY.getInteger(props);
     this.fetchCredentialsCounter = this.pluginService.getTelemetryFactory()
         .createCounter(TELEMETRY_FETCH_CREDENTIALS_COUNTER);
   }
@@ -257,14 +286,25 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
 
     try {
       boolean fetched = false;
+      final Secret usedSecret = this.secret;
       this.secret = secretsCache.get(this.secretKey);
 
-      if (secret == null || forceReFetch) {
+      final SecretRefreshTask refreshTask = secretRefreshTasks.get(this.secretKey);
+      if (refreshTask != null) {
+        refreshTask.lastUsedTimeNano = System.nanoTime();
+      }
+
+      if (forceReFetch && this.secret != null && usedSecret != null && !this.secret.hasSameCredentials(usedSecret)) {
+        // Credentials have already been updated since they were used for the failed login.
+        return true;
+      }
+
+      if (secret == null || secret.isExpired() || forceReFetch) {
         try {
-          this.secret = fetchLatestCredentials(hostSpec);
+          this.secret = fetchSecret(hostSpec, forceReFetch, usedSecret);
           if (this.secret != null) {
             fetched = true;
-            secretsCache.put(this.secretKey, this.secret);
+            this.scheduleSecretRefresh(hostSpec);
           }
         } catch (final SecretsManagerException | JsonProcessingException exception) {
           LOGGER.log(
@@ -314,6 +354,82 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
     }
   }
 
+  /**
+   * Fetches the current credentials from AWS Secrets Manager service and stores them in the cache.
+   * If another connection is already fetching the same secret, waits for its result instead. A valid
+   * secret cached by a fetch that completed just before is used as well, unless a re-fetch is forced
+   * and the cached secret has the same credentials as the ones that failed to log in.
+   *
+   * @param hostSpec A {@link HostSpec} instance containing host information for the current connection.
+   * @param forceReFetch Whether credentials are fetched again because a login with them failed.
+   * @param usedSecret The secret used for the failed login, if any.
+   * @return a Secret object containing the credentials fetched from the AWS Secrets Manager service.
+   * @throws Exception if credentials can't be fetched or read.
+   */
+  Secret fetchSecret(
+      final HostSpec hostSpec,
+      final boolean forceReFetch,
+      final @Nullable Secret usedSecret) throws Exception {
+    final CompletableFuture<Secret> secretFuture = new CompletableFuture<>();
+    final CompletableFuture<Secret> pendingSecret = pendingSecrets.putIfAbsent(this.secretKey, secretFuture);
+    if (pendingSecret != null) {
+      try {
+        return pendingSecret.get();
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new SQLException(ex);
+      } catch (final ExecutionException ex) {
+        if (ex.getCause() instanceof Exception) {
+          throw (Exception) ex.getCause();
+        }
+        if (ex.getCause() instanceof Error) {
+          throw (Error) ex.getCause();
+        }
+        throw ex;
+      }
+    }
+
+    try {
+      final Secret cachedSecret = secretsCache.get(this.secretKey);
+      if (cachedSecret != null
+          && !cachedSecret.isExpired()
+          && (!forceReFetch || usedSecret != null && !cachedSecret.hasSameCredentials(usedSecret))) {
+        secretFuture.complete(cachedSecret);
+        return cachedSecret;
+      }
+
+      final Secret latestSecret = fetchLatestCredentials(hostSpec);
+      if (latestSecret != null) {
+        latestSecret.setExpiration(this.secretExpirationSec);
+        secretsCache.put(this.secretKey, latestSecret);
+      }
+      secretFuture.complete(latestSecret);
+      return latestSecret;
+    } catch (final Exception | Error ex) {
+      secretFuture.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      pendingSecrets.remove(this.secretKey, secretFuture);
+    }
+  }
+
+  private void scheduleSecretRefresh(final HostSpec hostSpec) {
+    if (this.refreshIntervalSec <= 0 || secretRefreshTasks.containsKey(this.secretKey)) {
+      return;
+    }
+
+    final SecretRefreshTask refreshTask = new SecretRefreshTask(
+        this.secretKey,
+        hostSpec,
+        this.secretsManagerClientFunc,
+        this.getSecretValueRequestFunc,
+        this.secretExpirationSec,
+        this.refreshIntervalSec);
+    if (secretRefreshTasks.putIfAbsent(this.secretKey, refreshTask) == null) {
+      refreshTask.schedule();
+    }
+  }
+
   /**
    * Fetches the current credentials from AWS Secrets Manager service.
    *
@@ -324,10 +440,23 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
    */
   Secret fetchLatestCredentials(final HostSpec hostSpec)
       throws SecretsManagerException, JsonProcessingException {
+    return fetchLatestCredentials(
+        this.secretsManagerClientFunc,
+        this.getSecretValueRequestFunc,
+        this.secretKey,
+        hostSpec);
+  }
+
+  private static Secret fetchLatestCredentials(
+      final BiFunction<HostSpec, Region, SecretsManagerClient> secretsManagerClientFunc,
+      final Function<String, GetSecretValueRequest> getSecretValueRequestFunc,
+      final Pair<String, Region> secretKey,
+      final HostSpec hostSpec)
+      throws SecretsManagerException, JsonProcessingException {
     final SecretsManagerClient client = secretsManagerClientFunc.apply(
         hostSpec,
-        this.secretKey.right());
-    final GetSecretValueRequest request = getSecretValueRequestFunc.apply(this.secretKey.left());
+        secretKey.right());
+    final GetSecretValueRequest request = getSecretValueRequestFunc.apply(secretKey.left());
 
     final GetSecretValueResponse valueResponse;
     try {
@@ -337,7 +466,17 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
     }
 
     final ObjectMapper mapper = new ObjectMapper();
-    return mapper.readValue(valueResponse.secretString(), Secret.class);
+    final Secret secret = mapper.readValue(valueResponse.secretString(), Secret.class);
+    if (secret != null) {
+      secret.versionId = valueResponse.versionId();
+    }
+    return secret;
+  }
+
+  public static void clearCache() {
+    secretRefreshTasks.values().forEach(SecretRefreshTask::cancel);
+    secretRefreshTasks.clear();
+    secretsCache.clear();
   }
 
   /**
@@ -359,6 +498,9 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
     private String username;
     @JsonProperty("password")
     private String password;
+    private String versionId;
+    // 0 means the secret doesn't expire.
+    private volatile long expirationTimeNano;
 
     Secret() {
     }
@@ -375,5 +517,116 @@ public class AwsSecretsManagerConnectionPlugin extends AbstractConnectionPlugin
     String getPassword() {
       return this.password;
     }
+
+    String getVersionId() {
+      return this.versionId;
+    }
+
+    void setExpiration(final int expirationSec) {
+      this.expirationTimeNano = expirationSec > 0
+          ? System.nanoTime() + TimeUnit.SECONDS.toNanos(expirationSec)
+          : 0;
+    }
+
+    boolean isExpired() {
+      return this.expirationTimeNano != 0 && System.nanoTime() - this.expirationTimeNano > 0;
+    }
+
+    boolean hasSameCredentials(final Secret other) {
+      return Objects.equals(this.username, other.username) && Objects.equals(this.password, other.password);
+    }
+  }
+
+  /**
+   * Fetches a secret again at a fixed interval, as long as connections have been opened with it since the
+   * previous fetch. The cached secret is only replaced when the secret version has changed.
+   */
+  static class SecretRefreshTask implements Runnable {
+    private final Pair<String, Region> secretKey;
+    private final HostSpec hostSpec;
+    private final BiFunction<HostSpec, Region, SecretsManagerClient> secretsManagerClientFunc;
+    private final Function<String, GetSecretValueRequest> getSecretValueRequestFunc;
+    private final int secretExpirationSec;
+    private final int refreshIntervalSec;
+    volatile long lastUsedTimeNano = System.nanoTime();
+    private volatile long lastRefreshTimeNano = System.nanoTime();
+    private volatile ScheduledFuture<?> scheduledFuture;
+
+    SecretRefreshTask(
+        final Pair<String, Region> secretKey,
+        final HostSpec hostSpec,
+        final BiFunction<HostSpec, Region, SecretsManagerClient> secretsManagerClientFunc,
+        final Function<String, GetSecretValueRequest> getSecretValueRequestFunc,
+        final int secretExpirationSec,
+        final int refreshIntervalSec) {
+      this.secretKey = secretKey;
+      this.hostSpec = hostSpec;
+      this.secretsManagerClientFunc = secretsManagerClientFunc;
+      this.getSecretValueRequestFunc = getSecretValueRequestFunc;
+      this.secretExpirationSec = secretExpirationSec;
+      this.refreshIntervalSec = refreshIntervalSec;
+    }
+
+    void schedule() {
+      this.scheduledFuture = secretRefreshExecutor.schedule(this, this.refreshIntervalSec, TimeUnit.SECONDS);
+    }
+
+    void cancel() {
+      final ScheduledFuture<?> future = this.scheduledFuture;
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+
+    @Override
+    public void run() {
+      if (this.lastUsedTimeNano - this.lastRefreshTimeNano < 0) {
+        // No connections have been opened with this secret since the last refresh.
+        secretRefreshTasks.remove(this.secretKey, this);
+        LOGGER.finest(() -> Messages.get(
+            "AwsSecretsManagerConnectionPlugin.stoppedSecretRefresh",
+            new Object[] {this.secretKey.left()}));
+        return;
+      }
+
+      this.lastRefreshTimeNano = System.nanoTime();
+      try {
+        this.refreshSecret();
+      } finally {
+        // The refresh is scheduled again even if an error is thrown, so the secret keeps being refreshed.
+        if (secretRefreshTasks.get(this.secretKey) == this) {
+          this.schedule();
+        }
+      }
+    }
+
+    private void refreshSecret() {
+      try {
+        final Secret latestSecret = fetchLatestCredentials(
+            this.secretsManagerClientFunc,
+            this.getSecretValueRequestFunc,
+            this.secretKey,
+            this.hostSpec);
+        if (latestSecret != null) {
+          final Secret cachedSecret = secretsCache.get(this.secretKey);
+          if (cachedSecret != null
+              && cachedSecret.getVersionId() != null
+              && cachedSecret.getVersionId().equals(latestSecret.getVersionId())) {
+            cachedSecret.setExpiration(this.secretExpirationSec);
+          } else {
+            latestSecret.setExpiration(this.secretExpirationSec);
+            secretsCache.put(this.secretKey, latestSecret);
+            LOGGER.finest(() -> Messages.get(
+                "AwsSecretsManagerConnectionPlugin.refreshedSecret",
+                new Object[] {this.secretKey.left(), latestSecret.getVersionId()}));
+          }
+        }
+      } catch (final Exception ex) {
+        // The cached secret stays in use. Connections fetch it themselves once it expires or a login fails.
+        LOGGER.fine(() -> Messages.get(
+            "AwsSecretsManagerConnectionPlugin.secretRefreshFailed",
+            new Object[] {this.secretKey.left(), ex.getMessage()}));
+      }
+    }
   }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import software.amazon.jdbc.plugin.DataCacheConnectionPlugin.CachedResultSet;
+
+/**
+ * A bounded cache of query results used by {@link DataCacheConnectionPlugin}.
+ *
+ * <p>Entries expire after their own time-to-live. When the cache exceeds the number of entries
+ * or the estimated number of bytes it's allowed to hold, the least recently used entries are
+ * evicted.
+ */
+public class DataCache {
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // Guarded by lock. Iteration order is from the least to the most recently used entry.
+  private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private volatile int size;
+  private volatile long sizeBytes;
+
+  /**
+   * Returns the cached result set for the given key.
+   *
+   * @param key the cache key
+   * @return the cached result set, or null if there's no entry for the key or the entry has expired
+   */
+  public @Nullable CachedResultSet get(final String key) {
+    lock.lock();
+    try {
+      final CacheEntry entry = this.entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.isExpired(System.nanoTime())) {
+        this.remove(key);
+        return null;
+      }
+      return entry.value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Adds a result set to the cache and evicts the least recently used entries until the cache
+   * fits within the given limits.
+   *
+   * @param key the cache key
+   * @param sql the query that produced the result set, used by {@link #invalidate(Pattern)}
+   * @param value the result set to cache
+   * @param itemExpirationNano the time-to-live of the entry in nanoseconds
+   * @param maxEntries the maximum number of entries the cache may hold
+   * @param maxSizeBytes the maximum estimated size of all cached result sets, in bytes
+   * @return the number of entries that have been evicted to make room for the new entry, or -1 if
+   *     the result set is too large to be cached
+   */
+  public int put(
+      final String key,
+      final String sql,
+      final CachedResultSet value,
+      final long itemExpirationNano,
+      final int maxEntries,
+      final long maxSizeBytes) {
+
+    final long valueSizeBytes = value.getEstimatedSize();
+    if (maxEntries <= 0 || valueSizeBytes > maxSizeBytes) {
+      return -1;
+    }
+
+    lock.lock();
+    try {
+      final long now = System.nanoTime();
+      this.remove(key);
+      this.entries.put(key, new CacheEntry(sql, value, valueSizeBytes, now + itemExpirationNano));
+      this.updateSize(valueSizeBytes);
+
+      int evicted = 0;
+      final Iterator<CacheEntry> iterator = this.entries.values().iterator();
+      while (iterator.hasNext() && (this.entries.size() > maxEntries || this.sizeBytes > maxSizeBytes)) {
+        final CacheEntry eldest = iterator.next();
+        if (eldest.value == value) {
+          continue;
+        }
+        iterator.remove();
+        this.updateSize(-eldest.sizeBytes);
+        if (!eldest.isExpired(now)) {
+          evicted++;
+        }
+      }
+      return evicted;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all entries whose query matches the given pattern.
+   *
+   * @param sqlPattern the pattern to match queries against
+   * @return the number of removed entries
+   */
+  public int invalidate(final Pattern sqlPattern) {
+    lock.lock();
+    try {
+      int removed = 0;
+      final Iterator<CacheEntry> iterator = this.entries.values().iterator();
+      while (iterator.hasNext()) {
+        final CacheEntry entry = iterator.next();
+        if (sqlPattern.matcher(entry.sql).matches()) {
+          iterator.remove();
+          this.updateSize(-entry.sizeBytes);
+          removed++;
+        }
+      }
+      return removed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void clear() {
+    lock.lock();
+    try {
+      this.entries.clear();
+      this.size = 0;
+      this.sizeBytes = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public long getSizeBytes() {
+    return this.sizeBytes;
+  }
+
+  // Must be called while holding the lock.
+  private void remove(final String key) {
+    final CacheEntry entry = this.entries.remove(key);
+    if (entry != null) {
+      this.updateSize(-entry.sizeBytes);
+    }
+  }
+
+  // Must be called while holding the lock.
+  private void updateSize(final long deltaBytes) {
+    this.size = this.entries.size();
+    this.sizeBytes += deltaBytes;
+  }
+
+  static class CacheEntry {
+    final String sql;
+    final CachedResultSet value;
+    final long sizeBytes;
+    final long expirationTimeNano;
+
+    CacheEntry(final String sql, final CachedResultSet value, final long sizeBytes, final long expirationTimeNano) {
+      this.sql = sql;
+      this.value = value;
+      this.sizeBytes = sizeBytes;
+      this.expirationTimeNano = expirationTimeNano;
+    }
+
+    boolean isExpired(final long now) {
+      return now - this.expirationTimeNano > 0;
+    }
+  }
+}
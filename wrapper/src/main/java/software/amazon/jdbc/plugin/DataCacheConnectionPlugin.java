@@ -16,10 +16,16 @@
 
 package software.amazon.jdbc.plugin;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.Clob;
@@ -35,17 +41,29 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.jdbc.AwsWrapperProperty;
 import software.amazon.jdbc.JdbcCallable;
 import software.amazon.jdbc.PluginService;
@@ -65,13 +83,62 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
           "PreparedStatement.execute", "PreparedStatement.executeQuery",
           "CallableStatement.execute", "CallableStatement.executeQuery")));
 
+  private static final Set<String> prepareMethods = Collections.unmodifiableSet(new HashSet<>(
+      Arrays.asList("Connection.prepareStatement", "Connection.prepareCall")));
+
+  private static final List<String> parameterSetters = Arrays.asList(
+      "setArray", "setAsciiStream", "setBigDecimal", "setBinaryStream", "setBlob", "setBoolean", "setByte",
+      "setBytes", "setCharacterStream", "setClob", "setDate", "setDouble", "setFloat", "setInt", "setLong",
+      "setNCharacterStream", "setNClob", "setNString", "setNull", "setObject", "setRef", "setRowId", "setSQLXML",
+      "setShort", "setString", "setTime", "setTimestamp", "setURL", "setUnicodeStream");
+
+  // Methods used to track the SQL and the bound parameters of prepared statements.
+  private static final Set<String> preparedStatementMethods;
+
+  static {
+    final Set<String> methods = new HashSet<>(prepareMethods);
+    for (final String statementType : Arrays.asList("PreparedStatement.", "CallableStatement.")) {
+      for (final String setter : parameterSetters) {
+        methods.add(statementType + setter);
+      }
+      methods.add(statementType + "clearParameters");
+      methods.add(statementType + "close");
+    }
+    methods.addAll(subscribedMethods);
+    preparedStatementMethods = Collections.unmodifiableSet(methods);
+  }
+
   public static final AwsWrapperProperty DATA_CACHE_TRIGGER_CONDITION = new AwsWrapperProperty(
       "dataCacheTriggerCondition", "false",
       "A regular expression that, if it's matched, allows the plugin to cache SQL results.");
 
-  protected static final Map<String, ResultSet> dataCache = new ConcurrentHashMap<>();
+  public static final AwsWrapperProperty DATA_CACHE_EXPIRATION_MS = new AwsWrapperProperty(
+      "dataCacheExpirationMs", "300000",
+      "Time in milliseconds after which cached SQL results expire.");
+
+  public static final AwsWrapperProperty DATA_CACHE_MAX_ENTRIES = new AwsWrapperProperty(
+      "dataCacheMaxEntries", "1000",
+      "The maximum number of SQL results that can be cached.");
+
+  public static final AwsWrapperProperty DATA_CACHE_MAX_SIZE_BYTES = new AwsWrapperProperty(
+      "dataCacheMaxSizeBytes", "67108864",
+      "The maximum estimated size of all cached SQL results, in bytes.");
+
+  protected static final DataCache dataCache = new DataCache();
+
+  // Compiled trigger conditions and their decisions, shared by all connections using the same condition.
+  protected static final Map<String, TriggerCondition> triggerConditions = new ConcurrentHashMap<>();
 
   protected final String dataCacheTriggerCondition;
+  protected final @Nullable TriggerCondition triggerCondition;
+  protected final long dataCacheExpirationNano;
+  protected final int dataCacheMaxEntries;
+  protected final long dataCacheMaxSizeBytes;
+
+  // Bound parameters of prepared statements whose SQL matches the trigger condition, keyed by the
+  // target driver statement.
+  protected final Map<Object, BoundParameters> preparedStatements =
+      Collections.synchronizedMap(new WeakHashMap<>());
 
   static {
     PropertyDefinition.registerPluginProperties(DataCacheConnectionPlugin.class);
@@ -81,25 +148,47 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
   private final TelemetryCounter hitCounter;
   private final TelemetryCounter missCounter;
   private final TelemetryCounter totalCallsCounter;
+  private final TelemetryCounter evictionCounter;
   private final TelemetryGauge cacheSizeGauge;
+  private final TelemetryGauge cacheSizeBytesGauge;
 
   public DataCacheConnectionPlugin(final PluginService pluginService, final Properties props) {
     this.telemetryFactory = pluginService.getTelemetryFactory();
     this.dataCacheTriggerCondition = DATA_CACHE_TRIGGER_CONDITION.getString(props);
+    // Without a user defined trigger condition nothing is cached, so the plugin doesn't need to
+    // intercept any calls.
+    this.triggerCondition = StringUtils.isNullOrEmpty(props.getProperty(DATA_CACHE_TRIGGER_CONDITION.name))
+        ? null
+        : triggerConditions.computeIfAbsent(this.dataCacheTriggerCondition, TriggerCondition::new);
+    this.dataCacheExpirationNano = TimeUnit.MILLISECONDS.toNanos(DATA_CACHE_EXPIRATION_MS.getLong(props));
+    this.dataCacheMaxEntries = DATA_CACHE_MAX_ENTRIES.getInteger(props);
+    this.dataCacheMaxSizeBytes = DATA_CACHE_MAX_SIZE_BYTES.getLong(props);
 
     this.hitCounter = telemetryFactory.createCounter("dataCache.cache.hit");
     this.missCounter = telemetryFactory.createCounter("dataCache.cache.miss");
     this.totalCallsCounter = telemetryFactory.createCounter("dataCache.cache.totalCalls");
+    this.evictionCounter = telemetryFactory.createCounter("dataCache.cache.eviction");
     this.cacheSizeGauge = telemetryFactory.createGauge("dataCache.cache.size", () -> (long) dataCache.size());
+    this.cacheSizeBytesGauge = telemetryFactory.createGauge("dataCache.cache.bytes", dataCache::getSizeBytes);
   }
 
   public static void clearCache() {
     dataCache.clear();
   }
 
+  /**
+   * Removes cached results of all queries matching the given regular expression.
+   *
+   * @param sqlRegex the regular expression to match queries against
+   * @return the number of removed cache entries
+   */
+  public static int invalidateCache(final String sqlRegex) {
+    return dataCache.invalidate(Pattern.compile(sqlRegex));
+  }
+
   @Override
   public Set<String> getSubscribedMethods() {
-    return subscribedMethods;
+    return this.triggerCondition == null ? Collections.emptySet() : preparedStatementMethods;
   }
 
   @Override
@@ -112,19 +201,36 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
       final Object[] jdbcMethodArgs)
       throws E {
 
-    if (StringUtils.isNullOrEmpty(this.dataCacheTriggerCondition) || resultClass != ResultSet.class) {
+    if (this.triggerCondition == null) {
       return jdbcMethodFunc.call();
     }
 
+    if (resultClass != ResultSet.class) {
+      final T result = jdbcMethodFunc.call();
+      this.trackPreparedStatement(methodInvokeOn, methodName, result, jdbcMethodArgs);
+      return result;
+    }
+
     totalCallsCounter.inc();
 
-    ResultSet result;
+    final ResultSet result;
     boolean needToCache = false;
-    final String sql = getQuery(jdbcMethodArgs);
-
-    if (!StringUtils.isNullOrEmpty(sql) && sql.matches(this.dataCacheTriggerCondition)) {
-      result = dataCache.get(sql);
-      if (result == null) {
+    final String sql;
+    final String cacheKey;
+    final String query = getQuery(jdbcMethodArgs);
+    if (query != null) {
+      sql = query;
+      cacheKey = query;
+    } else {
+      // Prepared statements are executed without arguments, their SQL and parameters are tracked.
+      final BoundParameters parameters = this.preparedStatements.get(methodInvokeOn);
+      sql = parameters == null ? null : parameters.sql;
+      cacheKey = parameters == null ? null : parameters.getCacheKey();
+    }
+
+    if (!StringUtils.isNullOrEmpty(cacheKey) && this.triggerCondition.matches(sql)) {
+      final CachedResultSet cachedResult = dataCache.get(cacheKey);
+      if (cachedResult == null) {
         needToCache = true;
         missCounter.inc();
         LOGGER.finest(
@@ -133,27 +239,23 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
                 new Object[]{methodName, sql}));
       } else {
         hitCounter.inc();
-        try {
-          result.beforeFirst();
-        } catch (final SQLException ex) {
-          if (exceptionClass.isAssignableFrom(ex.getClass())) {
-            throw exceptionClass.cast(ex);
-          }
-          throw new RuntimeException(ex);
-        }
-        return resultClass.cast(result);
+        // Cached values are shared, while each caller gets its own cursor.
+        return resultClass.cast(new CachedResultSet(cachedResult));
       }
     }
 
     result = (ResultSet) jdbcMethodFunc.call();
 
     if (needToCache) {
-      final ResultSet cachedResultSet;
+      final CachedResultSet cachedResultSet;
       try {
         cachedResultSet = new CachedResultSet(result);
-        dataCache.put(sql, cachedResultSet);
-        cachedResultSet.beforeFirst();
-        return resultClass.cast(cachedResultSet);
+        final int evicted = dataCache.put(cacheKey, sql, cachedResultSet,
+            this.dataCacheExpirationNano, this.dataCacheMaxEntries, this.dataCacheMaxSizeBytes);
+        if (evicted > 0) {
+          evictionCounter.add(evicted);
+        }
+        return resultClass.cast(new CachedResultSet(cachedResultSet));
       } catch (final SQLException ex) {
         // ignore exception
       }
@@ -162,6 +264,35 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
     return resultClass.cast(result);
   }
 
+  protected void trackPreparedStatement(
+      final Object methodInvokeOn,
+      final String methodName,
+      final Object result,
+      final Object[] jdbcMethodArgs) {
+
+    if (prepareMethods.contains(methodName)) {
+      final String sql = getQuery(jdbcMethodArgs);
+      if (result != null && !StringUtils.isNullOrEmpty(sql) && this.triggerCondition.matches(sql)) {
+        this.preparedStatements.put(result, new BoundParameters(sql));
+      }
+      return;
+    }
+
+    final BoundParameters parameters = this.preparedStatements.get(methodInvokeOn);
+    if (parameters == null) {
+      return;
+    }
+
+    final String methodSuffix = methodName.substring(methodName.indexOf('.') + 1);
+    if (methodSuffix.equals("clearParameters")) {
+      parameters.clear();
+    } else if (methodSuffix.equals("close")) {
+      this.preparedStatements.remove(methodInvokeOn);
+    } else if (methodSuffix.startsWith("set")) {
+      parameters.set(methodSuffix, jdbcMethodArgs);
+    }
+  }
+
   protected String getQuery(final Object[] jdbcMethodArgs) {
 
     // Get query from method argument
@@ -171,136 +302,345 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
     return null;
   }
 
-  public static class CachedRow {
-    protected final HashMap<Integer, Object> columnByIndex = new HashMap<>();
-    protected final HashMap<String, Object> columnByName = new HashMap<>();
+  /**
+   * A compiled {@link #DATA_CACHE_TRIGGER_CONDITION} along with a bounded memo of its decisions, so
+   * that repeated statements don't need to be matched against the regular expression again.
+   */
+  protected static class TriggerCondition {
+
+    private static final int MAX_DECISIONS = 10000;
+    private static final int MAX_MEMOIZED_SQL_LENGTH = 4096;
+
+    protected final Pattern pattern;
+    protected final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+    public TriggerCondition(final String regex) {
+      this.pattern = Pattern.compile(regex);
+    }
+
+    public boolean matches(final String sql) {
+      if (sql.length() > MAX_MEMOIZED_SQL_LENGTH) {
+        return this.pattern.matcher(sql).matches();
+      }
+
+      final Boolean decision = this.decisions.get(sql);
+      if (decision != null) {
+        return decision;
+      }
+
+      final boolean matches = this.pattern.matcher(sql).matches();
+      if (this.decisions.size() >= MAX_DECISIONS) {
+        // The memo is only an optimization, start over rather than tracking which decisions are still in use.
+        this.decisions.clear();
+      }
+      this.decisions.put(sql, matches);
+      return matches;
+    }
+  }
+
+  /**
+   * The SQL of a prepared statement and the values bound to its parameters.
+   *
+   * <p>Each parameter is kept as a compact string that encodes the setter and its arguments. A
+   * statement can only be cached while all its parameters are bound to plain values, such as
+   * strings, numbers, dates or byte arrays. Streams, LOBs and parameters bound by name make the
+   * statement uncacheable until they are replaced or cleared.
+   */
+  protected static class BoundParameters {
+
+    protected final String sql;
+    protected final ArrayList<String> values = new ArrayList<>();
+    protected final BitSet uncacheableValues = new BitSet();
+    protected boolean hasNamedParameters;
+
+    public BoundParameters(final String sql) {
+      this.sql = sql;
+    }
+
+    public void set(final String setterName, final Object[] args) {
+      if (args == null || args.length < 2 || !(args[0] instanceof Integer)) {
+        // Parameters of callable statements may be set by name.
+        this.hasNamedParameters = true;
+        return;
+      }
+
+      final int index = (Integer) args[0] - 1;
+      if (index < 0) {
+        return;
+      }
+      while (this.values.size() <= index) {
+        this.values.add(null);
+      }
+      final String value = encode(setterName, args);
+      this.values.set(index, value);
+      this.uncacheableValues.set(index, value == null);
+    }
 
-    public void put(final int columnIndex, final String columnName, final Object columnValue) {
-      columnByIndex.put(columnIndex, columnValue);
-      columnByName.put(columnName, columnValue);
+    public void clear() {
+      this.values.clear();
+      this.uncacheableValues.clear();
+      this.hasNamedParameters = false;
     }
 
-    @SuppressWarnings("unused")
-    public Object get(final int columnIndex) {
-      return columnByIndex.get(columnIndex);
+    /**
+     * Returns a key identifying the SQL and the current parameter values.
+     *
+     * @return the cache key, or null if the statement can't be cached with its current parameters
+     */
+    public @Nullable String getCacheKey() {
+      if (this.hasNamedParameters || !this.uncacheableValues.isEmpty()) {
+        return null;
+      }
+      final StringBuilder key = new StringBuilder(this.sql.length() + 16 * this.values.size()).append(this.sql);
+      for (final String value : this.values) {
+        if (value == null) {
+          // The parameter hasn't been set.
+          return null;
+        }
+        key.append('\u0000').append(value);
+      }
+      return key.toString();
     }
 
-    @SuppressWarnings("unused")
-    public Object get(final String columnName) {
-      return columnByName.get(columnName);
+    private static @Nullable String encode(final String setterName, final Object[] args) {
+      final StringBuilder value = new StringBuilder(setterName);
+      for (int i = 1; i < args.length; i++) {
+        if (!appendValue(value, args[i])) {
+          return null;
+        }
+      }
+      return value.toString();
+    }
+
+    private static boolean appendValue(final StringBuilder sb, final Object value) {
+      sb.append('|');
+      if (value == null) {
+        sb.append('N');
+      } else if (value instanceof String) {
+        final String str = (String) value;
+        sb.append('S').append(str.length()).append(':').append(str);
+      } else if (value instanceof byte[]) {
+        sb.append('B').append(Base64.getEncoder().encodeToString((byte[]) value));
+      } else if (value instanceof Timestamp) {
+        sb.append("TS").append(((Timestamp) value).getTime()).append('.').append(((Timestamp) value).getNanos());
+      } else if (value instanceof java.util.Date) {
+        sb.append('D').append(value.getClass().getSimpleName()).append(((java.util.Date) value).getTime());
+      } else if (value instanceof Calendar) {
+        sb.append('C').append(((Calendar) value).getTimeZone().getID());
+      } else if (value instanceof Number || value instanceof Boolean || value instanceof Character
+          || value instanceof Temporal || value instanceof UUID || value instanceof URL) {
+        final String str = value.toString();
+        sb.append(value.getClass().getSimpleName()).append(str.length()).append(':').append(str);
+      } else {
+        return false;
+      }
+      return true;
     }
   }
 
+  /**
+   * A read-only, scrollable copy of a result set.
+   *
+   * <p>Values are stored per column. Integer, long and double columns are kept in primitive arrays
+   * along with a null bitmap, so typed getters don't need to box values. Instances created with
+   * {@link #CachedResultSet(CachedResultSet)} share the cached values but have their own cursor.
+   */
   @SuppressWarnings({"RedundantThrows", "checkstyle:OverloadMethodsDeclarationOrder"})
   public static class CachedResultSet implements ResultSet {
 
-    protected ArrayList<CachedRow> rows;
+    // Rough per-object overheads used to estimate the memory held by cached values.
+    private static final int OBJECT_OVERHEAD_BYTES = 16;
+    private static final int COLUMN_METADATA_BYTES = 256;
+    private static final int INITIAL_CAPACITY = 16;
+
+    protected final ResultSetMetaData metaData;
+    protected final Map<String, Integer> columnIndexByLabel;
+    protected final CachedColumn[] columns;
+    protected final int rowCount;
+    protected final long estimatedSize;
     protected int currentRow;
+    protected boolean wasNull;
 
     public CachedResultSet(final ResultSet resultSet) throws SQLException {
 
       final ResultSetMetaData md = resultSet.getMetaData();
-      final int columns = md.getColumnCount();
-      rows = new ArrayList<>();
+      final int columnCount = md.getColumnCount();
+      this.metaData = new CachedResultSetMetaData(md);
+      this.columnIndexByLabel = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      this.columns = new CachedColumn[columnCount];
+
+      for (int i = 1; i <= columnCount; ++i) {
+        final String label = this.metaData.getColumnLabel(i);
+        if (!StringUtils.isNullOrEmpty(label)) {
+          this.columnIndexByLabel.putIfAbsent(label, i);
+        }
+        this.columns[i - 1] = createColumn(this.metaData.getColumnClassName(i));
+      }
+      for (int i = 1; i <= columnCount; ++i) {
+        final String name = this.metaData.getColumnName(i);
+        if (!StringUtils.isNullOrEmpty(name)) {
+          this.columnIndexByLabel.putIfAbsent(name, i);
+        }
+      }
 
+      int rows = 0;
       while (resultSet.next()) {
-        final CachedRow row = new CachedRow();
-        for (int i = 1; i <= columns; ++i) {
-          row.put(i, md.getColumnName(i), resultSet.getObject(i));
+        for (int i = 1; i <= columnCount; ++i) {
+          this.columns[i - 1].read(resultSet, i, rows);
         }
-        rows.add(row);
+        rows++;
       }
-      currentRow = -1;
+      this.rowCount = rows;
+
+      long size = OBJECT_OVERHEAD_BYTES + (long) COLUMN_METADATA_BYTES * columnCount;
+      for (final CachedColumn column : this.columns) {
+        column.trimToSize(rows);
+        size += column.getEstimatedSize();
+      }
+      this.estimatedSize = size;
+      this.currentRow = -1;
+    }
+
+    /**
+     * Creates a result set that shares the cached values of the given result set, with a cursor
+     * positioned before the first row.
+     *
+     * @param resultSet the result set holding the cached values
+     */
+    public CachedResultSet(final CachedResultSet resultSet) {
+      this.metaData = resultSet.metaData;
+      this.columnIndexByLabel = resultSet.columnIndexByLabel;
+      this.columns = resultSet.columns;
+      this.rowCount = resultSet.rowCount;
+      this.estimatedSize = resultSet.estimatedSize;
+      this.currentRow = -1;
+    }
+
+    /**
+     * Returns a rough estimate of the memory held by the cached values, in bytes.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getEstimatedSize() {
+      return this.estimatedSize;
+    }
+
+    private CachedColumn getColumn(final int columnIndex) throws SQLException {
+      if (columnIndex < 1 || columnIndex > this.columns.length) {
+        throw new SQLException(
+            Messages.get("DataCacheConnectionPlugin.invalidColumnIndex", new Object[] {columnIndex}));
+      }
+      if (this.currentRow < 0 || this.currentRow >= this.rowCount) {
+        throw new SQLException(Messages.get("DataCacheConnectionPlugin.invalidCursorPosition"));
+      }
+      final CachedColumn column = this.columns[columnIndex - 1];
+      this.wasNull = column.isNull(this.currentRow);
+      return column;
     }
 
     @Override
     public boolean next() throws SQLException {
-      if (rows.size() == 0 || isLast()) {
-        return false;
+      if (this.currentRow < this.rowCount) {
+        this.currentRow++;
       }
-      currentRow++;
-      return true;
+      return this.currentRow < this.rowCount;
     }
 
     @Override
     public void close() throws SQLException {
-      currentRow = rows.size() - 1;
+      this.currentRow = this.rowCount;
     }
 
     @Override
     public boolean wasNull() throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.wasNull;
     }
 
     @Override
     public String getString(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull ? null : column.getString(this.currentRow);
     }
 
     @Override
     public boolean getBoolean(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return !this.wasNull && column.getBoolean(this.currentRow);
     }
 
     @Override
     public byte getByte(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull
+          ? 0
+          : (byte) checkRange(column.getLong(this.currentRow), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
     }
 
     @Override
     public short getShort(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull
+          ? 0
+          : (short) checkRange(column.getLong(this.currentRow), Short.MIN_VALUE, Short.MAX_VALUE, "short");
     }
 
     @Override
     public int getInt(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull
+          ? 0
+          : (int) checkRange(column.getLong(this.currentRow), Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
     }
 
     @Override
     public long getLong(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull ? 0 : column.getLong(this.currentRow);
     }
 
     @Override
     public float getFloat(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull ? 0 : (float) column.getDouble(this.currentRow);
     }
 
     @Override
     public double getDouble(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull ? 0 : column.getDouble(this.currentRow);
     }
 
     @Override
     @Deprecated
     public BigDecimal getBigDecimal(final int columnIndex, final int scale) throws SQLException {
-      throw new UnsupportedOperationException();
+      final BigDecimal value = this.getBigDecimal(columnIndex);
+      return value == null ? null : value.setScale(scale, RoundingMode.HALF_UP);
     }
 
     @Override
     public byte[] getBytes(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return toBytes(this.getObject(columnIndex));
     }
 
     @Override
     public Date getDate(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return toDate(this.getObject(columnIndex));
     }
 
     @Override
     public Time getTime(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return toTime(this.getObject(columnIndex));
     }
 
     @Override
     public Timestamp getTimestamp(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return toTimestamp(this.getObject(columnIndex));
     }
 
     @Override
     public InputStream getAsciiStream(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final String value = this.getString(columnIndex);
+      return value == null ? null : new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII));
     }
 
     @Override
@@ -311,78 +651,79 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public InputStream getBinaryStream(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final byte[] value = this.getBytes(columnIndex);
+      return value == null ? null : new ByteArrayInputStream(value);
     }
 
     @Override
     public String getString(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getString(this.findColumn(columnLabel));
     }
 
     @Override
     public boolean getBoolean(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getBoolean(this.findColumn(columnLabel));
     }
 
     @Override
     public byte getByte(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getByte(this.findColumn(columnLabel));
     }
 
     @Override
     public short getShort(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getShort(this.findColumn(columnLabel));
     }
 
     @Override
     public int getInt(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getInt(this.findColumn(columnLabel));
     }
 
     @Override
     public long getLong(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getLong(this.findColumn(columnLabel));
     }
 
     @Override
     public float getFloat(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getFloat(this.findColumn(columnLabel));
     }
 
     @Override
     public double getDouble(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getDouble(this.findColumn(columnLabel));
     }
 
     @Override
     @Deprecated
     public BigDecimal getBigDecimal(final String columnLabel, final int scale) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getBigDecimal(this.findColumn(columnLabel), scale);
     }
 
     @Override
     public byte[] getBytes(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getBytes(this.findColumn(columnLabel));
     }
 
     @Override
     public Date getDate(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getDate(this.findColumn(columnLabel));
     }
 
     @Override
     public Time getTime(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getTime(this.findColumn(columnLabel));
     }
 
     @Override
     public Timestamp getTimestamp(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getTimestamp(this.findColumn(columnLabel));
     }
 
     @Override
     public InputStream getAsciiStream(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getAsciiStream(this.findColumn(columnLabel));
     }
 
     @Override
@@ -393,17 +734,17 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public InputStream getBinaryStream(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getBinaryStream(this.findColumn(columnLabel));
     }
 
     @Override
     public SQLWarning getWarnings() throws SQLException {
-      throw new UnsupportedOperationException();
+      return null;
     }
 
     @Override
     public void clearWarnings() throws SQLException {
-      throw new UnsupportedOperationException();
+      // do nothing
     }
 
     @Override
@@ -413,56 +754,50 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public ResultSetMetaData getMetaData() throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.metaData;
     }
 
     @Override
     public Object getObject(final int columnIndex) throws SQLException {
-      if (this.currentRow < 0 || this.currentRow >= this.rows.size()) {
-        return null; // out of boundaries
-      }
-      final CachedRow row = this.rows.get(this.currentRow);
-      if (!row.columnByIndex.containsKey(columnIndex)) {
-        return null; // column index out of boundaries
-      }
-      return row.columnByIndex.get(columnIndex);
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull ? null : column.getObject(this.currentRow);
     }
 
     @Override
     public Object getObject(final String columnLabel) throws SQLException {
-      if (this.currentRow < 0 || this.currentRow >= this.rows.size()) {
-        return null; // out of boundaries
-      }
-      final CachedRow row = this.rows.get(this.currentRow);
-      if (!row.columnByName.containsKey(columnLabel)) {
-        return null; // column name not found
-      }
-      return row.columnByName.get(columnLabel);
+      return this.getObject(this.findColumn(columnLabel));
     }
 
     @Override
     public int findColumn(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      final Integer columnIndex = this.columnIndexByLabel.get(columnLabel);
+      if (columnIndex == null) {
+        throw new SQLException(
+            Messages.get("DataCacheConnectionPlugin.invalidColumnLabel", new Object[] {columnLabel}));
+      }
+      return columnIndex;
     }
 
     @Override
     public Reader getCharacterStream(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final String value = this.getString(columnIndex);
+      return value == null ? null : new StringReader(value);
     }
 
     @Override
     public Reader getCharacterStream(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getCharacterStream(this.findColumn(columnLabel));
     }
 
     @Override
     public BigDecimal getBigDecimal(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      final CachedColumn column = this.getColumn(columnIndex);
+      return this.wasNull ? null : column.getBigDecimal(this.currentRow);
     }
 
     @Override
     public BigDecimal getBigDecimal(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getBigDecimal(this.findColumn(columnLabel));
     }
 
     @Override
@@ -472,17 +807,17 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public boolean isAfterLast() throws SQLException {
-      return this.currentRow >= this.rows.size();
+      return this.currentRow >= this.rowCount;
     }
 
     @Override
     public boolean isFirst() throws SQLException {
-      return this.currentRow == 0 && this.rows.size() > 0;
+      return this.currentRow == 0 && this.rowCount > 0;
     }
 
     @Override
     public boolean isLast() throws SQLException {
-      return this.currentRow == (this.rows.size() - 1) && this.rows.size() > 0;
+      return this.currentRow == (this.rowCount - 1) && this.rowCount > 0;
     }
 
     @Override
@@ -492,18 +827,18 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public void afterLast() throws SQLException {
-      this.currentRow = this.rows.size();
+      this.currentRow = this.rowCount;
     }
 
     @Override
     public boolean first() throws SQLException {
       this.currentRow = 0;
-      return this.currentRow < this.rows.size();
+      return this.currentRow < this.rowCount;
     }
 
     @Override
     public boolean last() throws SQLException {
-      this.currentRow = this.rows.size() - 1;
+      this.currentRow = this.rowCount - 1;
       return this.currentRow >= 0;
     }
 
@@ -517,66 +852,66 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
       if (row > 0) {
         this.currentRow = row - 1;
       } else {
-        this.currentRow = this.rows.size() + row;
+        this.currentRow = this.rowCount + row;
       }
-      return this.currentRow >= 0 && this.currentRow < this.rows.size();
+      return this.currentRow >= 0 && this.currentRow < this.rowCount;
     }
 
     @Override
     public boolean relative(final int rows) throws SQLException {
       this.currentRow += rows;
-      return this.currentRow >= 0 && this.currentRow < this.rows.size();
+      return this.currentRow >= 0 && this.currentRow < this.rowCount;
     }
 
     @Override
     public boolean previous() throws SQLException {
       this.currentRow--;
-      return this.currentRow >= 0 && this.currentRow < this.rows.size();
+      return this.currentRow >= 0 && this.currentRow < this.rowCount;
     }
 
     @Override
     public void setFetchDirection(final int direction) throws SQLException {
-      throw new UnsupportedOperationException();
+      // do nothing
     }
 
     @Override
     public int getFetchDirection() throws SQLException {
-      throw new UnsupportedOperationException();
+      return ResultSet.FETCH_FORWARD;
     }
 
     @Override
     public void setFetchSize(final int rows) throws SQLException {
-      throw new UnsupportedOperationException();
+      // do nothing
     }
 
     @Override
     public int getFetchSize() throws SQLException {
-      throw new UnsupportedOperationException();
+      return 0;
     }
 
     @Override
     public int getType() throws SQLException {
-      throw new UnsupportedOperationException();
+      return ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
 
     @Override
     public int getConcurrency() throws SQLException {
-      throw new UnsupportedOperationException();
+      return ResultSet.CONCUR_READ_ONLY;
     }
 
     @Override
     public boolean rowUpdated() throws SQLException {
-      throw new UnsupportedOperationException();
+      return false;
     }
 
     @Override
     public boolean rowInserted() throws SQLException {
-      throw new UnsupportedOperationException();
+      return false;
     }
 
     @Override
     public boolean rowDeleted() throws SQLException {
-      throw new UnsupportedOperationException();
+      return false;
     }
 
     @Override
@@ -816,93 +1151,96 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
     @Override
     public Object getObject(final int columnIndex, final Map<String, Class<?>> map)
         throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex);
     }
 
     @Override
     public Ref getRef(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, Ref.class);
     }
 
     @Override
     public Blob getBlob(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, Blob.class);
     }
 
     @Override
     public Clob getClob(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, Clob.class);
     }
 
     @Override
     public Array getArray(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, Array.class);
     }
 
     @Override
     public Object getObject(final String columnLabel, final Map<String, Class<?>> map)
         throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(this.findColumn(columnLabel), map);
     }
 
     @Override
     public Ref getRef(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getRef(this.findColumn(columnLabel));
     }
 
     @Override
     public Blob getBlob(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getBlob(this.findColumn(columnLabel));
     }
 
     @Override
     public Clob getClob(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getClob(this.findColumn(columnLabel));
     }
 
     @Override
     public Array getArray(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getArray(this.findColumn(columnLabel));
     }
 
     @Override
     public Date getDate(final int columnIndex, final Calendar cal) throws SQLException {
-      throw new UnsupportedOperationException();
+      // Cached values have already been converted by the target driver, so the calendar isn't applied.
+      return this.getDate(columnIndex);
     }
 
     @Override
     public Date getDate(final String columnLabel, final Calendar cal) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getDate(this.findColumn(columnLabel), cal);
     }
 
     @Override
     public Time getTime(final int columnIndex, final Calendar cal) throws SQLException {
-      throw new UnsupportedOperationException();
+      // Cached values have already been converted by the target driver, so the calendar isn't applied.
+      return this.getTime(columnIndex);
     }
 
     @Override
     public Time getTime(final String columnLabel, final Calendar cal) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getTime(this.findColumn(columnLabel), cal);
     }
 
     @Override
     public Timestamp getTimestamp(final int columnIndex, final Calendar cal) throws SQLException {
-      throw new UnsupportedOperationException();
+      // Cached values have already been converted by the target driver, so the calendar isn't applied.
+      return this.getTimestamp(columnIndex);
     }
 
     @Override
     public Timestamp getTimestamp(final String columnLabel, final Calendar cal) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getTimestamp(this.findColumn(columnLabel), cal);
     }
 
     @Override
     public URL getURL(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, URL.class);
     }
 
     @Override
     public URL getURL(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getURL(this.findColumn(columnLabel));
     }
 
     @Override
@@ -947,12 +1285,12 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public RowId getRowId(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, RowId.class);
     }
 
     @Override
     public RowId getRowId(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getRowId(this.findColumn(columnLabel));
     }
 
     @Override
@@ -967,7 +1305,7 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public int getHoldability() throws SQLException {
-      throw new UnsupportedOperationException();
+      return ResultSet.HOLD_CURSORS_OVER_COMMIT;
     }
 
     @Override
@@ -1002,22 +1340,22 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
     @Override
     @SuppressWarnings("checkstyle:MethodName")
     public NClob getNClob(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, NClob.class);
     }
 
     @Override
     public NClob getNClob(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getNClob(this.findColumn(columnLabel));
     }
 
     @Override
     public SQLXML getSQLXML(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getObject(columnIndex, SQLXML.class);
     }
 
     @Override
     public SQLXML getSQLXML(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getSQLXML(this.findColumn(columnLabel));
     }
 
     @Override
@@ -1032,22 +1370,22 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public String getNString(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getString(columnIndex);
     }
 
     @Override
     public String getNString(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getNString(this.findColumn(columnLabel));
     }
 
     @Override
     public Reader getNCharacterStream(final int columnIndex) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getCharacterStream(columnIndex);
     }
 
     @Override
     public Reader getNCharacterStream(final String columnLabel) throws SQLException {
-      throw new UnsupportedOperationException();
+      return this.getNCharacterStream(this.findColumn(columnLabel));
     }
 
     @Override
@@ -1206,12 +1544,49 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
 
     @Override
     public <T> T getObject(final int columnIndex, final Class<T> type) throws SQLException {
-      return type.cast(getObject(columnIndex));
+      final Object value = this.getObject(columnIndex);
+      if (value == null || type.isInstance(value)) {
+        return type.cast(value);
+      }
+      if (type == String.class) {
+        return type.cast(this.getString(columnIndex));
+      } else if (type == Integer.class) {
+        return type.cast(this.getInt(columnIndex));
+      } else if (type == Long.class) {
+        return type.cast(this.getLong(columnIndex));
+      } else if (type == Short.class) {
+        return type.cast(this.getShort(columnIndex));
+      } else if (type == Byte.class) {
+        return type.cast(this.getByte(columnIndex));
+      } else if (type == Double.class) {
+        return type.cast(this.getDouble(columnIndex));
+      } else if (type == Float.class) {
+        return type.cast(this.getFloat(columnIndex));
+      } else if (type == Boolean.class) {
+        return type.cast(this.getBoolean(columnIndex));
+      } else if (type == BigDecimal.class) {
+        return type.cast(this.getBigDecimal(columnIndex));
+      } else if (type == byte[].class) {
+        return type.cast(this.getBytes(columnIndex));
+      } else if (type == Date.class) {
+        return type.cast(this.getDate(columnIndex));
+      } else if (type == Time.class) {
+        return type.cast(this.getTime(columnIndex));
+      } else if (type == Timestamp.class) {
+        return type.cast(this.getTimestamp(columnIndex));
+      } else if (type == URL.class && value instanceof String) {
+        try {
+          return type.cast(new URL((String) value));
+        } catch (final MalformedURLException e) {
+          throw conversionException(value, type.getName());
+        }
+      }
+      throw conversionException(value, type.getName());
     }
 
     @Override
     public <T> T getObject(final String columnLabel, final Class<T> type) throws SQLException {
-      return type.cast(getObject(columnLabel));
+      return this.getObject(this.findColumn(columnLabel), type);
     }
 
     @Override
@@ -1223,5 +1598,681 @@ public class DataCacheConnectionPlugin extends AbstractConnectionPlugin {
     public boolean isWrapperFor(final Class<?> iface) throws SQLException {
       return iface != null && iface.isAssignableFrom(this.getClass());
     }
+
+    private static CachedColumn createColumn(final String className) {
+      if (Integer.class.getName().equals(className)) {
+        return new IntColumn();
+      } else if (Long.class.getName().equals(className)) {
+        return new LongColumn();
+      } else if (Double.class.getName().equals(className)) {
+        return new DoubleColumn();
+      }
+      return new ObjectColumn();
+    }
+
+    private static long estimateSize(final Object value) {
+      if (value == null) {
+        return 0;
+      }
+      if (value instanceof String) {
+        return OBJECT_OVERHEAD_BYTES + 24 + 2L * ((String) value).length();
+      }
+      if (value instanceof byte[]) {
+        return OBJECT_OVERHEAD_BYTES + ((byte[]) value).length;
+      }
+      if (value instanceof BigDecimal) {
+        return OBJECT_OVERHEAD_BYTES + 24 + ((BigDecimal) value).unscaledValue().bitLength() / 8;
+      }
+      return OBJECT_OVERHEAD_BYTES + 8;
+    }
+
+    private static SQLException conversionException(final Object value, final String typeName) {
+      return new SQLException(
+          Messages.get(
+              "DataCacheConnectionPlugin.unsupportedConversion",
+              new Object[] {value.getClass().getName(), typeName}));
+    }
+
+    private static SQLException outOfRangeException(final Object value, final String typeName) {
+      return new SQLException(
+          Messages.get(
+              "DataCacheConnectionPlugin.valueOutOfRange",
+              new Object[] {value, typeName}));
+    }
+
+    // Like the drivers, narrowing conversions drop the fraction but fail on values out of range.
+    private static long checkRange(final long value, final long min, final long max, final String typeName)
+        throws SQLException {
+      if (value < min || value > max) {
+        throw outOfRangeException(value, typeName);
+      }
+      return value;
+    }
+
+    private static long toLong(final double value) throws SQLException {
+      if (Double.isNaN(value) || value < (double) Long.MIN_VALUE || value >= -(double) Long.MIN_VALUE) {
+        throw outOfRangeException(value, "long");
+      }
+      return (long) value;
+    }
+
+    private static long toLong(final BigDecimal value) throws SQLException {
+      try {
+        return value.toBigInteger().longValueExact();
+      } catch (final ArithmeticException e) {
+        throw outOfRangeException(value, "long");
+      }
+    }
+
+    private static byte[] toBytes(final Object value) throws SQLException {
+      if (value == null || value instanceof byte[]) {
+        return (byte[]) value;
+      }
+      throw conversionException(value, "byte[]");
+    }
+
+    private static Date toDate(final Object value) throws SQLException {
+      if (value == null || value instanceof Date) {
+        return (Date) value;
+      } else if (value instanceof java.util.Date) {
+        return new Date(((java.util.Date) value).getTime());
+      } else if (value instanceof LocalDate) {
+        return Date.valueOf((LocalDate) value);
+      } else if (value instanceof String) {
+        try {
+          return Date.valueOf((String) value);
+        } catch (final IllegalArgumentException e) {
+          throw conversionException(value, Date.class.getName());
+        }
+      }
+      throw conversionException(value, Date.class.getName());
+    }
+
+    private static Time toTime(final Object value) throws SQLException {
+      if (value == null || value instanceof Time) {
+        return (Time) value;
+      } else if (value instanceof java.util.Date) {
+        return new Time(((java.util.Date) value).getTime());
+      } else if (value instanceof LocalTime) {
+        return Time.valueOf((LocalTime) value);
+      } else if (value instanceof String) {
+        try {
+          return Time.valueOf((String) value);
+        } catch (final IllegalArgumentException e) {
+          throw conversionException(value, Time.class.getName());
+        }
+      }
+      throw conversionException(value, Time.class.getName());
+    }
+
+    private static Timestamp toTimestamp(final Object value) throws SQLException {
+      if (value == null || value instanceof Timestamp) {
+        return (Timestamp) value;
+      } else if (value instanceof java.util.Date) {
+        return new Timestamp(((java.util.Date) value).getTime());
+      } else if (value instanceof LocalDateTime) {
+        return Timestamp.valueOf((LocalDateTime) value);
+      } else if (value instanceof String) {
+        try {
+          return Timestamp.valueOf((String) value);
+        } catch (final IllegalArgumentException e) {
+          throw conversionException(value, Timestamp.class.getName());
+        }
+      }
+      throw conversionException(value, Timestamp.class.getName());
+    }
+
+    /**
+     * Values of a single column. Getters are only called for rows that don't hold a null value.
+     */
+    protected abstract static class CachedColumn {
+
+      protected final BitSet nulls = new BitSet();
+
+      boolean isNull(final int row) {
+        return this.nulls.get(row);
+      }
+
+      long getNullsEstimatedSize() {
+        return OBJECT_OVERHEAD_BYTES + this.nulls.size() / 8;
+      }
+
+      abstract void read(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+
+      abstract void trimToSize(int rowCount);
+
+      abstract long getEstimatedSize();
+
+      abstract Object getObject(int row);
+
+      abstract String getString(int row);
+
+      abstract boolean getBoolean(int row) throws SQLException;
+
+      abstract long getLong(int row) throws SQLException;
+
+      abstract double getDouble(int row) throws SQLException;
+
+      abstract BigDecimal getBigDecimal(int row) throws SQLException;
+    }
+
+    protected static class IntColumn extends CachedColumn {
+
+      private int[] values = new int[INITIAL_CAPACITY];
+
+      @Override
+      void read(final ResultSet resultSet, final int columnIndex, final int row) throws SQLException {
+        if (row == this.values.length) {
+          this.values = Arrays.copyOf(this.values, row * 2);
+        }
+        this.values[row] = resultSet.getInt(columnIndex);
+        if (resultSet.wasNull()) {
+          this.nulls.set(row);
+        }
+      }
+
+      @Override
+      void trimToSize(final int rowCount) {
+        this.values = Arrays.copyOf(this.values, rowCount);
+      }
+
+      @Override
+      long getEstimatedSize() {
+        return OBJECT_OVERHEAD_BYTES + 4L * this.values.length + this.getNullsEstimatedSize();
+      }
+
+      @Override
+      Object getObject(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      String getString(final int row) {
+        return Integer.toString(this.values[row]);
+      }
+
+      @Override
+      boolean getBoolean(final int row) {
+        return this.values[row] != 0;
+      }
+
+      @Override
+      long getLong(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      double getDouble(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      BigDecimal getBigDecimal(final int row) {
+        return BigDecimal.valueOf(this.values[row]);
+      }
+    }
+
+    protected static class LongColumn extends CachedColumn {
+
+      private long[] values = new long[INITIAL_CAPACITY];
+
+      @Override
+      void read(final ResultSet resultSet, final int columnIndex, final int row) throws SQLException {
+        if (row == this.values.length) {
+          this.values = Arrays.copyOf(this.values, row * 2);
+        }
+        this.values[row] = resultSet.getLong(columnIndex);
+        if (resultSet.wasNull()) {
+          this.nulls.set(row);
+        }
+      }
+
+      @Override
+      void trimToSize(final int rowCount) {
+        this.values = Arrays.copyOf(this.values, rowCount);
+      }
+
+      @Override
+      long getEstimatedSize() {
+        return OBJECT_OVERHEAD_BYTES + 8L * this.values.length + this.getNullsEstimatedSize();
+      }
+
+      @Override
+      Object getObject(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      String getString(final int row) {
+        return Long.toString(this.values[row]);
+      }
+
+      @Override
+      boolean getBoolean(final int row) {
+        return this.values[row] != 0;
+      }
+
+      @Override
+      long getLong(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      double getDouble(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      BigDecimal getBigDecimal(final int row) {
+        return BigDecimal.valueOf(this.values[row]);
+      }
+    }
+
+    protected static class DoubleColumn extends CachedColumn {
+
+      private double[] values = new double[INITIAL_CAPACITY];
+
+      @Override
+      void read(final ResultSet resultSet, final int columnIndex, final int row) throws SQLException {
+        if (row == this.values.length) {
+          this.values = Arrays.copyOf(this.values, row * 2);
+        }
+        this.values[row] = resultSet.getDouble(columnIndex);
+        if (resultSet.wasNull()) {
+          this.nulls.set(row);
+        }
+      }
+
+      @Override
+      void trimToSize(final int rowCount) {
+        this.values = Arrays.copyOf(this.values, rowCount);
+      }
+
+      @Override
+      long getEstimatedSize() {
+        return OBJECT_OVERHEAD_BYTES + 8L * this.values.length + this.getNullsEstimatedSize();
+      }
+
+      @Override
+      Object getObject(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      String getString(final int row) {
+        return Double.toString(this.values[row]);
+      }
+
+      @Override
+      boolean getBoolean(final int row) {
+        return this.values[row] != 0;
+      }
+
+      @Override
+      long getLong(final int row) throws SQLException {
+        return toLong(this.values[row]);
+      }
+
+      @Override
+      double getDouble(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      BigDecimal getBigDecimal(final int row) throws SQLException {
+        final double value = this.values[row];
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+          throw conversionException(value, BigDecimal.class.getName());
+        }
+        return BigDecimal.valueOf(value);
+      }
+    }
+
+    protected static class ObjectColumn extends CachedColumn {
+
+      private Object[] values = new Object[INITIAL_CAPACITY];
+      // The string the driver returns for binary values, which depends on the driver. Allocated with
+      // the first binary value.
+      private String[] binaryStrings;
+
+      @Override
+      void read(final ResultSet resultSet, final int columnIndex, final int row) throws SQLException {
+        if (row == this.values.length) {
+          this.values = Arrays.copyOf(this.values, row * 2);
+          if (this.binaryStrings != null) {
+            this.binaryStrings = Arrays.copyOf(this.binaryStrings, row * 2);
+          }
+        }
+        this.values[row] = resultSet.getObject(columnIndex);
+        if (this.values[row] == null) {
+          this.nulls.set(row);
+        } else if (this.values[row] instanceof byte[]) {
+          if (this.binaryStrings == null) {
+            this.binaryStrings = new String[this.values.length];
+          }
+          this.binaryStrings[row] = resultSet.getString(columnIndex);
+        }
+      }
+
+      @Override
+      void trimToSize(final int rowCount) {
+        this.values = Arrays.copyOf(this.values, rowCount);
+        if (this.binaryStrings != null) {
+          this.binaryStrings = Arrays.copyOf(this.binaryStrings, rowCount);
+        }
+      }
+
+      @Override
+      long getEstimatedSize() {
+        long size = OBJECT_OVERHEAD_BYTES + 8L * this.values.length + this.getNullsEstimatedSize();
+        for (final Object value : this.values) {
+          size += estimateSize(value);
+        }
+        if (this.binaryStrings != null) {
+          size += OBJECT_OVERHEAD_BYTES + 8L * this.binaryStrings.length;
+          for (final String value : this.binaryStrings) {
+            size += estimateSize(value);
+          }
+        }
+        return size;
+      }
+
+      @Override
+      Object getObject(final int row) {
+        return this.values[row];
+      }
+
+      @Override
+      String getString(final int row) {
+        final Object value = this.values[row];
+        return value instanceof byte[] ? this.binaryStrings[row] : value.toString();
+      }
+
+      @Override
+      boolean getBoolean(final int row) throws SQLException {
+        final Object value = this.values[row];
+        if (value instanceof Boolean) {
+          return (Boolean) value;
+        } else if (value instanceof Number) {
+          return ((Number) value).doubleValue() != 0;
+        } else if (value instanceof String) {
+          final String str = ((String) value).trim();
+          if ("1".equals(str) || "true".equalsIgnoreCase(str) || "t".equalsIgnoreCase(str)
+              || "y".equalsIgnoreCase(str) || "yes".equalsIgnoreCase(str) || "on".equalsIgnoreCase(str)) {
+            return true;
+          }
+          if ("0".equals(str) || "false".equalsIgnoreCase(str) || "f".equalsIgnoreCase(str)
+              || "n".equalsIgnoreCase(str) || "no".equalsIgnoreCase(str) || "off".equalsIgnoreCase(str)) {
+            return false;
+          }
+        }
+        throw conversionException(value, "boolean");
+      }
+
+      @Override
+      long getLong(final int row) throws SQLException {
+        final Object value = this.values[row];
+        if (value instanceof Long || value instanceof Integer
+            || value instanceof Short || value instanceof Byte) {
+          return ((Number) value).longValue();
+        } else if (value instanceof BigDecimal) {
+          return toLong((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+          return toLong(new BigDecimal((BigInteger) value));
+        } else if (value instanceof Number) {
+          return toLong(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+          return (Boolean) value ? 1 : 0;
+        } else if (value instanceof String) {
+          try {
+            return toLong(new BigDecimal(((String) value).trim()));
+          } catch (final NumberFormatException e) {
+            throw conversionException(value, "long");
+          }
+        }
+        throw conversionException(value, "long");
+      }
+
+      @Override
+      double getDouble(final int row) throws SQLException {
+        final Object value = this.values[row];
+        if (value instanceof Number) {
+          return ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+          return (Boolean) value ? 1 : 0;
+        } else if (value instanceof String) {
+          try {
+            return Double.parseDouble(((String) value).trim());
+          } catch (final NumberFormatException e) {
+            throw conversionException(value, "double");
+          }
+        }
+        throw conversionException(value, "double");
+      }
+
+      @Override
+      BigDecimal getBigDecimal(final int row) throws SQLException {
+        final Object value = this.values[row];
+        if (value instanceof BigDecimal) {
+          return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+          return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long || value instanceof Integer
+            || value instanceof Short || value instanceof Byte) {
+          return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number) {
+          return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+          return (Boolean) value ? BigDecimal.ONE : BigDecimal.ZERO;
+        } else if (value instanceof String) {
+          try {
+            return new BigDecimal(((String) value).trim());
+          } catch (final NumberFormatException e) {
+            throw conversionException(value, BigDecimal.class.getName());
+          }
+        }
+        throw conversionException(value, BigDecimal.class.getName());
+      }
+    }
+  }
+
+  /**
+   * A copy of the {@link ResultSetMetaData} of a cached result set.
+   */
+  @SuppressWarnings("RedundantThrows")
+  public static class CachedResultSetMetaData implements ResultSetMetaData {
+
+    protected final int columnCount;
+    protected final boolean[] autoIncrement;
+    protected final boolean[] caseSensitive;
+    protected final boolean[] searchable;
+    protected final boolean[] currency;
+    protected final int[] nullable;
+    protected final boolean[] signed;
+    protected final int[] columnDisplaySize;
+    protected final String[] columnLabel;
+    protected final String[] columnName;
+    protected final String[] schemaName;
+    protected final int[] precision;
+    protected final int[] scale;
+    protected final String[] tableName;
+    protected final String[] catalogName;
+    protected final int[] columnType;
+    protected final String[] columnTypeName;
+    protected final boolean[] readOnly;
+    protected final boolean[] writable;
+    protected final boolean[] definitelyWritable;
+    protected final String[] columnClassName;
+
+    public CachedResultSetMetaData(final ResultSetMetaData metaData) throws SQLException {
+      this.columnCount = metaData.getColumnCount();
+      this.autoIncrement = new boolean[this.columnCount];
+      this.caseSensitive = new boolean[this.columnCount];
+      this.searchable = new boolean[this.columnCount];
+      this.currency = new boolean[this.columnCount];
+      this.nullable = new int[this.columnCount];
+      this.signed = new boolean[this.columnCount];
+      this.columnDisplaySize = new int[this.columnCount];
+      this.columnLabel = new String[this.columnCount];
+      this.columnName = new String[this.columnCount];
+      this.schemaName = new String[this.columnCount];
+      this.precision = new int[this.columnCount];
+      this.scale = new int[this.columnCount];
+      this.tableName = new String[this.columnCount];
+      this.catalogName = new String[this.columnCount];
+      this.columnType = new int[this.columnCount];
+      this.columnTypeName = new String[this.columnCount];
+      this.readOnly = new boolean[this.columnCount];
+      this.writable = new boolean[this.columnCount];
+      this.definitelyWritable = new boolean[this.columnCount];
+      this.columnClassName = new String[this.columnCount];
+
+      for (int i = 0; i < this.columnCount; i++) {
+        final int column = i + 1;
+        this.autoIncrement[i] = metaData.isAutoIncrement(column);
+        this.caseSensitive[i] = metaData.isCaseSensitive(column);
+        this.searchable[i] = metaData.isSearchable(column);
+        this.currency[i] = metaData.isCurrency(column);
+        this.nullable[i] = metaData.isNullable(column);
+        this.signed[i] = metaData.isSigned(column);
+        this.columnDisplaySize[i] = metaData.getColumnDisplaySize(column);
+        this.columnLabel[i] = metaData.getColumnLabel(column);
+        this.columnName[i] = metaData.getColumnName(column);
+        this.schemaName[i] = metaData.getSchemaName(column);
+        this.precision[i] = metaData.getPrecision(column);
+        this.scale[i] = metaData.getScale(column);
+        this.tableName[i] = metaData.getTableName(column);
+        this.catalogName[i] = metaData.getCatalogName(column);
+        this.columnType[i] = metaData.getColumnType(column);
+        this.columnTypeName[i] = metaData.getColumnTypeName(column);
+        this.readOnly[i] = metaData.isReadOnly(column);
+        this.writable[i] = metaData.isWritable(column);
+        this.definitelyWritable[i] = metaData.isDefinitelyWritable(column);
+        this.columnClassName[i] = metaData.getColumnClassName(column);
+      }
+    }
+
+    private int index(final int column) throws SQLException {
+      if (column < 1 || column > this.columnCount) {
+        throw new SQLException(
+            Messages.get("DataCacheConnectionPlugin.invalidColumnIndex", new Object[] {column}));
+      }
+      return column - 1;
+    }
+
+    @Override
+    public int getColumnCount() throws SQLException {
+      return this.columnCount;
+    }
+
+    @Override
+    public boolean isAutoIncrement(final int column) throws SQLException {
+      return this.autoIncrement[this.index(column)];
+    }
+
+    @Override
+    public boolean isCaseSensitive(final int column) throws SQLException {
+      return this.caseSensitive[this.index(column)];
+    }
+
+    @Override
+    public boolean isSearchable(final int column) throws SQLException {
+      return this.searchable[this.index(column)];
+    }
+
+    @Override
+    public boolean isCurrency(final int column) throws SQLException {
+      return this.currency[this.index(column)];
+    }
+
+    @Override
+    public int isNullable(final int column) throws SQLException {
+      return this.nullable[this.index(column)];
+    }
+
+    @Override
+    public boolean isSigned(final int column) throws SQLException {
+      return this.signed[this.index(column)];
+    }
+
+    @Override
+    public int getColumnDisplaySize(final int column) throws SQLException {
+      return this.columnDisplaySize[this.index(column)];
+    }
+
+    @Override
+    public String getColumnLabel(final int column) throws SQLException {
+      return this.columnLabel[this.index(column)];
+    }
+
+    @Override
+    public String getColumnName(final int column) throws SQLException {
+      return this.columnName[this.index(column)];
+    }
+
+    @Override
+    public String getSchemaName(final int column) throws SQLException {
+      return this.schemaName[this.index(column)];
+    }
+
+    @Override
+    public int getPrecision(final int column) throws SQLException {
+      return this.precision[this.index(column)];
+    }
+
+    @Override
+    public int getScale(final int column) throws SQLException {
+      return this.scale[this.index(column)];
+    }
+
+    @Override
+    public String getTableName(final int column) throws SQLException {
+      return this.tableName[this.index(column)];
+    }
+
+    @Override
+    public String getCatalogName(final int column) throws SQLException {
+      return this.catalogName[this.index(column)];
+    }
+
+    @Override
+    public int getColumnType(final int column) throws SQLException {
+      return this.columnType[this.index(column)];
+    }
+
+    @Override
+    public String getColumnTypeName(final int column) throws SQLException {
+      return this.columnTypeName[this.index(column)];
+    }
+
+    @Override
+    public boolean isReadOnly(final int column) throws SQLException {
+      return this.readOnly[this.index(column)];
+    }
+
+    @Override
+    public boolean isWritable(final int column) throws SQLException {
+      return this.writable[this.index(column)];
+    }
+
+    @Override
+    public boolean isDefinitelyWritable(final int column) throws SQLException {
+      return this.definitelyWritable[this.index(column)];
+    }
+
+    @Override
+    public String getColumnClassName(final int column) throws SQLException {
+      return this.columnClassName[this.index(column)];
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+      return iface == ResultSetMetaData.class ? iface.cast(this) : null;
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+      return iface != null && iface.isAssignableFrom(this.getClass());
+    }
   }
 }
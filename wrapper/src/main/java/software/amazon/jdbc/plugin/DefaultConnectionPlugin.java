@@ -42,6 +42,7 @@ import software.amazon.jdbc.NodeChangeOptions;
 import software.amazon.jdbc.OldConnectionSuggestedAction;
 import software.amazon.jdbc.PluginManagerService;
 import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.PooledConnectionProvider;
 import software.amazon.jdbc.hostavailability.HostAvailability;
 import software.amazon.jdbc.util.Messages;
 import software.amazon.jdbc.util.SqlMethodAnalyzer;
@@ -198,6 +199,10 @@ public final class DefaultConnectionPlugin implements ConnectionPlugin {
     TelemetryContext telemetryContext = telemetryFactory.openTelemetryContext(
         connProvider.getTargetName(), TelemetryTraceLevel.NESTED);
 
+    if (connProvider instanceof PooledConnectionProvider) {
+      ((PooledConnectionProvider) connProvider).setTelemetryFactory(telemetryFactory);
+    }
+
     Connection conn;
     try {
       conn = connProvider.connect(
@@ -287,7 +292,16 @@ public final class DefaultConnectionPlugin implements ConnectionPlugin {
 
   @Override
   public void notifyNodeListChanged(final Map<String, EnumSet<NodeChangeOptions>> changes) {
-    // do nothing
+    // Let pooled connection providers prepare pools for new hosts and release pools of removed ones.
+    if (this.effectiveConnProvider != null) {
+      if (this.effectiveConnProvider instanceof PooledConnectionProvider) {
+        ((PooledConnectionProvider) this.effectiveConnProvider).notifyNodeListChanged(
+            this.pluginService.getHosts(), changes, this.pluginService.getProperties());
+      }
+      return;
+    }
+    this.connProviderManager.notifyNodeListChanged(
+        this.pluginService.getHosts(), changes, this.pluginService.getProperties());
   }
 
   List<String> parseMultiStatementQueries(String query) {
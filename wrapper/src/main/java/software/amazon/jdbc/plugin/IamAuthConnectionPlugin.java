@@ -25,9 +25,16 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.rds.RdsUtilities;
 import software.amazon.jdbc.AwsWrapperProperty;
@@ -38,12 +45,14 @@ import software.amazon.jdbc.PropertyDefinition;
 import software.amazon.jdbc.authentication.AwsCredentialsManager;
 import software.amazon.jdbc.util.IamAuthUtils;
 import software.amazon.jdbc.util.Messages;
+import software.amazon.jdbc.util.PropertyUtils;
 import software.amazon.jdbc.util.RdsUtils;
 import software.amazon.jdbc.util.StringUtils;
 import software.amazon.jdbc.util.telemetry.TelemetryContext;
 import software.amazon.jdbc.util.telemetry.TelemetryCounter;
 import software.amazon.jdbc.util.telemetry.TelemetryFactory;
 import software.amazon.jdbc.util.telemetry.TelemetryGauge;
+import software.amazon.jdbc.util.telemetry.TelemetryHistogram;
 import software.amazon.jdbc.util.telemetry.TelemetryTraceLevel;
 
 public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
@@ -58,6 +67,15 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
         }
       });
   static final ConcurrentHashMap<String, TokenInfo> tokenCache = new ConcurrentHashMap<>();
+  // Token generations in progress. Threads missing the cache for the same key wait for a single generation.
+  static final ConcurrentHashMap<String, CompletableFuture<String>> pendingTokens = new ConcurrentHashMap<>();
+  static final ConcurrentHashMap<String, TokenRefreshTask> tokenRefreshTasks = new ConcurrentHashMap<>();
+  private static final ScheduledExecutorService tokenRefreshExecutor =
+      Executors.newSingleThreadScheduledExecutor(runnableTarget -> {
+        final Thread refreshThread = new Thread(runnableTarget, "iam-token-refresh");
+        refreshThread.setDaemon(true);
+        return refreshThread;
+      });
   private static final int DEFAULT_TOKEN_EXPIRATION_SEC = 15 * 60 - 30;
 
   public static final AwsWrapperProperty IAM_HOST = new AwsWrapperProperty(
@@ -76,6 +94,11 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
       "iamExpiration", String.valueOf(DEFAULT_TOKEN_EXPIRATION_SEC),
       "IAM token cache expiration in seconds");
 
+  public static final AwsWrapperProperty IAM_TOKEN_REFRESH_RATIO = new AwsWrapperProperty(
+      "iamTokenRefreshRatio", "0",
+      "Fraction of the IAM token cache expiration after which cached tokens still in use are regenerated "
+          + "in the background. Set to a value between 0 and 1 to enable, for example 0.75.");
+
   protected final PluginService pluginService;
   protected final RdsUtils rdsUtils = new RdsUtils();
 
@@ -86,12 +109,40 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
   private final TelemetryFactory telemetryFactory;
   private final TelemetryGauge cacheSizeGauge;
   private final TelemetryCounter fetchTokenCounter;
+  private final TelemetryHistogram fetchTokenTimeHistogram;
+  private final double tokenRefreshRatio;
+  private final String invalidTokenRefreshRatio;
 
   public IamAuthConnectionPlugin(final @NonNull PluginService pluginService) {
+    this(pluginService, new Properties());
+  }
+
+  public IamAuthConnectionPlugin(final @NonNull PluginService pluginService, final @NonNull Properties props) {
     this.pluginService = pluginService;
     this.telemetryFactory = pluginService.getTelemetryFactory();
     this.cacheSizeGauge = telemetryFactory.createGauge("iam.tokenCache.size", () -> (long) tokenCache.size());
     this.fetchTokenCounter = telemetryFactory.createCounter("iam.fetchToken.count");
+    this.fetchTokenTimeHistogram = telemetryFactory.createHistogram("iam.fetchToken.time");
+
+    final String refreshRatio = IAM_TOKEN_REFRESH_RATIO.getString(props);
+    this.tokenRefreshRatio = parseTokenRefreshRatio(refreshRatio);
+    this.invalidTokenRefreshRatio = Double.isNaN(this.tokenRefreshRatio) ? refreshRatio : null;
+  }
+
+  /**
+   * Parses the token refresh ratio. Returns {@link Double#NaN} if the value is not a number in
+   * the range [0, 1).
+   */
+  private static double parseTokenRefreshRatio(final String refreshRatio) {
+    if (StringUtils.isNullOrEmpty(refreshRatio)) {
+      return 0;
+    }
+    try {
+      final double ratio = Double.parseDouble(refreshRatio.trim());
+      return ratio >= 0 && ratio < 1 ? ratio : Double.NaN;
+    } catch (final NumberFormatException ex) {
+      return Double.NaN;
+    }
   }
 
   @Override
@@ -112,6 +163,12 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
 
   private Connection connectInternal(String driverProtocol, HostSpec hostSpec, Properties props,
       JdbcCallable<Connection, SQLException> connectFunc) throws SQLException {
+    if (this.invalidTokenRefreshRatio != null) {
+      throw new SQLException(Messages.get(
+          "IamAuthConnectionPlugin.invalidTokenRefreshRatio",
+          new Object[] {this.invalidTokenRefreshRatio}));
+    }
+
     if (StringUtils.isNullOrEmpty(PropertyDefinition.USER.getString(props))) {
       throw new SQLException(PropertyDefinition.USER.name + " is null or empty.");
     }
@@ -138,6 +195,11 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
     final TokenInfo tokenInfo = tokenCache.get(cacheKey);
     final boolean isCachedToken = tokenInfo != null && !tokenInfo.isExpired();
 
+    final TokenRefreshTask refreshTask = tokenRefreshTasks.get(cacheKey);
+    if (refreshTask != null) {
+      refreshTask.lastUsedTimeNano = System.nanoTime();
+    }
+
     if (isCachedToken) {
       LOGGER.finest(
           () -> Messages.get(
@@ -145,21 +207,8 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
               new Object[] {tokenInfo.getToken()}));
       PropertyDefinition.PASSWORD.set(props, tokenInfo.getToken());
     } else {
-      final Instant tokenExpiry = Instant.now().plus(tokenExpirationSec, ChronoUnit.SECONDS);
-      final String token = generateAuthenticationToken(
-          hostSpec,
-          props,
-          host,
-          port,
-          region);
-      LOGGER.finest(
-          () -> Messages.get(
-              "IamAuthConnectionPlugin.generatedNewIamToken",
-              new Object[] {token}));
+      final String token = fetchToken(cacheKey, hostSpec, props, host, port, region, tokenExpirationSec, null);
       PropertyDefinition.PASSWORD.set(props, token);
-      tokenCache.put(
-          cacheKey,
-          new TokenInfo(token, tokenExpiry));
     }
 
     try {
@@ -178,21 +227,9 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
       // Login unsuccessful with cached token
       // Try to generate a new token and try to connect again
 
-      final Instant tokenExpiry = Instant.now().plus(tokenExpirationSec, ChronoUnit.SECONDS);
-      final String token = generateAuthenticationToken(
-          hostSpec,
-          props,
-          host,
-          port,
-          region);
-      LOGGER.finest(
-          () -> Messages.get(
-              "IamAuthConnectionPlugin.generatedNewIamToken",
-              new Object[] {token}));
+      final String token = fetchToken(
+          cacheKey, hostSpec, props, host, port, region, tokenExpirationSec, tokenInfo.getToken());
       PropertyDefinition.PASSWORD.set(props, token);
-      tokenCache.put(
-          cacheKey,
-          new TokenInfo(token, tokenExpiry));
 
       return connectFunc.call();
 
@@ -216,6 +253,108 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
     return connectInternal(driverProtocol, hostSpec, props, forceConnectFunc);
   }
 
+  /**
+   * Generates a new token and stores it in the token cache. If another thread is already generating
+   * a token for the same cache key, waits for that token instead of generating another one. A valid
+   * token cached by a generation that completed just before is used as well, unless it is the token
+   * that has been rejected by the database.
+   */
+  String fetchToken(
+      final String cacheKey,
+      final HostSpec hostSpec,
+      final Properties props,
+      final String host,
+      final int port,
+      final Region region,
+      final int tokenExpirationSec,
+      final @Nullable String rejectedToken) throws SQLException {
+
+    final CompletableFuture<String> tokenFuture = new CompletableFuture<>();
+    final CompletableFuture<String> pendingToken = pendingTokens.putIfAbsent(cacheKey, tokenFuture);
+    if (pendingToken != null) {
+      return waitForToken(pendingToken);
+    }
+
+    try {
+      final TokenInfo tokenInfo = tokenCache.get(cacheKey);
+      if (tokenInfo != null && !tokenInfo.isExpired() && !tokenInfo.getToken().equals(rejectedToken)) {
+        tokenFuture.complete(tokenInfo.getToken());
+        return tokenInfo.getToken();
+      }
+
+      final Instant tokenExpiry = Instant.now().plus(tokenExpirationSec, ChronoUnit.SECONDS);
+      final String token = generateAuthenticationToken(
+          hostSpec,
+          props,
+          host,
+          port,
+          region);
+      LOGGER.finest(
+          () -> Messages.get(
+              "IamAuthConnectionPlugin.generatedNewIamToken",
+              new Object[] {token}));
+      tokenCache.put(
+          cacheKey,
+          new TokenInfo(token, tokenExpiry));
+      tokenFuture.complete(token);
+      this.scheduleTokenRefresh(cacheKey, hostSpec, props, host, port, region, tokenExpirationSec);
+      return token;
+    } catch (final Throwable ex) {
+      tokenFuture.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      pendingTokens.remove(cacheKey, tokenFuture);
+    }
+  }
+
+  private static String waitForToken(final CompletableFuture<String> pendingToken) throws SQLException {
+    try {
+      return pendingToken.get();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(ex);
+    } catch (final ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      if (ex.getCause() instanceof Error) {
+        throw (Error) ex.getCause();
+      }
+      throw new SQLException(ex.getCause());
+    }
+  }
+
+  private void scheduleTokenRefresh(
+      final String cacheKey,
+      final HostSpec hostSpec,
+      final Properties props,
+      final String host,
+      final int port,
+      final Region region,
+      final int tokenExpirationSec) {
+
+    if (this.tokenRefreshRatio <= 0 || tokenRefreshTasks.containsKey(cacheKey)) {
+      return;
+    }
+
+    final long refreshDelayMs = (long) (TimeUnit.SECONDS.toMillis(tokenExpirationSec) * this.tokenRefreshRatio);
+    final TokenRefreshTask refreshTask = new TokenRefreshTask(
+        cacheKey,
+        hostSpec,
+        PropertyUtils.copyProperties(props),
+        host,
+        port,
+        region,
+        tokenExpirationSec,
+        refreshDelayMs,
+        this.telemetryFactory,
+        this.fetchTokenCounter,
+        this.fetchTokenTimeHistogram);
+    if (tokenRefreshTasks.putIfAbsent(cacheKey, refreshTask) == null) {
+      refreshTask.schedule();
+    }
+  }
+
   String generateAuthenticationToken(
       final HostSpec originalHostSpec,
       final Properties props,
@@ -223,10 +362,31 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
       final int port,
       final Region region) {
 
-    TelemetryFactory telemetryFactory = this.pluginService.getTelemetryFactory();
+    return generateAuthenticationToken(
+        this.pluginService.getTelemetryFactory(),
+        this.fetchTokenCounter,
+        this.fetchTokenTimeHistogram,
+        originalHostSpec,
+        props,
+        hostname,
+        port,
+        region);
+  }
+
+  private static String generateAuthenticationToken(
+      final TelemetryFactory telemetryFactory,
+      final TelemetryCounter fetchTokenCounter,
+      final TelemetryHistogram fetchTokenTimeHistogram,
+      final HostSpec originalHostSpec,
+      final Properties props,
+      final String hostname,
+      final int port,
+      final Region region) {
+
     TelemetryContext telemetryContext = telemetryFactory.openTelemetryContext(
         TELEMETRY_FETCH_TOKEN, TelemetryTraceLevel.NESTED);
-    this.fetchTokenCounter.inc();
+    fetchTokenCounter.inc();
+    final long startTimeNano = System.nanoTime();
 
     try {
       final String user = PropertyDefinition.USER.getString(props);
@@ -245,6 +405,7 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
       telemetryContext.setException(ex);
       throw ex;
     } finally {
+      fetchTokenTimeHistogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNano));
       telemetryContext.closeContext();
     }
   }
@@ -259,6 +420,8 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
   }
 
   public static void clearCache() {
+    tokenRefreshTasks.values().forEach(TokenRefreshTask::cancel);
+    tokenRefreshTasks.clear();
     tokenCache.clear();
   }
 
@@ -293,4 +456,103 @@ public class IamAuthConnectionPlugin extends AbstractConnectionPlugin {
 
     return regionOptional.get();
   }
+
+  /**
+   * Regenerates the token of a cache key before it expires, as long as the key is in use. A key is
+   * considered in use if a connection has been opened with it since the previous regeneration.
+   */
+  static class TokenRefreshTask implements Runnable {
+    private final String cacheKey;
+    private final HostSpec hostSpec;
+    private final Properties props;
+    private final String host;
+    private final int port;
+    private final Region region;
+    private final int tokenExpirationSec;
+    private final long refreshDelayMs;
+    private final TelemetryFactory telemetryFactory;
+    private final TelemetryCounter fetchTokenCounter;
+    private final TelemetryHistogram fetchTokenTimeHistogram;
+    volatile long lastUsedTimeNano = System.nanoTime();
+    private volatile long lastRefreshTimeNano = System.nanoTime();
+    private volatile ScheduledFuture<?> scheduledFuture;
+
+    TokenRefreshTask(
+        final String cacheKey,
+        final HostSpec hostSpec,
+        final Properties props,
+        final String host,
+        final int port,
+        final Region region,
+        final int tokenExpirationSec,
+        final long refreshDelayMs,
+        final TelemetryFactory telemetryFactory,
+        final TelemetryCounter fetchTokenCounter,
+        final TelemetryHistogram fetchTokenTimeHistogram) {
+      this.cacheKey = cacheKey;
+      this.hostSpec = hostSpec;
+      this.props = props;
+      this.host = host;
+      this.port = port;
+      this.region = region;
+      this.tokenExpirationSec = tokenExpirationSec;
+      this.refreshDelayMs = refreshDelayMs;
+      this.telemetryFactory = telemetryFactory;
+      this.fetchTokenCounter = fetchTokenCounter;
+      this.fetchTokenTimeHistogram = fetchTokenTimeHistogram;
+    }
+
+    void schedule() {
+      this.scheduledFuture = tokenRefreshExecutor.schedule(this, this.refreshDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    void cancel() {
+      final ScheduledFuture<?> future = this.scheduledFuture;
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+
+    @Override
+    public void run() {
+      if (this.lastUsedTimeNano - this.lastRefreshTimeNano < 0) {
+        // No connections have been opened with this key since the last refresh.
+        tokenRefreshTasks.remove(this.cacheKey, this);
+        LOGGER.finest(() -> Messages.get("IamAuthConnectionPlugin.stoppedTokenRefresh", new Object[] {this.cacheKey}));
+        return;
+      }
+
+      this.lastRefreshTimeNano = System.nanoTime();
+      try {
+        this.refreshToken();
+      } finally {
+        // The refresh is scheduled again even if an error is thrown, so the key keeps being refreshed.
+        if (tokenRefreshTasks.get(this.cacheKey) == this) {
+          this.schedule();
+        }
+      }
+    }
+
+    private void refreshToken() {
+      try {
+        final Instant tokenExpiry = Instant.now().plus(this.tokenExpirationSec, ChronoUnit.SECONDS);
+        final String token = generateAuthenticationToken(
+            this.telemetryFactory,
+            this.fetchTokenCounter,
+            this.fetchTokenTimeHistogram,
+            this.hostSpec,
+            this.props,
+            this.host,
+            this.port,
+            this.region);
+        tokenCache.put(this.cacheKey, new TokenInfo(token, tokenExpiry));
+        LOGGER.finest(() -> Messages.get("IamAuthConnectionPlugin.refreshedIamToken", new Object[] {this.cacheKey}));
+      } catch (final Exception ex) {
+        // The current token stays in use until it expires. Connections then generate a new token themselves.
+        LOGGER.fine(() -> Messages.get(
+            "IamAuthConnectionPlugin.tokenRefreshFailed",
+            new Object[] {this.cacheKey, ex.getMessage()}));
+      }
+    }
+  }
 }
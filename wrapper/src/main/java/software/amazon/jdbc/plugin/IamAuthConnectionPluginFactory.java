@@ -24,6 +24,6 @@ import software.amazon.jdbc.PluginService;
 public class IamAuthConnectionPluginFactory implements ConnectionPluginFactory {
   @Override
   public ConnectionPlugin getInstance(final PluginService pluginService, final Properties props) {
-    return new IamAuthConnectionPlugin(pluginService);
+    return new IamAuthConnectionPlugin(pluginService, props);
   }
 }
@@ -18,8 +18,13 @@ package software.amazon.jdbc.plugin.efm;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -30,6 +35,7 @@ import software.amazon.jdbc.PluginService;
 import software.amazon.jdbc.util.Messages;
 import software.amazon.jdbc.util.PropertyUtils;
 import software.amazon.jdbc.util.StringUtils;
+import software.amazon.jdbc.util.TimingWheel;
 import software.amazon.jdbc.util.telemetry.TelemetryContext;
 import software.amazon.jdbc.util.telemetry.TelemetryCounter;
 import software.amazon.jdbc.util.telemetry.TelemetryFactory;
@@ -39,6 +45,11 @@ import software.amazon.jdbc.util.telemetry.TelemetryTraceLevel;
 /**
  * This class uses a background thread to monitor a particular server with one or more active {@link
  * Connection}.
+ *
+ * <p>Contexts are kept in timing wheels keyed by their deadlines: new contexts until their active
+ * monitoring starts, and active contexts until their failure deadline while the server isn't
+ * responding. This way, the work of each status check depends on the number of contexts that
+ * reach a deadline rather than on the number of monitored connections.
  */
 public class MonitorImpl implements Monitor {
 
@@ -57,9 +68,12 @@ public class MonitorImpl implements Monitor {
   private static final long THREAD_SLEEP_WHEN_INACTIVE_MILLIS = 100;
   private static final long MIN_CONNECTION_CHECK_TIMEOUT_MILLIS = 3000;
   private static final String MONITORING_PROPERTY_PREFIX = "monitoring-";
+  private static final long TIMING_WHEEL_TICK_NANO = TimeUnit.MILLISECONDS.toNanos(10);
 
-  private final Queue<MonitorConnectionContext> activeContexts = new ConcurrentLinkedQueue<>();
   private final Queue<MonitorConnectionContext> newContexts = new ConcurrentLinkedQueue<>();
+  private final Queue<MonitorConnectionContext> stoppedContexts = new ConcurrentLinkedQueue<>();
+  private final Set<MonitorConnectionContext> activeContexts = ConcurrentHashMap.newKeySet();
+  private volatile boolean clearContextsRequested = false;
   private final PluginService pluginService;
   private final TelemetryFactory telemetryFactory;
   private final Properties properties;
@@ -71,6 +85,13 @@ public class MonitorImpl implements Monitor {
   private Connection monitoringConn = null;
   private long nodeCheckTimeoutMillis = MIN_CONNECTION_CHECK_TIMEOUT_MILLIS;
 
+  // The fields below are only accessed by the monitoring thread.
+  private final TimingWheel<MonitorConnectionContext> pendingContexts;
+  private final TimingWheel<MonitorConnectionContext> failingContexts;
+  private final List<MonitorConnectionContext> recentlyActivatedContexts = new ArrayList<>();
+  private final TreeMap<Long, Integer> activeContextsByInterval = new TreeMap<>();
+  private long failureCount;
+
   private final TelemetryGauge contextsSizeGauge;
   private final TelemetryCounter nodeInvalidCounter;
   private TelemetryContext telemetryContext;
@@ -103,6 +124,8 @@ public class MonitorImpl implements Monitor {
     this.threadContainer = threadContainer;
 
     this.contextLastUsedTimestampNano = this.getCurrentTimeNano();
+    this.pendingContexts = new TimingWheel<>(TIMING_WHEEL_TICK_NANO, this.contextLastUsedTimestampNano);
+    this.failingContexts = new TimingWheel<>(TIMING_WHEEL_TICK_NANO, this.contextLastUsedTimestampNano);
     this.contextsSizeGauge = telemetryFactory.createGauge("efm.activeContexts.queue.size",
         () -> (long) activeContexts.size());
 
@@ -132,11 +155,13 @@ public class MonitorImpl implements Monitor {
 
     context.setInactive();
     this.contextLastUsedTimestampNano = this.getCurrentTimeNano();
+    this.stoppedContexts.add(context);
   }
 
   public void clearContexts() {
     this.newContexts.clear();
-    this.activeContexts.clear();
+    // The other contexts are owned by the monitoring thread, which drops them on its next run.
+    this.clearContextsRequested = true;
   }
 
   @Override
@@ -150,32 +175,13 @@ public class MonitorImpl implements Monitor {
       while (true) {
         try {
 
-          // process new contexts
-          MonitorConnectionContext newMonitorContext;
-          MonitorConnectionContext firstAddedNewMonitorContext = null;
-          final long currentTimeNano = this.getCurrentTimeNano();
-
-          while ((newMonitorContext = this.newContexts.poll()) != null) {
-            if (firstAddedNewMonitorContext == newMonitorContext) {
-              // This context has already been processed.
-              // Add it back to the queue and process it in the next round.
-              this.newContexts.add(newMonitorContext);
-              break;
-            }
-            if (newMonitorContext.isActiveContext()) {
-              if (newMonitorContext.getExpectedActiveMonitoringStartTimeNano() > currentTimeNano) {
-                // The context active monitoring time hasn't come.
-                // Add the context to the queue and check it later.
-                this.newContexts.add(newMonitorContext);
-                if (firstAddedNewMonitorContext == null) {
-                  firstAddedNewMonitorContext = newMonitorContext;
-                }
-              } else {
-                // It's time to start actively monitor this context.
-                this.activeContexts.add(newMonitorContext);
-              }
-            }
+          if (this.clearContextsRequested) {
+            this.clearContextsRequested = false;
+            this.dropContexts();
           }
+          this.removeStoppedContexts();
+          this.addNewContexts();
+          this.pendingContexts.advance(this.getCurrentTimeNano(), this::activateContext);
 
           if (!this.activeContexts.isEmpty()) {
 
@@ -183,46 +189,11 @@ public class MonitorImpl implements Monitor {
             this.contextLastUsedTimestampNano = statusCheckStartTimeNano;
 
             final ConnectionStatus status = checkConnectionStatus(this.nodeCheckTimeoutMillis);
+            this.updateConnectionStatus(status, statusCheckStartTimeNano);
 
-            long delayMillis = -1;
-            MonitorConnectionContext monitorContext;
-            MonitorConnectionContext firstAddedMonitorContext = null;
-
-            while ((monitorContext = this.activeContexts.poll()) != null) {
-
-              synchronized (monitorContext) {
-                // If context is already invalid, just skip it
-                if (!monitorContext.isActiveContext()) {
-                  continue;
-                }
-
-                if (firstAddedMonitorContext == monitorContext) {
-                  // this context has already been processed by this loop
-                  // add it to the queue and exit this loop
-                  this.activeContexts.add(monitorContext);
-                  break;
-                }
-
-                // otherwise, process this context
-                monitorContext.updateConnectionStatus(
-                    this.hostSpec.getUrl(),
-                    statusCheckStartTimeNano,
-                    statusCheckStartTimeNano + status.elapsedTimeNano,
-                    status.isValid);
-
-                // If context is still valid and node is still healthy, it needs to continue updating this context
-                if (monitorContext.isActiveContext() && !monitorContext.isNodeUnhealthy()) {
-                  this.activeContexts.add(monitorContext);
-                  if (firstAddedMonitorContext == null) {
-                    firstAddedMonitorContext = monitorContext;
-                  }
-
-                  if (delayMillis == -1 || delayMillis > monitorContext.getFailureDetectionIntervalMillis()) {
-                    delayMillis = monitorContext.getFailureDetectionIntervalMillis();
-                  }
-                }
-              }
-            }
+            long delayMillis = this.activeContextsByInterval.isEmpty()
+                ? -1
+                : this.activeContextsByInterval.firstKey();
 
             if (delayMillis == -1) {
               // No active contexts
@@ -293,6 +264,110 @@ public class MonitorImpl implements Monitor {
     }
   }
 
+  private void dropContexts() {
+    this.newContexts.clear();
+    this.stoppedContexts.clear();
+    this.pendingContexts.clear();
+    this.failingContexts.clear();
+    this.recentlyActivatedContexts.clear();
+    this.activeContextsByInterval.clear();
+    this.activeContexts.clear();
+  }
+
+  private void removeStoppedContexts() {
+    MonitorConnectionContext context;
+    while ((context = this.stoppedContexts.poll()) != null) {
+      this.removeActiveContext(context);
+    }
+  }
+
+  private void addNewContexts() {
+    MonitorConnectionContext context;
+    while ((context = this.newContexts.poll()) != null) {
+      this.pendingContexts.add(context.getExpectedActiveMonitoringStartTimeNano(), context);
+    }
+  }
+
+  private void activateContext(final MonitorConnectionContext context) {
+    // Contexts that stopped before their active monitoring started are dropped here.
+    if (context.isActiveContext() && this.activeContexts.add(context)) {
+      this.activeContextsByInterval.merge(context.getFailureDetectionIntervalMillis(), 1, Integer::sum);
+      this.recentlyActivatedContexts.add(context);
+    }
+  }
+
+  private boolean removeActiveContext(final MonitorConnectionContext context) {
+    if (!this.activeContexts.remove(context)) {
+      return false;
+    }
+    this.activeContextsByInterval.computeIfPresent(
+        context.getFailureDetectionIntervalMillis(),
+        (interval, count) -> count > 1 ? count - 1 : null);
+    return true;
+  }
+
+  /**
+   * Applies the result of a status check to the active contexts.
+   *
+   * <p>While the server isn't responding, each active context is kept in {@link #failingContexts}
+   * until its failure deadline: the start of the first failed check after the context became
+   * active, plus its failure detection interval times its failure detection count. The connection
+   * of a context that reaches its deadline is aborted. Once the server responds again, all the
+   * deadlines are dropped.
+   *
+   * @param status                   The result of the status check.
+   * @param statusCheckStartTimeNano The time when the status check started in nanos.
+   */
+  private void updateConnectionStatus(final ConnectionStatus status, final long statusCheckStartTimeNano) {
+    if (status.isValid) {
+      if (this.failureCount > 0) {
+        LOGGER.finest(() -> Messages.get("MonitorConnectionContext.hostAlive", new Object[] {this.hostSpec.getUrl()}));
+        this.failingContexts.clear();
+      }
+      this.failureCount = 0;
+      this.recentlyActivatedContexts.clear();
+      return;
+    }
+
+    // The contexts that became active before the server stopped responding share its start time.
+    final Iterable<MonitorConnectionContext> newFailingContexts =
+        this.failureCount == 0 ? this.activeContexts : this.recentlyActivatedContexts;
+    for (final MonitorConnectionContext context : newFailingContexts) {
+      if (this.activeContexts.contains(context)) {
+        final long maxInvalidNodeDurationMillis =
+            context.getFailureDetectionIntervalMillis() * Math.max(0, context.getFailureDetectionCount());
+        this.failingContexts.add(
+            statusCheckStartTimeNano + TimeUnit.MILLISECONDS.toNanos(maxInvalidNodeDurationMillis),
+            context);
+      }
+    }
+    this.recentlyActivatedContexts.clear();
+    this.failureCount++;
+
+    final long failureCount = this.failureCount;
+    LOGGER.finest(
+        () -> Messages.get(
+            "MonitorConnectionContext.hostNotResponding",
+            new Object[] {this.hostSpec.getUrl(), failureCount}));
+
+    this.failingContexts.advance(statusCheckStartTimeNano + status.elapsedTimeNano, this::abortContext);
+  }
+
+  private void abortContext(final MonitorConnectionContext context) {
+    // Contexts that stopped while the server wasn't responding are not active anymore.
+    if (!this.removeActiveContext(context)) {
+      return;
+    }
+
+    synchronized (context) {
+      if (context.isActiveContext()) {
+        LOGGER.fine(() -> Messages.get("MonitorConnectionContext.hostDead", new Object[] {this.hostSpec.getUrl()}));
+        context.setNodeUnhealthy(true);
+        context.abortConnection();
+      }
+    }
+  }
+
   /**
    * Check the status of the monitored server by sending a ping.
    *
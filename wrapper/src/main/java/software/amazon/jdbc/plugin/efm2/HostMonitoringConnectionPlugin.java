@@ -74,6 +74,13 @@ public class HostMonitoringConnectionPlugin extends AbstractConnectionPlugin
           "3",
           "Number of failed connection checks before considering database node unhealthy.");
 
+  public static final AwsWrapperProperty FAILURE_DETECTION_PROBE =
+      new AwsWrapperProperty(
+          "failureDetectionProbe",
+          "jdbc",
+          "How the database node is checked: 'jdbc' validates a monitoring connection, and 'socket' "
+              + "checks that the node completes the start of the protocol handshake.");
+
   private static final Set<String> subscribedMethods =
       Collections.unmodifiableSet(new HashSet<>(Collections.singletonList("*")));
 
@@ -0,0 +1,40 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin.efm2;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checks whether the host of a {@link MonitorImpl} is alive. A probe is used by one status check at
+ * a time.
+ */
+public interface HostProbe extends AutoCloseable {
+
+  /**
+   * Starts a check of the host.
+   *
+   * @param timeoutMillis the time in millis the host has to respond
+   * @return a future completed with true if the host is alive, and with false otherwise
+   */
+  CompletableFuture<Boolean> probe(int timeoutMillis);
+
+  /**
+   * Releases the resources held by the probe, such as open connections.
+   */
+  @Override
+  void close();
+}
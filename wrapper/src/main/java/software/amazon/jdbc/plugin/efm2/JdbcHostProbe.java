@@ -0,0 +1,114 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin.efm2;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.util.PropertyUtils;
+import software.amazon.jdbc.util.telemetry.TelemetryContext;
+import software.amazon.jdbc.util.telemetry.TelemetryTraceLevel;
+
+/**
+ * Checks the host by keeping a monitoring connection to it open and calling
+ * {@link Connection#isValid(int)} on it. Connecting and validating block, so the check runs on the
+ * blocking probe pool of the {@link MonitorExecutor} rather than on the calling thread.
+ */
+public class JdbcHostProbe implements HostProbe {
+
+  private static final Logger LOGGER = Logger.getLogger(JdbcHostProbe.class.getName());
+  private static final String MONITORING_PROPERTY_PREFIX = "monitoring-";
+
+  private final PluginService pluginService;
+  private final HostSpec hostSpec;
+  private final Properties properties;
+  private volatile Connection monitoringConn = null;
+
+  public JdbcHostProbe(
+      final @NonNull PluginService pluginService,
+      final @NonNull HostSpec hostSpec,
+      final @NonNull Properties properties) {
+    this.pluginService = pluginService;
+    this.hostSpec = hostSpec;
+    this.properties = properties;
+  }
+
+  @Override
+  public CompletableFuture<Boolean> probe(final int timeoutMillis) {
+    return CompletableFuture.supplyAsync(
+        () -> this.checkConnectionStatus(timeoutMillis),
+        MonitorExecutor.getBlockingProbeInstance());
+  }
+
+  /**
+   * Check the status of the monitored server by establishing a connection and sending a ping.
+   *
+   * @return True, if the server is still alive.
+   */
+  boolean checkConnectionStatus(final int timeoutMillis) {
+    TelemetryContext connectContext = this.pluginService.getTelemetryFactory().openTelemetryContext(
+        "connection status check", TelemetryTraceLevel.NESTED);
+    try {
+      if (this.monitoringConn == null || this.monitoringConn.isClosed()) {
+        // open a new connection
+        final Properties monitoringConnProperties = PropertyUtils.copyProperties(this.properties);
+
+        this.properties.stringPropertyNames().stream()
+            .filter(p -> p.startsWith(MONITORING_PROPERTY_PREFIX))
+            .forEach(
+                p -> {
+                  monitoringConnProperties.put(
+                      p.substring(MONITORING_PROPERTY_PREFIX.length()),
+                      this.properties.getProperty(p));
+                  monitoringConnProperties.remove(p);
+                });
+
+        LOGGER.finest(() -> "Opening a monitoring connection to " + this.hostSpec.getUrl());
+        this.monitoringConn = this.pluginService.forceConnect(this.hostSpec, monitoringConnProperties);
+        LOGGER.finest(() -> "Opened monitoring connection: " + this.monitoringConn);
+        return true;
+      }
+
+      return this.monitoringConn.isValid((int) TimeUnit.MILLISECONDS.toSeconds(timeoutMillis));
+
+    } catch (final SQLException sqlEx) {
+      return false;
+
+    } finally {
+      connectContext.closeContext();
+    }
+  }
+
+  @Override
+  public void close() {
+    final Connection conn = this.monitoringConn;
+    this.monitoringConn = null;
+    if (conn != null) {
+      try {
+        conn.close();
+      } catch (final SQLException ex) {
+        // ignore
+      }
+    }
+  }
+}
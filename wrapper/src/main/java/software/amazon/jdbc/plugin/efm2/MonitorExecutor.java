@@ -0,0 +1,100 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin.efm2;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The scheduler that runs the tasks of all {@link MonitorImpl} instances.
+ *
+ * <p>Monitors don't own threads. Their status checks and the processing of new monitoring contexts
+ * run as timed tasks on this scheduler, so the number of monitoring threads depends on the number
+ * of processors rather than on the number of monitored hosts.
+ *
+ * <p>Status checks that block, such as the ones of {@link JdbcHostProbe}, run on a separate bounded
+ * pool, so a host that is slow to respond doesn't hold the scheduler threads that the checks of the
+ * other hosts need. Idle threads of that pool are released after a minute.
+ *
+ * <p>The queue of that pool holds as many checks as the pool has threads, so a queued check waits
+ * for about one check at most. When many hosts are slow to respond and the queue is full, a new
+ * check is rejected rather than queued, and {@link MonitorImpl} skips it and checks the host again
+ * at the next failure detection interval. A queued check would report the status of the host late,
+ * while a skipped check leaves the last known status in place.
+ */
+public final class MonitorExecutor {
+
+  // Aborting the connections of an unavailable host may block, so there are more threads than processors.
+  static final int THREAD_COUNT = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+  // Blocking status checks mostly wait for the network, so there are many more threads than processors.
+  static final int BLOCKING_PROBE_THREAD_COUNT = Math.max(16, 8 * Runtime.getRuntime().availableProcessors());
+  private static final long KEEP_ALIVE_SEC = 60;
+  private static final AtomicInteger threadCount = new AtomicInteger();
+  private static final AtomicInteger probeThreadCount = new AtomicInteger();
+
+  private static final ScheduledThreadPoolExecutor executor = createExecutor();
+  private static final ThreadPoolExecutor blockingProbeExecutor = createBlockingProbeExecutor();
+
+  private MonitorExecutor() {
+  }
+
+  public static ScheduledExecutorService getInstance() {
+    return executor;
+  }
+
+  /**
+   * Returns the pool for status checks that block the thread they run on.
+   *
+   * @return the executor for blocking status checks
+   */
+  public static ExecutorService getBlockingProbeInstance() {
+    return blockingProbeExecutor;
+  }
+
+  private static ScheduledThreadPoolExecutor createExecutor() {
+    final ScheduledThreadPoolExecutor threadPool = new ScheduledThreadPoolExecutor(
+        THREAD_COUNT,
+        runnableTarget -> {
+          final Thread monitoringThread = new Thread(runnableTarget, "efm2-monitor-" + threadCount.incrementAndGet());
+          monitoringThread.setDaemon(true);
+          return monitoringThread;
+        });
+    threadPool.setRemoveOnCancelPolicy(true);
+    return threadPool;
+  }
+
+  private static ThreadPoolExecutor createBlockingProbeExecutor() {
+    final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+        BLOCKING_PROBE_THREAD_COUNT,
+        BLOCKING_PROBE_THREAD_COUNT,
+        KEEP_ALIVE_SEC,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(BLOCKING_PROBE_THREAD_COUNT),
+        runnableTarget -> {
+          final Thread probeThread = new Thread(runnableTarget, "efm2-probe-" + probeThreadCount.incrementAndGet());
+          probeThread.setDaemon(true);
+          return probeThread;
+        });
+    threadPool.allowCoreThreadTimeOut(true);
+    return threadPool;
+  }
+}
@@ -19,15 +19,15 @@ package software.amazon.jdbc.plugin.efm2;
 import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Properties;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -37,8 +37,8 @@ import software.amazon.jdbc.HostSpec;
 import software.amazon.jdbc.PluginService;
 import software.amazon.jdbc.hostavailability.HostAvailability;
 import software.amazon.jdbc.util.Messages;
-import software.amazon.jdbc.util.PropertyUtils;
 import software.amazon.jdbc.util.StringUtils;
+import software.amazon.jdbc.util.TimingWheel;
 import software.amazon.jdbc.util.telemetry.TelemetryContext;
 import software.amazon.jdbc.util.telemetry.TelemetryCounter;
 import software.amazon.jdbc.util.telemetry.TelemetryFactory;
@@ -46,30 +46,42 @@ import software.amazon.jdbc.util.telemetry.TelemetryGauge;
 import software.amazon.jdbc.util.telemetry.TelemetryTraceLevel;
 
 /**
- * This class uses a background thread to monitor a particular server with one or more active {@link
- * Connection}.
+ * This class monitors a particular server with one or more active {@link Connection}.
+ *
+ * <p>The monitor doesn't own threads. It runs two tasks on the shared {@link MonitorExecutor}: one
+ * task moves new monitoring contexts to the active contexts once their failure detection time has
+ * passed, and the other task checks the status of the server at the failure detection interval.
+ * New contexts wait in a timing wheel keyed by their start time, and active contexts are only
+ * visited all together when the server is unhealthy, so the work of each task depends on the
+ * number of contexts that change state rather than on the number of monitored connections.
+ *
+ * <p>The status of the server is checked by a {@link HostProbe}. Probes don't block the scheduler
+ * thread while the check is in progress: {@link SocketHostProbe} waits for the socket without a
+ * thread, and {@link JdbcHostProbe} runs its blocking check on a separate pool. A check that the
+ * pool rejects because it is full is skipped, and the server is checked again at the next failure
+ * detection interval.
  */
 public class MonitorImpl implements Monitor {
 
   private static final Logger LOGGER = Logger.getLogger(MonitorImpl.class.getName());
-  private static final long THREAD_SLEEP_NANO = TimeUnit.SECONDS.toNanos(1);
-  private static final String MONITORING_PROPERTY_PREFIX = "monitoring-";
+  private static final long TASK_DELAY_NANO = TimeUnit.SECONDS.toNanos(1);
+  private static final long TIMING_WHEEL_TICK_NANO = TimeUnit.MILLISECONDS.toNanos(100);
 
   protected static final Executor ABORT_EXECUTOR = Executors.newSingleThreadExecutor();
 
   private final Queue<WeakReference<MonitorConnectionContext>> activeContexts = new ConcurrentLinkedQueue<>();
-  private final HashMap<Long, Queue<WeakReference<MonitorConnectionContext>>> newContexts = new HashMap<>();
+  private final Queue<NewContext> newContexts = new ConcurrentLinkedQueue<>();
+  // Only accessed by the new contexts task.
+  private final TimingWheel<WeakReference<MonitorConnectionContext>> pendingContexts;
+  private volatile boolean clearContextsRequested = false;
   private final PluginService pluginService;
   private final TelemetryFactory telemetryFactory;
-  private final Properties properties;
   private final HostSpec hostSpec;
+  private final HostProbe probe;
   private final AtomicBoolean stopped = new AtomicBoolean(false);
-  private Connection monitoringConn = null;
-  private final ExecutorService threadPool = Executors.newFixedThreadPool(2, runnableTarget -> {
-    final Thread monitoringThread = new Thread(runnableTarget);
-    monitoringThread.setDaemon(true);
-    return monitoringThread;
-  });
+  private final ScheduledExecutorService scheduler = MonitorExecutor.getInstance();
+  private final ScheduledFuture<?> newContextsTask;
+  private volatile ScheduledFuture<?> statusCheckTask;
 
   private final long failureDetectionTimeNano;
   private final long failureDetectionIntervalNano;
@@ -106,11 +118,12 @@ public class MonitorImpl implements Monitor {
     this.pluginService = pluginService;
     this.telemetryFactory = pluginService.getTelemetryFactory();
     this.hostSpec = hostSpec;
-    this.properties = properties;
+    this.probe = createProbe(pluginService, hostSpec, properties);
     this.failureDetectionTimeNano = TimeUnit.MILLISECONDS.toNanos(failureDetectionTimeMillis);
     this.failureDetectionIntervalNano = TimeUnit.MILLISECONDS.toNanos(failureDetectionIntervalMillis);
     this.failureDetectionCount = failureDetectionCount;
     this.abortedConnectionsCounter = abortedConnectionsCounter;
+    this.pendingContexts = new TimingWheel<>(TIMING_WHEEL_TICK_NANO, this.getCurrentTimeNano());
 
     final String hostId = StringUtils.isNullOrEmpty(this.hostSpec.getHostId())
         ? this.hostSpec.getHost()
@@ -128,23 +141,40 @@ public class MonitorImpl implements Monitor {
         String.format("efm2.nodeHealthy.%s", hostId),
         () -> this.nodeUnhealthy ? 0L : 1L);
 
-    this.threadPool.submit(this::newContextRun); // task to handle new contexts
-    this.threadPool.submit(this); // task to handle active monitoring contexts
-    this.threadPool.shutdown(); // No more tasks are accepted by pool.
+    // task to handle new contexts
+    this.newContextsTask = this.scheduler.scheduleWithFixedDelay(
+        this::newContextRun, 0, TASK_DELAY_NANO, TimeUnit.NANOSECONDS);
+    // task to handle active monitoring contexts; it schedules its next run itself
+    this.statusCheckTask = this.scheduler.schedule(this, 0, TimeUnit.NANOSECONDS);
+  }
+
+  private static HostProbe createProbe(
+      final PluginService pluginService,
+      final HostSpec hostSpec,
+      final Properties properties) {
+
+    if ("socket".equalsIgnoreCase(HostMonitoringConnectionPlugin.FAILURE_DETECTION_PROBE.getString(properties))) {
+      return new SocketHostProbe(
+          hostSpec,
+          pluginService.getDialect().getDefaultPort(),
+          SocketHostProbe.Handshake.fromDialect(pluginService.getDialect()));
+    }
+    return new JdbcHostProbe(pluginService, hostSpec, properties);
   }
 
   @Override
   public boolean canDispose() {
-    return this.activeContexts.isEmpty() && this.newContexts.isEmpty();
+    return this.activeContexts.isEmpty() && this.newContexts.isEmpty() && this.pendingContexts.isEmpty();
   }
 
   @Override
   public void close() throws Exception {
     this.stopped.set(true);
+    this.newContextsTask.cancel(false);
 
-    // Waiting for 30s gives a thread enough time to exit monitoring loop and close database connection.
-    if (!this.threadPool.awaitTermination(30, TimeUnit.SECONDS)) {
-      this.threadPool.shutdownNow();
+    // A status check in progress closes the probe itself when it completes.
+    if (this.statusCheckTask.cancel(false)) {
+      this.probe.close();
     }
     LOGGER.finest(() -> Messages.get(
         "MonitorImpl.stopped",
@@ -152,7 +182,7 @@ public class MonitorImpl implements Monitor {
   }
 
   protected long getActiveContextSize() {
-    return this.newContexts.values().stream().mapToLong(java.util.Collection::size).sum();
+    return this.newContexts.size() + this.pendingContexts.size();
   }
 
   @Override
@@ -161,24 +191,15 @@ public class MonitorImpl implements Monitor {
       LOGGER.warning(() -> Messages.get("MonitorImpl.monitorIsStopped", new Object[] {this.hostSpec.getHost()}));
     }
 
-    final long currentTimeNano = this.getCurrentTimeNano();
-    long startMonitoringTimeNano = this.truncateNanoToSeconds(
-        currentTimeNano + this.failureDetectionTimeNano);
-
-    Queue<WeakReference<MonitorConnectionContext>> queue =
-        this.newContexts.computeIfAbsent(
-            startMonitoringTimeNano,
-            (key) -> new ConcurrentLinkedQueue<>());
-    queue.add(new WeakReference<>(context));
-  }
-
-  private long truncateNanoToSeconds(final long timeNano) {
-    return TimeUnit.SECONDS.toNanos(TimeUnit.NANOSECONDS.toSeconds(timeNano));
+    final long startMonitoringTimeNano = this.getCurrentTimeNano() + this.failureDetectionTimeNano;
+    this.newContexts.add(new NewContext(new WeakReference<>(context), startMonitoringTimeNano));
   }
 
   public void clearContexts() {
     this.newContexts.clear();
     this.activeContexts.clear();
+    // Pending contexts are owned by the new contexts task, which drops them on its next run.
+    this.clearContextsRequested = true;
   }
 
   // This method helps to organize unit tests.
@@ -187,179 +208,169 @@ public class MonitorImpl implements Monitor {
   }
 
   public void newContextRun() {
-
-    final TelemetryContext telemetryContext = telemetryFactory.openTelemetryContext(
-        "monitoring thread (new contexts)", TelemetryTraceLevel.TOP_LEVEL);
-    telemetryContext.setAttribute("url", this.hostSpec.getUrl());
-
     try {
-      while (!this.stopped.get()) {
-
-        final long currentTimeNano = this.getCurrentTimeNano();
-
-        final ArrayList<Long> processedKeys = new ArrayList<>();
-        this.newContexts.entrySet().stream()
-            // Get entries with key (that is a time in nanos) less or equal than current time.
-            .filter(entry -> entry.getKey() < currentTimeNano)
-            .forEach(entry -> {
-              final Queue<WeakReference<MonitorConnectionContext>> queue = entry.getValue();
-              processedKeys.add(entry.getKey());
-              // Each value of found entry is a queue of monitoring contexts awaiting active monitoring.
-              // Add all contexts to an active monitoring contexts queue.
-              // Ignore disposed contexts.
-              WeakReference<MonitorConnectionContext> contextWeakRef;
-              while ((contextWeakRef = queue.poll()) != null) {
-                MonitorConnectionContext context = contextWeakRef.get();
-                if (context != null && context.isActive()) {
-                  this.activeContexts.add(contextWeakRef);
-                }
-              }
-            });
-        processedKeys.forEach(this.newContexts::remove);
-
-        TimeUnit.SECONDS.sleep(1);
+      if (this.clearContextsRequested) {
+        this.clearContextsRequested = false;
+        this.pendingContexts.clear();
+      }
+
+      NewContext newContext;
+      while ((newContext = this.newContexts.poll()) != null) {
+        this.pendingContexts.add(newContext.startMonitoringTimeNano, newContext.contextWeakRef);
       }
-    } catch (final InterruptedException intEx) {
-      // do nothing; just exit the thread
+
+      // Move the contexts that reached their start time to the active contexts.
+      // Ignore disposed contexts.
+      this.pendingContexts.advance(this.getCurrentTimeNano(), contextWeakRef -> {
+        final MonitorConnectionContext context = contextWeakRef.get();
+        if (context != null && context.isActive()) {
+          this.activeContexts.add(contextWeakRef);
+        }
+      });
     } catch (final Exception ex) {
-      // this should not be reached; log and exit thread
+      // this should not be reached; log and continue, since an exception would cancel the task
       if (LOGGER.isLoggable(Level.FINEST)) {
         LOGGER.log(
             Level.FINEST,
             Messages.get(
-                "MonitorImpl.exceptionDuringMonitoringStop",
+                "MonitorImpl.exceptionDuringMonitoringContinue",
                 new Object[]{this.hostSpec.getHost()}),
             ex); // We want to print full trace stack of the exception.
       }
-    } finally {
-      telemetryContext.closeContext();
     }
   }
 
   @Override
   public void run() {
+    if (this.stopped.get()) {
+      this.probe.close();
+      return;
+    }
+
+    if (this.activeContexts.isEmpty()) {
+      this.scheduleStatusCheck(TASK_DELAY_NANO);
+      return;
+    }
+
+    final long statusCheckStartTimeNano = this.getCurrentTimeNano();
+    final CompletableFuture<Boolean> probeResult;
     final TelemetryContext telemetryContext = telemetryFactory.openTelemetryContext(
         "monitoring thread", TelemetryTraceLevel.TOP_LEVEL);
     telemetryContext.setAttribute("url", hostSpec.getUrl());
-
     try {
-      while (!this.stopped.get()) {
-
-        if (this.activeContexts.isEmpty()) {
-          TimeUnit.NANOSECONDS.sleep(THREAD_SLEEP_NANO);
-          continue;
-        }
-
-        final long statusCheckStartTimeNano = this.getCurrentTimeNano();
-        final boolean isValid = this.checkConnectionStatus();
-        final long statusCheckEndTimeNano = this.getCurrentTimeNano();
-
-        this.updateNodeHealthStatus(isValid, statusCheckStartTimeNano, statusCheckEndTimeNano);
+      probeResult = this.probe.probe((int) TimeUnit.NANOSECONDS.toMillis(this.failureDetectionIntervalNano));
+    } catch (final RejectedExecutionException ex) {
+      // The blocking probe pool is busy with the checks of other hosts. The health of the server is left as is.
+      LOGGER.fine(() -> Messages.get("MonitorImpl.statusCheckSkipped", new Object[] {this.hostSpec.getHost()}));
+      this.scheduleStatusCheck(this.failureDetectionIntervalNano);
+      return;
+    } catch (final Exception ex) {
+      this.stopOnException(ex);
+      this.probe.close();
+      return;
+    } finally {
+      telemetryContext.closeContext();
+    }
 
-        if (this.nodeUnhealthy) {
-          this.pluginService.setAvailability(this.hostSpec.asAliases(), HostAvailability.NOT_AVAILABLE);
-        }
+    // The contexts are updated on a scheduler thread, rather than on a thread owned by the probe.
+    probeResult.whenCompleteAsync(
+        (isValid, ex) -> this.onStatusChecked(Boolean.TRUE.equals(isValid), statusCheckStartTimeNano),
+        this.scheduler);
+  }
 
-        final List<WeakReference<MonitorConnectionContext>> tmpActiveContexts = new ArrayList<>();
-        WeakReference<MonitorConnectionContext> monitorContextWeakRef;
-
-        while ((monitorContextWeakRef = this.activeContexts.poll()) != null) {
-          if (this.stopped.get()) {
-            break;
-          }
-
-          MonitorConnectionContext monitorContext = monitorContextWeakRef.get();
-          if (monitorContext == null) {
-            continue;
-          }
-
-          if (this.nodeUnhealthy) {
-            // Kill connection.
-            monitorContext.setNodeUnhealthy(true);
-            final Connection connectionToAbort = monitorContext.getConnection();
-            monitorContext.setInactive();
-            if (connectionToAbort != null) {
-              this.abortConnection(connectionToAbort);
-              this.abortedConnectionsCounter.inc();
-            }
-          } else if (monitorContext.isActive()) {
-            tmpActiveContexts.add(monitorContextWeakRef);
-          }
-        }
+  private void onStatusChecked(final boolean isValid, final long statusCheckStartTimeNano) {
+    long delayNano = TASK_DELAY_NANO;
+    try {
+      delayNano = this.updateContexts(isValid, statusCheckStartTimeNano, this.getCurrentTimeNano());
+    } catch (final Exception ex) {
+      this.stopOnException(ex);
+    }
+    this.scheduleStatusCheck(delayNano);
+  }
 
-        // activeContexts is empty now and tmpActiveContexts contains all yet active contexts
-        // Add active contexts back to the queue.
-        this.activeContexts.addAll(tmpActiveContexts);
+  private void scheduleStatusCheck(final long delayNano) {
+    if (this.stopped.get()) {
+      this.probe.close();
+      return;
+    }
+    this.statusCheckTask = this.scheduler.schedule(this, delayNano, TimeUnit.NANOSECONDS);
+  }
 
-        long delayNano = this.failureDetectionIntervalNano - (statusCheckEndTimeNano - statusCheckStartTimeNano);
-        if (delayNano < THREAD_SLEEP_NANO) {
-          delayNano = THREAD_SLEEP_NANO;
-        }
-        TimeUnit.NANOSECONDS.sleep(delayNano);
-      }
-    } catch (final InterruptedException intEx) {
-      // do nothing
-    } catch (final Exception ex) {
-      // this should not be reached; log and exit thread
-      if (LOGGER.isLoggable(Level.FINEST)) {
-        LOGGER.log(
-            Level.FINEST,
-            Messages.get(
-                "MonitorImpl.exceptionDuringMonitoringStop",
-                new Object[]{this.hostSpec.getHost()}),
-            ex); // We want to print full trace stack of the exception.
-      }
-    } finally {
-      this.stopped.set(true);
-      if (this.monitoringConn != null) {
-        try {
-          this.monitoringConn.close();
-        } catch (final SQLException ex) {
-          // ignore
-        }
-      }
-      telemetryContext.closeContext();
+  private void stopOnException(final Exception ex) {
+    // this should not be reached; log and stop monitoring
+    if (LOGGER.isLoggable(Level.FINEST)) {
+      LOGGER.log(
+          Level.FINEST,
+          Messages.get(
+              "MonitorImpl.exceptionDuringMonitoringStop",
+              new Object[]{this.hostSpec.getHost()}),
+          ex); // We want to print full trace stack of the exception.
     }
+    this.stopped.set(true);
   }
 
   /**
-   * Check the status of the monitored server by establishing a connection and sending a ping.
+   * Updates the health of the monitored server with the result of a status check, and aborts the
+   * connections of the active contexts if the server is unhealthy.
    *
-   * @return True, if the server is still alive.
+   * @return the delay in nanos before the next status check
    */
-  boolean checkConnectionStatus() {
-    TelemetryContext connectContext = telemetryFactory.openTelemetryContext(
-        "connection status check", TelemetryTraceLevel.NESTED);
-    try {
-      if (this.monitoringConn == null || this.monitoringConn.isClosed()) {
-        // open a new connection
-        final Properties monitoringConnProperties = PropertyUtils.copyProperties(this.properties);
-
-        this.properties.stringPropertyNames().stream()
-            .filter(p -> p.startsWith(MONITORING_PROPERTY_PREFIX))
-            .forEach(
-                p -> {
-                  monitoringConnProperties.put(
-                      p.substring(MONITORING_PROPERTY_PREFIX.length()),
-                      this.properties.getProperty(p));
-                  monitoringConnProperties.remove(p);
-                });
-
-        LOGGER.finest(() -> "Opening a monitoring connection to " + this.hostSpec.getUrl());
-        this.monitoringConn = this.pluginService.forceConnect(this.hostSpec, monitoringConnProperties);
-        LOGGER.finest(() -> "Opened monitoring connection: " + this.monitoringConn);
-        return true;
+  private long updateContexts(
+      final boolean isValid,
+      final long statusCheckStartTimeNano,
+      final long statusCheckEndTimeNano) {
+
+    this.updateNodeHealthStatus(isValid, statusCheckStartTimeNano, statusCheckEndTimeNano);
+
+    if (this.nodeUnhealthy) {
+      this.pluginService.setAvailability(this.hostSpec.asAliases(), HostAvailability.NOT_AVAILABLE);
+      this.abortActiveContexts();
+    } else {
+      this.removeInactiveContexts();
+    }
+
+    final long delayNano = this.failureDetectionIntervalNano - (statusCheckEndTimeNano - statusCheckStartTimeNano);
+    return Math.max(delayNano, TASK_DELAY_NANO);
+  }
+
+  /**
+   * Removes the inactive contexts from the head of the active contexts queue. Contexts mostly stop
+   * in the order they started, so this removes most of them without visiting the active ones. The
+   * active context found at the head is moved to the tail, so the inactive contexts behind it are
+   * removed by the next status checks.
+   */
+  private void removeInactiveContexts() {
+    WeakReference<MonitorConnectionContext> monitorContextWeakRef;
+    while ((monitorContextWeakRef = this.activeContexts.poll()) != null) {
+      final MonitorConnectionContext monitorContext = monitorContextWeakRef.get();
+      if (monitorContext != null && monitorContext.isActive()) {
+        this.activeContexts.add(monitorContextWeakRef);
+        return;
       }
+    }
+  }
 
-      final boolean isValid = this.monitoringConn.isValid(
-          (int) TimeUnit.NANOSECONDS.toSeconds(this.failureDetectionIntervalNano));
-      return isValid;
+  private void abortActiveContexts() {
+    WeakReference<MonitorConnectionContext> monitorContextWeakRef;
 
-    } catch (final SQLException sqlEx) {
-      return false;
+    while ((monitorContextWeakRef = this.activeContexts.poll()) != null) {
+      if (this.stopped.get()) {
+        break;
+      }
 
-    } finally {
-      connectContext.closeContext();
+      MonitorConnectionContext monitorContext = monitorContextWeakRef.get();
+      if (monitorContext == null) {
+        continue;
+      }
+
+      // Kill connection.
+      monitorContext.setNodeUnhealthy(true);
+      final Connection connectionToAbort = monitorContext.getConnection();
+      monitorContext.setInactive();
+      if (connectionToAbort != null) {
+        this.abortConnection(connectionToAbort);
+        this.abortedConnectionsCounter.inc();
+      }
     }
   }
 
@@ -417,4 +428,16 @@ public class MonitorImpl implements Monitor {
     }
   }
 
+  private static class NewContext {
+
+    private final WeakReference<MonitorConnectionContext> contextWeakRef;
+    private final long startMonitoringTimeNano;
+
+    private NewContext(
+        final WeakReference<MonitorConnectionContext> contextWeakRef,
+        final long startMonitoringTimeNano) {
+      this.contextWeakRef = contextWeakRef;
+      this.startMonitoringTimeNano = startMonitoringTimeNano;
+    }
+  }
 }
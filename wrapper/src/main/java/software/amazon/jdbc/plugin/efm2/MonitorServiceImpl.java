@@ -162,10 +162,11 @@ public class MonitorServiceImpl implements MonitorService {
       final int failureDetectionIntervalMillis,
       final int failureDetectionCount) {
 
-    final String monitorKey = String.format("%d:%d:%d:%s",
+    final String monitorKey = String.format("%d:%d:%d:%s:%s",
         failureDetectionTimeMillis,
         failureDetectionIntervalMillis,
         failureDetectionCount,
+        HostMonitoringConnectionPlugin.FAILURE_DETECTION_PROBE.getString(properties),
         hostSpec.getUrl());
 
     final long cacheExpirationNano = TimeUnit.MILLISECONDS.toNanos(
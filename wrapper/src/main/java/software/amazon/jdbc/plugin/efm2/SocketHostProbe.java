@@ -0,0 +1,139 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin.efm2;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.dialect.Dialect;
+import software.amazon.jdbc.dialect.MariaDbDialect;
+import software.amazon.jdbc.dialect.MysqlDialect;
+import software.amazon.jdbc.dialect.PgDialect;
+import software.amazon.jdbc.util.Messages;
+
+/**
+ * Checks the host without logging in to the database. The probe opens a TCP connection to the
+ * database port and, for PostgreSQL and MySQL, waits for the server to take part in the start of
+ * the protocol handshake. The connection is closed right after that.
+ *
+ * <p>The probe doesn't hold a database session, and the checks of all hosts run on a single
+ * thread with non-blocking sockets, see {@link SocketProbeSelector}. The address of the host is
+ * resolved on the blocking probe pool of the {@link MonitorExecutor}, and it is kept until a check
+ * fails, so the address is looked up again only when the host may have moved.
+ */
+public class SocketHostProbe implements HostProbe {
+
+  private static final Logger LOGGER = Logger.getLogger(SocketHostProbe.class.getName());
+  private static final int MIN_TIMEOUT_MILLIS = 1000;
+
+  // The PostgreSQL SSLRequest message: the message length followed by the SSL request code.
+  private static final byte[] PG_SSL_REQUEST = {0, 0, 0, 8, 0x04, (byte) 0xd2, 0x16, 0x2f};
+
+  /**
+   * The part of the protocol handshake that the server must complete for the host to be alive.
+   */
+  public enum Handshake {
+    /** Only the TCP connection is checked. */
+    NONE,
+    /** The client sends an SSLRequest message, and the server must answer it. */
+    POSTGRESQL,
+    /** The server must send its initial handshake packet. */
+    MYSQL;
+
+    public static Handshake fromDialect(final Dialect dialect) {
+      if (dialect instanceof PgDialect) {
+        return POSTGRESQL;
+      }
+      if (dialect instanceof MysqlDialect || dialect instanceof MariaDbDialect) {
+        return MYSQL;
+      }
+      return NONE;
+    }
+  }
+
+  private final String host;
+  private final int port;
+  private final Handshake handshake;
+  private volatile InetSocketAddress address;
+
+  /**
+   * SocketHostProbe constructor.
+   *
+   * @param hostSpec    The host to check.
+   * @param defaultPort The port to use if the host doesn't specify one.
+   * @param handshake   The part of the protocol handshake to check.
+   */
+  public SocketHostProbe(
+      final @NonNull HostSpec hostSpec,
+      final int defaultPort,
+      final @NonNull Handshake handshake) {
+    this.host = hostSpec.getHost();
+    this.port = hostSpec.isPortSpecified() ? hostSpec.getPort() : defaultPort;
+    this.handshake = handshake;
+  }
+
+  @Override
+  public CompletableFuture<Boolean> probe(final int timeoutMillis) {
+    final long deadlineNano =
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMillis, MIN_TIMEOUT_MILLIS));
+    final InetSocketAddress cachedAddress = this.address;
+    if (cachedAddress != null) {
+      return this.probe(cachedAddress, deadlineNano);
+    }
+
+    // The lookup may block, so it doesn't run on the thread of the caller.
+    return CompletableFuture
+        .supplyAsync(this::resolveAddress, MonitorExecutor.getBlockingProbeInstance())
+        .thenCompose(resolvedAddress -> {
+          if (resolvedAddress.isUnresolved()) {
+            LOGGER.finest(() -> Messages.get("SocketHostProbe.unresolvedHost", new Object[] {this.host}));
+            return CompletableFuture.completedFuture(false);
+          }
+          this.address = resolvedAddress;
+          return this.probe(resolvedAddress, deadlineNano);
+        });
+  }
+
+  private CompletableFuture<Boolean> probe(final InetSocketAddress address, final long deadlineNano) {
+    final CompletableFuture<Boolean> result = SocketProbeSelector.getInstance().probe(
+        address,
+        this.handshake == Handshake.POSTGRESQL ? PG_SSL_REQUEST : null,
+        this.handshake != Handshake.NONE,
+        deadlineNano - System.nanoTime());
+
+    return result.thenApply(isAlive -> {
+      if (!isAlive) {
+        // Look the address up again with the next check, in case the host has moved.
+        this.address = null;
+      }
+      return isAlive;
+    });
+  }
+
+  // This method helps to organize unit tests.
+  InetSocketAddress resolveAddress() {
+    return new InetSocketAddress(this.host, this.port);
+  }
+
+  @Override
+  public void close() {
+    // Checks in progress complete by themselves, and no other resources are held.
+  }
+}
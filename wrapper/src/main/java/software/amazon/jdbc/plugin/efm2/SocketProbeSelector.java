@@ -0,0 +1,230 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin.efm2;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import software.amazon.jdbc.util.Messages;
+
+/**
+ * Runs the checks of all {@link SocketHostProbe} instances on a single thread, using non-blocking
+ * sockets. The thread is started with the first check and waits without a timeout while there are
+ * no checks in progress.
+ */
+final class SocketProbeSelector implements Runnable {
+
+  private static final Logger LOGGER = Logger.getLogger(SocketProbeSelector.class.getName());
+  private static final Object instanceLock = new Object();
+  private static volatile SocketProbeSelector instance;
+
+  private final Selector selector;
+  private final Queue<ProbeAttempt> newAttempts = new ConcurrentLinkedQueue<>();
+
+  private SocketProbeSelector(final Selector selector) {
+    this.selector = selector;
+  }
+
+  static SocketProbeSelector getInstance() {
+    if (instance == null) {
+      synchronized (instanceLock) {
+        if (instance == null) {
+          final Selector selector;
+          try {
+            selector = Selector.open();
+          } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+          }
+          final SocketProbeSelector probeSelector = new SocketProbeSelector(selector);
+          final Thread selectorThread = new Thread(probeSelector, "efm2-probe-selector");
+          selectorThread.setDaemon(true);
+          selectorThread.start();
+          instance = probeSelector;
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Starts a check of a host.
+   *
+   * @param address        the address of the host
+   * @param request        the bytes to send once connected, or null
+   * @param expectResponse true if the host must send at least one byte
+   * @param timeoutNano    the time in nanos the host has to complete the check
+   * @return a future completed with true if the check succeeds, and with false otherwise
+   */
+  CompletableFuture<Boolean> probe(
+      final InetSocketAddress address,
+      final byte[] request,
+      final boolean expectResponse,
+      final long timeoutNano) {
+
+    final ProbeAttempt attempt = new ProbeAttempt(request, expectResponse, System.nanoTime() + timeoutNano);
+    try {
+      attempt.channel = SocketChannel.open();
+      attempt.channel.configureBlocking(false);
+      attempt.channel.connect(address);
+    } catch (final IOException ex) {
+      attempt.complete(false);
+      return attempt.result;
+    }
+
+    this.newAttempts.add(attempt);
+    this.selector.wakeup();
+    return attempt.result;
+  }
+
+  @Override
+  public void run() {
+    while (true) {
+      try {
+        this.registerNewAttempts();
+        this.selector.select(this.getSelectTimeoutMillis());
+
+        final Iterator<SelectionKey> selectedKeys = this.selector.selectedKeys().iterator();
+        while (selectedKeys.hasNext()) {
+          final SelectionKey key = selectedKeys.next();
+          selectedKeys.remove();
+          ((ProbeAttempt) key.attachment()).onReady(key);
+        }
+
+        this.completeExpiredAttempts();
+      } catch (final Exception ex) {
+        // this should not be reached; log and continue, since all checks depend on this thread
+        if (LOGGER.isLoggable(Level.FINEST)) {
+          LOGGER.log(Level.FINEST, Messages.get("SocketProbeSelector.unexpectedException"), ex);
+        }
+      }
+    }
+  }
+
+  private void registerNewAttempts() {
+    ProbeAttempt attempt;
+    while ((attempt = this.newAttempts.poll()) != null) {
+      try {
+        final int interestOps = attempt.getInterestOps();
+        if (interestOps == 0) {
+          attempt.complete(true);
+        } else {
+          attempt.channel.register(this.selector, interestOps, attempt);
+        }
+      } catch (final IOException ex) {
+        attempt.complete(false);
+      }
+    }
+  }
+
+  private long getSelectTimeoutMillis() {
+    long nextDeadlineNano = Long.MAX_VALUE;
+    for (final SelectionKey key : this.selector.keys()) {
+      if (key.isValid()) {
+        nextDeadlineNano = Math.min(nextDeadlineNano, ((ProbeAttempt) key.attachment()).deadlineNano);
+      }
+    }
+    if (nextDeadlineNano == Long.MAX_VALUE) {
+      return 0; // no checks in progress; wait for the next one
+    }
+    return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadlineNano - System.nanoTime()));
+  }
+
+  private void completeExpiredAttempts() {
+    final long currentTimeNano = System.nanoTime();
+    for (final SelectionKey key : this.selector.keys()) {
+      final ProbeAttempt attempt = (ProbeAttempt) key.attachment();
+      if (key.isValid() && attempt.deadlineNano - currentTimeNano <= 0) {
+        attempt.complete(false);
+      }
+    }
+  }
+
+  private static class ProbeAttempt {
+
+    private final ByteBuffer request;
+    private final ByteBuffer response = ByteBuffer.allocate(1);
+    private final boolean expectResponse;
+    private final long deadlineNano;
+    private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+    private SocketChannel channel;
+
+    private ProbeAttempt(final byte[] request, final boolean expectResponse, final long deadlineNano) {
+      this.request = request == null ? null : ByteBuffer.wrap(request);
+      this.expectResponse = expectResponse;
+      this.deadlineNano = deadlineNano;
+    }
+
+    private int getInterestOps() {
+      if (!this.channel.isConnected()) {
+        return SelectionKey.OP_CONNECT;
+      }
+      if (this.request != null && this.request.hasRemaining()) {
+        return SelectionKey.OP_WRITE;
+      }
+      return this.expectResponse ? SelectionKey.OP_READ : 0;
+    }
+
+    private void onReady(final SelectionKey key) {
+      try {
+        if (key.isConnectable() && !this.channel.finishConnect()) {
+          return;
+        }
+        if (key.isWritable()) {
+          this.channel.write(this.request);
+        }
+        if (key.isReadable()) {
+          final int bytesRead = this.channel.read(this.response);
+          if (bytesRead != 0) {
+            // Any response means the server is alive. A closed connection means it isn't.
+            this.complete(bytesRead > 0);
+            return;
+          }
+        }
+
+        final int interestOps = this.getInterestOps();
+        if (interestOps == 0) {
+          this.complete(true);
+        } else {
+          key.interestOps(interestOps);
+        }
+      } catch (final IOException ex) {
+        this.complete(false);
+      }
+    }
+
+    private void complete(final boolean isAlive) {
+      if (this.channel != null) {
+        try {
+          this.channel.close();
+        } catch (final IOException ex) {
+          // ignore
+        }
+      }
+      this.result.complete(isAlive);
+    }
+  }
+}
@@ -20,14 +20,18 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -36,6 +40,7 @@ import software.amazon.jdbc.HostRole;
 import software.amazon.jdbc.HostSpec;
 import software.amazon.jdbc.PluginService;
 import software.amazon.jdbc.hostavailability.HostAvailability;
+import software.amazon.jdbc.util.CacheMap;
 import software.amazon.jdbc.util.Messages;
 import software.amazon.jdbc.util.PropertyUtils;
 import software.amazon.jdbc.util.Utils;
@@ -44,11 +49,19 @@ import software.amazon.jdbc.util.Utils;
  * An implementation of ReaderFailoverHandler.
  *
  * <p>Reader Failover Process goal is to connect to any available reader. In order to connect
- * faster, this implementation tries to connect to two readers at the same time. The first
- * successfully connected reader is returned as the process result. If both readers are unavailable
- * (i.e. could not be connected to), the process picks up another pair of readers and repeat. If no
- * reader has been connected to, the process may consider a writer host, and other hosts marked
- * down, to connect to.
+ * faster, this implementation tries to connect to several readers at the same time, two by default.
+ * Attempts can be started a short time apart, so a reader that accepts connections quickly wins
+ * before the next attempt is even started. As soon as an attempt fails, the next reader is tried.
+ * The first successfully connected reader is returned as the process result, and the other attempts
+ * are cancelled. Connections opened by the other attempts, even after they are cancelled, are
+ * closed. If no reader has been connected to, the process may consider a writer host, and other
+ * hosts marked down, to connect to. Readers that recently took much longer to connect to than the
+ * other readers are tried last.
+ *
+ * <p>Connection attempts run on the shared {@link FailoverExecutor}, and the process that waits for
+ * them runs on its coordinator pool. When several connections to the same cluster fail over at the
+ * same time, only the first one runs the process. The others wait for it, no longer than it may
+ * take, and then connect to the hosts it hasn't found unavailable.
  */
 public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler {
 
@@ -56,14 +69,31 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
       Logger.getLogger(ClusterAwareReaderFailoverHandler.class.getName());
   protected static final int DEFAULT_FAILOVER_TIMEOUT = 60000; // 60 sec
   protected static final int DEFAULT_READER_CONNECT_TIMEOUT = 30000; // 30 sec
+  protected static final int DEFAULT_MAX_PARALLEL_ATTEMPTS = 2;
+  protected static final int DEFAULT_ATTEMPT_STAGGER = 0;
+  protected static final int DEFAULT_RETRY_INTERVAL = 250; // 250 ms
+  // Connection times are only compared when they differ by more than this amount.
+  private static final long MIN_SLOW_HOST_DIFFERENCE_NANO = TimeUnit.MILLISECONDS.toNanos(50);
+  private static final long CONNECT_TIME_EXPIRATION_NANO = TimeUnit.MINUTES.toNanos(5);
   public static final ReaderFailoverResult FAILED_READER_FAILOVER_RESULT = new ReaderFailoverResult(null,
       null, false);
   protected Properties initialConnectionProps;
   protected int maxFailoverTimeoutMs;
   protected int timeoutMs;
   protected boolean enableFailoverStrictReader;
+  protected int maxParallelAttempts;
+  protected int attemptStaggerMs;
+  protected int retryIntervalMs;
   protected final PluginService pluginService;
 
+  // The time it took to connect to each host during recent failover processes, by host URL.
+  protected static final CacheMap<String, Long> hostConnectTimesNano = new CacheMap<>();
+
+  // Candidate hosts found by the failover processes in progress, by cluster. Connections to a cluster
+  // that fail over while another connection to the same cluster is failing over wait for its result.
+  protected static final ConcurrentHashMap<String, FailoverInProgress> failoversInProgress =
+      new ConcurrentHashMap<>();
+
   /**
    * ClusterAwareReaderFailoverHandler constructor.
    *
@@ -97,11 +127,48 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
       final int maxFailoverTimeoutMs,
       final int timeoutMs,
       final boolean enableFailoverStrictReader) {
+    this(
+        pluginService,
+        initialConnectionProps,
+        maxFailoverTimeoutMs,
+        timeoutMs,
+        enableFailoverStrictReader,
+        DEFAULT_MAX_PARALLEL_ATTEMPTS,
+        DEFAULT_ATTEMPT_STAGGER,
+        DEFAULT_RETRY_INTERVAL);
+  }
+
+  /**
+   * ClusterAwareReaderFailoverHandler constructor.
+   *
+   * @param pluginService              A provider for creating new connections.
+   * @param initialConnectionProps     The initial connection properties to copy over to the new reader.
+   * @param maxFailoverTimeoutMs       Maximum allowed time for the entire reader failover process.
+   * @param timeoutMs                  Maximum allowed time in milliseconds for each reader connection attempt during
+   *                                   the reader failover process.
+   * @param enableFailoverStrictReader When true, it disables adding a writer to a list of nodes to connect
+   * @param maxParallelAttempts        Maximum number of connection attempts in progress at the same time.
+   * @param attemptStaggerMs           Time in milliseconds to wait before starting another parallel connection
+   *                                   attempt while the previous attempts are still in progress.
+   * @param retryIntervalMs            Time in milliseconds to wait before trying all the hosts again.
+   */
+  public ClusterAwareReaderFailoverHandler(
+      final PluginService pluginService,
+      final Properties initialConnectionProps,
+      final int maxFailoverTimeoutMs,
+      final int timeoutMs,
+      final boolean enableFailoverStrictReader,
+      final int maxParallelAttempts,
+      final int attemptStaggerMs,
+      final int retryIntervalMs) {
     this.pluginService = pluginService;
     this.initialConnectionProps = initialConnectionProps;
     this.maxFailoverTimeoutMs = maxFailoverTimeoutMs;
     this.timeoutMs = timeoutMs;
     this.enableFailoverStrictReader = enableFailoverStrictReader;
+    this.maxParallelAttempts = Math.max(1, maxParallelAttempts);
+    this.attemptStaggerMs = Math.max(0, attemptStaggerMs);
+    this.retryIntervalMs = Math.max(0, retryIntervalMs);
   }
 
   /**
@@ -131,16 +198,120 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
       return FAILED_READER_FAILOVER_RESULT;
     }
 
-    final ExecutorService executor = Executors.newSingleThreadExecutor();
-    final Future<ReaderFailoverResult> future = submitInternalFailoverTask(hosts, currentHost, executor);
-    return getInternalFailoverResult(executor, future);
+    // The strict reader mode checks the role of the new connection, so it doesn't share the candidate readers.
+    final String clusterKey = this.enableFailoverStrictReader ? null : getClusterKey(hosts);
+    if (clusterKey == null) {
+      return this.failoverWithTimeout(hosts, currentHost, this.maxFailoverTimeoutMs);
+    }
+
+    final FailoverInProgress candidates = new FailoverInProgress(this.maxFailoverTimeoutMs);
+    final FailoverInProgress failoverInProgress = failoversInProgress.putIfAbsent(clusterKey, candidates);
+
+    if (failoverInProgress == null) {
+      List<HostSpec> connectableHosts = null;
+      try {
+        final ReaderFailoverResult result = this.failoverWithTimeout(hosts, currentHost, this.maxFailoverTimeoutMs);
+        if (result.isConnected()) {
+          connectableHosts = getConnectableHosts(hosts, result.getHost());
+        }
+        return result;
+      } finally {
+        candidates.complete(connectableHosts);
+        failoversInProgress.remove(clusterKey, candidates);
+      }
+    }
+
+    return this.failoverWithCandidates(hosts, currentHost, failoverInProgress);
   }
 
-  private Future<ReaderFailoverResult> submitInternalFailoverTask(
+  /**
+   * Waits for the failover process that another connection to the same cluster is running, and
+   * connects to one of the hosts that process didn't find unavailable. If that's not possible, the
+   * full failover process runs for the remaining time. The wait ends when that process times out,
+   * so the time this connection has left isn't spent waiting.
+   */
+  private ReaderFailoverResult failoverWithCandidates(
       final List<HostSpec> hosts,
       final HostSpec currentHost,
-      final ExecutorService executor) {
-    final Future<ReaderFailoverResult> future = executor.submit(() -> {
+      final FailoverInProgress failoverInProgress) throws SQLException {
+
+    final long startTimeNano = System.nanoTime();
+    final long waitTimeMs = Math.min(this.maxFailoverTimeoutMs, failoverInProgress.getRemainingTimeMs());
+    List<HostSpec> candidates = null;
+    try {
+      candidates = failoverInProgress.getHosts().get(waitTimeMs, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(Messages.get("ClusterAwareReaderFailoverHandler.interruptedThread"), "70100", e);
+    } catch (final ExecutionException | TimeoutException e) {
+      // run the full failover process below
+    }
+
+    if (!Utils.isNullOrEmpty(candidates)) {
+      if (currentHost != null) {
+        this.pluginService.setAvailability(currentHost.asAliases(), HostAvailability.NOT_AVAILABLE);
+      }
+      final List<HostSpec> hostsToConnect = new ArrayList<>();
+      for (final HostSpec host : candidates) {
+        if (currentHost == null || !host.getUrl().equals(currentHost.getUrl())) {
+          hostsToConnect.add(host);
+        }
+      }
+      final ReaderFailoverResult result = getConnectionFromHostGroup(getHostsByPriority(hostsToConnect));
+      if (result.isConnected() || result.getException() != null) {
+        return result;
+      }
+    }
+
+    final long remainingTimeMs =
+        this.maxFailoverTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNano);
+    if (remainingTimeMs <= 0) {
+      return FAILED_READER_FAILOVER_RESULT;
+    }
+    return this.failoverWithTimeout(hosts, currentHost, remainingTimeMs);
+  }
+
+  private ReaderFailoverResult failoverWithTimeout(
+      final List<HostSpec> hosts,
+      final HostSpec currentHost,
+      final long timeoutMs) throws SQLException {
+    final Future<ReaderFailoverResult> future = submitInternalFailoverTask(hosts, currentHost);
+    return getInternalFailoverResult(future, timeoutMs);
+  }
+
+  /**
+   * Returns a key that identifies the cluster of the given topology, or null if the topology
+   * doesn't have a writer.
+   */
+  static String getClusterKey(final List<HostSpec> hosts) {
+    for (final HostSpec host : hosts) {
+      if (host.getRole() == HostRole.WRITER) {
+        return host.getUrl();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the hosts that haven't been found unavailable during a failover process, including the
+   * host the process has connected to.
+   */
+  private static List<HostSpec> getConnectableHosts(final List<HostSpec> hosts, final HostSpec connectedHost) {
+    final List<HostSpec> connectableHosts = new ArrayList<>();
+    for (final HostSpec host : hosts) {
+      if (host.getRawAvailability() == HostAvailability.AVAILABLE
+          || (connectedHost != null && host.getUrl().equals(connectedHost.getUrl()))) {
+        connectableHosts.add(host);
+      }
+    }
+    return connectableHosts;
+  }
+
+  private Future<ReaderFailoverResult> submitInternalFailoverTask(
+      final List<HostSpec> hosts,
+      final HostSpec currentHost) {
+    // This task waits for the connection attempts, so it must not run on the pool they run on.
+    return FailoverExecutor.getCoordinatorInstance().submit(() -> {
       ReaderFailoverResult result;
       List<HostSpec> topology = hosts;
       try {
@@ -177,7 +348,7 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
             }
           }
 
-          TimeUnit.SECONDS.sleep(1);
+          TimeUnit.MILLISECONDS.sleep(this.retryIntervalMs);
         }
       } catch (final SQLException ex) {
         return new ReaderFailoverResult(null, null, false, ex);
@@ -185,17 +356,15 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
         return new ReaderFailoverResult(null, null, false, new SQLException(ex));
       }
     });
-    executor.shutdown();
-    return future;
   }
 
   private ReaderFailoverResult getInternalFailoverResult(
-      final ExecutorService executor,
-      final Future<ReaderFailoverResult> future) throws SQLException {
+      final Future<ReaderFailoverResult> future,
+      final long timeoutMs) throws SQLException {
     final ReaderFailoverResult defaultResult = new ReaderFailoverResult(
         null, null, false);
     try {
-      final ReaderFailoverResult result = future.get(this.maxFailoverTimeoutMs, TimeUnit.MILLISECONDS);
+      final ReaderFailoverResult result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
       return result == null ? defaultResult : result;
     } catch (final InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -203,12 +372,9 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
     } catch (final ExecutionException e) {
       return defaultResult;
     } catch (final TimeoutException e) {
-      future.cancel(true);
       return defaultResult;
     } finally {
-      if (!executor.isTerminated()) {
-        executor.shutdownNow(); // terminate all remaining tasks
-      }
+      future.cancel(true); // terminate the task if it's still running
     }
   }
 
@@ -241,6 +407,7 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
     }
     Collections.shuffle(activeReaders);
     Collections.shuffle(downHostList);
+    demoteSlowHosts(activeReaders);
 
     final List<HostSpec> hostsByPriority = new ArrayList<>(activeReaders);
     final int numOfReaders = activeReaders.size() + downHostList.size();
@@ -290,6 +457,7 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
     }
     Collections.shuffle(activeReaders);
     Collections.shuffle(downHostList);
+    demoteSlowHosts(activeReaders);
 
     final List<HostSpec> hostsByPriority = new ArrayList<>();
     hostsByPriority.addAll(activeReaders);
@@ -298,25 +466,88 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
     return hostsByPriority;
   }
 
+  /**
+   * Moves the hosts that recently took much longer to connect to than the fastest host to the end of
+   * the list. The order of the other hosts, including the hosts without recent data, is kept.
+   */
+  private static void demoteSlowHosts(final List<HostSpec> hosts) {
+    long fastestConnectTimeNano = Long.MAX_VALUE;
+    for (final HostSpec host : hosts) {
+      final Long connectTimeNano = hostConnectTimesNano.get(host.getUrl());
+      if (connectTimeNano != null) {
+        fastestConnectTimeNano = Math.min(fastestConnectTimeNano, connectTimeNano);
+      }
+    }
+    if (fastestConnectTimeNano == Long.MAX_VALUE) {
+      return;
+    }
+
+    final long slowConnectTimeNano =
+        Math.max(2 * fastestConnectTimeNano, fastestConnectTimeNano + MIN_SLOW_HOST_DIFFERENCE_NANO);
+    hosts.sort(Comparator.comparing((HostSpec host) -> {
+      final Long connectTimeNano = hostConnectTimesNano.get(host.getUrl());
+      return connectTimeNano != null && connectTimeNano > slowConnectTimeNano;
+    }));
+  }
+
   private ReaderFailoverResult getConnectionFromHostGroup(final List<HostSpec> hosts)
       throws SQLException {
-    final ExecutorService executor = Executors.newFixedThreadPool(2);
-    final CompletionService<ReaderFailoverResult> completionService = new ExecutorCompletionService<>(executor);
+    final CompletionService<ReaderFailoverResult> completionService =
+        new ExecutorCompletionService<>(FailoverExecutor.getInstance());
+    // Every attempt started so far, including the attempts that have already completed or timed out.
+    final Map<Future<ReaderFailoverResult>, ConnectionAttemptTask> attempts = new LinkedHashMap<>();
+    ConnectionAttemptTask winningAttempt = null;
+    // The start time of each attempt in progress, in the order the attempts were started.
+    final Map<Future<ReaderFailoverResult>, Long> attemptStartTimesNano = new LinkedHashMap<>();
+    final long attemptTimeoutNano = TimeUnit.MILLISECONDS.toNanos(this.timeoutMs);
+    final long attemptStaggerNano = TimeUnit.MILLISECONDS.toNanos(this.attemptStaggerMs);
+    long nextAttemptTimeNano = System.nanoTime();
+    int nextHostIndex = 0;
 
     try {
-      for (int i = 0; i < hosts.size(); i += 2) {
-        // submit connection attempt tasks in batches of 2
-        final ReaderFailoverResult result = getResultFromNextTaskBatch(hosts, executor, completionService, i);
-        if (result.isConnected() || result.getException() != null) {
-          return result;
+      while (nextHostIndex < hosts.size() || !attemptStartTimesNano.isEmpty()) {
+        final long currentTimeNano = System.nanoTime();
+        final boolean canStartAttempt =
+            nextHostIndex < hosts.size() && attemptStartTimesNano.size() < this.maxParallelAttempts;
+        if (canStartAttempt
+            && (attemptStartTimesNano.isEmpty() || currentTimeNano - nextAttemptTimeNano >= 0)) {
+          final ConnectionAttemptTask attempt = new ConnectionAttemptTask(hosts.get(nextHostIndex++));
+          final Future<ReaderFailoverResult> future = completionService.submit(attempt);
+          attempts.put(future, attempt);
+          attemptStartTimesNano.put(future, currentTimeNano);
+          nextAttemptTimeNano = currentTimeNano + attemptStaggerNano;
+          continue;
+        }
+
+        // Give up on the oldest attempt if it has timed out.
+        final Iterator<Map.Entry<Future<ReaderFailoverResult>, Long>> oldestAttempt =
+            attemptStartTimesNano.entrySet().iterator();
+        final Map.Entry<Future<ReaderFailoverResult>, Long> oldestAttemptEntry = oldestAttempt.next();
+        long waitTimeNano = oldestAttemptEntry.getValue() + attemptTimeoutNano - currentTimeNano;
+        if (waitTimeNano <= 0) {
+          attempts.get(oldestAttemptEntry.getKey()).cancel();
+          oldestAttemptEntry.getKey().cancel(true);
+          oldestAttempt.remove();
+          nextAttemptTimeNano = currentTimeNano;
+          continue;
+        }
+        if (canStartAttempt) {
+          waitTimeNano = Math.min(waitTimeNano, nextAttemptTimeNano - currentTimeNano);
+        }
+
+        final Future<ReaderFailoverResult> completedAttempt = pollNextAttempt(completionService, waitTimeNano);
+        if (completedAttempt == null || attemptStartTimesNano.remove(completedAttempt) == null) {
+          // Nothing has completed yet, or an attempt that has already timed out has been cancelled.
+          continue;
         }
 
-        try {
-          TimeUnit.SECONDS.sleep(1);
-        } catch (final InterruptedException e) {
-          Thread.currentThread().interrupt();
-          throw new SQLException(Messages.get("ClusterAwareReaderFailoverHandler.interruptedThread"), "70100", e);
+        final ReaderFailoverResult result = getAttemptResult(completedAttempt);
+        if (result.isConnected() || result.getException() != null) {
+          winningAttempt = attempts.get(completedAttempt);
+          return result;
         }
+        // The attempt has failed, so the next host is tried right away.
+        nextAttemptTimeNano = System.nanoTime();
       }
 
       return new ReaderFailoverResult(
@@ -324,49 +555,22 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
           null,
           false);
     } finally {
-      executor.shutdownNow();
-    }
-  }
-
-  private ReaderFailoverResult getResultFromNextTaskBatch(
-      final List<HostSpec> hosts,
-      final ExecutorService executor,
-      final CompletionService<ReaderFailoverResult> completionService,
-      final int i) throws SQLException {
-    ReaderFailoverResult result;
-    final int numTasks = i + 1 < hosts.size() ? 2 : 1;
-    completionService.submit(new ConnectionAttemptTask(hosts.get(i)));
-    if (numTasks == 2) {
-      completionService.submit(new ConnectionAttemptTask(hosts.get(i + 1)));
-    }
-    for (int taskNum = 0; taskNum < numTasks; taskNum++) {
-      result = getNextResult(completionService);
-      if (result.isConnected()) {
-        executor.shutdownNow();
-        return result;
-      }
-      if (result.getException() != null) {
-        executor.shutdownNow();
-        return result;
+      // Attempts that have connected, or that connect later, are closed unless their connection is
+      // the result.
+      for (final Map.Entry<Future<ReaderFailoverResult>, ConnectionAttemptTask> attempt : attempts.entrySet()) {
+        if (attempt.getValue() != winningAttempt) {
+          attempt.getValue().cancel();
+          attempt.getKey().cancel(true);
+        }
       }
     }
-    return new ReaderFailoverResult(
-        null,
-        null,
-        false);
   }
 
-  private ReaderFailoverResult getNextResult(final CompletionService<ReaderFailoverResult> service)
-      throws SQLException {
+  private Future<ReaderFailoverResult> pollNextAttempt(
+      final CompletionService<ReaderFailoverResult> service,
+      final long waitTimeNano) throws SQLException {
     try {
-      final Future<ReaderFailoverResult> future = service.poll(this.timeoutMs, TimeUnit.MILLISECONDS);
-      if (future == null) {
-        return FAILED_READER_FAILOVER_RESULT;
-      }
-      final ReaderFailoverResult result = future.get();
-      return result == null ? FAILED_READER_FAILOVER_RESULT : result;
-    } catch (final ExecutionException e) {
-      return FAILED_READER_FAILOVER_RESULT;
+      return service.poll(waitTimeNano, TimeUnit.NANOSECONDS);
     } catch (final InterruptedException e) {
       Thread.currentThread().interrupt();
       // "Thread was interrupted"
@@ -378,14 +582,66 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
     }
   }
 
+  private ReaderFailoverResult getAttemptResult(final Future<ReaderFailoverResult> future) {
+    try {
+      final ReaderFailoverResult result = future.get();
+      return result == null ? FAILED_READER_FAILOVER_RESULT : result;
+    } catch (final ExecutionException | InterruptedException | CancellationException e) {
+      // The future has completed, so get() doesn't block.
+      return FAILED_READER_FAILOVER_RESULT;
+    }
+  }
+
+  private static void closeConnection(final Connection conn) {
+    if (conn == null) {
+      return;
+    }
+    try {
+      conn.close();
+    } catch (final SQLException e) {
+      // ignore
+    }
+  }
+
   private class ConnectionAttemptTask implements Callable<ReaderFailoverResult> {
 
     private final HostSpec newHost;
+    // The connection opened by the attempt, and whether the attempt's result is no longer needed.
+    // Cancelling the future doesn't stop an attempt that has already connected, or is about to.
+    private Connection connection;
+    private boolean isCancelled;
 
     private ConnectionAttemptTask(final HostSpec newHost) {
       this.newHost = newHost;
     }
 
+    /**
+     * Marks the attempt as no longer needed, and closes its connection if it has already connected.
+     * If the attempt connects later, it closes the connection itself.
+     */
+    private void cancel() {
+      final Connection connectionToClose;
+      synchronized (this) {
+        this.isCancelled = true;
+        connectionToClose = this.connection;
+        this.connection = null;
+      }
+      closeConnection(connectionToClose);
+    }
+
+    /**
+     * Keeps the connection opened by the attempt, unless the attempt has been cancelled.
+     *
+     * @return true if the connection is kept, false if the attempt has been cancelled
+     */
+    private synchronized boolean keepConnection(final Connection conn) {
+      if (this.isCancelled) {
+        return false;
+      }
+      this.connection = conn;
+      return true;
+    }
+
     /**
      * Call ConnectionAttemptResult.
      */
@@ -400,7 +656,14 @@ public class ClusterAwareReaderFailoverHandler implements ReaderFailoverHandler
         final Properties copy = new Properties();
         copy.putAll(initialConnectionProps);
 
+        final long startTimeNano = System.nanoTime();
         final Connection conn = pluginService.forceConnect(this.newHost, copy);
+        if (!this.keepConnection(conn)) {
+          closeConnection(conn);
+          return FAILED_READER_FAILOVER_RESULT;
+        }
+        hostConnectTimesNano.put(
+            this.newHost.getUrl(), System.nanoTime() - startTimeNano, CONNECT_TIME_EXPIRATION_NANO);
         pluginService.setAvailability(this.newHost.asAliases(), HostAvailability.AVAILABLE);
         LOGGER.fine(
             () -> Messages.get(
@@ -18,17 +18,18 @@ package software.amazon.jdbc.plugin.failover;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import software.amazon.jdbc.HostRole;
@@ -46,6 +47,11 @@ import software.amazon.jdbc.util.Utils;
  * may be disrupted either by temporary network issue, or due to writer host unavailability during
  * cluster failover. This handler tries both approaches in parallel: 1) try to re-connect to the
  * same writer host, 2) try to update cluster topology and connect to a newly elected writer.
+ *
+ * <p>Both tasks run on the coordinator pool of the {@link FailoverExecutor}, since the second one waits
+ * for reader connection attempts that run on its shared pool. When several connections to the same
+ * cluster fail over at the same time, only the first one runs the process. The others wait for it,
+ * no longer than it may take, and then connect to the writer it has found.
  */
 public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler {
 
@@ -60,6 +66,12 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
   private static final WriterFailoverResult DEFAULT_RESULT =
       new WriterFailoverResult(false, false, null, null, "None");
 
+  // Topologies found by the failover processes in progress, by the url of the writer that has failed.
+  // Connections to a cluster that fail over while another connection to the same cluster is failing
+  // over wait for its result.
+  protected static final ConcurrentHashMap<String, FailoverInProgress> failoversInProgress =
+      new ConcurrentHashMap<>();
+
   public ClusterAwareWriterFailoverHandler(
       final PluginService pluginService,
       final ReaderFailoverHandler readerFailoverHandler,
@@ -99,23 +111,105 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
       return DEFAULT_RESULT;
     }
 
-    final ExecutorService executorService = Executors.newFixedThreadPool(2);
-    final CompletionService<WriterFailoverResult> completionService = new ExecutorCompletionService<>(executorService);
-    submitTasks(currentTopology, executorService, completionService);
+    final HostSpec writerHost = this.getWriter(currentTopology);
+    if (writerHost == null) {
+      return this.failoverWithTimeout(currentTopology, this.maxFailoverTimeoutMs);
+    }
+
+    final String clusterKey = writerHost.getUrl();
+    final FailoverInProgress newTopology = new FailoverInProgress(this.maxFailoverTimeoutMs);
+    final FailoverInProgress failoverInProgress = failoversInProgress.putIfAbsent(clusterKey, newTopology);
+
+    if (failoverInProgress == null) {
+      List<HostSpec> latestTopology = null;
+      try {
+        final WriterFailoverResult result = this.failoverWithTimeout(currentTopology, this.maxFailoverTimeoutMs);
+        if (result.isConnected()) {
+          latestTopology = result.getTopology();
+        }
+        return result;
+      } finally {
+        newTopology.complete(latestTopology);
+        failoversInProgress.remove(clusterKey, newTopology);
+      }
+    }
+
+    return this.failoverWithSharedTopology(currentTopology, writerHost, failoverInProgress);
+  }
+
+  /**
+   * Waits for the failover process that another connection to the same cluster is running, and
+   * connects to the writer it has found. If that's not possible, the full failover process runs
+   * for the remaining time. The wait ends when that process times out, so the time this connection
+   * has left isn't spent waiting.
+   */
+  private WriterFailoverResult failoverWithSharedTopology(
+      final List<HostSpec> currentTopology,
+      final HostSpec originalWriterHost,
+      final FailoverInProgress failoverInProgress) throws SQLException {
+
+    final long startTimeNano = System.nanoTime();
+    final long waitTimeMs = Math.min(this.maxFailoverTimeoutMs, failoverInProgress.getRemainingTimeMs());
+    List<HostSpec> latestTopology = null;
+    try {
+      latestTopology = failoverInProgress.getHosts().get(waitTimeMs, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw createInterruptedException(e);
+    } catch (final ExecutionException | TimeoutException e) {
+      // run the full failover process below
+    }
+
+    final HostSpec newWriterHost = this.getWriter(latestTopology);
+    if (newWriterHost != null) {
+      try {
+        final Connection conn = this.pluginService.forceConnect(newWriterHost, this.initialConnectionProps);
+        this.pluginService.setAvailability(newWriterHost.asAliases(), HostAvailability.AVAILABLE);
+        final WriterFailoverResult result = new WriterFailoverResult(
+            true,
+            !newWriterHost.getUrl().equals(originalWriterHost.getUrl()),
+            latestTopology,
+            conn,
+            "SharedTopology");
+        logTaskSuccess(result);
+        return result;
+      } catch (final SQLException exception) {
+        this.pluginService.setAvailability(newWriterHost.asAliases(), HostAvailability.NOT_AVAILABLE);
+        // Propagate exceptions that are not caused by network errors.
+        if (!this.pluginService.isNetworkException(exception)) {
+          return new WriterFailoverResult(false, false, null, null, "SharedTopology", exception);
+        }
+      }
+    }
+
+    final long remainingTimeMs =
+        this.maxFailoverTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNano);
+    if (remainingTimeMs <= 0) {
+      LOGGER.fine(() -> Messages.get("ClusterAwareWriterFailoverHandler.failedToConnectToWriterInstance"));
+      return DEFAULT_RESULT;
+    }
+    return this.failoverWithTimeout(currentTopology, remainingTimeMs);
+  }
+
+  private WriterFailoverResult failoverWithTimeout(final List<HostSpec> currentTopology, final long timeoutMs)
+      throws SQLException {
+    final CompletionService<WriterFailoverResult> completionService =
+        new ExecutorCompletionService<>(FailoverExecutor.getCoordinatorInstance());
+    final List<Future<WriterFailoverResult>> futures = submitTasks(currentTopology, completionService);
 
     try {
       final long startTimeNano = System.nanoTime();
-      WriterFailoverResult result = getNextResult(executorService, completionService, this.maxFailoverTimeoutMs);
+      WriterFailoverResult result = getNextResult(futures, completionService, timeoutMs);
       if (result.isConnected() || result.getException() != null) {
         return result;
       }
 
       final long endTimeNano = System.nanoTime();
       final long durationMs = TimeUnit.NANOSECONDS.toMillis(endTimeNano - startTimeNano);
-      final long remainingTimeMs = this.maxFailoverTimeoutMs - durationMs;
+      final long remainingTimeMs = timeoutMs - durationMs;
 
       if (remainingTimeMs > 0) {
-        result = getNextResult(executorService, completionService, remainingTimeMs);
+        result = getNextResult(futures, completionService, remainingTimeMs);
         if (result.isConnected() || result.getException() != null) {
           return result;
         }
@@ -124,9 +218,7 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
       LOGGER.fine(() -> Messages.get("ClusterAwareWriterFailoverHandler.failedToConnectToWriterInstance"));
       return DEFAULT_RESULT;
     } finally {
-      if (!executorService.isTerminated()) {
-        executorService.shutdownNow(); // terminate all remaining tasks
-      }
+      FailoverExecutor.cancel(futures); // terminate all remaining tasks
     }
   }
 
@@ -143,19 +235,20 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
     return null;
   }
 
-  private void submitTasks(
-      final List<HostSpec> currentTopology, final ExecutorService executorService,
+  private List<Future<WriterFailoverResult>> submitTasks(
+      final List<HostSpec> currentTopology,
       final CompletionService<WriterFailoverResult> completionService) {
     final HostSpec writerHost = this.getWriter(currentTopology);
-    completionService.submit(new ReconnectToWriterHandler(writerHost));
-    completionService.submit(new WaitForNewWriterHandler(
+    final List<Future<WriterFailoverResult>> futures = new ArrayList<>();
+    futures.add(completionService.submit(new ReconnectToWriterHandler(writerHost)));
+    futures.add(completionService.submit(new WaitForNewWriterHandler(
         currentTopology,
-        writerHost));
-    executorService.shutdown();
+        writerHost)));
+    return futures;
   }
 
   private WriterFailoverResult getNextResult(
-      final ExecutorService executorService,
+      final List<Future<WriterFailoverResult>> futures,
       final CompletionService<WriterFailoverResult> completionService,
       final long timeoutMs) throws SQLException {
     try {
@@ -167,13 +260,13 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
       }
       final WriterFailoverResult result = firstCompleted.get();
       if (result.isConnected()) {
-        executorService.shutdownNow();
+        FailoverExecutor.cancel(futures);
         logTaskSuccess(result);
         return result;
       }
 
       if (result.getException() != null) {
-        executorService.shutdownNow();
+        FailoverExecutor.cancel(futures);
         return result;
       }
     } catch (final InterruptedException e) {
@@ -313,6 +406,7 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
     private List<HostSpec> currentTopology;
     private HostSpec currentReaderHost;
     private Connection currentReaderConnection;
+    private TopologyUpdateWaiter topologyUpdates;
 
     public WaitForNewWriterHandler(
         final List<HostSpec> currentTopology,
@@ -328,6 +422,7 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
               new Object[] {PropertyUtils.maskProperties(initialConnectionProps)}));
 
       try {
+        this.topologyUpdates = new TopologyUpdateWaiter(this.currentTopology);
         boolean success = false;
         while (!success) {
           connectToReader();
@@ -429,10 +524,24 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
           return false;
         }
 
-        TimeUnit.MILLISECONDS.sleep(readTopologyIntervalMs);
+        // Wait for the next refresh, unless another thread finds the new writer in the meantime.
+        final List<HostSpec> updatedTopology = this.topologyUpdates.await(this::hasNewWriter, readTopologyIntervalMs);
+        if (updatedTopology != null) {
+          this.currentTopology = updatedTopology;
+          LOGGER.finest(() -> Utils.logTopology(this.currentTopology, "[TaskB] "));
+          if (connectToWriter(getWriter(this.currentTopology))) {
+            return true;
+          }
+        }
       }
     }
 
+    private boolean hasNewWriter(final List<HostSpec> topology) {
+      // A single host topology comes from a reader in the middle of failover, see above.
+      final HostSpec writerCandidate = getWriter(topology);
+      return topology.size() > 1 && writerCandidate != null && !isSame(writerCandidate, this.originalWriterHost);
+    }
+
     private boolean isSame(final HostSpec hostSpec1, final HostSpec hostSpec2) {
       if (hostSpec1 == null || hostSpec2 == null) {
         return false;
@@ -480,6 +589,10 @@ public class ClusterAwareWriterFailoverHandler implements WriterFailoverHandler
     }
 
     private void performFinalCleanup() {
+      if (this.topologyUpdates != null) {
+        this.topologyUpdates.close();
+      }
+
       // Close the reader connection if it's not needed.
       if (this.currentReaderConnection != null
           && this.currentConnection != this.currentReaderConnection) {
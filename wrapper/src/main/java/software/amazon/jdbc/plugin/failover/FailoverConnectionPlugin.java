@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -52,6 +53,7 @@ import software.amazon.jdbc.util.WrapperUtils;
 import software.amazon.jdbc.util.telemetry.TelemetryContext;
 import software.amazon.jdbc.util.telemetry.TelemetryCounter;
 import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+import software.amazon.jdbc.util.telemetry.TelemetryHistogram;
 import software.amazon.jdbc.util.telemetry.TelemetryTraceLevel;
 
 /**
@@ -91,6 +93,9 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
   protected int failoverClusterTopologyRefreshRateMsSetting;
   protected int failoverWriterReconnectIntervalMsSetting;
   protected int failoverReaderConnectTimeoutMsSetting;
+  protected int failoverReaderMaxParallelAttemptsSetting;
+  protected int failoverReaderAttemptStaggerMsSetting;
+  protected int failoverReaderRetryIntervalMsSetting;
   protected FailoverMode failoverMode;
   private boolean telemetryFailoverAdditionalTopTraceSetting;
 
@@ -135,6 +140,27 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
           "30000",
           "Reader connection attempt timeout during a reader failover process.");
 
+  public static final AwsWrapperProperty FAILOVER_READER_MAX_PARALLEL_ATTEMPTS =
+      new AwsWrapperProperty(
+          "failoverReaderMaxParallelAttempts",
+          "2",
+          "Maximum number of reader connection attempts in progress at the same time during a reader "
+              + "failover process.");
+
+  public static final AwsWrapperProperty FAILOVER_READER_ATTEMPT_STAGGER_MS =
+      new AwsWrapperProperty(
+          "failoverReaderAttemptStaggerMs",
+          "0",
+          "Time in millis to wait before starting another parallel reader connection attempt while the "
+              + "previous attempts are still in progress during a reader failover process.");
+
+  public static final AwsWrapperProperty FAILOVER_READER_RETRY_INTERVAL_MS =
+      new AwsWrapperProperty(
+          "failoverReaderRetryIntervalMs",
+          "250",
+          "Interval of time in millis to wait before trying to connect to all the hosts again during a reader "
+              + "failover process.");
+
   public static final AwsWrapperProperty ENABLE_CLUSTER_AWARE_FAILOVER =
       new AwsWrapperProperty(
           "enableClusterAwareFailover", "true",
@@ -156,6 +182,7 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
   private final TelemetryCounter failoverReaderTriggeredCounter;
   private final TelemetryCounter failoverReaderSuccessCounter;
   private final TelemetryCounter failoverReaderFailedCounter;
+  private final TelemetryHistogram failoverWriterReconnectTimeHistogram;
 
   static {
     PropertyDefinition.registerPluginProperties(FailoverConnectionPlugin.class);
@@ -188,6 +215,7 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
     this.failoverReaderTriggeredCounter = telemetryFactory.createCounter("readerFailover.triggered.count");
     this.failoverReaderSuccessCounter = telemetryFactory.createCounter("readerFailover.completed.success.count");
     this.failoverReaderFailedCounter = telemetryFactory.createCounter("readerFailover.completed.failed.count");
+    this.failoverWriterReconnectTimeHistogram = telemetryFactory.createHistogram("writerFailover.reconnect.time");
   }
 
   @Override
@@ -250,7 +278,10 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
                 this.properties,
                 this.failoverTimeoutMsSetting,
                 this.failoverReaderConnectTimeoutMsSetting,
-                this.failoverMode == FailoverMode.STRICT_READER),
+                this.failoverMode == FailoverMode.STRICT_READER,
+                this.failoverReaderMaxParallelAttemptsSetting,
+                this.failoverReaderAttemptStaggerMsSetting,
+                this.failoverReaderRetryIntervalMsSetting),
         () ->
             new ClusterAwareWriterFailoverHandler(
                 this.pluginService,
@@ -361,6 +392,9 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
         FAILOVER_CLUSTER_TOPOLOGY_REFRESH_RATE_MS.getInteger(this.properties);
     this.failoverWriterReconnectIntervalMsSetting = FAILOVER_WRITER_RECONNECT_INTERVAL_MS.getInteger(this.properties);
     this.failoverReaderConnectTimeoutMsSetting = FAILOVER_READER_CONNECT_TIMEOUT_MS.getInteger(this.properties);
+    this.failoverReaderMaxParallelAttemptsSetting = FAILOVER_READER_MAX_PARALLEL_ATTEMPTS.getInteger(this.properties);
+    this.failoverReaderAttemptStaggerMsSetting = FAILOVER_READER_ATTEMPT_STAGGER_MS.getInteger(this.properties);
+    this.failoverReaderRetryIntervalMsSetting = FAILOVER_READER_RETRY_INTERVAL_MS.getInteger(this.properties);
     this.telemetryFailoverAdditionalTopTraceSetting =
         TELEMETRY_FAILOVER_ADDITIONAL_TOP_TRACE.getBoolean(this.properties);
   }
@@ -646,6 +680,7 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
     TelemetryContext telemetryContext = telemetryFactory.openTelemetryContext(
         TELEMETRY_WRITER_FAILOVER, TelemetryTraceLevel.NESTED);
     this.failoverWriterTriggeredCounter.inc();
+    final long startTimeNano = System.nanoTime();
 
     try {
       LOGGER.fine(() -> Messages.get("Failover.startWriterFailover"));
@@ -666,6 +701,8 @@ public class FailoverConnectionPlugin extends AbstractConnectionPlugin {
       // successfully re-connected to a writer node
       final HostSpec writerHostSpec = getWriter(failoverResult.getTopology());
       this.pluginService.setCurrentConnection(failoverResult.getNewConnection(), writerHostSpec);
+      this.failoverWriterReconnectTimeHistogram.record(
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNano));
 
       LOGGER.fine(
           () -> Messages.get(
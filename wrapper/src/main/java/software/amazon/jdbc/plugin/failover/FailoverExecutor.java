@@ -0,0 +1,114 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin.failover;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The thread pools that run the tasks of the failover handlers.
+ *
+ * <p>Connection attempts run on a pool that is shared by all connections, so the number of
+ * connection attempts stays bounded when many connections fail over at the same time. Tasks that
+ * coordinate a failover process and wait for connection attempts run on a separate, also bounded,
+ * pool, so they never hold the threads the connection attempts need. Tasks submitted while all
+ * threads of a pool are busy wait in a queue. A coordination task that is still queued when its
+ * failover process times out is cancelled and never runs. Idle threads are released after a minute.
+ */
+public final class FailoverExecutor {
+
+  static final int MAX_THREADS = 64;
+  static final int MAX_COORDINATOR_THREADS = 64;
+  private static final long KEEP_ALIVE_SEC = 60;
+  private static final AtomicInteger threadCount = new AtomicInteger();
+  private static final AtomicInteger coordinatorThreadCount = new AtomicInteger();
+
+  private static final ThreadPoolExecutor executor = createExecutor();
+  private static final ThreadPoolExecutor coordinatorExecutor = createCoordinatorExecutor();
+
+  private FailoverExecutor() {
+  }
+
+  /**
+   * Returns the bounded pool for connection attempts. Tasks running on this pool must not wait for
+   * other tasks of this pool.
+   *
+   * @return the executor for connection attempts
+   */
+  public static ExecutorService getInstance() {
+    return executor;
+  }
+
+  /**
+   * Returns the bounded pool for the tasks that coordinate a failover process. Tasks running on this
+   * pool must not wait for other tasks of this pool.
+   *
+   * @return the executor for failover coordination tasks
+   */
+  public static ExecutorService getCoordinatorInstance() {
+    return coordinatorExecutor;
+  }
+
+  /**
+   * Cancels the given tasks and interrupts the ones that are running.
+   *
+   * @param futures the tasks to cancel
+   */
+  public static void cancel(final List<? extends Future<?>> futures) {
+    for (final Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private static ThreadPoolExecutor createExecutor() {
+    final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+        MAX_THREADS,
+        MAX_THREADS,
+        KEEP_ALIVE_SEC,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnableTarget -> {
+          final Thread failoverThread = new Thread(runnableTarget, "failover-" + threadCount.incrementAndGet());
+          failoverThread.setDaemon(true);
+          return failoverThread;
+        });
+    threadPool.allowCoreThreadTimeOut(true);
+    return threadPool;
+  }
+
+  private static ThreadPoolExecutor createCoordinatorExecutor() {
+    final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+        MAX_COORDINATOR_THREADS,
+        MAX_COORDINATOR_THREADS,
+        KEEP_ALIVE_SEC,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnableTarget -> {
+          final Thread coordinatorThread = new Thread(
+              runnableTarget, "failover-coordinator-" + coordinatorThreadCount.incrementAndGet());
+          coordinatorThread.setDaemon(true);
+          return coordinatorThread;
+        });
+    threadPool.allowCoreThreadTimeOut(true);
+    return threadPool;
+  }
+}
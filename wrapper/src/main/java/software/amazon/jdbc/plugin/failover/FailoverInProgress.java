@@ -0,0 +1,59 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.plugin.failover;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import software.amazon.jdbc.HostSpec;
+
+/**
+ * A failover process that a connection is running, which other connections to the same cluster can
+ * wait for. The process completes with the hosts it has found, or with null if it has failed.
+ */
+final class FailoverInProgress {
+
+  private final CompletableFuture<List<HostSpec>> hosts;
+  private final long deadlineNano;
+
+  FailoverInProgress(final long timeoutMs) {
+    this(new CompletableFuture<>(), timeoutMs);
+  }
+
+  FailoverInProgress(final CompletableFuture<List<HostSpec>> hosts, final long timeoutMs) {
+    this.hosts = hosts;
+    this.deadlineNano = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+  }
+
+  CompletableFuture<List<HostSpec>> getHosts() {
+    return this.hosts;
+  }
+
+  void complete(final List<HostSpec> hosts) {
+    this.hosts.complete(hosts);
+  }
+
+  /**
+   * Returns the time left until the process times out.
+   *
+   * @return the remaining time in milliseconds, or 0 if the process should already have finished
+   */
+  long getRemainingTimeMs() {
+    return Math.max(0, TimeUnit.NANOSECONDS.toMillis(this.deadlineNano - System.nanoTime()));
+  }
+}
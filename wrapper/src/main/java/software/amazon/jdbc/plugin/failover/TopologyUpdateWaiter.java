@@ -0,0 +1,100 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.plugin.failover;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.hostlistprovider.RdsHostListProvider;
+import software.amazon.jdbc.hostlistprovider.TopologyListener;
+
+/**
+ * Waits for the cached topology of a cluster to be updated by other threads, such as other
+ * connections refreshing the topology or the cluster topology monitor.
+ *
+ * <p>The cluster is identified by the hosts of its topology: updates of topologies that share a
+ * host with the initial topology are considered updates of the same cluster.
+ */
+class TopologyUpdateWaiter implements TopologyListener, AutoCloseable {
+
+  private final Set<String> hostUrls = new HashSet<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition topologyUpdated = lock.newCondition();
+  private List<HostSpec> latestTopology;
+
+  TopologyUpdateWaiter(final List<HostSpec> topology) {
+    for (final HostSpec host : topology) {
+      this.hostUrls.add(host.getUrl());
+    }
+    RdsHostListProvider.addTopologyListener(this);
+  }
+
+  @Override
+  public void onTopologyUpdate(final String clusterId, final List<HostSpec> hosts) {
+    if (hosts.stream().noneMatch(host -> this.hostUrls.contains(host.getUrl()))) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      this.latestTopology = hosts;
+      this.topologyUpdated.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits for a topology update that matches the given condition.
+   *
+   * @param condition the condition the updated topology should match
+   * @param timeoutMs the maximum time to wait, in milliseconds
+   * @return the updated topology, or null if there's been no matching update before the timeout
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  List<HostSpec> await(final Predicate<List<HostSpec>> condition, final long timeoutMs)
+      throws InterruptedException {
+    long remainingNano = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    lock.lock();
+    try {
+      while (true) {
+        final List<HostSpec> topology = this.latestTopology;
+        // Each update is only returned once, so a failed attempt to use it isn't repeated right away.
+        this.latestTopology = null;
+        if (topology != null && condition.test(topology)) {
+          return topology;
+        }
+        if (remainingNano <= 0) {
+          return null;
+        }
+        remainingNano = this.topologyUpdated.awaitNanos(remainingNano);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    RdsHostListProvider.removeTopologyListener(this);
+  }
+}
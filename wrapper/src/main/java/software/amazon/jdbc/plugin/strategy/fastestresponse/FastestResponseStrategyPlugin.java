@@ -27,7 +27,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import software.amazon.jdbc.AwsWrapperProperty;
@@ -65,10 +67,12 @@ public class FastestResponseStrategyPlugin extends AbstractConnectionPlugin {
 
   protected static final CacheMap<String, HostSpec> cachedFastestResponseHostByRole = new CacheMap<>();
   protected static final RandomHostSelector randomHostSelector = new RandomHostSelector();
+  protected static final ConcurrentHashMap<String, AtomicInteger> inFlightConnectsByHost = new ConcurrentHashMap<>();
 
   protected final @NonNull PluginService pluginService;
   protected final @NonNull Properties properties;
   protected final @NonNull HostResponseTimeService hostResponseTimeService;
+  protected final @NonNull PowerOfTwoChoicesHostSelector powerOfTwoChoicesHostSelector;
   protected long cacheExpirationNano;
 
   protected List<HostSpec> hosts = new ArrayList<>();
@@ -95,6 +99,8 @@ public class FastestResponseStrategyPlugin extends AbstractConnectionPlugin {
     this.pluginService = pluginService;
     this.properties = properties;
     this.hostResponseTimeService = hostResponseTimeService;
+    this.powerOfTwoChoicesHostSelector =
+        new PowerOfTwoChoicesHostSelector(hostResponseTimeService, FastestResponseStrategyPlugin::getInFlightConnects);
     this.cacheExpirationNano = TimeUnit.MILLISECONDS.toNanos(
         RESPONSE_MEASUREMENT_INTERVAL_MILLIS.getInteger(this.properties));
   }
@@ -113,7 +119,7 @@ public class FastestResponseStrategyPlugin extends AbstractConnectionPlugin {
       final JdbcCallable<Connection, SQLException> connectFunc)
       throws SQLException {
 
-    Connection conn = connectFunc.call();
+    final Connection conn = connectWithTracking(hostSpec, connectFunc);
     if (isInitialConnection) {
       this.hostResponseTimeService.setHosts(this.pluginService.getHosts());
     }
@@ -129,7 +135,7 @@ public class FastestResponseStrategyPlugin extends AbstractConnectionPlugin {
       final JdbcCallable<Connection, SQLException> forceConnectFunc)
       throws SQLException {
 
-    Connection conn = forceConnectFunc.call();
+    final Connection conn = connectWithTracking(hostSpec, forceConnectFunc);
     if (isInitialConnection) {
       this.hostResponseTimeService.setHosts(this.pluginService.getHosts());
     }
@@ -138,7 +144,8 @@ public class FastestResponseStrategyPlugin extends AbstractConnectionPlugin {
 
   @Override
   public boolean acceptsStrategy(HostRole role, String strategy) {
-    return FASTEST_RESPONSE_STRATEGY_NAME.equalsIgnoreCase(strategy);
+    return FASTEST_RESPONSE_STRATEGY_NAME.equalsIgnoreCase(strategy)
+        || PowerOfTwoChoicesHostSelector.STRATEGY_POWER_OF_TWO_CHOICES.equalsIgnoreCase(strategy);
   }
 
   @Override
@@ -149,6 +156,10 @@ public class FastestResponseStrategyPlugin extends AbstractConnectionPlugin {
       return null;
     }
 
+    if (PowerOfTwoChoicesHostSelector.STRATEGY_POWER_OF_TWO_CHOICES.equalsIgnoreCase(strategy)) {
+      return this.powerOfTwoChoicesHostSelector.getHost(this.pluginService.getHosts(), role, this.properties);
+    }
+
     // The cache holds a host with the fastest response time.
     // If cache doesn't have a host for a role, it's necessary to find the fastest node in the topology.
     final HostSpec fastestResponseHost = cachedFastestResponseHostByRole.get(role.name());
@@ -196,6 +207,25 @@ public class FastestResponseStrategyPlugin extends AbstractConnectionPlugin {
     this.hostResponseTimeService.setHosts(this.hosts);
   }
 
+  private Connection connectWithTracking(
+      final HostSpec hostSpec,
+      final JdbcCallable<Connection, SQLException> connectFunc) throws SQLException {
+
+    final AtomicInteger inFlightConnects =
+        inFlightConnectsByHost.computeIfAbsent(hostSpec.getUrl(), (key) -> new AtomicInteger());
+    inFlightConnects.incrementAndGet();
+    try {
+      return connectFunc.call();
+    } finally {
+      inFlightConnects.decrementAndGet();
+    }
+  }
+
+  protected static int getInFlightConnects(final HostSpec hostSpec) {
+    final AtomicInteger inFlightConnects = inFlightConnectsByHost.get(hostSpec.getUrl());
+    return inFlightConnects == null ? 0 : inFlightConnects.get();
+  }
+
   private static class ResponseTimeTuple {
     public HostSpec hostSpec;
     public int responseTime;
@@ -17,6 +17,7 @@
 package software.amazon.jdbc.plugin.strategy.fastestresponse;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import software.amazon.jdbc.HostSpec;
 
@@ -32,6 +33,19 @@ public interface HostResponseTimeService {
    */
   int getResponseTime(final HostSpec hostSpec);
 
+  /**
+   * Return an exponentially weighted moving average of response times to the host in nanoseconds.
+   * Return Long.MAX_VALUE if response time is not available.
+   *
+   * @param hostSpec the host details
+   * @return smoothed response time in nanoseconds for a desired host. It should return Long.MAX_VALUE if
+   *            response time couldn't be measured.
+   */
+  default long getSmoothedResponseTimeNano(final HostSpec hostSpec) {
+    final int responseTime = this.getResponseTime(hostSpec);
+    return responseTime == Integer.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(responseTime);
+  }
+
   /**
    * Provides an updated host list to a service.
    */
@@ -88,6 +88,16 @@ public class HostResponseTimeServiceImpl implements HostResponseTimeService {
     return monitor.getResponseTime();
   }
 
+  @Override
+  public long getSmoothedResponseTimeNano(HostSpec hostSpec) {
+    final NodeResponseTimeMonitor monitor = monitoringNodes.get(hostSpec.getUrl(), CACHE_EXPIRATION_NANO);
+    if (monitor == null) {
+      return Long.MAX_VALUE;
+    }
+
+    return monitor.getSmoothedResponseTimeNano();
+  }
+
   @Override
   public void setHosts(final @NonNull List<HostSpec> hosts) {
     Set<String> oldHosts = this.hosts.stream().map(HostSpec::getUrl).collect(Collectors.toSet());
@@ -46,11 +46,15 @@ public class NodeResponseTimeMonitor implements AutoCloseable, Runnable {
   private static final String MONITORING_PROPERTY_PREFIX = "frt-";
   private static final int NUM_OF_MEASURES = 5;
 
+  // Weight of the latest measurement in the smoothed response time.
+  private static final double SMOOTHING_FACTOR = 0.3;
+
   private final int intervalMs;
   private final @NonNull HostSpec hostSpec;
 
   private final AtomicBoolean stopped = new AtomicBoolean(false);
   private final AtomicInteger responseTime = new AtomicInteger(Integer.MAX_VALUE);
+  private final AtomicLong smoothedResponseTimeNano = new AtomicLong(Long.MAX_VALUE);
   private final AtomicLong checkTimestamp = new AtomicLong(this.getCurrentTime());
 
   private final @NonNull Properties props;
@@ -99,6 +103,11 @@ public class NodeResponseTimeMonitor implements AutoCloseable, Runnable {
     return this.responseTime.get();
   }
 
+  // Return exponentially weighted moving average of node response time in nanoseconds.
+  public long getSmoothedResponseTimeNano() {
+    return this.smoothedResponseTimeNano.get();
+  }
+
   public long getCheckTimestamp() {
     return this.checkTimestamp.get();
   }
@@ -152,9 +161,12 @@ public class NodeResponseTimeMonitor implements AutoCloseable, Runnable {
           }
 
           if (count > 0) {
-            this.responseTime.set((int) TimeUnit.NANOSECONDS.toMillis(responseTimeSum / count));
+            final long averageResponseTime = responseTimeSum / count;
+            this.responseTime.set((int) TimeUnit.NANOSECONDS.toMillis(averageResponseTime));
+            this.updateSmoothedResponseTime(averageResponseTime);
           } else {
             this.responseTime.set(Integer.MAX_VALUE);
+            this.smoothedResponseTimeNano.set(Long.MAX_VALUE);
           }
           this.checkTimestamp.set(this.getCurrentTime());
 
@@ -196,6 +208,18 @@ public class NodeResponseTimeMonitor implements AutoCloseable, Runnable {
     }
   }
 
+  // The method is package-private for testing purposes.
+  void updateSmoothedResponseTime(final long responseTimeNano) {
+    final long previous = this.smoothedResponseTimeNano.get();
+    if (previous == Long.MAX_VALUE) {
+      // No previous measurement to smooth with.
+      this.smoothedResponseTimeNano.set(responseTimeNano);
+      return;
+    }
+    this.smoothedResponseTimeNano.set(
+        previous + Math.round(SMOOTHING_FACTOR * (responseTimeNano - previous)));
+  }
+
   private void openConnection() {
     try {
       if (this.monitoringConn == null || this.monitoringConn.isClosed()) {
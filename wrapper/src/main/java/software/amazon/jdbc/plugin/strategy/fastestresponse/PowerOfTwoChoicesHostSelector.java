@@ -0,0 +1,176 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.plugin.strategy.fastestresponse;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import software.amazon.jdbc.AwsWrapperProperty;
+import software.amazon.jdbc.HostRole;
+import software.amazon.jdbc.HostSelector;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.PropertyDefinition;
+import software.amazon.jdbc.util.Messages;
+import software.amazon.jdbc.util.StringUtils;
+
+/**
+ * Selects a host by sampling two random hosts with the requested role and picking the one with the
+ * lower score. The score of a host is its smoothed response time multiplied by the number of
+ * connections being opened to it, divided by its configured weight.
+ */
+public class PowerOfTwoChoicesHostSelector implements HostSelector {
+
+  public static final AwsWrapperProperty P2C_HOST_WEIGHT_PAIRS = new AwsWrapperProperty(
+      "p2cHostWeightPairs", null,
+      "Comma separated list of database host-weight pairs in the format of `<host>:<weight>`.");
+  public static final String STRATEGY_POWER_OF_TWO_CHOICES = "p2c";
+  private static final int DEFAULT_WEIGHT = 1;
+  private static final Pattern HOST_WEIGHT_PAIRS_PATTERN =
+      Pattern.compile("((?<host>[^:/?#]*):(?<weight>[0-9]*))");
+
+  private final @NonNull HostResponseTimeService hostResponseTimeService;
+  private final @NonNull ToIntFunction<HostSpec> inFlightConnectCounter;
+  private volatile HostWeights hostWeights = new HostWeights(null, Collections.emptyMap());
+
+  static {
+    PropertyDefinition.registerPluginProperties(PowerOfTwoChoicesHostSelector.class);
+  }
+
+  public PowerOfTwoChoicesHostSelector(
+      final @NonNull HostResponseTimeService hostResponseTimeService,
+      final @NonNull ToIntFunction<HostSpec> inFlightConnectCounter) {
+    this.hostResponseTimeService = hostResponseTimeService;
+    this.inFlightConnectCounter = inFlightConnectCounter;
+  }
+
+  @Override
+  public HostSpec getHost(
+      final @NonNull List<HostSpec> hosts,
+      final @NonNull HostRole role,
+      final @Nullable Properties props) throws SQLException {
+
+    int eligibleHostCount = 0;
+    for (final HostSpec hostSpec : hosts) {
+      if (role.equals(hostSpec.getRole())) {
+        eligibleHostCount++;
+      }
+    }
+
+    if (eligibleHostCount == 0) {
+      throw new SQLException(Messages.get("HostSelector.noHostsMatchingRole", new Object[] {role}));
+    }
+
+    // Pick two distinct positions among the eligible hosts.
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final int firstIndex = random.nextInt(eligibleHostCount);
+    int secondIndex = eligibleHostCount == 1 ? firstIndex : random.nextInt(eligibleHostCount - 1);
+    if (eligibleHostCount > 1 && secondIndex >= firstIndex) {
+      secondIndex++;
+    }
+
+    HostSpec firstHost = null;
+    HostSpec secondHost = null;
+    int index = 0;
+    for (final HostSpec hostSpec : hosts) {
+      if (!role.equals(hostSpec.getRole())) {
+        continue;
+      }
+      if (index == firstIndex) {
+        firstHost = hostSpec;
+      }
+      if (index == secondIndex) {
+        secondHost = hostSpec;
+      }
+      index++;
+    }
+
+    if (firstHost == secondHost) {
+      return firstHost;
+    }
+
+    final Map<String, Integer> weights = this.getHostWeights(props);
+    return this.getScore(secondHost, weights) < this.getScore(firstHost, weights) ? secondHost : firstHost;
+  }
+
+  private double getScore(final HostSpec hostSpec, final Map<String, Integer> weights) {
+    final long responseTimeNano = this.hostResponseTimeService.getSmoothedResponseTimeNano(hostSpec);
+    final int inFlightConnects = this.inFlightConnectCounter.applyAsInt(hostSpec);
+    final Integer weight = weights.get(hostSpec.getHost());
+
+    // Hosts without a measured response time score as the slowest ones and are ranked by their in-flight connects.
+    return ((double) responseTimeNano + 1) * (inFlightConnects + 1) / (weight == null ? DEFAULT_WEIGHT : weight);
+  }
+
+  private Map<String, Integer> getHostWeights(final @Nullable Properties props) throws SQLException {
+    final String hostWeightPairs = props == null ? null : P2C_HOST_WEIGHT_PAIRS.getString(props);
+    if (StringUtils.isNullOrEmpty(hostWeightPairs)) {
+      return Collections.emptyMap();
+    }
+
+    final HostWeights currentHostWeights = this.hostWeights;
+    if (hostWeightPairs.equals(currentHostWeights.hostWeightPairs)) {
+      return currentHostWeights.weightsByHost;
+    }
+
+    final Map<String, Integer> weightsByHost = new HashMap<>();
+    for (final String pair : hostWeightPairs.split(",")) {
+      final Matcher matcher = HOST_WEIGHT_PAIRS_PATTERN.matcher(pair);
+      if (!matcher.matches()) {
+        throw new SQLException(Messages.get("PowerOfTwoChoicesHostSelector.invalidHostWeightPairs"));
+      }
+
+      final String hostName = matcher.group("host").trim();
+      final String hostWeight = matcher.group("weight").trim();
+      if (hostName.isEmpty() || hostWeight.isEmpty()) {
+        throw new SQLException(Messages.get("PowerOfTwoChoicesHostSelector.invalidHostWeightPairs"));
+      }
+
+      try {
+        final int weight = Integer.parseInt(hostWeight);
+        if (weight < DEFAULT_WEIGHT) {
+          throw new SQLException(Messages.get("PowerOfTwoChoicesHostSelector.invalidHostWeightPairs"));
+        }
+        weightsByHost.put(hostName, weight);
+      } catch (NumberFormatException e) {
+        throw new SQLException(Messages.get("PowerOfTwoChoicesHostSelector.invalidHostWeightPairs"));
+      }
+    }
+
+    this.hostWeights = new HostWeights(hostWeightPairs, weightsByHost);
+    return weightsByHost;
+  }
+
+  private static class HostWeights {
+    private final @Nullable String hostWeightPairs;
+    private final Map<String, Integer> weightsByHost;
+
+    HostWeights(final @Nullable String hostWeightPairs, final Map<String, Integer> weightsByHost) {
+      this.hostWeightPairs = hostWeightPairs;
+      this.weightsByHost = weightsByHost;
+    }
+  }
+}
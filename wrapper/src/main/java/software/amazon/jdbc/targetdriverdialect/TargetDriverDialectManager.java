@@ -25,6 +25,7 @@ import java.util.Properties;
 import java.util.function.Function;
 import java.util.logging.Logger;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.jdbc.AwsWrapperProperty;
 import software.amazon.jdbc.PropertyDefinition;
 import software.amazon.jdbc.util.Messages;
@@ -80,6 +81,10 @@ public class TargetDriverDialectManager implements TargetDriverDialectProvider {
     customDialect = null;
   }
 
+  public static @Nullable TargetDriverDialect getCustomDialect() {
+    return customDialect;
+  }
+
   @Override
   public TargetDriverDialect getDialect(
       final @NonNull Driver driver,
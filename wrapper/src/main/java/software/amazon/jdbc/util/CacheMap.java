@@ -71,6 +71,20 @@ public class CacheMap<K, V> {
     return entries;
   }
 
+  /**
+   * Returns the remaining time to live of the item with the given key.
+   *
+   * @param key the key of the item
+   * @return the remaining time to live in nanoseconds, or 0 if there is no such item or it has expired
+   */
+  public long getRemainingTimeNano(final K key) {
+    final CacheItem<V> cacheItem = cache.get(key);
+    if (cacheItem == null) {
+      return 0;
+    }
+    return Math.max(0, cacheItem.expirationTime - System.nanoTime());
+  }
+
   public int size() {
     return this.cache.size();
   }
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 public class SlidingExpirationCache<K, V> {
@@ -147,6 +148,16 @@ public class SlidingExpirationCache<K, V> {
     return entries;
   }
 
+  /**
+   * Perform the given action for each entry in the cache, including expired entries, without
+   * copying the entries.
+   *
+   * @param action the action to perform for each key and value
+   */
+  public void forEach(final BiConsumer<K, V> action) {
+    this.cache.forEach((key, cacheItem) -> action.accept(key, cacheItem.item));
+  }
+
   /**
    * Get the current size of the cache, including expired entries.
    *
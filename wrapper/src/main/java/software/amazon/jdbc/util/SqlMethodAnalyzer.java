@@ -18,21 +18,32 @@ package software.amazon.jdbc.util;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Analyzes JDBC method calls and their SQL statements to track transaction and autocommit state.
+ *
+ * <p>Only the leading keywords of the first statement of a SQL string are inspected. They're found
+ * with a single pass over the string that skips whitespace and comments, so analyzing a statement
+ * doesn't create any substrings regardless of the size of the SQL string.
+ */
 public class SqlMethodAnalyzer {
 
+  enum StatementType {
+    START_TRANSACTION,
+    CLOSE_TRANSACTION,
+    SET_AUTOCOMMIT,
+    NON_DML,
+    DML
+  }
+
   public boolean doesOpenTransaction(final Connection conn, final String methodName,
       final Object[] args) {
     if (!(methodName.contains("execute") && args != null && args.length >= 1)) {
       return false;
     }
 
-    final String statement = getFirstSqlStatement(String.valueOf(args[0]));
-    if (isStatementStartingTransaction(statement)) {
+    final StatementType statementType = getFirstStatementType(String.valueOf(args[0]));
+    if (statementType == StatementType.START_TRANSACTION) {
       return true;
     }
 
@@ -43,33 +54,7 @@ public class SqlMethodAnalyzer {
       return false;
     }
 
-    return !autocommit && isStatementDml(statement);
-  }
-
-  private String getFirstSqlStatement(final String sql) {
-    List<String> statementList = parseMultiStatementQueries(sql);
-    if (statementList.isEmpty()) {
-      return sql;
-    }
-    String statement = statementList.get(0);
-    statement = statement.toUpperCase();
-    statement = statement.replaceAll("\\s*/\\*(.*?)\\*/\\s*", " ").trim();
-    return statement;
-  }
-
-  private List<String> parseMultiStatementQueries(String query) {
-    if (StringUtils.isNullOrEmpty(query)) {
-      return Collections.singletonList("");
-    }
-
-    query = query.replaceAll("\\s+", " ");
-
-    // Check to see if string only has blank spaces.
-    if (query.trim().isEmpty()) {
-      return Collections.singletonList("");
-    }
-
-    return Arrays.stream(query.split(";")).collect(Collectors.toList());
+    return !autocommit && statementType == StatementType.DML;
   }
 
   public boolean doesCloseTransaction(final Connection conn, final String methodName,
@@ -87,27 +72,19 @@ public class SqlMethodAnalyzer {
       return false;
     }
 
-    final String statement = getFirstSqlStatement(String.valueOf(args[0]));
-    return isStatementClosingTransaction(statement);
+    return getFirstStatementType(String.valueOf(args[0])) == StatementType.CLOSE_TRANSACTION;
   }
 
   public boolean isStatementDml(final String statement) {
-    return !isStatementStartingTransaction(statement)
-        && !isStatementClosingTransaction(statement)
-        && !statement.startsWith("SET ")
-        && !statement.startsWith("USE ")
-        && !statement.startsWith("SHOW ");
+    return getFirstStatementType(statement) == StatementType.DML;
   }
 
   public boolean isStatementStartingTransaction(final String statement) {
-    return statement.startsWith("BEGIN") || statement.startsWith("START TRANSACTION");
+    return getFirstStatementType(statement) == StatementType.START_TRANSACTION;
   }
 
   public boolean isStatementClosingTransaction(final String statement) {
-    return statement.startsWith("COMMIT")
-        || statement.startsWith("ROLLBACK")
-        || statement.startsWith("END")
-        || statement.startsWith("ABORT");
+    return getFirstStatementType(statement) == StatementType.CLOSE_TRANSACTION;
   }
 
   public boolean isStatementSettingAutoCommit(final String methodName, final Object[] args) {
@@ -115,8 +92,7 @@ public class SqlMethodAnalyzer {
       return false;
     }
 
-    final String statement = getFirstSqlStatement(String.valueOf(args[0]));
-    return statement.startsWith("SET AUTOCOMMIT");
+    return getFirstStatementType(String.valueOf(args[0])) == StatementType.SET_AUTOCOMMIT;
   }
 
   public boolean doesSwitchAutoCommitFalseTrue(final Connection conn, final String methodName,
@@ -149,31 +125,44 @@ public class SqlMethodAnalyzer {
       return null;
     }
 
-    String sql = getFirstSqlStatement(String.valueOf(args[0]));
-
-    final int valueIndex;
-    int separatorIndex = sql.indexOf("=");
+    final String sql = String.valueOf(args[0]);
+    int pos = skipWhitespaceAndComments(sql, 0);
+    pos = matchKeyword(sql, pos, "SET");
+    if (pos < 0) {
+      return null;
+    }
+    pos = matchKeyword(sql, skipWhitespaceAndComments(sql, pos), "AUTOCOMMIT");
+    if (pos < 0) {
+      return null;
+    }
 
-    if (separatorIndex != -1) {
-      valueIndex = separatorIndex + 1;
+    pos = skipWhitespaceAndComments(sql, pos);
+    if (pos < sql.length() && sql.charAt(pos) == '=') {
+      pos++;
     } else {
-      separatorIndex = sql.indexOf(" TO ");
-      if (separatorIndex == -1) {
+      pos = matchKeyword(sql, pos, "TO");
+      if (pos < 0) {
         return null;
-      } else {
-        valueIndex = separatorIndex + 3;
       }
     }
 
-    sql = sql.substring(valueIndex);
-    if (sql.contains(";")) {
-      sql = sql.substring(0, sql.indexOf(";"));
+    final int valueStart = skipWhitespaceAndComments(sql, pos);
+    int valueEnd = valueStart;
+    while (valueEnd < sql.length() && isIdentifierPart(sql.charAt(valueEnd))) {
+      valueEnd++;
+    }
+
+    // Nothing but whitespace and comments may follow the value within the statement.
+    final int statementEnd = skipWhitespaceAndComments(sql, valueEnd);
+    if (statementEnd < sql.length() && sql.charAt(statementEnd) != ';') {
+      return null;
     }
 
-    sql = sql.trim();
-    if ("FALSE".equals(sql) || "0".equals(sql) || "OFF".equals(sql)) {
+    if (isValue(sql, valueStart, valueEnd, "FALSE") || isValue(sql, valueStart, valueEnd, "0")
+        || isValue(sql, valueStart, valueEnd, "OFF")) {
       return false;
-    } else if ("TRUE".equals(sql) || "1".equals(sql) || "ON".equals(sql)) {
+    } else if (isValue(sql, valueStart, valueEnd, "TRUE") || isValue(sql, valueStart, valueEnd, "1")
+        || isValue(sql, valueStart, valueEnd, "ON")) {
       return true;
     } else {
       return null;
@@ -183,4 +172,91 @@ public class SqlMethodAnalyzer {
   public boolean isMethodClosingSqlObject(final String methodName) {
     return methodName.endsWith(".close") || methodName.endsWith(".abort");
   }
+
+  static StatementType getFirstStatementType(final String sql) {
+    if (sql == null) {
+      return StatementType.DML;
+    }
+
+    final int pos = skipWhitespaceAndComments(sql, 0);
+    if (matchKeyword(sql, pos, "BEGIN") >= 0) {
+      return StatementType.START_TRANSACTION;
+    }
+
+    int end = matchKeyword(sql, pos, "START");
+    if (end >= 0) {
+      return matchKeyword(sql, skipWhitespaceAndComments(sql, end), "TRANSACTION") >= 0
+          ? StatementType.START_TRANSACTION
+          : StatementType.DML;
+    }
+
+    if (matchKeyword(sql, pos, "COMMIT") >= 0
+        || matchKeyword(sql, pos, "ROLLBACK") >= 0
+        || matchKeyword(sql, pos, "END") >= 0
+        || matchKeyword(sql, pos, "ABORT") >= 0) {
+      return StatementType.CLOSE_TRANSACTION;
+    }
+
+    end = matchKeyword(sql, pos, "SET");
+    if (end >= 0) {
+      return matchKeyword(sql, skipWhitespaceAndComments(sql, end), "AUTOCOMMIT") >= 0
+          ? StatementType.SET_AUTOCOMMIT
+          : StatementType.NON_DML;
+    }
+
+    if (matchKeyword(sql, pos, "USE") >= 0 || matchKeyword(sql, pos, "SHOW") >= 0) {
+      return StatementType.NON_DML;
+    }
+
+    return StatementType.DML;
+  }
+
+  /**
+   * Returns the position of the first character at or after the given position that isn't
+   * whitespace or part of a comment.
+   */
+  static int skipWhitespaceAndComments(final String sql, final int startPos) {
+    final int length = sql.length();
+    int pos = startPos;
+    while (pos < length) {
+      final char c = sql.charAt(pos);
+      if (Character.isWhitespace(c)) {
+        pos++;
+      } else if (c == '/' && pos + 1 < length && sql.charAt(pos + 1) == '*') {
+        final int commentEnd = sql.indexOf("*/", pos + 2);
+        pos = commentEnd < 0 ? length : commentEnd + 2;
+      } else if (c == '-' && pos + 1 < length && sql.charAt(pos + 1) == '-') {
+        final int lineEnd = sql.indexOf('\n', pos + 2);
+        pos = lineEnd < 0 ? length : lineEnd + 1;
+      } else {
+        break;
+      }
+    }
+    return pos;
+  }
+
+  /**
+   * Checks whether the given keyword, ignoring case, is found at the given position and isn't
+   * followed by another identifier character.
+   *
+   * @return the position right after the keyword, or -1 if the keyword isn't found
+   */
+  static int matchKeyword(final String sql, final int pos, final String keyword) {
+    final int end = pos + keyword.length();
+    if (end > sql.length() || !sql.regionMatches(true, pos, keyword, 0, keyword.length())) {
+      return -1;
+    }
+    if (end < sql.length() && isIdentifierPart(sql.charAt(end))) {
+      return -1;
+    }
+    return end;
+  }
+
+  private static boolean isValue(final String sql, final int start, final int end, final String value) {
+    return end - start == value.length() && sql.regionMatches(true, start, value, 0, value.length());
+  }
+
+  private static boolean isIdentifierPart(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel that holds items until their deadline.
+ *
+ * <p>Time is divided into ticks. The wheel has several levels of 64 slots:
+ * a slot of the first level holds the items of a single tick, and a slot of each next level holds
+ * the items of all the slots of the previous level. When the wheel reaches a slot of a higher
+ * level, the items of that slot are moved to the lower levels. Adding an item takes constant time,
+ * and advancing the wheel only touches the slots of the elapsed ticks and the items in them, rather
+ * than all the items held by the wheel.
+ *
+ * <p>Items are never returned before their deadline, and are returned at most one tick after it.
+ * Items with a deadline too far in the future are kept in the last level until they come into
+ * range.
+ *
+ * <p>This class is not thread-safe, except for {@link #size()} and {@link #isEmpty()}, which can be
+ * called from any thread.
+ *
+ * @param <T> the type of the items
+ */
+public class TimingWheel<T> {
+
+  private static final int LEVEL_BITS = 6;
+  private static final int SLOTS_PER_LEVEL = 1 << LEVEL_BITS;
+  private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+  private static final int LEVELS = 4;
+  private static final long MAX_TICKS = (1L << (LEVEL_BITS * LEVELS)) - 1;
+
+  private final long tickNano;
+  private final long originNano;
+  private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS_PER_LEVEL);
+  // Items added with a deadline before the current tick.
+  private List<Entry<T>> expiredEntries = new ArrayList<>();
+  private long currentTick;
+  private volatile int size;
+
+  /**
+   * TimingWheel constructor.
+   *
+   * @param tickNano        the duration of a tick in nanos
+   * @param currentTimeNano the current time in nanos, as returned by {@link System#nanoTime()}
+   */
+  public TimingWheel(final long tickNano, final long currentTimeNano) {
+    if (tickNano <= 0) {
+      throw new IllegalArgumentException("tickNano");
+    }
+    this.tickNano = tickNano;
+    this.originNano = currentTimeNano;
+    for (int i = 0; i < LEVELS * SLOTS_PER_LEVEL; i++) {
+      this.slots.add(null);
+    }
+  }
+
+  /**
+   * Adds an item to the wheel. An item with a deadline that has already passed is returned by the
+   * next call to {@link #advance(long, Consumer)}.
+   *
+   * @param deadlineNano the deadline of the item in nanos
+   * @param item         the item to add
+   */
+  public void add(final long deadlineNano, final T item) {
+    // Round up, so the item is never returned before its deadline.
+    final long deadlineTick = -Math.floorDiv(this.originNano - deadlineNano, this.tickNano);
+    this.insert(new Entry<>(deadlineTick, item));
+    this.size++;
+  }
+
+  /**
+   * Advances the wheel to the given time, and passes the items with a deadline that has passed to
+   * the given consumer. The consumer can add items to the wheel.
+   *
+   * @param currentTimeNano     the current time in nanos
+   * @param expiredItemConsumer the consumer of the expired items
+   * @return the number of expired items
+   */
+  public int advance(final long currentTimeNano, final Consumer<T> expiredItemConsumer) {
+    final long targetTick = Math.floorDiv(currentTimeNano - this.originNano, this.tickNano);
+    int expiredCount = this.processExpiredEntries(expiredItemConsumer);
+    while (this.currentTick <= targetTick) {
+      if (this.size == 0) {
+        // Nothing to cascade or expire; skip the remaining ticks.
+        this.currentTick = targetTick + 1;
+        break;
+      }
+      expiredCount += this.processTick(expiredItemConsumer);
+    }
+    return expiredCount;
+  }
+
+  /**
+   * Removes all the items from the wheel.
+   */
+  public void clear() {
+    for (int i = 0; i < this.slots.size(); i++) {
+      this.slots.set(i, null);
+    }
+    this.expiredEntries.clear();
+    this.size = 0;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  private int processTick(final Consumer<T> expiredItemConsumer) {
+    final long tick = this.currentTick;
+
+    // Move the items of the higher level slots that start at this tick to the lower levels.
+    for (int level = 1; level < LEVELS; level++) {
+      if ((tick & ((1L << (LEVEL_BITS * level)) - 1)) != 0) {
+        break;
+      }
+      final List<Entry<T>> entries = this.detachSlot(level, tick);
+      if (entries != null) {
+        for (final Entry<T> entry : entries) {
+          this.insert(entry);
+        }
+      }
+    }
+
+    final List<Entry<T>> entries = this.detachSlot(0, tick);
+    // Items added by the consumer are placed relative to the next tick.
+    this.currentTick = tick + 1;
+    if (entries == null) {
+      return 0;
+    }
+
+    int expiredCount = 0;
+    for (final Entry<T> entry : entries) {
+      if (entry.deadlineTick <= tick) {
+        this.size--;
+        expiredCount++;
+        expiredItemConsumer.accept(entry.item);
+      } else {
+        // The deadline was beyond the range of the wheel when the item was added.
+        this.insert(entry);
+      }
+    }
+    return expiredCount;
+  }
+
+  private int processExpiredEntries(final Consumer<T> expiredItemConsumer) {
+    if (this.expiredEntries.isEmpty()) {
+      return 0;
+    }
+    // Items with a past deadline added by the consumer are returned by the next call.
+    final List<Entry<T>> entries = this.expiredEntries;
+    this.expiredEntries = new ArrayList<>();
+    for (final Entry<T> entry : entries) {
+      this.size--;
+      expiredItemConsumer.accept(entry.item);
+    }
+    return entries.size();
+  }
+
+  private void insert(final Entry<T> entry) {
+    if (entry.deadlineTick < this.currentTick) {
+      this.expiredEntries.add(entry);
+      return;
+    }
+
+    final long ticks = Math.min(entry.deadlineTick - this.currentTick, MAX_TICKS);
+    int level = 0;
+    while (level < LEVELS - 1 && ticks >= (1L << (LEVEL_BITS * (level + 1)))) {
+      level++;
+    }
+
+    final int index = getSlotIndex(level, this.currentTick + ticks);
+    List<Entry<T>> entries = this.slots.get(index);
+    if (entries == null) {
+      entries = new ArrayList<>();
+      this.slots.set(index, entries);
+    }
+    entries.add(entry);
+  }
+
+  private List<Entry<T>> detachSlot(final int level, final long tick) {
+    final int index = getSlotIndex(level, tick);
+    final List<Entry<T>> entries = this.slots.get(index);
+    this.slots.set(index, null);
+    return entries;
+  }
+
+  private static int getSlotIndex(final int level, final long tick) {
+    return level * SLOTS_PER_LEVEL + (int) ((tick >>> (LEVEL_BITS * level)) & SLOT_MASK);
+  }
+
+  private static class Entry<T> {
+
+    private final long deadlineTick;
+    private final T item;
+
+    private Entry(final long deadlineTick, final T item) {
+      this.deadlineTick = deadlineTick;
+      this.item = item;
+    }
+  }
+}
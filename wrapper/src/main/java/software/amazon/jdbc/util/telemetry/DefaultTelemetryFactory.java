@@ -87,4 +87,9 @@ public class DefaultTelemetryFactory implements TelemetryFactory {
   public TelemetryGauge createGauge(final String name, final GaugeCallable<Long> callback) {
     return this.metricsTelemetryFactory.createGauge(name, callback);
   }
+
+  @Override
+  public TelemetryHistogram createHistogram(final String name) {
+    return this.metricsTelemetryFactory.createHistogram(name);
+  }
 }
@@ -37,4 +37,9 @@ public class NullTelemetryFactory implements TelemetryFactory {
   public TelemetryGauge createGauge(String name, GaugeCallable<Long> callback) {
     return new NullTelemetryGauge(name);
   }
+
+  @Override
+  public TelemetryHistogram createHistogram(String name) {
+    return new NullTelemetryHistogram(name);
+  }
 }
@@ -40,4 +40,8 @@ public class OpenTelemetryGauge implements TelemetryGauge {
     return name;
   }
 
+  @Override
+  public void close() {
+    this.gauge.close();
+  }
 }
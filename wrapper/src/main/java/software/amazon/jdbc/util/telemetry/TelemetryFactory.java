@@ -26,4 +26,15 @@ public interface TelemetryFactory {
 
   TelemetryGauge createGauge(String name, GaugeCallable<Long> callback);
 
+  /**
+   * Creates a histogram. Implementations that don't support histograms don't need to override this
+   * method, recorded values are then discarded.
+   *
+   * @param name the name of the histogram
+   * @return the histogram
+   */
+  default TelemetryHistogram createHistogram(String name) {
+    return new NullTelemetryHistogram(name);
+  }
+
 }
@@ -18,4 +18,9 @@ package software.amazon.jdbc.util.telemetry;
 
 public interface TelemetryGauge {
 
+  /**
+   * Stops reporting the gauge. The callback of the gauge is not called anymore.
+   */
+  default void close() {
+  }
 }
@@ -23,6 +23,7 @@ import java.net.URL;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.Clob;
+import java.sql.Connection;
 import java.sql.Date;
 import java.sql.NClob;
 import java.sql.Ref;
@@ -39,6 +40,7 @@ import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Map;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import software.amazon.jdbc.ConnectionPluginManager;
 import software.amazon.jdbc.util.WrapperUtils;
 
@@ -46,6 +48,8 @@ public class ResultSetWrapper implements ResultSet {
 
   protected ResultSet resultSet;
   protected ConnectionPluginManager pluginManager;
+  protected @Nullable Connection boundConnection;
+  protected boolean isBoundConnectionResolved;
 
   public ResultSetWrapper(
       @NonNull ResultSet resultSet, @NonNull ConnectionPluginManager pluginManager) {
@@ -53,6 +57,29 @@ public class ResultSetWrapper implements ResultSet {
     this.pluginManager = pluginManager;
   }
 
+  /**
+   * Checks whether row iteration and column getters can be forwarded directly to the target driver
+   * result set. This is the case when no connection plugin is subscribed to ResultSet methods, and
+   * the connection this result set belongs to is still the current connection. Otherwise, the call
+   * goes through the plugin pipeline so that plugins, and checks against old connections, still
+   * apply.
+   *
+   * @return true if the call can bypass the plugin pipeline
+   */
+  protected boolean isPassthrough() {
+    if (!this.pluginManager.isResultSetPassthrough()) {
+      return false;
+    }
+
+    if (!this.isBoundConnectionResolved) {
+      this.boundConnection = WrapperUtils.getConnectionFromSqlObject(this.resultSet);
+      this.isBoundConnectionResolved = true;
+    }
+
+    return this.boundConnection == null
+        || this.boundConnection == this.pluginManager.getCurrentConnection();
+  }
+
   @Override
   public boolean absolute(int row) throws SQLException {
     return WrapperUtils.executeWithPlugins(
@@ -127,6 +154,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public int findColumn(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.findColumn(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         int.class,
         SQLException.class,
@@ -199,6 +229,9 @@ public class ResultSetWrapper implements ResultSet {
   @Override
   @Deprecated
   public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBigDecimal(columnIndex, scale);
+    }
     return WrapperUtils.executeWithPlugins(
         BigDecimal.class,
         SQLException.class,
@@ -213,6 +246,9 @@ public class ResultSetWrapper implements ResultSet {
   @Override
   @Deprecated
   public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBigDecimal(columnLabel, scale);
+    }
     return WrapperUtils.executeWithPlugins(
         BigDecimal.class,
         SQLException.class,
@@ -226,6 +262,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBigDecimal(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         BigDecimal.class,
         SQLException.class,
@@ -238,6 +277,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBigDecimal(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         BigDecimal.class,
         SQLException.class,
@@ -298,6 +340,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public boolean getBoolean(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBoolean(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         boolean.class,
         SQLException.class,
@@ -310,6 +355,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public boolean getBoolean(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBoolean(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         boolean.class,
         SQLException.class,
@@ -322,6 +370,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public byte getByte(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getByte(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         byte.class,
         SQLException.class,
@@ -334,6 +385,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public byte getByte(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getByte(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         byte.class,
         SQLException.class,
@@ -346,6 +400,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public byte[] getBytes(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBytes(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         byte[].class,
         SQLException.class,
@@ -358,6 +415,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public byte[] getBytes(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getBytes(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         byte[].class,
         SQLException.class,
@@ -441,6 +501,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Date getDate(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getDate(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         Date.class,
         SQLException.class,
@@ -453,6 +516,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Date getDate(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getDate(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         Date.class,
         SQLException.class,
@@ -465,6 +531,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getDate(columnIndex, cal);
+    }
     return WrapperUtils.executeWithPlugins(
         Date.class,
         SQLException.class,
@@ -478,6 +547,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getDate(columnLabel, cal);
+    }
     return WrapperUtils.executeWithPlugins(
         Date.class,
         SQLException.class,
@@ -491,6 +563,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public double getDouble(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getDouble(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         double.class,
         SQLException.class,
@@ -503,6 +578,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public double getDouble(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getDouble(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         double.class,
         SQLException.class,
@@ -538,6 +616,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public float getFloat(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getFloat(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         float.class,
         SQLException.class,
@@ -550,6 +631,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public float getFloat(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getFloat(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         float.class,
         SQLException.class,
@@ -574,6 +658,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public int getInt(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getInt(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         int.class,
         SQLException.class,
@@ -586,6 +673,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public int getInt(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getInt(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         int.class,
         SQLException.class,
@@ -598,6 +688,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public long getLong(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getLong(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         long.class,
         SQLException.class,
@@ -610,6 +703,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public long getLong(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getLong(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         long.class,
         SQLException.class,
@@ -681,6 +777,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public String getNString(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getNString(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         String.class,
         SQLException.class,
@@ -693,6 +792,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public String getNString(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getNString(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         String.class,
         SQLException.class,
@@ -866,6 +968,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public short getShort(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getShort(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         short.class,
         SQLException.class,
@@ -878,6 +983,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public short getShort(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getShort(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         short.class,
         SQLException.class,
@@ -901,6 +1009,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public String getString(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getString(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         String.class,
         SQLException.class,
@@ -913,6 +1024,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public String getString(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getString(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         String.class,
         SQLException.class,
@@ -925,6 +1039,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Time getTime(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTime(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         Time.class,
         SQLException.class,
@@ -937,6 +1054,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Time getTime(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTime(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         Time.class,
         SQLException.class,
@@ -949,6 +1069,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTime(columnIndex, cal);
+    }
     return WrapperUtils.executeWithPlugins(
         Time.class,
         SQLException.class,
@@ -962,6 +1085,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTime(columnLabel, cal);
+    }
     return WrapperUtils.executeWithPlugins(
         Time.class,
         SQLException.class,
@@ -975,6 +1101,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Timestamp getTimestamp(int columnIndex) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTimestamp(columnIndex);
+    }
     return WrapperUtils.executeWithPlugins(
         Timestamp.class,
         SQLException.class,
@@ -987,6 +1116,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Timestamp getTimestamp(String columnLabel) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTimestamp(columnLabel);
+    }
     return WrapperUtils.executeWithPlugins(
         Timestamp.class,
         SQLException.class,
@@ -999,6 +1131,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTimestamp(columnIndex, cal);
+    }
     return WrapperUtils.executeWithPlugins(
         Timestamp.class,
         SQLException.class,
@@ -1012,6 +1147,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.getTimestamp(columnLabel, cal);
+    }
     return WrapperUtils.executeWithPlugins(
         Timestamp.class,
         SQLException.class,
@@ -1199,6 +1337,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public boolean next() throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.next();
+    }
     return WrapperUtils.executeWithPlugins(
         boolean.class,
         SQLException.class,
@@ -2386,6 +2527,9 @@ public class ResultSetWrapper implements ResultSet {
 
   @Override
   public boolean wasNull() throws SQLException {
+    if (this.isPassthrough()) {
+      return this.resultSet.wasNull();
+    }
     return WrapperUtils.executeWithPlugins(
         boolean.class,
         SQLException.class,
@@ -18,6 +18,8 @@ package software.amazon.jdbc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -60,6 +62,7 @@ public class ConnectionPluginChainBuilderTests {
   @BeforeEach
   void beforeEach() {
     closeable = MockitoAnnotations.openMocks(this);
+    ConnectionPluginChainBuilder.clearCache();
     when(mockPluginService.getTelemetryFactory()).thenReturn(mockTelemetryFactory);
     when(mockTelemetryFactory.openTelemetryContext(anyString(), any())).thenReturn(mockTelemetryContext);
     when(mockTelemetryFactory.openTelemetryContext(eq(null), any())).thenReturn(mockTelemetryContext);
@@ -134,4 +137,52 @@ public class ConnectionPluginChainBuilderTests {
     assertTrue(result.get(5) instanceof ConnectTimeConnectionPlugin);
     assertTrue(result.get(6) instanceof DefaultConnectionPlugin);
   }
+
+  @Test
+  public void testResolvedPluginFactoriesAreReused() throws SQLException {
+    ConnectionPluginChainBuilder builder = new ConnectionPluginChainBuilder();
+    Properties props = new Properties();
+    props.put(PropertyDefinition.PLUGINS.name, "iam,efm,failover");
+
+    List<ConnectionPlugin> first = builder.getPlugins(
+        mockPluginService,
+        mockConnectionProvider,
+        null,
+        mockPluginManagerService,
+        props,
+        null);
+    ConnectionPluginFactory[] factories =
+        ConnectionPluginChainBuilder.sortedFactoriesByPluginCodes.get("iam,efm,failover");
+    assertNotNull(factories);
+
+    List<ConnectionPlugin> second = builder.getPlugins(
+        mockPluginService,
+        mockConnectionProvider,
+        null,
+        mockPluginManagerService,
+        props,
+        null);
+
+    assertSame(factories, ConnectionPluginChainBuilder.sortedFactoriesByPluginCodes.get("iam,efm,failover"));
+    assertEquals(4, second.size());
+    assertTrue(second.get(0) instanceof FailoverConnectionPlugin);
+    assertTrue(second.get(1) instanceof HostMonitoringConnectionPlugin);
+    assertTrue(second.get(2) instanceof IamAuthConnectionPlugin);
+    assertTrue(second.get(3) instanceof DefaultConnectionPlugin);
+    for (int i = 0; i < first.size(); i++) {
+      assertNotSame(first.get(i), second.get(i));
+    }
+
+    props.put(PropertyDefinition.AUTO_SORT_PLUGIN_ORDER.name, "false");
+    List<ConnectionPlugin> unsorted = builder.getPlugins(
+        mockPluginService,
+        mockConnectionProvider,
+        null,
+        mockPluginManagerService,
+        props,
+        null);
+
+    assertTrue(unsorted.get(0) instanceof IamAuthConnectionPlugin);
+    assertNotNull(ConnectionPluginChainBuilder.unsortedFactoriesByPluginCodes.get("iam,efm,failover"));
+  }
 }
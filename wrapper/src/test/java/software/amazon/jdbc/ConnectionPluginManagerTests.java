@@ -18,7 +18,9 @@ package software.amazon.jdbc;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -33,6 +35,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -376,8 +381,8 @@ public class ConnectionPluginManagerTests {
 
     assertEquals("resulTestValue", result);
 
-    // The method has been called just once to generate a final lambda and cache it.
-    verify(target, times(1)).makePluginChainFunc(eq("testJdbcCall_A"));
+    // The method has been called just once to generate a plugin chain and cache it.
+    verify(target, times(1)).makePluginChain(eq("testJdbcCall_A"));
 
     assertEquals(7, calls.size());
     assertEquals("TestPluginOne:before", calls.get(0));
@@ -405,7 +410,7 @@ public class ConnectionPluginManagerTests {
     assertEquals("anotherResulTestValue", result);
 
     // No additional calls to this method occurred. It's still been called once.
-    verify(target, times(1)).makePluginChainFunc(eq("testJdbcCall_A"));
+    verify(target, times(1)).makePluginChain(eq("testJdbcCall_A"));
 
     assertEquals(7, calls.size());
     assertEquals("TestPluginOne:before", calls.get(0));
@@ -512,4 +517,138 @@ public class ConnectionPluginManagerTests {
     assertEquals(LogQueryConnectionPlugin.class, target.plugins.get(0).getClass());
     assertEquals(DefaultConnectionPlugin.class, target.plugins.get(1).getClass());
   }
+
+  @Test
+  public void testResultSetPassthrough() throws SQLException {
+    final Properties testProperties = new Properties();
+    testProperties.setProperty(PropertyDefinition.PLUGINS.name, "logQuery");
+
+    final ConnectionPluginManager target = new ConnectionPluginManager(
+        mockConnectionProvider,
+        null,
+        mockConnectionWrapper,
+        mockTelemetryFactory);
+    assertFalse(target.isResultSetPassthrough());
+
+    target.init(mockPluginService, testProperties, mockPluginManagerService, configurationProfile);
+    assertTrue(target.isResultSetPassthrough());
+
+    final ArrayList<ConnectionPlugin> testPlugins = new ArrayList<>();
+    testPlugins.add(new TestPluginOne(new ArrayList<>()));
+    testPlugins.addAll(target.plugins);
+    target.plugins = testPlugins;
+    assertFalse(target.isResultSetPassthrough());
+  }
+
+  @Test
+  public void testConcurrentCallsOnlyWaitForConnectionSwitch() throws Exception {
+    final Properties testProperties = new Properties();
+    testProperties.setProperty(PropertyDefinition.PLUGINS.name, "");
+    testProperties.setProperty(PropertyDefinition.CONCURRENT_CALLS.name, "true");
+
+    final ConnectionPluginManager target = new ConnectionPluginManager(
+        mockConnectionProvider,
+        null,
+        mockConnectionWrapper,
+        mockTelemetryFactory);
+    target.init(mockPluginService, testProperties, mockPluginManagerService, configurationProfile);
+
+    target.lock();
+    try {
+      CompletableFuture.runAsync(() -> {
+        target.lock();
+        target.unlock();
+      }).get(5, TimeUnit.SECONDS);
+    } finally {
+      target.unlock();
+    }
+
+    final CompletableFuture<Void> callDuringSwitch;
+    target.lockConnectionSwitch();
+    try {
+      callDuringSwitch = CompletableFuture.runAsync(() -> {
+        target.lock();
+        target.unlock();
+      });
+      TimeUnit.MILLISECONDS.sleep(200);
+      assertFalse(callDuringSwitch.isDone());
+    } finally {
+      target.unlockConnectionSwitch();
+    }
+    callDuringSwitch.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testConnectionSwitchWaitsForCallsInProgress() throws Exception {
+    final Properties testProperties = new Properties();
+    testProperties.setProperty(PropertyDefinition.PLUGINS.name, "");
+    testProperties.setProperty(PropertyDefinition.CONCURRENT_CALLS.name, "true");
+
+    final ConnectionPluginManager target = new ConnectionPluginManager(
+        mockConnectionProvider,
+        null,
+        mockConnectionWrapper,
+        mockTelemetryFactory);
+    target.init(mockPluginService, testProperties, mockPluginManagerService, configurationProfile);
+
+    final CountDownLatch callStarted = new CountDownLatch(1);
+    final CountDownLatch completeCall = new CountDownLatch(1);
+    final CompletableFuture<Void> callInProgress = CompletableFuture.runAsync(() -> {
+      target.lock();
+      try {
+        // A nested call on the same thread must not be counted twice.
+        target.lock();
+        target.unlock();
+        callStarted.countDown();
+        completeCall.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      } finally {
+        target.unlock();
+      }
+    });
+    assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+
+    final CompletableFuture<Void> connectionSwitch = CompletableFuture.runAsync(() -> {
+      target.lockConnectionSwitch();
+      target.unlockConnectionSwitch();
+    });
+    TimeUnit.MILLISECONDS.sleep(200);
+    assertFalse(connectionSwitch.isDone());
+
+    completeCall.countDown();
+    callInProgress.get(5, TimeUnit.SECONDS);
+    connectionSwitch.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testConnectionSwitchWithinCallOnSameThread() throws Exception {
+    final Properties testProperties = new Properties();
+    testProperties.setProperty(PropertyDefinition.PLUGINS.name, "");
+    testProperties.setProperty(PropertyDefinition.CONCURRENT_CALLS.name, "true");
+
+    final ConnectionPluginManager target = new ConnectionPluginManager(
+        mockConnectionProvider,
+        null,
+        mockConnectionWrapper,
+        mockTelemetryFactory);
+    target.init(mockPluginService, testProperties, mockPluginManagerService, configurationProfile);
+
+    // Simulates failover started from inside a JDBC call.
+    CompletableFuture.runAsync(() -> {
+      target.lock();
+      try {
+        target.lockConnectionSwitch();
+        target.unlockConnectionSwitch();
+      } finally {
+        target.unlock();
+      }
+    }).get(5, TimeUnit.SECONDS);
+
+    // No calls are left active, so another switch completes immediately.
+    CompletableFuture.runAsync(() -> {
+      target.lockConnectionSwitch();
+      target.unlockConnectionSwitch();
+    }).get(5, TimeUnit.SECONDS);
+  }
 }
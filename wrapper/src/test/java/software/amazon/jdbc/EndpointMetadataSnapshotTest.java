@@ -0,0 +1,193 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.jdbc.dialect.DialectCodes;
+import software.amazon.jdbc.dialect.DialectManager;
+import software.amazon.jdbc.hostavailability.HostAvailability;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.hostlistprovider.RdsHostListProvider;
+
+public class EndpointMetadataSnapshotTest {
+
+  private static final long EXPIRATION_NANO = TimeUnit.MINUTES.toNanos(10);
+
+  private Path snapshotFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    snapshotFile = Files.createTempFile("endpoint-metadata", ".bin");
+    clearCaches();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    clearCaches();
+    Files.deleteIfExists(snapshotFile);
+  }
+
+  @Test
+  public void testSaveAndRestore() {
+    final List<HostSpec> topology = Arrays.asList(
+        new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+            .host("instance-1.xyz.us-east-2.rds.amazonaws.com").port(5432).hostId("instance-1")
+            .role(HostRole.WRITER).weight(10).build(),
+        new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+            .host("instance-2.xyz.us-east-2.rds.amazonaws.com").port(5432).hostId("instance-2")
+            .role(HostRole.READER).availability(HostAvailability.NOT_AVAILABLE).build());
+    DialectManager.getEndpointCache().put("jdbc:postgresql://cluster", DialectCodes.AURORA_PG, EXPIRATION_NANO);
+    DialectManager.getEndpointCache().put("jdbc:postgresql://expired", DialectCodes.PG, -1);
+    RdsHostListProvider.topologyCache.put("cluster-id", topology, EXPIRATION_NANO);
+    RdsHostListProvider.primaryClusterIdCache.put("cluster-id", true, EXPIRATION_NANO);
+    RdsHostListProvider.suggestedPrimaryClusterIdCache.put("other-id", "cluster-id", EXPIRATION_NANO);
+
+    assertTrue(EndpointMetadataSnapshot.save(snapshotFile));
+    clearCaches();
+    assertTrue(EndpointMetadataSnapshot.restore(snapshotFile));
+
+    assertEquals(DialectCodes.AURORA_PG, DialectManager.getEndpointCache().get("jdbc:postgresql://cluster"));
+    assertNull(DialectManager.getEndpointCache().get("jdbc:postgresql://expired"));
+    assertEquals(Boolean.TRUE, RdsHostListProvider.primaryClusterIdCache.get("cluster-id"));
+    assertEquals("cluster-id", RdsHostListProvider.suggestedPrimaryClusterIdCache.get("other-id"));
+
+    final List<HostSpec> restoredTopology = RdsHostListProvider.topologyCache.get("cluster-id");
+    assertEquals(topology, restoredTopology);
+    assertEquals("instance-1", restoredTopology.get(0).getHostId());
+    assertEquals(10, restoredTopology.get(0).getWeight());
+    assertEquals(HostRole.READER, restoredTopology.get(1).getRole());
+    assertEquals(HostAvailability.NOT_AVAILABLE, restoredTopology.get(1).getRawAvailability());
+    assertEquals(topology.get(1).getLastUpdateTime(), restoredTopology.get(1).getLastUpdateTime());
+
+    // Restored entries keep their original expiration time.
+    final long remainingNano = RdsHostListProvider.topologyCache.getRemainingTimeNano("cluster-id");
+    assertTrue(remainingNano > 0 && remainingNano <= EXPIRATION_NANO);
+  }
+
+  @Test
+  public void testRestoreKeepsExistingEntries() {
+    DialectManager.getEndpointCache().put("jdbc:mysql://cluster", DialectCodes.AURORA_MYSQL, EXPIRATION_NANO);
+    assertTrue(EndpointMetadataSnapshot.save(snapshotFile));
+
+    DialectManager.getEndpointCache().put("jdbc:mysql://cluster", DialectCodes.MYSQL, EXPIRATION_NANO);
+    assertTrue(EndpointMetadataSnapshot.restore(snapshotFile));
+
+    assertEquals(DialectCodes.MYSQL, DialectManager.getEndpointCache().get("jdbc:mysql://cluster"));
+  }
+
+  @Test
+  public void testRestoreIgnoresUnsupportedFormat() throws IOException {
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshotFile))) {
+      out.writeInt(0x41574d53);
+      out.writeInt(Integer.MAX_VALUE);
+    }
+
+    assertFalse(EndpointMetadataSnapshot.restore(snapshotFile));
+  }
+
+  @Test
+  public void testRestoreIgnoresTruncatedFile() throws IOException {
+    DialectManager.getEndpointCache().put("jdbc:mysql://cluster", DialectCodes.AURORA_MYSQL, EXPIRATION_NANO);
+    assertTrue(EndpointMetadataSnapshot.save(snapshotFile));
+    final byte[] content = Files.readAllBytes(snapshotFile);
+    Files.write(snapshotFile, Arrays.copyOf(content, content.length - 4));
+    clearCaches();
+
+    assertFalse(EndpointMetadataSnapshot.restore(snapshotFile));
+    assertNull(DialectManager.getEndpointCache().get("jdbc:mysql://cluster"));
+  }
+
+  @Test
+  public void testRestoreIgnoresInvalidCounts() throws IOException {
+    for (final int count : new int[] {-1, Integer.MAX_VALUE}) {
+      try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshotFile))) {
+        out.writeInt(0x41574d53);
+        out.writeInt(1);
+        out.writeInt(count);
+      }
+
+      assertFalse(EndpointMetadataSnapshot.restore(snapshotFile));
+    }
+  }
+
+  @Test
+  public void testRestoreIgnoresInvalidHostCount() throws IOException {
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshotFile))) {
+      out.writeInt(0x41574d53);
+      out.writeInt(1);
+      out.writeInt(0);
+      out.writeInt(1);
+      out.writeUTF("cluster-id");
+      out.writeLong(System.currentTimeMillis() + 60000);
+      out.writeInt(Integer.MAX_VALUE);
+    }
+
+    assertFalse(EndpointMetadataSnapshot.restore(snapshotFile));
+  }
+
+  @Test
+  public void testConcurrentSaves() throws Exception {
+    DialectManager.getEndpointCache().put("jdbc:mysql://cluster", DialectCodes.AURORA_MYSQL, EXPIRATION_NANO);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Boolean>> saves = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        saves.add(executor.submit(() -> EndpointMetadataSnapshot.save(snapshotFile)));
+      }
+      for (final Future<Boolean> save : saves) {
+        assertTrue(save.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    clearCaches();
+
+    assertTrue(EndpointMetadataSnapshot.restore(snapshotFile));
+    assertEquals(DialectCodes.AURORA_MYSQL, DialectManager.getEndpointCache().get("jdbc:mysql://cluster"));
+    // No temporary file is left behind.
+    try (Stream<Path> files = Files.list(snapshotFile.toAbsolutePath().getParent())) {
+      final String tempFilePrefix = snapshotFile.getFileName().toString();
+      assertFalse(files.anyMatch((file) -> file.getFileName().toString().startsWith(tempFilePrefix)
+          && file.getFileName().toString().endsWith(".tmp")));
+    }
+  }
+
+  private static void clearCaches() {
+    DialectManager.resetEndpointCache();
+    RdsHostListProvider.clearAll();
+  }
+}
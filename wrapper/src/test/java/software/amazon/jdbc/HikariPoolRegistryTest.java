@@ -0,0 +1,209 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import software.amazon.jdbc.HikariPooledConnectionProvider.PoolKey;
+import software.amazon.jdbc.util.telemetry.GaugeCallable;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+import software.amazon.jdbc.util.telemetry.TelemetryGauge;
+
+class HikariPoolRegistryTest {
+  private static final long EXPIRATION_NANO = TimeUnit.MINUTES.toNanos(10);
+
+  @Mock HikariDataSource idlePool;
+  @Mock HikariDataSource busyPool;
+  @Mock HikariDataSource newPool;
+  @Mock HikariPoolMXBean idlePoolBean;
+  @Mock HikariPoolMXBean busyPoolBean;
+  @Mock HikariPoolMXBean newPoolBean;
+  @Mock TelemetryFactory mockTelemetryFactory;
+
+  private final PoolKey idlePoolKey = new PoolKey("idle.XYZ.us-east-1.rds.amazonaws.com:5432", "user");
+  private final PoolKey busyPoolKey = new PoolKey("busy.XYZ.us-east-1.rds.amazonaws.com:5432", "user");
+  private final PoolKey newPoolKey = new PoolKey("new.XYZ.us-east-1.rds.amazonaws.com:5432", "user");
+  private final List<HikariDataSource> disposedPools = new ArrayList<>();
+  private final Map<String, TelemetryGauge> gauges = new HashMap<>();
+  private HikariPoolRegistry registry;
+  private AutoCloseable closeable;
+
+  @BeforeEach
+  void init() {
+    closeable = MockitoAnnotations.openMocks(this);
+    when(idlePool.getHikariPoolMXBean()).thenReturn(idlePoolBean);
+    when(idlePool.getMaximumPoolSize()).thenReturn(10);
+    when(idlePoolBean.getActiveConnections()).thenReturn(0);
+    when(busyPool.getHikariPoolMXBean()).thenReturn(busyPoolBean);
+    when(busyPool.getMaximumPoolSize()).thenReturn(10);
+    when(busyPoolBean.getActiveConnections()).thenReturn(1);
+    when(newPool.getHikariPoolMXBean()).thenReturn(newPoolBean);
+    when(newPool.getMaximumPoolSize()).thenReturn(10);
+    when(mockTelemetryFactory.createGauge(anyString(), any(GaugeCallable.class))).thenAnswer((invocation) -> {
+      final TelemetryGauge gauge = mock(TelemetryGauge.class);
+      gauges.put(invocation.getArgument(0), gauge);
+      return gauge;
+    });
+    registry = new HikariPoolRegistry(disposedPools::add);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    closeable.close();
+  }
+
+  @Test
+  void testComputeIfAbsentReturnsExistingPool() throws SQLException {
+    assertSame(busyPool, registry.computeIfAbsent(busyPoolKey, (key) -> busyPool, EXPIRATION_NANO));
+    assertSame(busyPool, registry.computeIfAbsent(busyPoolKey, (key) -> newPool, EXPIRATION_NANO));
+    assertEquals(1, registry.size());
+    assertEquals(10, registry.getReservedConnections());
+  }
+
+  @Test
+  void testMaxPoolsEvictsIdlePool() throws SQLException {
+    registry.setLimits(2, Integer.MAX_VALUE);
+    registry.computeIfAbsent(idlePoolKey, (key) -> idlePool, EXPIRATION_NANO);
+    registry.computeIfAbsent(busyPoolKey, (key) -> busyPool, EXPIRATION_NANO);
+
+    assertSame(newPool, registry.computeIfAbsent(newPoolKey, (key) -> newPool, EXPIRATION_NANO));
+
+    assertFalse(registry.containsKey(idlePoolKey));
+    assertTrue(registry.containsKey(busyPoolKey));
+    assertTrue(registry.containsKey(newPoolKey));
+    assertEquals(1, disposedPools.size());
+    assertSame(idlePool, disposedPools.get(0));
+  }
+
+  @Test
+  void testMaxPoolsRejectsPoolWhenAllPoolsAreBusy() throws SQLException {
+    registry.setLimits(1, Integer.MAX_VALUE);
+    registry.computeIfAbsent(busyPoolKey, (key) -> busyPool, EXPIRATION_NANO);
+
+    assertThrows(SQLException.class,
+        () -> registry.computeIfAbsent(newPoolKey, (key) -> newPool, EXPIRATION_NANO));
+
+    assertEquals(1, registry.size());
+    assertFalse(registry.containsKey(newPoolKey));
+    verify(newPool, never()).getMaximumPoolSize();
+  }
+
+  @Test
+  void testMaxConnectionsRejectsAndDisposesNewPool() throws SQLException {
+    registry.setLimits(Integer.MAX_VALUE, 15);
+    registry.computeIfAbsent(busyPoolKey, (key) -> busyPool, EXPIRATION_NANO);
+
+    assertThrows(SQLException.class,
+        () -> registry.computeIfAbsent(newPoolKey, (key) -> newPool, EXPIRATION_NANO));
+
+    assertEquals(1, registry.size());
+    assertEquals(10, registry.getReservedConnections());
+    assertEquals(1, disposedPools.size());
+    assertSame(newPool, disposedPools.get(0));
+  }
+
+  @Test
+  void testRemoveExpiredPoolsKeepsBusyPools() throws SQLException {
+    registry.computeIfAbsent(idlePoolKey, (key) -> idlePool, 0);
+    registry.computeIfAbsent(busyPoolKey, (key) -> busyPool, 0);
+    registry.computeIfAbsent(newPoolKey, (key) -> newPool, EXPIRATION_NANO);
+
+    registry.removeExpiredPools();
+
+    assertFalse(registry.containsKey(idlePoolKey));
+    assertTrue(registry.containsKey(busyPoolKey));
+    assertTrue(registry.containsKey(newPoolKey));
+    assertEquals(2, registry.size());
+    assertEquals(20, registry.getReservedConnections());
+  }
+
+  @Test
+  void testRemovedPoolGaugesAreClosed() throws SQLException {
+    final PoolKey otherIdlePoolKey = new PoolKey(idlePoolKey.getUrl(), "otherUser");
+    registry.setTelemetryFactory(mockTelemetryFactory);
+    registry.computeIfAbsent(idlePoolKey, (key) -> idlePool, 0);
+    registry.computeIfAbsent(otherIdlePoolKey, (key) -> idlePool, EXPIRATION_NANO);
+    final String poolName = idlePoolKey.getUrl() + "." + idlePoolKey.getExtraKey();
+    final String otherPoolName = otherIdlePoolKey.getUrl() + "." + otherIdlePoolKey.getExtraKey();
+
+    registry.removeExpiredPools();
+
+    verify(gauges.get("hikari.pool.connections.active." + poolName)).close();
+    verify(gauges.get("hikari.pool.connections.idle." + poolName)).close();
+    verify(gauges.get("hikari.pool.connections.active." + otherPoolName), never()).close();
+    // The host still has a pool.
+    verify(gauges.get("hikari.host.connections.active." + idlePoolKey.getUrl()), never()).close();
+
+    registry.remove(otherIdlePoolKey);
+
+    verify(gauges.get("hikari.pool.connections.active." + otherPoolName)).close();
+    verify(gauges.get("hikari.pool.connections.idle." + otherPoolName)).close();
+    verify(gauges.get("hikari.host.connections.active." + idlePoolKey.getUrl())).close();
+    verify(gauges.get("hikari.pools.count"), never()).close();
+  }
+
+  @Test
+  void testEvictedPoolGaugesAreClosed() throws SQLException {
+    registry.setLimits(1, Integer.MAX_VALUE);
+    registry.setTelemetryFactory(mockTelemetryFactory);
+    registry.computeIfAbsent(idlePoolKey, (key) -> idlePool, EXPIRATION_NANO);
+
+    registry.computeIfAbsent(newPoolKey, (key) -> newPool, EXPIRATION_NANO);
+
+    final String poolName = idlePoolKey.getUrl() + "." + idlePoolKey.getExtraKey();
+    verify(gauges.get("hikari.pool.connections.active." + poolName)).close();
+    verify(gauges.get("hikari.pool.connections.idle." + poolName)).close();
+    verify(gauges.get("hikari.host.connections.active." + idlePoolKey.getUrl())).close();
+    verify(gauges.get("hikari.host.connections.active." + newPoolKey.getUrl()), never()).close();
+  }
+
+  @Test
+  void testLaterTelemetryFactoryIgnoredWhileFirstIsReachable() throws SQLException {
+    final TelemetryFactory otherTelemetryFactory = mock(TelemetryFactory.class);
+    registry.setTelemetryFactory(mockTelemetryFactory);
+    registry.setTelemetryFactory(otherTelemetryFactory);
+
+    registry.computeIfAbsent(idlePoolKey, (key) -> idlePool, EXPIRATION_NANO);
+
+    verify(otherTelemetryFactory, never()).createGauge(anyString(), any(GaugeCallable.class));
+    assertTrue(gauges.containsKey("hikari.host.connections.active." + idlePoolKey.getUrl()));
+  }
+}
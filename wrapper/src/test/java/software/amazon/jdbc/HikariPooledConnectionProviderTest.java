@@ -23,8 +23,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,20 +36,26 @@ import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import software.amazon.jdbc.HikariPooledConnectionProvider.PoolKey;
 import software.amazon.jdbc.dialect.Dialect;
 import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.hostlistprovider.RdsHostListProvider;
 import software.amazon.jdbc.targetdriverdialect.ConnectInfo;
 import software.amazon.jdbc.targetdriverdialect.TargetDriverDialect;
 import software.amazon.jdbc.util.SlidingExpirationCache;
@@ -122,6 +130,7 @@ class HikariPooledConnectionProviderTest {
     if (provider != null) {
       provider.releaseResources();
     }
+    HikariPooledConnectionProvider.setRemovalConfirmationNanos(TimeUnit.MINUTES.toNanos(1));
     closeable.close();
   }
 
@@ -208,8 +217,191 @@ class HikariPooledConnectionProviderTest {
     assertEquals(readerUrl1Connection, selectedHost.getHost());
   }
 
-  private SlidingExpirationCache<PoolKey, HikariDataSource> getTestPoolMap() {
-    SlidingExpirationCache<PoolKey, HikariDataSource> map = new SlidingExpirationCache<>();
+  @Test
+  public void testLeastConnectionsStrategy_countsSelectionsUntilRefresh() throws SQLException {
+    final HikariPoolRegistry testPools = getTestPoolMap();
+    final LeastConnectionsHostSelector selector =
+        new LeastConnectionsHostSelector(() -> testPools, TimeUnit.MINUTES.toNanos(10));
+
+    // The pools have 1 connection to the first reader and 2 connections to the other one.
+    final HostSpec firstSelection = selector.getHost(testHosts, HostRole.READER, defaultProps);
+    assertEquals(readerUrl1Connection, firstSelection.getHost());
+
+    // Both readers now count 2 connections, so the next selections alternate between them.
+    final Set<String> nextSelections = new HashSet<>();
+    nextSelections.add(selector.getHost(testHosts, HostRole.READER, defaultProps).getHost());
+    nextSelections.add(selector.getHost(testHosts, HostRole.READER, defaultProps).getHost());
+    assertEquals(new HashSet<>(Arrays.asList(readerUrl1Connection, readerUrl2Connection)), nextSelections);
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testLeastConnectionsStrategy_poolCache() throws SQLException {
+    final SlidingExpirationCache<PoolKey, HikariDataSource> testPools = new SlidingExpirationCache<>();
+    testPools.computeIfAbsent(new PoolKey(readerHost2Connection.getUrl(), user1),
+        (key) -> dsWith2Connections, TimeUnit.MINUTES.toNanos(10));
+    testPools.computeIfAbsent(new PoolKey(readerHost1Connection.getUrl(), user1),
+        (key) -> dsWith1Connection, TimeUnit.MINUTES.toNanos(10));
+    final LeastConnectionsHostSelector selector = new LeastConnectionsHostSelector(testPools);
+
+    final HostSpec selectedHost = selector.getHost(testHosts, HostRole.READER, defaultProps);
+    assertEquals(readerUrl1Connection, selectedHost.getHost());
+  }
+
+  @Test
+  public void testWarmUpPoolsOfAddedHosts() throws SQLException {
+    provider = spy(new HikariPooledConnectionProvider((hostSpec, properties) -> mockConfig));
+    provider.setDatabasePools(new HikariPoolRegistry());
+    doReturn(mockDataSource).when(provider).createHikariDataSource(any(), any(), any(), any());
+
+    final Properties props = getDefaultProps();
+    props.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+    try (Connection conn = provider.connect(
+        protocol, mockDialect, mockTargetDriverDialect, readerHost1Connection, props)) {
+      assertEquals(mockConnection, conn);
+    }
+
+    final Map<String, EnumSet<NodeChangeOptions>> changes = new HashMap<>();
+    changes.put(readerHost2Connection.getUrl(), EnumSet.of(NodeChangeOptions.NODE_ADDED));
+    provider.notifyNodeListChanged(testHosts, changes, props);
+
+    verify(provider, timeout(5000)).createHikariDataSource(
+        eq(protocol), eq(readerHost2Connection), any(), eq(mockTargetDriverDialect));
+    verify(mockDataSource, timeout(5000).times(2)).getConnection();
+    assertTrue(provider.getKeys().contains(new PoolKey(readerHost2Connection.getUrl(), user1)));
+  }
+
+  @Test
+  public void testWarmUpPoolsWithTemplatesOfChangedClusterOnly() throws SQLException {
+    provider = spy(new HikariPooledConnectionProvider((hostSpec, properties) -> mockConfig));
+    provider.setDatabasePools(new HikariPoolRegistry());
+    doReturn(mockDataSource).when(provider).createHikariDataSource(any(), any(), any(), any());
+
+    // connect to an instance of another cluster
+    final HostSpec otherClusterHost = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+        .host("instance-1.ABC.us-east-1.rds.amazonaws.com").port(port).role(HostRole.READER).build();
+    final Properties props = getDefaultProps();
+    props.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+    try (Connection conn = provider.connect(protocol, mockDialect, mockTargetDriverDialect, otherClusterHost, props)) {
+      assertEquals(mockConnection, conn);
+    }
+
+    final Map<String, EnumSet<NodeChangeOptions>> changes = new HashMap<>();
+    changes.put(readerHost2Connection.getUrl(), EnumSet.of(NodeChangeOptions.NODE_ADDED));
+    provider.notifyNodeListChanged(testHosts, changes, props);
+
+    verify(provider, after(500).never()).createHikariDataSource(any(), eq(readerHost2Connection), any(), any());
+    assertFalse(provider.getHosts().contains(readerHost2Connection.getUrl()));
+  }
+
+  @Test
+  public void testWarmUpPoolsWithCurrentCredentials() throws SQLException {
+    provider = spy(new HikariPooledConnectionProvider((hostSpec, properties) -> mockConfig));
+    provider.setDatabasePools(new HikariPoolRegistry());
+    doReturn(mockDataSource).when(provider).createHikariDataSource(any(), any(), any(), any());
+
+    final Properties props = getDefaultProps();
+    props.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+    try (Connection conn = provider.connect(
+        protocol, mockDialect, mockTargetDriverDialect, readerHost1Connection, props)) {
+      assertEquals(mockConnection, conn);
+    }
+
+    final Map<String, EnumSet<NodeChangeOptions>> changes = new HashMap<>();
+    changes.put(readerHost2Connection.getUrl(), EnumSet.of(NodeChangeOptions.NODE_ADDED));
+
+    // the password of another user isn't known, so no pool is created for that user
+    final Properties otherUserProps = getDefaultProps();
+    otherUserProps.setProperty(PropertyDefinition.USER.name, user2);
+    otherUserProps.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+    provider.notifyNodeListChanged(testHosts, changes, otherUserProps);
+    verify(provider, after(500).never()).createHikariDataSource(any(), eq(readerHost2Connection), any(), any());
+
+    // the pool is created with the password of the connection that reports the new host
+    final Properties currentProps = getDefaultProps();
+    currentProps.setProperty(PropertyDefinition.PASSWORD.name, "new-password");
+    currentProps.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+    provider.notifyNodeListChanged(testHosts, changes, currentProps);
+
+    final ArgumentCaptor<Properties> poolProps = ArgumentCaptor.forClass(Properties.class);
+    verify(provider, timeout(5000)).createHikariDataSource(
+        eq(protocol), eq(readerHost2Connection), poolProps.capture(), eq(mockTargetDriverDialect));
+    assertEquals("new-password", poolProps.getValue().getProperty(PropertyDefinition.PASSWORD.name));
+    verify(mockDataSource, timeout(5000)).setPassword("new-password");
+  }
+
+  @Test
+  public void testDrainPoolsOfDeletedHosts() throws Exception {
+    provider = new HikariPooledConnectionProvider((hostSpec, properties) -> mockConfig);
+    provider.setDatabasePools(getTestPoolMap());
+    HikariPooledConnectionProvider.setRemovalConfirmationNanos(TimeUnit.MILLISECONDS.toNanos(200));
+
+    final Properties props = getDefaultProps();
+    props.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+    final Map<String, EnumSet<NodeChangeOptions>> changes = new HashMap<>();
+    changes.put(readerHost2Connection.getUrl(), EnumSet.of(NodeChangeOptions.NODE_DELETED));
+    provider.notifyNodeListChanged(Arrays.asList(writerHostNoConnections, readerHost1Connection), changes, props);
+
+    // the pools are only drained once the removal has been confirmed
+    assertTrue(provider.getHosts().contains(readerHost2Connection.getUrl()));
+    waitUntilHostDrained(readerHost2Connection.getUrl(), 5000);
+    assertEquals(Collections.singleton(readerHost1Connection.getUrl()), provider.getHosts());
+  }
+
+  @Test
+  public void testKeepPoolsOfDeletedHostsReportedAgain() throws Exception {
+    provider = new HikariPooledConnectionProvider((hostSpec, properties) -> mockConfig);
+    provider.setDatabasePools(getTestPoolMap());
+    HikariPooledConnectionProvider.setRemovalConfirmationNanos(TimeUnit.MILLISECONDS.toNanos(200));
+
+    final Properties props = getDefaultProps();
+    props.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+
+    // a connection failing over sees a single host
+    final Map<String, EnumSet<NodeChangeOptions>> changes = new HashMap<>();
+    changes.put(writerHostNoConnections.getUrl(), EnumSet.of(NodeChangeOptions.NODE_DELETED));
+    changes.put(readerHost2Connection.getUrl(), EnumSet.of(NodeChangeOptions.NODE_DELETED));
+    provider.notifyNodeListChanged(Collections.singletonList(readerHost1Connection), changes, props);
+
+    // another connection still sees the full topology
+    final Map<String, EnumSet<NodeChangeOptions>> otherChanges = new HashMap<>();
+    otherChanges.put(readerHost1Connection.getUrl(), EnumSet.of(NodeChangeOptions.PROMOTED_TO_WRITER));
+    provider.notifyNodeListChanged(testHosts, otherChanges, props);
+
+    TimeUnit.MILLISECONDS.sleep(1000);
+    assertTrue(provider.getHosts().contains(readerHost2Connection.getUrl()));
+  }
+
+  @Test
+  public void testKeepPoolsOfDeletedHostsInCachedTopology() throws Exception {
+    provider = new HikariPooledConnectionProvider((hostSpec, properties) -> mockConfig);
+    provider.setDatabasePools(getTestPoolMap());
+    HikariPooledConnectionProvider.setRemovalConfirmationNanos(TimeUnit.MILLISECONDS.toNanos(200));
+    RdsHostListProvider.topologyCache.put("test-cluster", testHosts, TimeUnit.MINUTES.toNanos(10));
+
+    try {
+      final Properties props = getDefaultProps();
+      props.setProperty(HikariPooledConnectionProvider.WARM_UP_POOLS.name, "true");
+      final Map<String, EnumSet<NodeChangeOptions>> changes = new HashMap<>();
+      changes.put(readerHost2Connection.getUrl(), EnumSet.of(NodeChangeOptions.NODE_DELETED));
+      provider.notifyNodeListChanged(Arrays.asList(writerHostNoConnections, readerHost1Connection), changes, props);
+
+      TimeUnit.MILLISECONDS.sleep(1000);
+      assertTrue(provider.getHosts().contains(readerHost2Connection.getUrl()));
+    } finally {
+      RdsHostListProvider.topologyCache.remove("test-cluster");
+    }
+  }
+
+  private void waitUntilHostDrained(final String url, final long timeoutMs) throws InterruptedException {
+    final long endTimeNano = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    while (provider.getHosts().contains(url) && System.nanoTime() < endTimeNano) {
+      TimeUnit.MILLISECONDS.sleep(50);
+    }
+  }
+
+  private HikariPoolRegistry getTestPoolMap() throws SQLException {
+    HikariPoolRegistry map = new HikariPoolRegistry();
     map.computeIfAbsent(new PoolKey(readerHost2Connection.getUrl(), user1),
         (key) -> dsWith1Connection, TimeUnit.MINUTES.toNanos(10));
     map.computeIfAbsent(new PoolKey(readerHost2Connection.getUrl(), user2),
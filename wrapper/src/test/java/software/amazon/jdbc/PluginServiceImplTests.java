@@ -25,6 +25,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -44,6 +46,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,6 +73,8 @@ import software.amazon.jdbc.profile.ConfigurationProfile;
 import software.amazon.jdbc.profile.ConfigurationProfileBuilder;
 import software.amazon.jdbc.states.SessionStateService;
 import software.amazon.jdbc.targetdriverdialect.TargetDriverDialect;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+import software.amazon.jdbc.wrapper.ConnectionWrapper;
 
 public class PluginServiceImplTests {
 
@@ -84,6 +93,9 @@ public class PluginServiceImplTests {
   @Mock ResultSet resultSet;
   ConfigurationProfile configurationProfile = ConfigurationProfileBuilder.get().withName("test").build();
   @Mock SessionStateService sessionStateService;
+  @Mock ConnectionProvider connectionProvider;
+  @Mock ConnectionWrapper connectionWrapper;
+  @Mock TelemetryFactory telemetryFactory;
 
   @Captor ArgumentCaptor<EnumSet<NodeChangeOptions>> argumentChanges;
   @Captor ArgumentCaptor<Map<String, EnumSet<NodeChangeOptions>>> argumentChangesMap;
@@ -916,7 +928,8 @@ public class PluginServiceImplTests {
     when(resultSet.next()).thenReturn(true, false); // Result set contains 1 row.
     when(resultSet.getString(eq(1))).thenReturn("ip");
     if (dialect instanceof AuroraPgDialect) {
-      when(hostListProvider.identifyConnection(eq(newConnection)))
+      when(resultSet.getString(eq(2))).thenReturn("instance-id");
+      when(hostListProvider.identifyConnection(eq(newConnection), eq("instance-id")))
           .thenReturn(new HostSpecBuilder(new SimpleHostAvailabilityStrategy()).host("instance").build());
     }
 
@@ -926,6 +939,126 @@ public class PluginServiceImplTests {
     assertArrayEquals(expectedInstanceAliases, aliases);
   }
 
+  @Test
+  void testFillAliasesWithBootstrapQuery() throws SQLException {
+    final HostSpec empty = new HostSpecBuilder(new SimpleHostAvailabilityStrategy()).host("foo").build();
+    PluginServiceImpl target = spy(
+        new PluginServiceImpl(
+            pluginManager,
+            new ExceptionManager(),
+            PROPERTIES,
+            URL,
+            DRIVER_PROTOCOL,
+            dialectManager,
+            mockTargetDriverDialect,
+            configurationProfile,
+            sessionStateService));
+    target.hostListProvider = hostListProvider;
+    final Dialect dialect = new AuroraPgDialect();
+    when(target.getDialect()).thenReturn(dialect);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getString(eq(1))).thenReturn("ip");
+    when(resultSet.getString(eq(2))).thenReturn("instance-id");
+    when(resultSet.getBoolean(eq(3))).thenReturn(true);
+    when(hostListProvider.identifyConnection(eq(newConnection), eq("instance-id")))
+        .thenReturn(new HostSpecBuilder(new SimpleHostAvailabilityStrategy()).host("instance").build());
+
+    target.fillAliases(newConnection, empty);
+
+    assertArrayEquals(new String[] {"instance", "foo", "ip"}, empty.getAliases().toArray(new String[] {}));
+    verify(statement, times(1)).executeQuery(eq(dialect.getBootstrapQuery()));
+    verify(hostListProvider, never()).identifyConnection(eq(newConnection));
+
+    // The host role fetched by the bootstrap query is reused for the same connection.
+    assertEquals(HostRole.READER, target.getHostRole(newConnection));
+    verify(hostListProvider, never()).getHostRole(any());
+    target.getHostRole(oldConnection);
+    verify(hostListProvider, times(1)).getHostRole(eq(oldConnection));
+  }
+
+  @Test
+  void testFillAliasesFallsBackWhenBootstrapQueryFails() throws SQLException {
+    final HostSpec empty = new HostSpecBuilder(new SimpleHostAvailabilityStrategy()).host("foo").build();
+    PluginServiceImpl target = spy(
+        new PluginServiceImpl(
+            pluginManager,
+            new ExceptionManager(),
+            PROPERTIES,
+            URL,
+            DRIVER_PROTOCOL,
+            dialectManager,
+            mockTargetDriverDialect,
+            configurationProfile,
+            sessionStateService));
+    target.hostListProvider = hostListProvider;
+    final Dialect dialect = new AuroraPgDialect();
+    when(target.getDialect()).thenReturn(dialect);
+    when(statement.executeQuery(eq(dialect.getBootstrapQuery()))).thenThrow(new SQLException("unsupported"));
+    when(statement.executeQuery(eq(dialect.getHostAliasQuery()))).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getString(eq(1))).thenReturn("ip");
+    when(hostListProvider.identifyConnection(eq(newConnection)))
+        .thenReturn(new HostSpecBuilder(new SimpleHostAvailabilityStrategy()).host("instance").build());
+
+    target.fillAliases(newConnection, empty);
+
+    assertArrayEquals(new String[] {"instance", "foo", "ip"}, empty.getAliases().toArray(new String[] {}));
+    assertFalse(target.isBootstrapQuerySupported);
+    target.getHostRole(newConnection);
+    verify(hostListProvider, times(1)).getHostRole(eq(newConnection));
+  }
+
+  @Test
+  void testConcurrentConnectionSwitchesFromCallsInProgress() throws Exception {
+    final ConnectionPluginManager concurrentPluginManager = spy(new ConnectionPluginManager(
+        connectionProvider, null, connectionWrapper, telemetryFactory));
+    concurrentPluginManager.isConcurrentCallsEnabled = true;
+    doReturn(EnumSet.of(OldConnectionSuggestedAction.NO_OPINION))
+        .when(concurrentPluginManager).notifyConnectionChanged(any(), any());
+
+    final PluginServiceImpl target = new PluginServiceImpl(
+        concurrentPluginManager,
+        new ExceptionManager(),
+        PROPERTIES,
+        URL,
+        DRIVER_PROTOCOL,
+        dialectManager,
+        mockTargetDriverDialect,
+        configurationProfile,
+        sessionStateService);
+    target.currentConnection = oldConnection;
+    target.currentHostSpec = new HostSpecBuilder(new SimpleHostAvailabilityStrategy()).host("old-host")
+        .build();
+
+    // Both threads are inside a JDBC call when they switch the connection, as in failover.
+    final CyclicBarrier callsStarted = new CyclicBarrier(2);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    final List<CompletableFuture<Void>> switches = new ArrayList<>();
+    for (final String host : Arrays.asList("new-host-1", "new-host-2")) {
+      switches.add(CompletableFuture.runAsync(() -> {
+        concurrentPluginManager.lock();
+        try {
+          callsStarted.await(5, TimeUnit.SECONDS);
+          target.setCurrentConnection(mock(Connection.class),
+              new HostSpecBuilder(new SimpleHostAvailabilityStrategy()).host(host).build());
+        } catch (final Exception e) {
+          throw new RuntimeException(e);
+        } finally {
+          concurrentPluginManager.unlock();
+        }
+      }, executor));
+    }
+
+    try {
+      for (final CompletableFuture<Void> connectionSwitch : switches) {
+        connectionSwitch.get(5, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertNotEquals(oldConnection, target.currentConnection);
+  }
+
   private static Stream<Arguments> fillAliasesDialects() {
     return Stream.of(
         Arguments.of(new AuroraPgDialect(), new String[]{"instance", "foo", "ip"}),
@@ -19,8 +19,10 @@ package software.amazon.jdbc.hostlistprovider;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,7 +30,10 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atMostOnce;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +50,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,6 +63,7 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import software.amazon.jdbc.ConnectionProvider;
 import software.amazon.jdbc.HostListProviderService;
 import software.amazon.jdbc.HostRole;
 import software.amazon.jdbc.HostSpec;
@@ -63,6 +73,9 @@ import software.amazon.jdbc.dialect.Dialect;
 import software.amazon.jdbc.hostavailability.HostAvailability;
 import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
 import software.amazon.jdbc.hostlistprovider.RdsHostListProvider.FetchTopologyResult;
+import software.amazon.jdbc.targetdriverdialect.TargetDriverDialect;
+import software.amazon.jdbc.util.telemetry.TelemetryCounter;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
 
 class RdsHostListProviderTest {
 
@@ -75,6 +88,12 @@ class RdsHostListProviderTest {
   @Mock private PluginService mockPluginService;
   @Mock private HostListProviderService mockHostListProviderService;
   @Mock Dialect mockTopologyAwareDialect;
+  @Mock private TelemetryFactory mockTelemetryFactory;
+  @Mock private TelemetryCounter mockTelemetryCounter;
+  @Mock private ConnectionProvider mockConnectionProvider;
+  @Mock private TargetDriverDialect mockTargetDriverDialect;
+  @Mock private RdsHostListProvider mockMonitoringHostListProvider;
+  private HostListProviderService mockMonitoredHostListProviderService;
   @Captor private ArgumentCaptor<String> queryCaptor;
 
   private AutoCloseable closeable;
@@ -93,8 +112,24 @@ class RdsHostListProviderTest {
     when(mockConnection.createStatement()).thenReturn(mockStatement);
     when(mockStatement.executeQuery(queryCaptor.capture())).thenReturn(mockResultSet);
     when(mockHostListProviderService.getDialect()).thenReturn(mockTopologyAwareDialect);
+    when(mockHostListProviderService.getTelemetryFactory()).thenReturn(mockTelemetryFactory);
+    when(mockTelemetryFactory.createCounter(any())).thenReturn(mockTelemetryCounter);
     when(mockHostListProviderService.getHostSpecBuilder())
         .thenReturn(new HostSpecBuilder(new SimpleHostAvailabilityStrategy()));
+
+    // The topology monitor needs a service that is also a plugin service.
+    mockMonitoredHostListProviderService = Mockito.mock(
+        HostListProviderService.class, Mockito.withSettings().extraInterfaces(PluginService.class));
+    final PluginService monitoredPluginService = (PluginService) mockMonitoredHostListProviderService;
+    when(mockMonitoredHostListProviderService.getDialect()).thenReturn(mockTopologyAwareDialect);
+    when(mockMonitoredHostListProviderService.getTelemetryFactory()).thenReturn(mockTelemetryFactory);
+    when(mockMonitoredHostListProviderService.getHostSpecBuilder())
+        .thenAnswer((invocation) -> new HostSpecBuilder(new SimpleHostAvailabilityStrategy()));
+    when(monitoredPluginService.getTargetDriverDialect()).thenReturn(mockTargetDriverDialect);
+    when(monitoredPluginService.getConnectionProvider()).thenReturn(mockConnectionProvider);
+    when(monitoredPluginService.getDriverProtocol()).thenReturn("jdbc:someprotocol://");
+    when(mockTopologyAwareDialect.getHostListProvider())
+        .thenReturn((properties, initialUrl, hostListProviderService) -> mockMonitoringHostListProvider);
   }
 
   @AfterEach
@@ -103,6 +138,19 @@ class RdsHostListProviderTest {
     closeable.close();
   }
 
+  private RdsHostListProvider getMonitoredRdsHostListProvider(
+      final long refreshRateMs, final long highRefreshRateMs) throws SQLException {
+    final Properties props = new Properties();
+    props.setProperty(RdsHostListProvider.CLUSTER_TOPOLOGY_MONITOR_ENABLED.name, "true");
+    props.setProperty(RdsHostListProvider.CLUSTER_TOPOLOGY_REFRESH_RATE_MS.name, String.valueOf(refreshRateMs));
+    props.setProperty(
+        RdsHostListProvider.CLUSTER_TOPOLOGY_HIGH_REFRESH_RATE_MS.name, String.valueOf(highRefreshRateMs));
+    final RdsHostListProvider provider = Mockito.spy(new RdsHostListProvider(
+        props, "jdbc:someprotocol://url", mockMonitoredHostListProviderService, "foo", "bar", "baz"));
+    provider.init();
+    return provider;
+  }
+
   private RdsHostListProvider getRdsHostListProvider(
       HostListProviderService mockHostListProviderService,
       String originalUrl) throws SQLException {
@@ -183,6 +231,136 @@ class RdsHostListProviderTest {
         result.hosts);
   }
 
+  @Test
+  void testGetTopology_withMonitorEnabled_refreshesTopologyInBackground() throws SQLException {
+    rdsHostListProvider = getMonitoredRdsHostListProvider(50, 100);
+    final Connection mockMonitoringConnection = Mockito.mock(Connection.class);
+    when(mockConnectionProvider.connect(any(), any(), any(), any(HostSpec.class), any(Properties.class)))
+        .thenReturn(mockMonitoringConnection);
+    doReturn(hosts).when(mockMonitoringHostListProvider).queryForTopology(mockMonitoringConnection);
+    doReturn(hosts).when(rdsHostListProvider).queryForTopology(mockConnection);
+
+    final FetchTopologyResult result = rdsHostListProvider.getTopology(mockConnection, false);
+    assertEquals(hosts, result.hosts);
+
+    // The monitor keeps refreshing the topology with its own provider and connection.
+    verify(mockMonitoringHostListProvider, timeout(5000).atLeast(2)).queryForTopology(mockMonitoringConnection);
+    assertEquals(hosts, RdsHostListProvider.topologyCache.get(rdsHostListProvider.clusterId));
+    verify((PluginService) mockMonitoredHostListProviderService, never())
+        .forceConnect(any(HostSpec.class), any(Properties.class));
+
+    // Later calls read the cached topology.
+    assertTrue(rdsHostListProvider.getTopology(mockConnection, false).isCachedData);
+    verify(rdsHostListProvider, atMostOnce()).queryForTopology(mockConnection);
+  }
+
+  @Test
+  void testGetTopology_withMonitorEnabled_monitorSurvivesRuntimeException() throws SQLException {
+    rdsHostListProvider = getMonitoredRdsHostListProvider(50, 10);
+    final Connection mockMonitoringConnection = Mockito.mock(Connection.class);
+    when(mockConnectionProvider.connect(any(), any(), any(), any(HostSpec.class), any(Properties.class)))
+        .thenReturn(mockMonitoringConnection);
+    doThrow(new IllegalStateException("unexpected"))
+        .doReturn(hosts)
+        .when(mockMonitoringHostListProvider).queryForTopology(mockMonitoringConnection);
+
+    final ClusterTopologyMonitor monitor = rdsHostListProvider.getMonitor();
+
+    verify(mockMonitoringHostListProvider, timeout(5000).atLeast(2)).queryForTopology(mockMonitoringConnection);
+    assertFalse(monitor.isStopped());
+    assertSame(monitor, rdsHostListProvider.getMonitor());
+  }
+
+  @Test
+  void testGetTopology_withMonitorEnabled_sharesMonitorOfCluster() throws SQLException {
+    when(mockConnectionProvider.connect(any(), any(), any(), any(HostSpec.class), any(Properties.class)))
+        .thenReturn(Mockito.mock(Connection.class));
+    doReturn(hosts).when(mockMonitoringHostListProvider).queryForTopology(any(Connection.class));
+    final RdsHostListProvider firstProvider = getMonitoredRdsHostListProvider(30000, 100);
+    final RdsHostListProvider secondProvider = getMonitoredRdsHostListProvider(30000, 100);
+    doReturn(hosts).when(firstProvider).queryForTopology(mockConnection);
+    doReturn(hosts).when(secondProvider).queryForTopology(mockConnection);
+    // Both connections generate their own clusterId, since no topology is cached yet.
+    assertNotEquals(firstProvider.clusterId, secondProvider.clusterId);
+
+    firstProvider.getTopology(mockConnection, false);
+    secondProvider.getTopology(mockConnection, false);
+
+    // The second connection adopts the clusterId of the monitored cluster with the same hosts.
+    assertEquals(firstProvider.clusterId, secondProvider.clusterId);
+    assertSame(firstProvider.getMonitor(), secondProvider.getMonitor());
+    assertEquals(1, RdsHostListProvider.monitors.size());
+  }
+
+  @Test
+  void testGetMonitor_replacesStoppedMonitor() throws Exception {
+    rdsHostListProvider = getMonitoredRdsHostListProvider(30000, 100);
+    when(mockConnectionProvider.connect(any(), any(), any(), any(HostSpec.class), any(Properties.class)))
+        .thenReturn(Mockito.mock(Connection.class));
+    doReturn(hosts).when(mockMonitoringHostListProvider).queryForTopology(any(Connection.class));
+
+    final ClusterTopologyMonitor monitor = rdsHostListProvider.getMonitor();
+    monitor.close();
+    assertTrue(monitor.isStopped());
+
+    final ClusterTopologyMonitor newMonitor = rdsHostListProvider.getMonitor();
+    assertNotSame(monitor, newMonitor);
+    assertFalse(newMonitor.isStopped());
+  }
+
+  @Test
+  void testClusterTopologyMonitor_retryDelayBacksOff() throws Exception {
+    rdsHostListProvider = getMonitoredRdsHostListProvider(30000, 100);
+    when(mockConnectionProvider.connect(any(), any(), any(), any(HostSpec.class), any(Properties.class)))
+        .thenThrow(new SQLException("unreachable"));
+
+    final ClusterTopologyMonitor monitor = rdsHostListProvider.getMonitor();
+
+    // Defaults are a high refresh rate of 100 ms and a refresh rate of 30 s.
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), monitor.getRetryDelayNano(1));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(200), monitor.getRetryDelayNano(2));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(800), monitor.getRetryDelayNano(4));
+    assertEquals(TimeUnit.SECONDS.toNanos(30), monitor.getRetryDelayNano(20));
+    assertEquals(TimeUnit.SECONDS.toNanos(30), monitor.getRetryDelayNano(Integer.MAX_VALUE));
+  }
+  @Test
+  void testGetTopology_concurrentRefreshesAreCoalesced() throws Exception {
+    final TelemetryCounter mockCoalescedCounter = Mockito.mock(TelemetryCounter.class);
+    when(mockTelemetryFactory.createCounter("topology.queries.coalesced")).thenReturn(mockCoalescedCounter);
+    rdsHostListProvider = Mockito.spy(
+        getRdsHostListProvider(mockHostListProviderService, "jdbc:someprotocol://url"));
+
+    final CountDownLatch queryStarted = new CountDownLatch(1);
+    final CountDownLatch releaseQuery = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      queryStarted.countDown();
+      releaseQuery.await();
+      return hosts;
+    }).when(rdsHostListProvider).queryForTopology(mockConnection);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<FetchTopologyResult> first =
+          executor.submit(() -> rdsHostListProvider.getTopology(mockConnection, false));
+      assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+      final Future<FetchTopologyResult> second =
+          executor.submit(() -> rdsHostListProvider.getTopology(mockConnection, false));
+
+      // Give the second refresh time to find the query in progress before it completes.
+      TimeUnit.MILLISECONDS.sleep(200);
+      releaseQuery.countDown();
+
+      assertEquals(hosts, first.get(5, TimeUnit.SECONDS).hosts);
+      assertEquals(hosts, second.get(5, TimeUnit.SECONDS).hosts);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(rdsHostListProvider, times(1)).queryForTopology(mockConnection);
+    verify(mockCoalescedCounter, times(1)).inc();
+    assertTrue(RdsHostListProvider.inFlightTopologyQueries.isEmpty());
+  }
+
   @Test
   void testQueryForTopology_withDifferentDriverProtocol() throws SQLException {
     final List<HostSpec> expectedMySQL = Collections.singletonList(
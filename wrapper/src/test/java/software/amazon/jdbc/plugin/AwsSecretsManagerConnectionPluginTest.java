@@ -19,9 +19,11 @@ package software.amazon.jdbc.plugin;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -30,11 +32,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.jdbc.plugin.AwsSecretsManagerConnectionPlugin.REGION_PROPERTY;
 import static software.amazon.jdbc.plugin.AwsSecretsManagerConnectionPlugin.SECRET_ID_PROPERTY;
+import static software.amazon.jdbc.plugin.AwsSecretsManagerConnectionPlugin.SECRET_REFRESH_INTERVAL_PROPERTY;
 
 import com.mysql.cj.exceptions.CJException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -71,6 +80,7 @@ import software.amazon.jdbc.profile.ConfigurationProfileBuilder;
 import software.amazon.jdbc.states.SessionStateService;
 import software.amazon.jdbc.targetdriverdialect.TargetDriverDialect;
 import software.amazon.jdbc.util.Messages;
+import software.amazon.jdbc.util.PropertyUtils;
 import software.amazon.jdbc.util.telemetry.GaugeCallable;
 import software.amazon.jdbc.util.telemetry.TelemetryContext;
 import software.amazon.jdbc.util.telemetry.TelemetryCounter;
@@ -155,7 +165,7 @@ public class AwsSecretsManagerConnectionPluginTest {
   @AfterEach
   void cleanUp() throws Exception {
     closeable.close();
-    AwsSecretsManagerConnectionPlugin.secretsCache.clear();
+    AwsSecretsManagerConnectionPlugin.clearCache();
     TEST_PROPS.clear();
   }
 
@@ -194,6 +204,158 @@ public class AwsSecretsManagerConnectionPluginTest {
     assertEquals(TEST_PASSWORD, TEST_PROPS.get(PropertyDefinition.PASSWORD.name));
   }
 
+  /**
+   * Concurrent connections with an empty secret cache fetch the secret from the AWS Secrets Manager only once.
+   */
+  @Test
+  public void testConcurrentConnectsFetchSecretOnce() throws Exception {
+    final CountDownLatch fetchStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFetch = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      fetchStarted.countDown();
+      releaseFetch.await();
+      return VALID_GET_SECRET_VALUE_RESPONSE;
+    }).when(this.mockSecretsManagerClient).getSecretValue(this.mockGetValueRequest);
+
+    final AwsSecretsManagerConnectionPlugin secondPlugin = new AwsSecretsManagerConnectionPlugin(
+        mockService,
+        TEST_PROPS,
+        (host, r) -> mockSecretsManagerClient,
+        (id) -> mockGetValueRequest);
+    final Properties firstProps = PropertyUtils.copyProperties(TEST_PROPS);
+    final Properties secondProps = PropertyUtils.copyProperties(TEST_PROPS);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Connection> first = executor.submit(
+          () -> this.plugin.connect(TEST_PG_PROTOCOL, TEST_HOSTSPEC, firstProps, true, this.connectFunc));
+      assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+
+      final Future<Connection> second = executor.submit(
+          () -> secondPlugin.connect(TEST_PG_PROTOCOL, TEST_HOSTSPEC, secondProps, true, this.connectFunc));
+      final CompletableFuture<AwsSecretsManagerConnectionPlugin.Secret> pendingSecret =
+          AwsSecretsManagerConnectionPlugin.pendingSecrets.get(SECRET_CACHE_KEY);
+      final long waitEndNano = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (pendingSecret.getNumberOfDependents() == 0 && System.nanoTime() < waitEndNano) {
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+      releaseFetch.countDown();
+
+      first.get(5, TimeUnit.SECONDS);
+      second.get(5, TimeUnit.SECONDS);
+    } finally {
+      releaseFetch.countDown();
+      executor.shutdownNow();
+    }
+
+    verify(this.mockSecretsManagerClient, times(1)).getSecretValue(this.mockGetValueRequest);
+    assertEquals(TEST_PASSWORD, firstProps.get(PropertyDefinition.PASSWORD.name));
+    assertEquals(TEST_PASSWORD, secondProps.get(PropertyDefinition.PASSWORD.name));
+    assertTrue(AwsSecretsManagerConnectionPlugin.pendingSecrets.isEmpty());
+  }
+
+  /**
+   * The initial connection attempt with a cached secret fails while another connection updates the cached secret.
+   * The plugin retries with the updated secret without fetching it again.
+   */
+  @Test
+  public void testConnectWithSecretUpdatedByAnotherConnection() throws SQLException {
+    final AwsSecretsManagerConnectionPlugin.Secret rotatedSecret =
+        new AwsSecretsManagerConnectionPlugin.Secret("rotatedUser", "rotatedPassword");
+    AwsSecretsManagerConnectionPlugin.secretsCache.put(SECRET_CACHE_KEY, TEST_SECRET);
+    when(mockService.isLoginException(any(Throwable.class))).thenReturn(true);
+    when(this.connectFunc.call())
+        .thenAnswer(invocation -> {
+          AwsSecretsManagerConnectionPlugin.secretsCache.put(SECRET_CACHE_KEY, rotatedSecret);
+          throw new SQLException(TEST_SQL_ERROR, "28000");
+        })
+        .thenReturn(null);
+
+    this.plugin.connect(TEST_PG_PROTOCOL, TEST_HOSTSPEC, TEST_PROPS, true, this.connectFunc);
+
+    verify(this.mockSecretsManagerClient, never()).getSecretValue(this.mockGetValueRequest);
+    verify(this.connectFunc, times(2)).call();
+    assertEquals("rotatedUser", TEST_PROPS.get(PropertyDefinition.USER.name));
+    assertEquals("rotatedPassword", TEST_PROPS.get(PropertyDefinition.PASSWORD.name));
+  }
+
+  /**
+   * A valid secret cached by another connection just before fetching is used without fetching it again.
+   */
+  @Test
+  public void testFetchSecretUsesSecretCachedWhileWaiting() throws Exception {
+    AwsSecretsManagerConnectionPlugin.secretsCache.put(SECRET_CACHE_KEY, TEST_SECRET);
+
+    final AwsSecretsManagerConnectionPlugin.Secret secret = this.plugin.fetchSecret(TEST_HOSTSPEC, false, null);
+
+    assertEquals(TEST_SECRET, secret);
+    verify(this.mockSecretsManagerClient, never()).getSecretValue(this.mockGetValueRequest);
+  }
+
+  /**
+   * A cached secret with the credentials that failed to log in is fetched again.
+   */
+  @Test
+  public void testFetchSecretReplacesRejectedSecret() throws Exception {
+    AwsSecretsManagerConnectionPlugin.secretsCache.put(SECRET_CACHE_KEY, TEST_SECRET);
+    when(this.mockSecretsManagerClient.getSecretValue(this.mockGetValueRequest))
+        .thenReturn(VALID_GET_SECRET_VALUE_RESPONSE);
+
+    final AwsSecretsManagerConnectionPlugin.Secret secret =
+        this.plugin.fetchSecret(TEST_HOSTSPEC, true, TEST_SECRET);
+
+    assertNotEquals(TEST_SECRET, secret);
+    verify(this.mockSecretsManagerClient, times(1)).getSecretValue(this.mockGetValueRequest);
+    assertEquals(secret, AwsSecretsManagerConnectionPlugin.secretsCache.get(SECRET_CACHE_KEY));
+  }
+
+  /**
+   * A background refresh that throws an error is still scheduled again.
+   */
+  @Test
+  public void testSecretRefreshRescheduledAfterError() throws InterruptedException {
+    final CountDownLatch refreshAttempts = new CountDownLatch(2);
+    final AwsSecretsManagerConnectionPlugin.SecretRefreshTask refreshTask =
+        new AwsSecretsManagerConnectionPlugin.SecretRefreshTask(
+            SECRET_CACHE_KEY,
+            TEST_HOSTSPEC,
+            (host, r) -> {
+              refreshAttempts.countDown();
+              throw new AssertionError("refresh error");
+            },
+            (id) -> mockGetValueRequest,
+            0,
+            1);
+    refreshTask.lastUsedTimeNano = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+    AwsSecretsManagerConnectionPlugin.secretRefreshTasks.put(SECRET_CACHE_KEY, refreshTask);
+
+    assertThrows(AssertionError.class, refreshTask::run);
+
+    assertTrue(refreshAttempts.await(5, TimeUnit.SECONDS));
+    assertEquals(refreshTask, AwsSecretsManagerConnectionPlugin.secretRefreshTasks.get(SECRET_CACHE_KEY));
+  }
+
+  /**
+   * Fetching a secret with a refresh interval set schedules a background refresh for it.
+   */
+  @Test
+  public void testSecretRefreshScheduledWithRefreshInterval() throws SQLException {
+    SECRET_REFRESH_INTERVAL_PROPERTY.set(TEST_PROPS, "60");
+    this.plugin = new AwsSecretsManagerConnectionPlugin(
+        mockService,
+        TEST_PROPS,
+        (host, r) -> mockSecretsManagerClient,
+        (id) -> mockGetValueRequest);
+    when(this.mockSecretsManagerClient.getSecretValue(this.mockGetValueRequest))
+        .thenReturn(VALID_GET_SECRET_VALUE_RESPONSE);
+
+    this.plugin.connect(TEST_PG_PROTOCOL, TEST_HOSTSPEC, TEST_PROPS, true, this.connectFunc);
+
+    assertTrue(AwsSecretsManagerConnectionPlugin.secretRefreshTasks.containsKey(SECRET_CACHE_KEY));
+
+    AwsSecretsManagerConnectionPlugin.clearCache();
+    assertTrue(AwsSecretsManagerConnectionPlugin.secretRefreshTasks.isEmpty());
+  }
+
   @ParameterizedTest
   @MethodSource("missingArguments")
   public void testMissingRequiredParameters(final Properties properties) {
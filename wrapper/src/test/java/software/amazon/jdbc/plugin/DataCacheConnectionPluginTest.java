@@ -17,15 +17,26 @@
 package software.amazon.jdbc.plugin;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +59,8 @@ class DataCacheConnectionPluginTest {
   @Mock ResultSet mockResult1;
   @Mock ResultSet mockResult2;
   @Mock Statement mockStatement;
+  @Mock Connection mockConnection;
+  @Mock PreparedStatement mockPreparedStatement;
   @Mock ResultSetMetaData mockMetaData;
 
   @Mock JdbcCallable mockCallable;
@@ -78,6 +91,21 @@ class DataCacheConnectionPluginTest {
     closeable.close();
   }
 
+  @Test
+  void test_getSubscribedMethods_withoutTriggerCondition() {
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, new Properties());
+
+    assertTrue(plugin.getSubscribedMethods().isEmpty());
+  }
+
+  @Test
+  void test_getSubscribedMethods_withTriggerCondition() {
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, props);
+
+    assertTrue(plugin.getSubscribedMethods().contains("Statement.executeQuery"));
+    assertTrue(plugin.getSubscribedMethods().contains("PreparedStatement.setString"));
+  }
+
   @Test
   void test_execute_withEmptyCache() throws SQLException {
     final String methodName = "Statement.executeQuery";
@@ -125,6 +153,249 @@ class DataCacheConnectionPluginTest {
     verify(mockCallable).call();
   }
 
+  @Test
+  void test_execute_evictsLeastRecentlyUsed() throws Exception {
+    final String methodName = "Statement.executeQuery";
+    final Properties testProps = new Properties();
+    testProps.setProperty(DataCacheConnectionPlugin.DATA_CACHE_TRIGGER_CONDITION.name, "foo.*");
+    testProps.setProperty(DataCacheConnectionPlugin.DATA_CACHE_MAX_ENTRIES.name, "1");
+
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, testProps);
+
+    when(mockCallable.call()).thenReturn(mockResult1, mockResult2);
+
+    plugin.execute(ResultSet.class, SQLException.class, mockStatement, methodName, mockCallable,
+        new String[]{"foo1"});
+    plugin.execute(ResultSet.class, SQLException.class, mockStatement, methodName, mockCallable,
+        new String[]{"foo2"});
+
+    assertEquals(1, DataCacheConnectionPlugin.dataCache.size());
+    assertNull(DataCacheConnectionPlugin.dataCache.get("foo1"));
+    assertNotNull(DataCacheConnectionPlugin.dataCache.get("foo2"));
+    verify(mockTelemetryCounter, times(1)).add(1);
+  }
+
+  @Test
+  void test_execute_withExpiredEntry() throws Exception {
+    final String methodName = "Statement.executeQuery";
+    final Properties testProps = new Properties();
+    testProps.setProperty(DataCacheConnectionPlugin.DATA_CACHE_TRIGGER_CONDITION.name, "foo");
+    testProps.setProperty(DataCacheConnectionPlugin.DATA_CACHE_EXPIRATION_MS.name, "0");
+
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, testProps);
+
+    when(mockCallable.call()).thenReturn(mockResult1, mockResult2);
+
+    plugin.execute(ResultSet.class, SQLException.class, mockStatement, methodName, mockCallable,
+        new String[]{"foo"});
+    TimeUnit.MILLISECONDS.sleep(1);
+    final ResultSet rs = plugin.execute(ResultSet.class, SQLException.class, mockStatement, methodName,
+        mockCallable, new String[]{"foo"});
+
+    compareResults(mockResult2, rs);
+    verify(mockCallable, times(2)).call();
+  }
+
+  @Test
+  void test_execute_doesNotCacheOversizedResults() throws Exception {
+    final String methodName = "Statement.executeQuery";
+    final Properties testProps = new Properties();
+    testProps.setProperty(DataCacheConnectionPlugin.DATA_CACHE_TRIGGER_CONDITION.name, "foo");
+    testProps.setProperty(DataCacheConnectionPlugin.DATA_CACHE_MAX_SIZE_BYTES.name, "1");
+
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, testProps);
+
+    final ResultSet rs = plugin.execute(ResultSet.class, SQLException.class, mockStatement, methodName,
+        () -> mockResult1, new String[]{"foo"});
+
+    compareResults(mockResult1, rs);
+    assertEquals(0, DataCacheConnectionPlugin.dataCache.size());
+    assertEquals(0, DataCacheConnectionPlugin.dataCache.getSizeBytes());
+  }
+
+  @Test
+  void test_invalidateCache() throws Exception {
+    final String methodName = "Statement.executeQuery";
+    final Properties testProps = new Properties();
+    testProps.setProperty(DataCacheConnectionPlugin.DATA_CACHE_TRIGGER_CONDITION.name, ".*");
+
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, testProps);
+
+    when(mockCallable.call()).thenReturn(mockResult1, mockResult2);
+
+    plugin.execute(ResultSet.class, SQLException.class, mockStatement, methodName, mockCallable,
+        new String[]{"select * from foo"});
+    plugin.execute(ResultSet.class, SQLException.class, mockStatement, methodName, mockCallable,
+        new String[]{"select * from bar"});
+
+    assertEquals(1, DataCacheConnectionPlugin.invalidateCache(".*foo.*"));
+    assertNull(DataCacheConnectionPlugin.dataCache.get("select * from foo"));
+    assertNotNull(DataCacheConnectionPlugin.dataCache.get("select * from bar"));
+  }
+
+  @Test
+  void test_execute_preparedStatementWithParameters() throws Exception {
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, props);
+
+    when(mockCallable.call()).thenReturn(mockResult1, mockResult2);
+
+    plugin.execute(PreparedStatement.class, SQLException.class, mockConnection, "Connection.prepareStatement",
+        () -> mockPreparedStatement, new Object[]{"foo"});
+
+    setParameter(plugin, "PreparedStatement.setString", 1, "a");
+    executePreparedQuery(plugin);
+    executePreparedQuery(plugin);
+    verify(mockCallable, times(1)).call();
+
+    // Different parameter values must not be served from the cache.
+    setParameter(plugin, "PreparedStatement.setString", 1, "b");
+    executePreparedQuery(plugin);
+    verify(mockCallable, times(2)).call();
+    assertEquals(2, DataCacheConnectionPlugin.dataCache.size());
+  }
+
+  @Test
+  void test_execute_preparedStatementWithStreamParameter() throws Exception {
+    final DataCacheConnectionPlugin plugin = new DataCacheConnectionPlugin(mockPluginService, props);
+
+    when(mockCallable.call()).thenReturn(mockResult1, mockResult2);
+
+    plugin.execute(PreparedStatement.class, SQLException.class, mockConnection, "Connection.prepareStatement",
+        () -> mockPreparedStatement, new Object[]{"foo"});
+
+    setParameter(plugin, "PreparedStatement.setBinaryStream", 1, new ByteArrayInputStream(new byte[0]));
+    executePreparedQuery(plugin);
+    executePreparedQuery(plugin);
+
+    verify(mockCallable, times(2)).call();
+    assertEquals(0, DataCacheConnectionPlugin.dataCache.size());
+  }
+
+  private void setParameter(
+      final DataCacheConnectionPlugin plugin, final String methodName, final int index, final Object value)
+      throws SQLException {
+    plugin.execute(Void.TYPE, SQLException.class, mockPreparedStatement, methodName,
+        () -> null, new Object[]{index, value});
+  }
+
+  private ResultSet executePreparedQuery(final DataCacheConnectionPlugin plugin) throws SQLException {
+    return plugin.execute(ResultSet.class, SQLException.class, mockPreparedStatement,
+        "PreparedStatement.executeQuery", mockCallable, new Object[0]);
+  }
+
+  @Test
+  void test_triggerCondition_memoizesDecisions() {
+    final DataCacheConnectionPlugin.TriggerCondition condition =
+        new DataCacheConnectionPlugin.TriggerCondition(".*foo.*");
+
+    assertTrue(condition.matches("select * from foo"));
+    assertFalse(condition.matches("select * from bar"));
+    assertTrue(condition.matches("select * from foo"));
+
+    assertEquals(2, condition.decisions.size());
+    assertEquals(Boolean.TRUE, condition.decisions.get("select * from foo"));
+    assertEquals(Boolean.FALSE, condition.decisions.get("select * from bar"));
+  }
+
+  @Test
+  void test_cachedResultSet_typedGetters() throws SQLException {
+    when(mockMetaData.getColumnCount()).thenReturn(4);
+    when(mockMetaData.getColumnLabel(1)).thenReturn("id");
+    when(mockMetaData.getColumnLabel(2)).thenReturn("total");
+    when(mockMetaData.getColumnLabel(3)).thenReturn("ratio");
+    when(mockMetaData.getColumnLabel(4)).thenReturn("name");
+    when(mockMetaData.getColumnClassName(1)).thenReturn(Integer.class.getName());
+    when(mockMetaData.getColumnClassName(2)).thenReturn(Long.class.getName());
+    when(mockMetaData.getColumnClassName(3)).thenReturn(Double.class.getName());
+    when(mockMetaData.getColumnClassName(4)).thenReturn(String.class.getName());
+
+    // Two rows, the second one holds nulls in all columns except "total".
+    when(mockResult1.next()).thenReturn(true, true, false);
+    when(mockResult1.getInt(1)).thenReturn(1, 0);
+    when(mockResult1.getLong(2)).thenReturn(10L, 20L);
+    when(mockResult1.getDouble(3)).thenReturn(0.5, 0.0);
+    when(mockResult1.getObject(4)).thenReturn("foo", null);
+    when(mockResult1.wasNull()).thenReturn(false, false, false, true, false, true);
+
+    final DataCacheConnectionPlugin.CachedResultSet rs = new DataCacheConnectionPlugin.CachedResultSet(mockResult1);
+    final DataCacheConnectionPlugin.CachedResultSet copy = new DataCacheConnectionPlugin.CachedResultSet(rs);
+
+    assertEquals(4, rs.getMetaData().getColumnCount());
+    assertTrue(rs.next());
+    assertEquals(1, rs.getInt("ID"));
+    assertEquals(1, rs.getObject(1));
+    assertEquals("1", rs.getString(1));
+    assertEquals(10L, rs.getLong(2));
+    assertEquals(0.5, rs.getDouble("ratio"));
+    assertEquals("foo", rs.getString(4));
+    assertFalse(rs.wasNull());
+
+    assertTrue(rs.next());
+    assertEquals(0, rs.getInt(1));
+    assertTrue(rs.wasNull());
+    assertNull(rs.getObject("id"));
+    assertEquals(20L, rs.getLong("total"));
+    assertFalse(rs.wasNull());
+    assertEquals(0, rs.getDouble(3));
+    assertTrue(rs.wasNull());
+    assertNull(rs.getString("name"));
+    assertTrue(rs.wasNull());
+    assertFalse(rs.next());
+
+    assertThrows(SQLException.class, () -> rs.findColumn("missing"));
+    assertThrows(SQLException.class, () -> rs.getInt(1));
+
+    // The copy shares the cached values but not the cursor.
+    assertTrue(copy.next());
+    assertEquals(10L, copy.getLong("total"));
+  }
+
+  @Test
+  void test_cachedResultSet_binaryString() throws SQLException {
+    final byte[] bytes = new byte[] {1, 2};
+    when(mockMetaData.getColumnClassName(1)).thenReturn(byte[].class.getName());
+    when(mockResult1.getObject(1)).thenReturn(bytes);
+    when(mockResult1.getString(1)).thenReturn("\\x0102");
+
+    final DataCacheConnectionPlugin.CachedResultSet rs = new DataCacheConnectionPlugin.CachedResultSet(mockResult1);
+
+    assertTrue(rs.next());
+    assertEquals("\\x0102", rs.getString(1));
+    assertEquals(bytes, rs.getBytes(1));
+  }
+
+  @Test
+  void test_cachedResultSet_narrowingConversions() throws SQLException {
+    when(mockMetaData.getColumnCount()).thenReturn(4);
+    when(mockMetaData.getColumnClassName(1)).thenReturn(Long.class.getName());
+    when(mockMetaData.getColumnClassName(2)).thenReturn(Double.class.getName());
+    when(mockMetaData.getColumnClassName(3)).thenReturn(String.class.getName());
+    when(mockMetaData.getColumnClassName(4)).thenReturn(BigDecimal.class.getName());
+    when(mockResult1.next()).thenReturn(true, true, false);
+    when(mockResult1.getLong(1)).thenReturn(3_000_000_000L, 100L);
+    when(mockResult1.getDouble(2)).thenReturn(1e30, -1.5);
+    when(mockResult1.getObject(3)).thenReturn("300", "-7");
+    when(mockResult1.getObject(4)).thenReturn(new BigDecimal("1e20"), new BigDecimal("42.9"));
+
+    final DataCacheConnectionPlugin.CachedResultSet rs = new DataCacheConnectionPlugin.CachedResultSet(mockResult1);
+
+    // Values out of range fail rather than being truncated.
+    assertTrue(rs.next());
+    assertEquals(3_000_000_000L, rs.getLong(1));
+    assertThrows(SQLException.class, () -> rs.getInt(1));
+    assertThrows(SQLException.class, () -> rs.getLong(2));
+    assertEquals(300, rs.getShort(3));
+    assertThrows(SQLException.class, () -> rs.getByte(3));
+    assertThrows(SQLException.class, () -> rs.getLong(4));
+
+    // Values in range drop their fraction.
+    assertTrue(rs.next());
+    assertEquals(100, rs.getByte(1));
+    assertEquals(-1, rs.getInt(2));
+    assertEquals(-7, rs.getByte(3));
+    assertEquals(42, rs.getShort(4));
+  }
+
   void compareResults(final ResultSet expected, final ResultSet actual) throws SQLException {
     int i = 1;
     while (expected.next() && actual.next()) {
@@ -17,10 +17,18 @@
 package software.amazon.jdbc.plugin;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,9 +39,17 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -46,6 +62,7 @@ import software.amazon.jdbc.PluginService;
 import software.amazon.jdbc.PropertyDefinition;
 import software.amazon.jdbc.dialect.Dialect;
 import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.util.PropertyUtils;
 import software.amazon.jdbc.util.telemetry.TelemetryFactory;
 
 class IamAuthConnectionPluginTest {
@@ -214,6 +231,137 @@ class IamAuthConnectionPluginTest {
         "pg.testdb.us-east-2.rds.amazonaws.com");
   }
 
+  @Test
+  public void testConcurrentCacheMissesGenerateSingleToken() throws Exception {
+    when(mockDialect.getDefaultPort()).thenReturn(DEFAULT_PG_PORT);
+
+    final IamAuthConnectionPlugin spyPlugin = Mockito.spy(new IamAuthConnectionPlugin(mockPluginService));
+    final CountDownLatch generationStarted = new CountDownLatch(1);
+    final CountDownLatch releaseGeneration = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      generationStarted.countDown();
+      releaseGeneration.await();
+      return GENERATED_TOKEN;
+    }).when(spyPlugin).generateAuthenticationToken(any(), any(), anyString(), anyInt(), any());
+
+    final Properties firstProps = PropertyUtils.copyProperties(props);
+    final Properties secondProps = PropertyUtils.copyProperties(props);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Connection> first = executor.submit(
+          () -> spyPlugin.connect(PG_DRIVER_PROTOCOL, PG_HOST_SPEC, firstProps, true, mockLambda));
+      assertTrue(generationStarted.await(5, TimeUnit.SECONDS));
+
+      final Future<Connection> second = executor.submit(
+          () -> spyPlugin.connect(PG_DRIVER_PROTOCOL, PG_HOST_SPEC, secondProps, true, mockLambda));
+      final CompletableFuture<String> pendingToken = IamAuthConnectionPlugin.pendingTokens.get(PG_CACHE_KEY);
+      final long waitEndNano = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (pendingToken.getNumberOfDependents() == 0 && System.nanoTime() < waitEndNano) {
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+      releaseGeneration.countDown();
+
+      first.get(5, TimeUnit.SECONDS);
+      second.get(5, TimeUnit.SECONDS);
+    } finally {
+      releaseGeneration.countDown();
+      executor.shutdownNow();
+    }
+
+    verify(spyPlugin, times(1))
+        .generateAuthenticationToken(any(), any(), anyString(), anyInt(), any());
+    assertEquals(GENERATED_TOKEN, PropertyDefinition.PASSWORD.getString(firstProps));
+    assertEquals(GENERATED_TOKEN, PropertyDefinition.PASSWORD.getString(secondProps));
+    assertTrue(IamAuthConnectionPlugin.pendingTokens.isEmpty());
+  }
+
+  @Test
+  public void testFetchTokenUsesTokenCachedWhileWaiting() throws SQLException {
+    final IamAuthConnectionPlugin spyPlugin = Mockito.spy(new IamAuthConnectionPlugin(mockPluginService));
+    doReturn(GENERATED_TOKEN).when(spyPlugin)
+        .generateAuthenticationToken(any(), any(), anyString(), anyInt(), any());
+    IamAuthConnectionPlugin.tokenCache.put(PG_CACHE_KEY,
+        new TokenInfo(TEST_TOKEN, Instant.now().plusMillis(300000)));
+
+    final String token = spyPlugin.fetchToken(PG_CACHE_KEY, PG_HOST_SPEC, props,
+        PG_HOST_SPEC.getHost(), DEFAULT_PG_PORT, Region.US_EAST_2, 900, null);
+
+    assertEquals(TEST_TOKEN, token);
+    verify(spyPlugin, never()).generateAuthenticationToken(any(), any(), anyString(), anyInt(), any());
+  }
+
+  @Test
+  public void testFetchTokenReplacesRejectedToken() throws SQLException {
+    final IamAuthConnectionPlugin spyPlugin = Mockito.spy(new IamAuthConnectionPlugin(mockPluginService));
+    doReturn(GENERATED_TOKEN).when(spyPlugin)
+        .generateAuthenticationToken(any(), any(), anyString(), anyInt(), any());
+    IamAuthConnectionPlugin.tokenCache.put(PG_CACHE_KEY,
+        new TokenInfo(TEST_TOKEN, Instant.now().plusMillis(300000)));
+
+    final String token = spyPlugin.fetchToken(PG_CACHE_KEY, PG_HOST_SPEC, props,
+        PG_HOST_SPEC.getHost(), DEFAULT_PG_PORT, Region.US_EAST_2, 900, TEST_TOKEN);
+
+    assertEquals(GENERATED_TOKEN, token);
+    assertEquals(GENERATED_TOKEN, IamAuthConnectionPlugin.tokenCache.get(PG_CACHE_KEY).getToken());
+  }
+
+  @Test
+  public void testTokenRefreshRescheduledAfterError() {
+    when(mockTelemetryFactory.openTelemetryContext(anyString(), any()))
+        .thenThrow(new AssertionError("refresh error"));
+    final IamAuthConnectionPlugin.TokenRefreshTask refreshTask = new IamAuthConnectionPlugin.TokenRefreshTask(
+        PG_CACHE_KEY, PG_HOST_SPEC, props, PG_HOST_SPEC.getHost(), DEFAULT_PG_PORT, Region.US_EAST_2,
+        900, 10, mockTelemetryFactory, null, null);
+    refreshTask.lastUsedTimeNano = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+    IamAuthConnectionPlugin.tokenRefreshTasks.put(PG_CACHE_KEY, refreshTask);
+
+    try {
+      assertThrows(AssertionError.class, refreshTask::run);
+      verify(mockTelemetryFactory, timeout(5000).atLeast(2)).openTelemetryContext(anyString(), any());
+      assertEquals(refreshTask, IamAuthConnectionPlugin.tokenRefreshTasks.get(PG_CACHE_KEY));
+    } finally {
+      IamAuthConnectionPlugin.clearCache();
+    }
+  }
+
+  @Test
+  public void testTokenRefreshNotScheduledByDefault() throws SQLException {
+    when(mockDialect.getDefaultPort()).thenReturn(DEFAULT_PG_PORT);
+
+    testGenerateToken(PG_DRIVER_PROTOCOL, PG_HOST_SPEC);
+
+    assertFalse(IamAuthConnectionPlugin.tokenRefreshTasks.containsKey(PG_CACHE_KEY));
+  }
+
+  @Test
+  public void testTokenRefreshScheduledWithRefreshRatio() throws SQLException {
+    props.setProperty(IamAuthConnectionPlugin.IAM_TOKEN_REFRESH_RATIO.name, "0.75");
+    when(mockDialect.getDefaultPort()).thenReturn(DEFAULT_PG_PORT);
+
+    testGenerateToken(PG_DRIVER_PROTOCOL, PG_HOST_SPEC);
+
+    assertTrue(IamAuthConnectionPlugin.tokenRefreshTasks.containsKey(PG_CACHE_KEY));
+
+    IamAuthConnectionPlugin.clearCache();
+    assertTrue(IamAuthConnectionPlugin.tokenRefreshTasks.isEmpty());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"abc", "-0.5", "1", "1.5"})
+  public void testConnectWithInvalidRefreshRatio(final String refreshRatio) throws SQLException {
+    props.setProperty(IamAuthConnectionPlugin.IAM_TOKEN_REFRESH_RATIO.name, refreshRatio);
+
+    final IamAuthConnectionPlugin spyPlugin =
+        Mockito.spy(new IamAuthConnectionPlugin(mockPluginService, props));
+
+    final SQLException exception = assertThrows(SQLException.class,
+        () -> spyPlugin.connect(PG_DRIVER_PROTOCOL, PG_HOST_SPEC, props, true, mockLambda));
+    assertTrue(exception.getMessage().contains(refreshRatio));
+    verify(spyPlugin, never()).generateAuthenticationToken(any(), any(), anyString(), anyInt(), any());
+    verify(mockLambda, never()).call();
+    assertFalse(IamAuthConnectionPlugin.tokenCache.containsKey(PG_CACHE_KEY));
+  }
+
   @Test
   public void testAwsSupportedRegionsUrlExists() throws IOException {
     final URL url =
@@ -243,7 +391,7 @@ class IamAuthConnectionPluginTest {
       final String protocol,
       final HostSpec hostSpec,
       final String expectedHost) throws SQLException {
-    final IamAuthConnectionPlugin targetPlugin = new IamAuthConnectionPlugin(mockPluginService);
+    final IamAuthConnectionPlugin targetPlugin = new IamAuthConnectionPlugin(mockPluginService, props);
     final IamAuthConnectionPlugin spyPlugin = Mockito.spy(targetPlugin);
 
     doReturn(GENERATED_TOKEN).when(spyPlugin)
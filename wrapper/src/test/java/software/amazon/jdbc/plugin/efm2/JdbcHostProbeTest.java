@@ -0,0 +1,165 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.plugin.efm2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.util.telemetry.TelemetryContext;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+
+class JdbcHostProbeTest {
+
+  @Mock PluginService pluginService;
+  @Mock Connection connection;
+  @Mock TelemetryFactory telemetryFactory;
+  @Mock TelemetryContext telemetryContext;
+
+  private final HostSpec slowHost = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+      .host("slow-host").port(1234).build();
+  private final HostSpec fastHost = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+      .host("fast-host").port(1234).build();
+  private final Properties properties = new Properties();
+  private AutoCloseable closeable;
+
+  @BeforeEach
+  void init() {
+    closeable = MockitoAnnotations.openMocks(this);
+    when(pluginService.getTelemetryFactory()).thenReturn(telemetryFactory);
+    when(telemetryFactory.openTelemetryContext(anyString(), any())).thenReturn(telemetryContext);
+  }
+
+  @AfterEach
+  void cleanUp() throws Exception {
+    closeable.close();
+  }
+
+  @Test
+  void test_probe_opensMonitoringConnection() throws Exception {
+    properties.setProperty("user", "user");
+    properties.setProperty("monitoring-connectTimeout", "1000");
+    final ArgumentCaptor<Properties> connectProps = ArgumentCaptor.forClass(Properties.class);
+    when(pluginService.forceConnect(eq(fastHost), connectProps.capture())).thenReturn(connection);
+
+    final JdbcHostProbe probe = new JdbcHostProbe(pluginService, fastHost, properties);
+
+    assertTrue(probe.probe(1000).get(5, TimeUnit.SECONDS));
+    assertEquals("user", connectProps.getValue().getProperty("user"));
+    assertEquals("1000", connectProps.getValue().getProperty("connectTimeout"));
+    assertNull(connectProps.getValue().getProperty("monitoring-connectTimeout"));
+    verify(connection, never()).isValid(anyInt());
+  }
+
+  @Test
+  void test_probe_validatesOpenConnection() throws Exception {
+    when(pluginService.forceConnect(eq(fastHost), any(Properties.class))).thenReturn(connection);
+    when(connection.isValid(anyInt())).thenReturn(true, false);
+
+    final JdbcHostProbe probe = new JdbcHostProbe(pluginService, fastHost, properties);
+
+    assertTrue(probe.probe(3000).get(5, TimeUnit.SECONDS));
+    assertTrue(probe.probe(3000).get(5, TimeUnit.SECONDS));
+    assertFalse(probe.probe(3000).get(5, TimeUnit.SECONDS));
+    verify(pluginService, times(1)).forceConnect(eq(fastHost), any(Properties.class));
+    verify(connection, times(2)).isValid(3);
+  }
+
+  @Test
+  void test_probe_connectFails() throws Exception {
+    when(pluginService.forceConnect(eq(fastHost), any(Properties.class)))
+        .thenThrow(new SQLException("connection refused"));
+
+    final JdbcHostProbe probe = new JdbcHostProbe(pluginService, fastHost, properties);
+
+    assertFalse(probe.probe(1000).get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void test_close_closesMonitoringConnection() throws Exception {
+    when(pluginService.forceConnect(eq(fastHost), any(Properties.class))).thenReturn(connection);
+
+    final JdbcHostProbe probe = new JdbcHostProbe(pluginService, fastHost, properties);
+    assertTrue(probe.probe(1000).get(5, TimeUnit.SECONDS));
+    probe.close();
+
+    verify(connection, times(1)).close();
+  }
+
+  @Test
+  void test_slowHostDoesNotDelayOtherHosts() throws Exception {
+    // as many checks of a host that doesn't respond as the monitor scheduler has threads
+    final CountDownLatch slowHostResponds = new CountDownLatch(1);
+    when(pluginService.forceConnect(eq(slowHost), any(Properties.class)))
+        .thenAnswer((Answer<Connection>) invocation -> {
+          slowHostResponds.await();
+          return connection;
+        });
+    when(pluginService.forceConnect(eq(fastHost), any(Properties.class))).thenReturn(connection);
+
+    final List<JdbcHostProbe> slowProbes = new ArrayList<>();
+    final List<CompletableFuture<Boolean>> slowResults = new ArrayList<>();
+    final JdbcHostProbe fastProbe = new JdbcHostProbe(pluginService, fastHost, properties);
+    try {
+      for (int i = 0; i < MonitorExecutor.THREAD_COUNT; i++) {
+        final JdbcHostProbe slowProbe = new JdbcHostProbe(pluginService, slowHost, properties);
+        slowProbes.add(slowProbe);
+        slowResults.add(slowProbe.probe(1000));
+      }
+
+      assertTrue(fastProbe.probe(1000).get(5, TimeUnit.SECONDS));
+      for (final CompletableFuture<Boolean> slowResult : slowResults) {
+        assertFalse(slowResult.isDone());
+      }
+    } finally {
+      slowHostResponds.countDown();
+      fastProbe.close();
+      for (final JdbcHostProbe slowProbe : slowProbes) {
+        slowProbe.close();
+      }
+    }
+  }
+}
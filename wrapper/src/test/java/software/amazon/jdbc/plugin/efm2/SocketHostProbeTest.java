@@ -0,0 +1,214 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.plugin.efm2;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.dialect.AuroraPgDialect;
+import software.amazon.jdbc.dialect.Dialect;
+import software.amazon.jdbc.dialect.MariaDbDialect;
+import software.amazon.jdbc.dialect.MysqlDialect;
+import software.amazon.jdbc.dialect.PgDialect;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.plugin.efm2.SocketHostProbe.Handshake;
+
+class SocketHostProbeTest {
+
+  private static final int TIMEOUT_MILLIS = 5000;
+  private static final byte[] PG_SSL_REQUEST = {0, 0, 0, 8, 0x04, (byte) 0xd2, 0x16, 0x2f};
+
+  private final CountDownLatch releasePeer = new CountDownLatch(1);
+  private ServerSocket serverSocket;
+  private ExecutorService peerExecutor;
+  private HostSpec hostSpec;
+
+  @BeforeEach
+  void init() throws IOException {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    peerExecutor = Executors.newSingleThreadExecutor();
+    hostSpec = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+        .host(InetAddress.getLoopbackAddress().getHostAddress())
+        .port(serverSocket.getLocalPort())
+        .build();
+  }
+
+  @AfterEach
+  void cleanUp() throws IOException {
+    releasePeer.countDown();
+    peerExecutor.shutdownNow();
+    serverSocket.close();
+  }
+
+  @Test
+  void test_handshakeFromDialect() {
+    assertEquals(Handshake.POSTGRESQL, Handshake.fromDialect(new PgDialect()));
+    assertEquals(Handshake.POSTGRESQL, Handshake.fromDialect(new AuroraPgDialect()));
+    assertEquals(Handshake.MYSQL, Handshake.fromDialect(new MysqlDialect()));
+    assertEquals(Handshake.MYSQL, Handshake.fromDialect(new MariaDbDialect()));
+    assertEquals(Handshake.NONE, Handshake.fromDialect(mock(Dialect.class)));
+  }
+
+  @Test
+  void test_probe_postgresqlAnswersSslRequest() throws Exception {
+    final CompletableFuture<byte[]> receivedRequest = new CompletableFuture<>();
+    acceptOnce(socket -> {
+      final byte[] received = new byte[PG_SSL_REQUEST.length];
+      new DataInputStream(socket.getInputStream()).readFully(received);
+      receivedRequest.complete(received);
+      socket.getOutputStream().write('N');
+      socket.getOutputStream().flush();
+      awaitRelease();
+    });
+
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 5432, Handshake.POSTGRESQL);
+
+    assertTrue(probe.probe(TIMEOUT_MILLIS).get());
+    assertArrayEquals(PG_SSL_REQUEST, receivedRequest.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void test_probe_mysqlSendsGreeting() throws Exception {
+    acceptOnce(socket -> {
+      // The start of an initial handshake packet: the payload length, the sequence id and the protocol version.
+      socket.getOutputStream().write(new byte[] {0x4a, 0, 0, 0, 0x0a});
+      socket.getOutputStream().flush();
+      awaitRelease();
+    });
+
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 3306, Handshake.MYSQL);
+
+    assertTrue(probe.probe(TIMEOUT_MILLIS).get());
+  }
+
+  @Test
+  void test_probe_mysqlWithoutGreeting() throws Exception {
+    acceptOnce(socket -> awaitRelease());
+
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 3306, Handshake.MYSQL);
+
+    assertFalse(probe.probe(1000).get());
+  }
+
+  @Test
+  void test_probe_noHandshake() throws Exception {
+    acceptOnce(socket -> awaitRelease());
+
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 1234, Handshake.NONE);
+
+    assertTrue(probe.probe(TIMEOUT_MILLIS).get());
+  }
+
+  @Test
+  void test_probe_connectionRefused() throws Exception {
+    serverSocket.close();
+
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 1234, Handshake.NONE);
+
+    assertFalse(probe.probe(TIMEOUT_MILLIS).get());
+  }
+
+  @Test
+  void test_probe_peerClosesWithoutResponse() throws Exception {
+    acceptOnce(Socket::close);
+
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 3306, Handshake.MYSQL);
+
+    assertFalse(probe.probe(TIMEOUT_MILLIS).get());
+  }
+
+  @Test
+  void test_probe_unresolvedHost() throws Exception {
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 1234, Handshake.NONE) {
+      @Override
+      InetSocketAddress resolveAddress() {
+        return InetSocketAddress.createUnresolved("unknown-host", 1234);
+      }
+    };
+
+    assertFalse(probe.probe(TIMEOUT_MILLIS).get());
+  }
+
+  @Test
+  void test_probe_addressResolvedAgainOnlyAfterFailure() throws Exception {
+    final AtomicInteger lookupCount = new AtomicInteger();
+    final SocketHostProbe probe = new SocketHostProbe(hostSpec, 1234, Handshake.NONE) {
+      @Override
+      InetSocketAddress resolveAddress() {
+        lookupCount.incrementAndGet();
+        return super.resolveAddress();
+      }
+    };
+
+    acceptOnce(Socket::close);
+    assertTrue(probe.probe(TIMEOUT_MILLIS).get());
+    acceptOnce(Socket::close);
+    assertTrue(probe.probe(TIMEOUT_MILLIS).get());
+    assertEquals(1, lookupCount.get());
+
+    serverSocket.close();
+    assertFalse(probe.probe(TIMEOUT_MILLIS).get());
+    assertEquals(1, lookupCount.get());
+    assertFalse(probe.probe(TIMEOUT_MILLIS).get());
+    assertEquals(2, lookupCount.get());
+  }
+
+  private void acceptOnce(final PeerHandler handler) {
+    peerExecutor.submit(() -> {
+      try (Socket socket = serverSocket.accept()) {
+        handler.handle(socket);
+      } catch (final IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+  }
+
+  private void awaitRelease() {
+    try {
+      releasePeer.await();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @FunctionalInterface
+  private interface PeerHandler {
+    void handle(Socket socket) throws IOException;
+  }
+}
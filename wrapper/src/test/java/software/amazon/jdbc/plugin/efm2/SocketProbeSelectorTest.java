@@ -0,0 +1,137 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.plugin.efm2;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SocketProbeSelectorTest {
+
+  private static final long TIMEOUT_NANO = TimeUnit.SECONDS.toNanos(5);
+
+  private final CountDownLatch releasePeer = new CountDownLatch(1);
+  private ServerSocket serverSocket;
+  private ExecutorService peerExecutor;
+  private InetSocketAddress address;
+
+  @BeforeEach
+  void init() throws IOException {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    peerExecutor = Executors.newSingleThreadExecutor();
+    address = new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+  }
+
+  @AfterEach
+  void cleanUp() throws IOException {
+    releasePeer.countDown();
+    peerExecutor.shutdownNow();
+    serverSocket.close();
+  }
+
+  @Test
+  void test_probe_requestAnswered() throws Exception {
+    final byte[] request = {1, 2, 3, 4};
+    final CompletableFuture<byte[]> receivedRequest = new CompletableFuture<>();
+    acceptOnce(socket -> {
+      final byte[] received = new byte[request.length];
+      new DataInputStream(socket.getInputStream()).readFully(received);
+      receivedRequest.complete(received);
+      socket.getOutputStream().write('S');
+      socket.getOutputStream().flush();
+      awaitRelease();
+    });
+
+    assertTrue(SocketProbeSelector.getInstance().probe(address, request, true, TIMEOUT_NANO).get());
+    assertArrayEquals(request, receivedRequest.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void test_probe_connectedWithoutResponseExpected() throws Exception {
+    acceptOnce(socket -> awaitRelease());
+
+    assertTrue(SocketProbeSelector.getInstance().probe(address, null, false, TIMEOUT_NANO).get());
+  }
+
+  @Test
+  void test_probe_connectionRefused() throws Exception {
+    serverSocket.close();
+
+    assertFalse(SocketProbeSelector.getInstance().probe(address, null, false, TIMEOUT_NANO).get());
+  }
+
+  @Test
+  void test_probe_deadlineExpired() throws Exception {
+    acceptOnce(socket -> awaitRelease());
+
+    final long startTimeNano = System.nanoTime();
+    final boolean isAlive = SocketProbeSelector.getInstance()
+        .probe(address, null, true, TimeUnit.MILLISECONDS.toNanos(200))
+        .get();
+    final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNano);
+
+    assertFalse(isAlive);
+    assertTrue(durationMillis >= 200 && durationMillis < 5000);
+  }
+
+  @Test
+  void test_probe_peerClosesWithoutResponse() throws Exception {
+    acceptOnce(Socket::close);
+
+    assertFalse(SocketProbeSelector.getInstance().probe(address, null, true, TIMEOUT_NANO).get());
+  }
+
+  private void acceptOnce(final PeerHandler handler) {
+    peerExecutor.submit(() -> {
+      try (Socket socket = serverSocket.accept()) {
+        handler.handle(socket);
+      } catch (final IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+  }
+
+  private void awaitRelease() {
+    try {
+      releasePeer.await();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @FunctionalInterface
+  private interface PeerHandler {
+    void handle(Socket socket) throws IOException;
+  }
+}
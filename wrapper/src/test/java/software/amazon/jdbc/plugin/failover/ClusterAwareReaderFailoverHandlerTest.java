@@ -24,7 +24,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,6 +40,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -168,6 +176,132 @@ class ClusterAwareReaderFailoverHandlerTest {
     assertTrue(TimeUnit.NANOSECONDS.toMillis(durationNano) < 6000);
   }
 
+  @Test
+  public void testFailover_sharedFailoverResult() throws SQLException {
+    // another connection to the same cluster has found that only the host at index 3 can be connected to
+    // expected test result: successful connection for host at index 3, without connecting to other hosts
+    final List<HostSpec> hosts = defaultHosts;
+    final int currentHostIndex = 2;
+    final int successHostIndex = 3;
+    when(mockPluginService.forceConnect(hosts.get(successHostIndex), properties)).thenReturn(mockConnection);
+
+    final ReaderFailoverHandler target =
+        new ClusterAwareReaderFailoverHandler(
+            mockPluginService,
+            properties);
+
+    ClusterAwareReaderFailoverHandler.failoversInProgress.put(
+        hosts.get(0).getUrl(),
+        new FailoverInProgress(
+            CompletableFuture.completedFuture(Collections.singletonList(hosts.get(successHostIndex))),
+            DEFAULT_FAILOVER_TIMEOUT));
+    final ReaderFailoverResult result;
+    try {
+      result = target.failover(hosts, hosts.get(currentHostIndex));
+    } finally {
+      ClusterAwareReaderFailoverHandler.failoversInProgress.clear();
+    }
+
+    assertTrue(result.isConnected());
+    assertSame(mockConnection, result.getConnection());
+    assertEquals(hosts.get(successHostIndex), result.getHost());
+    verify(mockPluginService, times(1)).forceConnect(any(), any());
+  }
+
+  @Test
+  public void testFailover_sharedFailoverTimedOut() throws SQLException {
+    // another connection to the same cluster is failing over, but its process times out in 500ms
+    // expected test result: successful connection once that process has timed out, well before this
+    // connection's own failover timeout
+    final List<HostSpec> hosts = defaultHosts;
+    final int currentHostIndex = 2;
+    when(mockPluginService.forceConnect(any(), eq(properties))).thenReturn(mockConnection);
+
+    final ReaderFailoverHandler target =
+        new ClusterAwareReaderFailoverHandler(
+            mockPluginService,
+            properties);
+
+    ClusterAwareReaderFailoverHandler.failoversInProgress.put(
+        hosts.get(0).getUrl(), new FailoverInProgress(500));
+    final long startTimeNano = System.nanoTime();
+    final ReaderFailoverResult result;
+    try {
+      result = target.failover(hosts, hosts.get(currentHostIndex));
+    } finally {
+      ClusterAwareReaderFailoverHandler.failoversInProgress.clear();
+    }
+    final long durationNano = System.nanoTime() - startTimeNano;
+
+    assertTrue(result.isConnected());
+    assertSame(mockConnection, result.getConnection());
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(durationNano) < 5000);
+  }
+
+  @Test
+  public void testFailover_moreConcurrentFailoversThanThreads() throws Exception {
+    // more connections to different clusters fail over at the same time than the failover pools have threads,
+    // no failover process connects before as many of them as the coordinator pool can run have started,
+    // and each connection attempt takes 100ms
+    // expected test result: all connections fail over to a reader, without exceeding the coordinator pool bound
+    final int failoverCount = Math.max(FailoverExecutor.MAX_THREADS, FailoverExecutor.MAX_COORDINATOR_THREADS) + 16;
+    final CountDownLatch allStarted = new CountDownLatch(FailoverExecutor.MAX_COORDINATOR_THREADS);
+    when(mockPluginService.forceConnect(any(), eq(properties)))
+        .thenAnswer((Answer<Connection>) invocation -> {
+          Thread.sleep(100);
+          return mockConnection;
+        });
+
+    final ReaderFailoverHandler target =
+        new ClusterAwareReaderFailoverHandler(
+            mockPluginService,
+            properties,
+            5000,
+            DEFAULT_READER_CONNECT_TIMEOUT,
+            false) {
+          @Override
+          protected ReaderFailoverResult failoverInternal(final List<HostSpec> hosts, final HostSpec currentHost)
+              throws SQLException {
+            allStarted.countDown();
+            try {
+              allStarted.await();
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return FAILED_READER_FAILOVER_RESULT;
+            }
+            return super.failoverInternal(hosts, currentHost);
+          }
+        };
+
+    final ExecutorService callers = Executors.newFixedThreadPool(failoverCount);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<ReaderFailoverResult>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < failoverCount; i++) {
+        final List<HostSpec> hosts = Arrays.asList(
+            new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+                .host("writer-" + i).port(1234).role(HostRole.WRITER).build(),
+            new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+                .host("reader-a-" + i).port(1234).role(HostRole.READER).build(),
+            new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+                .host("reader-b-" + i).port(1234).role(HostRole.READER).build());
+        results.add(callers.submit(() -> {
+          start.await();
+          return target.failover(hosts, hosts.get(1));
+        }));
+      }
+      start.countDown();
+
+      for (final Future<ReaderFailoverResult> result : results) {
+        assertTrue(result.get(30, TimeUnit.SECONDS).isConnected());
+      }
+      assertTrue(((ThreadPoolExecutor) FailoverExecutor.getCoordinatorInstance()).getLargestPoolSize()
+          <= FailoverExecutor.MAX_COORDINATOR_THREADS);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
   @Test
   public void testFailover_nullOrEmptyHostList() throws SQLException {
     final ClusterAwareReaderFailoverHandler target =
@@ -274,6 +408,125 @@ class ClusterAwareReaderFailoverHandlerTest {
     assertNull(result.getHost());
   }
 
+  @Test
+  public void testGetReader_parallelAttempts() throws SQLException {
+    // all connection attempts start at the same time, the only fast host wins without waiting
+    // for the slow attempts to time out
+    // expected test result: successful connection for host at index 3
+    final List<HostSpec> hosts = defaultHosts.subList(0, 4); // 3 connection attempts (writer not attempted)
+    final HostSpec fastHost = hosts.get(3);
+    when(mockPluginService.forceConnect(any(), eq(properties)))
+        .thenAnswer(
+            (Answer<Connection>)
+                invocation -> {
+                  if (!fastHost.equals(invocation.getArgument(0))) {
+                    Thread.sleep(20000);
+                  }
+                  return mockConnection;
+                });
+
+    final ClusterAwareReaderFailoverHandler target =
+        new ClusterAwareReaderFailoverHandler(
+            mockPluginService,
+            properties,
+            DEFAULT_FAILOVER_TIMEOUT,
+            10000,
+            false,
+            3,
+            0,
+            0);
+
+    final long startTimeNano = System.nanoTime();
+    final ReaderFailoverResult result = target.getReaderConnection(hosts);
+    final long durationNano = System.nanoTime() - startTimeNano;
+
+    assertTrue(result.isConnected());
+    assertSame(mockConnection, result.getConnection());
+    assertEquals(fastHost, result.getHost());
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(durationNano) < 5000);
+  }
+
+  @Test
+  public void testGetReader_losingAttemptsClosed() throws SQLException {
+    // two attempts connect right away and only one of them wins, the third attempt ignores being
+    // cancelled and connects after the failover process has completed
+    // expected test result: the connections of both losing attempts are closed
+    final List<HostSpec> hosts = defaultHosts.subList(0, 4); // 3 connection attempts (writer not attempted)
+    final Connection fastConnection1 = mock(Connection.class);
+    final Connection fastConnection2 = mock(Connection.class);
+    final Connection lateConnection = mock(Connection.class);
+    // All attempts start connecting before any of them returns.
+    final CountDownLatch attemptsStarted = new CountDownLatch(3);
+    when(mockPluginService.forceConnect(any(), eq(properties)))
+        .thenAnswer(
+            (Answer<Connection>)
+                invocation -> {
+                  // Attempts that have already started connecting aren't interrupted by cancellation.
+                  attemptsStarted.countDown();
+                  while (attemptsStarted.getCount() > 0) {
+                    Thread.yield();
+                  }
+                  if (hosts.get(2).equals(invocation.getArgument(0))) {
+                    return fastConnection1;
+                  }
+                  if (hosts.get(3).equals(invocation.getArgument(0))) {
+                    return fastConnection2;
+                  }
+                  final long endTimeNano = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+                  while (System.nanoTime() < endTimeNano) {
+                    try {
+                      TimeUnit.NANOSECONDS.sleep(endTimeNano - System.nanoTime());
+                    } catch (InterruptedException exception) {
+                      // ignore, as a driver blocked on the network would
+                    }
+                  }
+                  return lateConnection;
+                });
+
+    final ClusterAwareReaderFailoverHandler target =
+        new ClusterAwareReaderFailoverHandler(
+            mockPluginService,
+            properties,
+            DEFAULT_FAILOVER_TIMEOUT,
+            10000,
+            false,
+            3,
+            0,
+            0);
+    final ReaderFailoverResult result = target.getReaderConnection(hosts);
+
+    assertTrue(result.isConnected());
+    final Connection losingConnection =
+        result.getConnection() == fastConnection1 ? fastConnection2 : fastConnection1;
+    verify(losingConnection, timeout(5000)).close();
+    verify(lateConnection, timeout(5000)).close();
+    verify(result.getConnection(), never()).close();
+  }
+
+  @Test
+  public void testGetReaderHostsByPriority_slowHostsLast() {
+    final List<HostSpec> hosts = defaultHosts.subList(0, 4);
+    final HostSpec slowHost = hosts.get(1);
+    ClusterAwareReaderFailoverHandler.hostConnectTimesNano.put(
+        slowHost.getUrl(), TimeUnit.SECONDS.toNanos(2), TimeUnit.MINUTES.toNanos(5));
+    ClusterAwareReaderFailoverHandler.hostConnectTimesNano.put(
+        hosts.get(2).getUrl(), TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MINUTES.toNanos(5));
+
+    try {
+      final ClusterAwareReaderFailoverHandler target =
+          new ClusterAwareReaderFailoverHandler(
+              mockPluginService,
+              properties);
+      for (int i = 0; i < 10; i++) {
+        final List<HostSpec> hostsByPriority = target.getReaderHostsByPriority(hosts);
+        assertEquals(3, hostsByPriority.size());
+        assertEquals(slowHost, hostsByPriority.get(2));
+      }
+    } finally {
+      ClusterAwareReaderFailoverHandler.hostConnectTimesNano.clear();
+    }
+  }
+
   @Test
   public void testGetHostTuplesByPriority() {
     final List<HostSpec> originalHosts = defaultHosts;
@@ -24,6 +24,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +34,7 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +50,7 @@ import software.amazon.jdbc.HostSpecBuilder;
 import software.amazon.jdbc.PluginService;
 import software.amazon.jdbc.hostavailability.HostAvailability;
 import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.hostlistprovider.RdsHostListProvider;
 
 class ClusterAwareWriterFailoverHandlerTest {
 
@@ -381,4 +384,95 @@ class ClusterAwareWriterFailoverHandlerTest {
     verify(mockPluginService, atLeastOnce())
         .setAvailability(eq(newWriterHost.asAliases()), eq(HostAvailability.NOT_AVAILABLE));
   }
+
+  /**
+   * Verify that writer failover handler uses the result of a failover process in progress for the same cluster.
+   *
+   * <p>Topology: another connection has found [new-writer, reader-A, reader-B].
+   * Expected test result: new connection to the new writer, without running the failover tasks.
+   */
+  @Test
+  public void testConnectToNewWriter_sharedFailoverResult() throws SQLException {
+    when(mockPluginService.forceConnect(refEq(newWriterHost), eq(properties))).thenReturn(mockNewWriterConnection);
+
+    final ClusterAwareWriterFailoverHandler target =
+        new ClusterAwareWriterFailoverHandler(
+            mockPluginService,
+            mockReaderFailover,
+            properties,
+            5000,
+            2000,
+            2000);
+
+    ClusterAwareWriterFailoverHandler.failoversInProgress.put(
+        writer.getUrl(), new FailoverInProgress(CompletableFuture.completedFuture(newTopology), 5000));
+    final WriterFailoverResult result;
+    try {
+      result = target.failover(topology);
+    } finally {
+      ClusterAwareWriterFailoverHandler.failoversInProgress.clear();
+    }
+
+    assertTrue(result.isConnected());
+    assertTrue(result.isNewHost());
+    assertSame(result.getNewConnection(), mockNewWriterConnection);
+    assertEquals(newTopology, result.getTopology());
+
+    verify(mockPluginService, never()).forceConnect(refEq(writer), any());
+    verify(mockReaderFailover, never()).getReaderConnection(any());
+  }
+
+  /**
+   * Verify that writer failover handler connects to a new writer as soon as another thread updates
+   * the cached topology, without waiting for its own next topology refresh.
+   *
+   * <p>Topology: no changes seen by taskB, another thread caches [new-writer, reader-A, reader-B].
+   * TaskA: re-connecting to initial writer takes longer than the failover timeout.
+   * TaskB: successfully connect to readerA and then to new-writer after the topology update.
+   * Expected test result: new connection to writer by taskB, before the next topology refresh.
+   */
+  @Test
+  public void testConnectToNewWriter_topologyUpdateNotification() throws SQLException {
+    when(mockPluginService.forceConnect(refEq(writer), eq(properties)))
+        .thenAnswer(
+            (Answer<Connection>)
+                invocation -> {
+                  Thread.sleep(30000);
+                  return mockWriterConnection;
+                });
+    when(mockPluginService.forceConnect(refEq(newWriterHost), eq(properties))).thenReturn(mockNewWriterConnection);
+    when(mockPluginService.getHosts()).thenReturn(topology);
+
+    when(mockReaderFailover.getReaderConnection(ArgumentMatchers.anyList()))
+        .thenAnswer(
+            (Answer<ReaderFailoverResult>)
+                invocation -> {
+                  RdsHostListProvider.updateTopologyCache("test-cluster", newTopology, TimeUnit.MINUTES.toNanos(1));
+                  return new ReaderFailoverResult(mockReaderAConnection, readerA, true);
+                });
+
+    final ClusterAwareWriterFailoverHandler target =
+        new ClusterAwareWriterFailoverHandler(
+            mockPluginService,
+            mockReaderFailover,
+            properties,
+            10000,
+            30000,
+            30000);
+
+    final long startTimeNano = System.nanoTime();
+    final WriterFailoverResult result;
+    try {
+      result = target.failover(topology);
+    } finally {
+      RdsHostListProvider.topologyCache.remove("test-cluster");
+    }
+    final long durationNano = System.nanoTime() - startTimeNano;
+
+    assertTrue(result.isConnected());
+    assertTrue(result.isNewHost());
+    assertSame(result.getNewConnection(), mockNewWriterConnection);
+    assertEquals(newTopology, result.getTopology());
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(durationNano) < 5000);
+  }
 }
@@ -69,6 +69,7 @@ import software.amazon.jdbc.util.telemetry.TelemetryContext;
 import software.amazon.jdbc.util.telemetry.TelemetryCounter;
 import software.amazon.jdbc.util.telemetry.TelemetryFactory;
 import software.amazon.jdbc.util.telemetry.TelemetryGauge;
+import software.amazon.jdbc.util.telemetry.TelemetryHistogram;
 
 class FailoverConnectionPluginTest {
 
@@ -91,6 +92,7 @@ class FailoverConnectionPluginTest {
   @Mock TelemetryContext mockTelemetryContext;
   @Mock TelemetryCounter mockTelemetryCounter;
   @Mock TelemetryGauge mockTelemetryGauge;
+  @Mock TelemetryHistogram mockTelemetryHistogram;
 
   private final Properties properties = new Properties();
   private FailoverConnectionPlugin plugin;
@@ -120,6 +122,7 @@ class FailoverConnectionPluginTest {
     when(mockTelemetryFactory.createCounter(anyString())).thenReturn(mockTelemetryCounter);
     // noinspection unchecked
     when(mockTelemetryFactory.createGauge(anyString(), any(GaugeCallable.class))).thenReturn(mockTelemetryGauge);
+    when(mockTelemetryFactory.createHistogram(anyString())).thenReturn(mockTelemetryHistogram);
 
     properties.clear();
   }
@@ -0,0 +1,100 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.plugin.strategy.fastestresponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+import software.amazon.jdbc.util.telemetry.TelemetryContext;
+import software.amazon.jdbc.util.telemetry.TelemetryFactory;
+
+class NodeResponseTimeMonitorTest {
+
+  @Mock PluginService pluginService;
+  @Mock TelemetryFactory telemetryFactory;
+  @Mock TelemetryContext telemetryContext;
+
+  private final HostSpec hostSpec = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+      .host("instance-1").port(5432).build();
+  private AutoCloseable closeable;
+  private NodeResponseTimeMonitor monitor;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    closeable = MockitoAnnotations.openMocks(this);
+    when(pluginService.getTelemetryFactory()).thenReturn(telemetryFactory);
+    when(telemetryFactory.openTelemetryContext(anyString(), any())).thenReturn(telemetryContext);
+    // The monitoring thread doesn't measure anything, so only the test updates the response time.
+    when(pluginService.forceConnect(any(), any())).thenThrow(new SQLException("connection refused"));
+    monitor = new NodeResponseTimeMonitor(pluginService, hostSpec, new Properties(), 10);
+  }
+
+  @AfterEach
+  void cleanUp() throws Exception {
+    monitor.close();
+    closeable.close();
+  }
+
+  @Test
+  void testSmoothedResponseTime_notMeasured() {
+    assertEquals(Long.MAX_VALUE, monitor.getSmoothedResponseTimeNano());
+  }
+
+  @Test
+  void testSmoothedResponseTime_firstMeasurement() {
+    monitor.updateSmoothedResponseTime(1000);
+
+    assertEquals(1000, monitor.getSmoothedResponseTimeNano());
+  }
+
+  @Test
+  void testSmoothedResponseTime_movesTowardsLatestMeasurement() {
+    monitor.updateSmoothedResponseTime(1000);
+
+    // 1000 + 0.3 * (2000 - 1000)
+    monitor.updateSmoothedResponseTime(2000);
+    assertEquals(1300, monitor.getSmoothedResponseTimeNano());
+
+    // 1300 + 0.3 * (300 - 1300)
+    monitor.updateSmoothedResponseTime(300);
+    assertEquals(1000, monitor.getSmoothedResponseTimeNano());
+  }
+
+  @Test
+  void testSmoothedResponseTime_converges() {
+    monitor.updateSmoothedResponseTime(1000000);
+    for (int i = 0; i < 50; i++) {
+      monitor.updateSmoothedResponseTime(2000);
+    }
+
+    assertEquals(2000, monitor.getSmoothedResponseTimeNano(), 10);
+  }
+}
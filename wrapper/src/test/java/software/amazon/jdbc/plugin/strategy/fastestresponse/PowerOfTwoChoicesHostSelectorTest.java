@@ -0,0 +1,178 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package software.amazon.jdbc.plugin.strategy.fastestresponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import software.amazon.jdbc.HostRole;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+
+class PowerOfTwoChoicesHostSelectorTest {
+
+  private static final int TEST_PORT = 5432;
+  // Two eligible hosts are always both sampled, so the selection only depends on their scores.
+  private static final int SELECTION_COUNT = 20;
+
+  @Mock HostResponseTimeService hostResponseTimeService;
+
+  private final HostSpec writerHostSpec = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+      .host("instance-0").port(TEST_PORT).role(HostRole.WRITER).build();
+  private final HostSpec readerHostSpec1 = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+      .host("instance-1").port(TEST_PORT).role(HostRole.READER).build();
+  private final HostSpec readerHostSpec2 = new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+      .host("instance-2").port(TEST_PORT).role(HostRole.READER).build();
+  private final List<HostSpec> hosts = Arrays.asList(writerHostSpec, readerHostSpec1, readerHostSpec2);
+  private final Map<HostSpec, Integer> inFlightConnects = new HashMap<>();
+  private final Properties props = new Properties();
+
+  private AutoCloseable closeable;
+  private PowerOfTwoChoicesHostSelector selector;
+
+  @BeforeEach
+  void setUp() {
+    closeable = MockitoAnnotations.openMocks(this);
+    selector = new PowerOfTwoChoicesHostSelector(
+        hostResponseTimeService,
+        hostSpec -> inFlightConnects.getOrDefault(hostSpec, 0));
+    setResponseTime(writerHostSpec, 1000);
+    setResponseTime(readerHostSpec1, 1000);
+    setResponseTime(readerHostSpec2, 1000);
+  }
+
+  @AfterEach
+  void cleanUp() throws Exception {
+    closeable.close();
+  }
+
+  @Test
+  void testGetHost_singleEligibleHost() throws SQLException {
+    setResponseTime(writerHostSpec, 1);
+    setResponseTime(readerHostSpec1, Long.MAX_VALUE);
+
+    final List<HostSpec> singleReaderHosts = Arrays.asList(writerHostSpec, readerHostSpec1);
+    for (int i = 0; i < SELECTION_COUNT; i++) {
+      assertEquals(readerHostSpec1, selector.getHost(singleReaderHosts, HostRole.READER, props));
+    }
+  }
+
+  @Test
+  void testGetHost_noHostMatchingRole() {
+    assertThrows(
+        SQLException.class,
+        () -> selector.getHost(Collections.singletonList(writerHostSpec), HostRole.READER, props));
+  }
+
+  @Test
+  void testGetHost_lowerResponseTime() throws SQLException {
+    setResponseTime(readerHostSpec1, 2000);
+    setResponseTime(readerHostSpec2, 1000);
+
+    assertSelected(readerHostSpec2);
+  }
+
+  @Test
+  void testGetHost_unmeasuredHost() throws SQLException {
+    setResponseTime(readerHostSpec1, Long.MAX_VALUE);
+    setResponseTime(readerHostSpec2, 1000000);
+
+    assertSelected(readerHostSpec2);
+  }
+
+  @Test
+  void testGetHost_unmeasuredHostsRankedByInFlightConnects() throws SQLException {
+    setResponseTime(readerHostSpec1, Long.MAX_VALUE);
+    setResponseTime(readerHostSpec2, Long.MAX_VALUE);
+    inFlightConnects.put(readerHostSpec2, 2);
+
+    assertSelected(readerHostSpec1);
+  }
+
+  @Test
+  void testGetHost_inFlightConnects() throws SQLException {
+    // scores: (1000 + 1) * (3 + 1) for the first reader and (2000 + 1) * (0 + 1) for the second one
+    setResponseTime(readerHostSpec1, 1000);
+    setResponseTime(readerHostSpec2, 2000);
+    inFlightConnects.put(readerHostSpec1, 3);
+
+    assertSelected(readerHostSpec2);
+  }
+
+  @Test
+  void testGetHost_hostWeights() throws SQLException {
+    // scores: (1000 + 1) / 1 for the first reader and (2000 + 1) / 4 for the second one
+    setResponseTime(readerHostSpec1, 1000);
+    setResponseTime(readerHostSpec2, 2000);
+    props.setProperty(PowerOfTwoChoicesHostSelector.P2C_HOST_WEIGHT_PAIRS.name, "instance-1:1,instance-2:4");
+
+    assertSelected(readerHostSpec2);
+  }
+
+  @Test
+  void testGetHost_hostWithoutWeightUsesDefaultWeight() throws SQLException {
+    // scores: (1000 + 1) / 1 for the first reader, which has no weight, and (2000 + 1) / 3 for the second one
+    setResponseTime(readerHostSpec1, 1000);
+    setResponseTime(readerHostSpec2, 2000);
+    props.setProperty(PowerOfTwoChoicesHostSelector.P2C_HOST_WEIGHT_PAIRS.name, "instance-2:3");
+
+    assertSelected(readerHostSpec2);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "instance-1",
+      "instance-1:",
+      ":3",
+      "instance-1:0",
+      "instance-1:-1",
+      "instance-1:a",
+      "instance-1:1,instance-2",
+      "instance-1:99999999999"})
+  void testGetHost_invalidHostWeightPairs(final String hostWeightPairs) {
+    props.setProperty(PowerOfTwoChoicesHostSelector.P2C_HOST_WEIGHT_PAIRS.name, hostWeightPairs);
+
+    assertThrows(SQLException.class, () -> selector.getHost(hosts, HostRole.READER, props));
+  }
+
+  private void setResponseTime(final HostSpec hostSpec, final long responseTimeNano) {
+    when(hostResponseTimeService.getSmoothedResponseTimeNano(hostSpec)).thenReturn(responseTimeNano);
+  }
+
+  private void assertSelected(final HostSpec expectedHostSpec) throws SQLException {
+    for (int i = 0; i < SELECTION_COUNT; i++) {
+      assertEquals(expectedHostSpec, selector.getHost(hosts, HostRole.READER, props));
+    }
+  }
+}
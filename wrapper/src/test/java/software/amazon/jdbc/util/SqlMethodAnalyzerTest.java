@@ -201,6 +201,11 @@ class SqlMethodAnalyzerTest {
         Arguments.of("Statement.executeUpdate", " INSERT INTO test_table VALUES (1) ; ", false,
             true),
         Arguments.of("Statement.executeUpdate", " set autocommit = 1 ", false, false),
+        Arguments.of("Statement.execute", "-- comment\nBEGIN;", true, true),
+        Arguments.of("Statement.execute", "/* multi\nline */\n\tbegin", true, true),
+        Arguments.of("Statement.executeQuery", "BEGINNING_OF_TIME()", true, false),
+        Arguments.of("Statement.executeQuery", "STARTED", true, false),
+        Arguments.of("Statement.executeQuery", "SETTINGS", false, true),
         Arguments.of("Connection.commit", null, false, false)
     );
   }
@@ -212,6 +217,8 @@ class SqlMethodAnalyzerTest {
         Arguments.of("Statement.executeUpdate", "end", true),
         Arguments.of("Statement.executeUpdate", "abort;", true),
         Arguments.of("Statement.execute", "select 1", false),
+        Arguments.of("Statement.execute", "-- comment\n  COMMIT", true),
+        Arguments.of("Statement.execute", "ENDPOINT()", false),
         Arguments.of("Statement.close", null, false),
         Arguments.of("Statement.isClosed", null, false),
         Arguments.of("Connection.commit", null, true),
@@ -226,7 +233,9 @@ class SqlMethodAnalyzerTest {
         Arguments.of("Connection.commit", null, false),
         Arguments.of("Statement.execute", " START  TRANSACTION   READ  ONLY", false),
         Arguments.of("Statement.execute", "  set  autocommit = 1 ; ", true),
-        Arguments.of("Statement.executeUpdate", "SET AUTOCOMMIT TO OFF ;  ", true)
+        Arguments.of("Statement.executeUpdate", "SET AUTOCOMMIT TO OFF ;  ", true),
+        Arguments.of("Statement.execute", "/* comment */ SET -- comment\n AUTOCOMMIT = 0", true),
+        Arguments.of("Statement.execute", "SET AUTOCOMMITTED = 1", false)
     );
   }
 
@@ -239,7 +248,11 @@ class SqlMethodAnalyzerTest {
         Arguments.of("SET AUTOCOMMIT to 0", false),
         Arguments.of("set autoCOMMIT = on", true),
         Arguments.of("set autoCOMMIT TO trUE", true),
-        Arguments.of("  SeT  aUtOcommIT  = 1", true)
+        Arguments.of("  SeT  aUtOcommIT  = 1", true),
+        Arguments.of("SET AUTOCOMMIT=0;", false),
+        Arguments.of("SET /* comment */ AUTOCOMMIT = ON -- comment", true),
+        Arguments.of("SET AUTOCOMMIT = 1, x", null),
+        Arguments.of("SET AUTOCOMMIT = ONE", null)
     );
   }
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package software.amazon.jdbc.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+  private static final long TICK_NANO = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long START_NANO = 123_456_789L;
+
+  @Test
+  public void testAdvance_returnsItemsAtDeadline() {
+    final TimingWheel<String> wheel = new TimingWheel<>(TICK_NANO, START_NANO);
+    wheel.add(START_NANO + TICK_NANO * 5, "a");
+    wheel.add(START_NANO + TICK_NANO * 5 + 1, "b");
+    wheel.add(START_NANO + TICK_NANO * 100, "c");
+    assertEquals(3, wheel.size());
+
+    final List<String> expired = new ArrayList<>();
+    assertEquals(0, wheel.advance(START_NANO + TICK_NANO * 5 - 1, expired::add));
+    assertEquals(1, wheel.advance(START_NANO + TICK_NANO * 5, expired::add));
+    assertEquals(Collections.singletonList("a"), expired);
+
+    // Items are not returned before their deadline, and at most one tick after it.
+    assertEquals(1, wheel.advance(START_NANO + TICK_NANO * 6, expired::add));
+    assertEquals(Arrays.asList("a", "b"), expired);
+    assertEquals(1, wheel.size());
+  }
+
+  @Test
+  public void testAdvance_itemsInHigherLevels() {
+    final TimingWheel<Long> wheel = new TimingWheel<>(TICK_NANO, START_NANO);
+    final long[] ticks = {63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 300_000, 20_000_000};
+    for (final long tick : ticks) {
+      wheel.add(START_NANO + tick * TICK_NANO, tick);
+    }
+
+    final List<Long> expired = new ArrayList<>();
+    for (final long tick : ticks) {
+      wheel.advance(START_NANO + (tick - 1) * TICK_NANO, expired::add);
+      assertEquals(0, expired.size());
+      wheel.advance(START_NANO + tick * TICK_NANO, expired::add);
+      assertEquals(Collections.singletonList(tick), expired);
+      expired.clear();
+    }
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  public void testAdd_pastDeadline() {
+    final TimingWheel<String> wheel = new TimingWheel<>(TICK_NANO, START_NANO);
+    wheel.advance(START_NANO + TICK_NANO * 10, item -> { });
+    wheel.add(START_NANO, "a");
+
+    final List<String> expired = new ArrayList<>();
+    assertEquals(1, wheel.advance(START_NANO + TICK_NANO * 10, expired::add));
+    assertEquals(Collections.singletonList("a"), expired);
+  }
+
+  @Test
+  public void testAdvance_consumerAddsItems() {
+    final TimingWheel<Integer> wheel = new TimingWheel<>(TICK_NANO, START_NANO);
+    wheel.add(START_NANO + TICK_NANO, 1);
+
+    final List<Integer> expired = new ArrayList<>();
+    wheel.advance(START_NANO + TICK_NANO, item -> {
+      expired.add(item);
+      wheel.add(START_NANO + TICK_NANO * 2, item + 1);
+    });
+    assertEquals(Collections.singletonList(1), expired);
+
+    wheel.advance(START_NANO + TICK_NANO * 2, expired::add);
+    assertEquals(Arrays.asList(1, 2), expired);
+  }
+
+  @Test
+  public void testClear() {
+    final TimingWheel<String> wheel = new TimingWheel<>(TICK_NANO, START_NANO);
+    wheel.add(START_NANO + TICK_NANO, "a");
+    wheel.add(START_NANO + TICK_NANO * 10_000, "b");
+    wheel.clear();
+
+    assertTrue(wheel.isEmpty());
+    assertEquals(0, wheel.advance(START_NANO + TICK_NANO * 20_000, item -> { }));
+  }
+}